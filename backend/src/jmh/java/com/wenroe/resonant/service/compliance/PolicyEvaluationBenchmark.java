@@ -0,0 +1,204 @@
+package com.wenroe.resonant.service.compliance;
+
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.model.entity.TagPolicy;
+import com.wenroe.resonant.service.compliance.CompiledPolicySet.CompiledPolicy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares evaluating a scan's resources against its policies with a compiled policy set versus
+ * the previous approach of looping over every policy per resource with list lookups and
+ * per-pair detail maps. Only the in-memory checks are measured; violation persistence is not.
+ * <p>
+ * Resources get mostly compliant tags ({@code compliantPercent}), as in a well-tagged account.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PolicyEvaluationBenchmark {
+
+  private static final List<String> RESOURCE_TYPES = List.of(
+      "s3:bucket", "ec2:vpc", "ec2:instance", "rds:db-instance", "rds:db-cluster",
+      "cloudfront:distribution", "lambda:function", "dynamodb:table", "sqs:queue", "sns:topic");
+
+  private static final List<String> TAG_KEYS = List.of(
+      "Environment", "Owner", "CostCenter", "Team", "Application", "DataClass", "Compliance",
+      "Backup", "Project", "Service");
+
+  @Param("100")
+  private int policyCount;
+
+  @Param("100000")
+  private int resourceCount;
+
+  @Param("90")
+  private int compliantPercent;
+
+  private List<TagPolicy> policies;
+  private List<AwsResource> resources;
+  private CompiledPolicySet compiledPolicies;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+
+    policies = new ArrayList<>(policyCount);
+    for (int i = 0; i < policyCount; i++) {
+      Map<String, List<String>> requiredTags = new HashMap<>();
+      int tagCount = 2 + random.nextInt(4);
+      for (int t = 0; t < tagCount; t++) {
+        String key = TAG_KEYS.get(random.nextInt(TAG_KEYS.size()));
+        // Roughly a third of the required tags accept any value
+        requiredTags.put(key, random.nextInt(3) == 0 ? null : allowedValues(key));
+      }
+
+      List<String> resourceTypes = new ArrayList<>();
+      int typeCount = 1 + random.nextInt(3);
+      for (int t = 0; t < typeCount; t++) {
+        resourceTypes.add(RESOURCE_TYPES.get(random.nextInt(RESOURCE_TYPES.size())));
+      }
+
+      TagPolicy policy = new TagPolicy();
+      policy.setId(UUID.randomUUID());
+      policy.setName("policy-" + i);
+      policy.setRequiredTags(requiredTags);
+      policy.setResourceTypes(resourceTypes);
+      policies.add(policy);
+    }
+
+    resources = new ArrayList<>(resourceCount);
+    for (int i = 0; i < resourceCount; i++) {
+      Map<String, String> tags = new HashMap<>();
+      boolean compliant = random.nextInt(100) < compliantPercent;
+      for (String key : TAG_KEYS) {
+        if (compliant || random.nextBoolean()) {
+          // Valid for every policy in the compliant case; sometimes invalid otherwise
+          tags.put(key, compliant || random.nextBoolean() ? key.toLowerCase() + "-1" : "other");
+        }
+      }
+
+      AwsResource resource = new AwsResource();
+      resource.setResourceId("resource-" + i);
+      resource.setResourceType(RESOURCE_TYPES.get(random.nextInt(RESOURCE_TYPES.size())));
+      resource.setTags(tags);
+      resources.add(resource);
+    }
+
+    compiledPolicies = CompiledPolicySet.compile(policies);
+  }
+
+  /**
+   * Compiles the policies once, then checks each resource against its type's policies, building
+   * details only for failures.
+   */
+  @Benchmark
+  public void compiledPolicySet(Blackhole blackhole) {
+    CompiledPolicySet policySet = CompiledPolicySet.compile(policies);
+    for (AwsResource resource : resources) {
+      for (CompiledPolicy policy : policySet.policiesFor(resource.getResourceType())) {
+        if (policy.isCompliant(resource.getTags())) {
+          blackhole.consume(true);
+        } else {
+          blackhole.consume(policy.violationDetails(resource.getTags()));
+        }
+      }
+    }
+  }
+
+  /**
+   * The compiled set without the per-scan compile cost, which a scan pays once.
+   */
+  @Benchmark
+  public void precompiledPolicySet(Blackhole blackhole) {
+    for (AwsResource resource : resources) {
+      for (CompiledPolicy policy : compiledPolicies.policiesFor(resource.getResourceType())) {
+        if (policy.isCompliant(resource.getTags())) {
+          blackhole.consume(true);
+        } else {
+          blackhole.consume(policy.violationDetails(resource.getTags()));
+        }
+      }
+    }
+  }
+
+  /**
+   * The previous evaluation loop: every policy for every resource, with the detail collections
+   * allocated for each applicable pair.
+   */
+  @Benchmark
+  public void policyLoop(Blackhole blackhole) {
+    for (AwsResource resource : resources) {
+      for (TagPolicy policy : policies) {
+        if (!policy.appliesToResourceType(resource.getResourceType())) {
+          continue;
+        }
+        blackhole.consume(evaluateWithLists(resource, policy));
+      }
+    }
+  }
+
+  private static Map<String, Object> evaluateWithLists(AwsResource resource, TagPolicy policy) {
+    Map<String, Object> violationDetails = new HashMap<>();
+    List<String> missingTags = new ArrayList<>();
+    Map<String, Map<String, Object>> invalidTags = new HashMap<>();
+
+    Map<String, String> resourceTags =
+        resource.getTags() != null ? resource.getTags() : new HashMap<>();
+
+    for (Map.Entry<String, List<String>> requiredTag : policy.getRequiredTags().entrySet()) {
+      String tagKey = requiredTag.getKey();
+      List<String> allowedValues = requiredTag.getValue();
+
+      if (!resourceTags.containsKey(tagKey)) {
+        missingTags.add(tagKey);
+      } else if (allowedValues != null && !allowedValues.isEmpty()) {
+        String currentValue = resourceTags.get(tagKey);
+        if (!allowedValues.contains(currentValue)) {
+          Map<String, Object> invalidTagInfo = new HashMap<>();
+          invalidTagInfo.put("current", currentValue);
+          invalidTagInfo.put("allowed", allowedValues);
+          invalidTags.put(tagKey, invalidTagInfo);
+        }
+      }
+    }
+
+    if (missingTags.isEmpty() && invalidTags.isEmpty()) {
+      return null;
+    }
+    if (!missingTags.isEmpty()) {
+      violationDetails.put("missingTags", missingTags);
+    }
+    if (!invalidTags.isEmpty()) {
+      violationDetails.put("invalidTags", invalidTags);
+    }
+    return violationDetails;
+  }
+
+  /**
+   * Allowed values for a tag key, with the value compliant resources carry listed last so list
+   * lookups scan the whole list.
+   */
+  private static List<String> allowedValues(String key) {
+    List<String> values = new ArrayList<>();
+    for (int v = 2; v <= 12; v++) {
+      values.add(key.toLowerCase() + "-" + v);
+    }
+    values.add(key.toLowerCase() + "-1");
+    return values;
+  }
+}
@@ -7,16 +7,19 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
- * Configuration for asynchronous execution of scan jobs.
+ * Configuration for asynchronous execution of scan jobs and policy re-evaluation.
  */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
   /**
-   * Thread pool for executing scan jobs asynchronously. - Core pool size: 2 (handles normal load) -
-   * Max pool size: 10 (handles burst traffic) - Queue capacity: 100 (queues additional scan
+   * Thread pool for dispatching scan jobs asynchronously. - Core pool size: 2 (handles normal load)
+   * - Max pool size: 10 (handles burst traffic) - Queue capacity: 100 (queues additional scan
    * requests)
+   * <p>
+   * Only scan roots run here: each thread drives one scan's phases and persistence, while all
+   * scanner, region and resource work runs on virtual threads in the ScanEngine.
    */
   @Bean(name = "scanExecutor")
   public Executor scanExecutor() {
@@ -30,4 +33,21 @@ public class AsyncConfig {
     executor.initialize();
     return executor;
   }
+
+  /**
+   * Single thread for re-evaluating policies after they change. Runs are serialized so two runs
+   * never reconcile the same policy's violations at once; each run works through resources in
+   * batches, so the queue only holds policy ids.
+   */
+  @Bean(name = "policyReevaluationExecutor")
+  public Executor policyReevaluationExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setThreadNamePrefix("policy-eval-");
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(60);
+    executor.initialize();
+    return executor;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.wenroe.resonant.config;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+
+/**
+ * Configuration for the HTTP client shared by all AWS SDK clients.
+ * <p>
+ * Every pooled SDK client built by the AwsClientFactory sends its requests through this one
+ * connection pool, so TLS connections to an AWS endpoint are reused across clients, regions and
+ * scans instead of being set up again by each new client. The SDK does not close an HTTP client it
+ * was given, so the pool lives until the application context shuts down.
+ */
+@Configuration
+public class AwsHttpClientConfig {
+
+  /**
+   * Shared Apache HTTP client. - Max connections: total across all AWS endpoints - Max idle time:
+   * pooled connections unused for this long are closed - Keep-alive: TCP keep-alive on pooled
+   * connections - Acquisition timeout: how long a request waits for a free connection
+   */
+  @Bean(destroyMethod = "close")
+  public SdkHttpClient awsHttpClient(
+      @Value("${resonant.aws.http.max-connections:500}") int maxConnections,
+      @Value("${resonant.aws.http.connection-max-idle-time:PT60S}") Duration maxIdleTime,
+      @Value("${resonant.aws.http.connection-acquisition-timeout:PT30S}")
+      Duration acquisitionTimeout,
+      @Value("${resonant.aws.http.tcp-keep-alive:true}") boolean tcpKeepAlive) {
+    return ApacheHttpClient.builder()
+        .maxConnections(maxConnections)
+        .connectionMaxIdleTime(maxIdleTime)
+        .connectionAcquisitionTimeout(acquisitionTimeout)
+        .tcpKeepAlive(tcpKeepAlive)
+        .useIdleConnectionReaper(true)
+        .build();
+  }
+}
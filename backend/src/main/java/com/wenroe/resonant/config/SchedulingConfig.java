@@ -0,0 +1,39 @@
+package com.wenroe.resonant.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Enables scheduled tasks, such as polling the durable scan job queue.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+  /**
+   * Default scheduler for polling, recovery and scheduled scans. Declared explicitly because any
+   * scheduler bean replaces the one Spring Boot would otherwise create.
+   */
+  @Bean(name = "taskScheduler")
+  public ThreadPoolTaskScheduler taskScheduler() {
+    return scheduler("scheduling-");
+  }
+
+  /**
+   * Dedicated thread for scan lease heartbeats, so they are never queued behind a slow task on the
+   * default scheduler while the leases they renew expire.
+   */
+  @Bean(name = "scanHeartbeatScheduler")
+  public ThreadPoolTaskScheduler scanHeartbeatScheduler() {
+    return scheduler("scan-heartbeat-");
+  }
+
+  private static ThreadPoolTaskScheduler scheduler(String threadNamePrefix) {
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(1);
+    scheduler.setThreadNamePrefix(threadNamePrefix);
+    return scheduler;
+  }
+}
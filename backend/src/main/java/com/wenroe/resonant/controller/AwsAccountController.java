@@ -7,12 +7,14 @@ import com.wenroe.resonant.dto.aws.ConnectionTestResponse;
 import com.wenroe.resonant.dto.aws.ExternalIdResponse;
 import com.wenroe.resonant.dto.aws.UpdateAliasRequest;
 import com.wenroe.resonant.dto.aws.UpdateRegionsRequest;
+import com.wenroe.resonant.dto.aws.UpdateScanScheduleRequest;
 import com.wenroe.resonant.model.entity.AwsAccount;
 import com.wenroe.resonant.model.entity.AwsAccountRegion;
 import com.wenroe.resonant.model.entity.User;
 import com.wenroe.resonant.service.AwsAccountRegionService;
 import com.wenroe.resonant.service.AwsAccountService;
 import com.wenroe.resonant.service.aws.AwsConnectionTester;
+import com.wenroe.resonant.service.scan.ScanScheduleService;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -38,6 +40,7 @@ public class AwsAccountController {
 
   private final AwsAccountService awsAccountService;
   private final AwsAccountRegionService regionService;
+  private final ScanScheduleService scanScheduleService;
 
   @PostMapping("/external-id")
   public ResponseEntity<ExternalIdResponse> generateExternalId() {
@@ -116,6 +119,20 @@ public class AwsAccountController {
     return ResponseEntity.ok(AwsAccountResponse.fromEntity(updated));
   }
 
+  @PatchMapping("/{id}/scan-schedule")
+  public ResponseEntity<AwsAccountResponse> updateScanSchedule(
+      @AuthenticationPrincipal User user,
+      @PathVariable UUID id,
+      @RequestBody UpdateScanScheduleRequest request) {
+
+    log.info("Updating scan schedule for AWS account: {} (user: {})", id, user.getId());
+
+    AwsAccount updated = scanScheduleService.updateScanInterval(id, user.getId(),
+        request.getScanIntervalMinutes());
+
+    return ResponseEntity.ok(AwsAccountResponse.fromEntity(updated));
+  }
+
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteAccount(
       @AuthenticationPrincipal User user,
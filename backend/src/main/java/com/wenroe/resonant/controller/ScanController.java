@@ -1,15 +1,20 @@
 package com.wenroe.resonant.controller;
 
 import com.wenroe.resonant.dto.scan.ScanJobResponse;
+import com.wenroe.resonant.dto.scan.ScheduledScanResponse;
 import com.wenroe.resonant.model.entity.ScanJob;
 import com.wenroe.resonant.model.entity.User;
 import com.wenroe.resonant.service.ScanOrchestrationService;
+import com.wenroe.resonant.service.scan.ScanProgressBroadcaster;
+import com.wenroe.resonant.service.scan.ScanScheduleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -25,6 +30,8 @@ import java.util.stream.Collectors;
 public class ScanController {
 
     private final ScanOrchestrationService scanOrchestrationService;
+    private final ScanScheduleService scanScheduleService;
+    private final ScanProgressBroadcaster scanProgressBroadcaster;
 
     /**
      * Initiates a scan for an AWS account.
@@ -41,6 +48,16 @@ public class ScanController {
                 .body(ScanJobResponse.fromEntity(scanJob));
     }
 
+    /**
+     * Gets the upcoming scheduled scans for the authenticated user's accounts, soonest first.
+     */
+    @GetMapping("/schedule")
+    public ResponseEntity<List<ScheduledScanResponse>> getUpcomingSchedule(
+            @AuthenticationPrincipal User user) {
+
+        return ResponseEntity.ok(scanScheduleService.getUpcomingSchedule(user.getId()));
+    }
+
     /**
      * Gets a specific scan job by ID.
      */
@@ -59,6 +76,25 @@ public class ScanController {
         return ResponseEntity.ok(ScanJobResponse.fromEntity(scanJob));
     }
 
+    /**
+     * Streams live progress for a scan job as Server-Sent Events. The first event is a snapshot of
+     * the progress so far; the stream completes when the scan finishes.
+     */
+    @GetMapping(path = "/{scanJobId}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamScanProgress(
+            @AuthenticationPrincipal User user,
+            @PathVariable UUID scanJobId) {
+
+        ScanJob scanJob = scanOrchestrationService.getScanJob(scanJobId);
+
+        // Verify ownership
+        if (!scanJob.getUser().getId().equals(user.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return ResponseEntity.ok(scanProgressBroadcaster.subscribe(scanJob));
+    }
+
     /**
      * Gets all scan jobs for the authenticated user.
      */
@@ -1,11 +1,16 @@
 package com.wenroe.resonant.controller;
 
 import com.wenroe.resonant.dto.policy.CreateTagPolicyRequest;
+import com.wenroe.resonant.dto.policy.PolicyDryRunRequest;
+import com.wenroe.resonant.dto.policy.PolicyDryRunResponse;
+import com.wenroe.resonant.dto.policy.PolicyReevaluationResponse;
 import com.wenroe.resonant.dto.policy.TagPolicyResponse;
 import com.wenroe.resonant.dto.policy.UpdateTagPolicyRequest;
 import com.wenroe.resonant.model.entity.TagPolicy;
 import com.wenroe.resonant.model.entity.User;
 import com.wenroe.resonant.service.TagPolicyService;
+import com.wenroe.resonant.service.compliance.PolicyDryRunService;
+import com.wenroe.resonant.service.compliance.PolicyReevaluationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +33,8 @@ import java.util.stream.Collectors;
 public class TagPolicyController {
 
     private final TagPolicyService tagPolicyService;
+    private final PolicyReevaluationService policyReevaluationService;
+    private final PolicyDryRunService policyDryRunService;
 
     /**
      * Create a new tag policy.
@@ -52,6 +59,25 @@ public class TagPolicyController {
                 .body(TagPolicyResponse.fromEntity(created));
     }
 
+    /**
+     * Evaluate a candidate policy against the user's stored resources without saving it or any
+     * violations, to see what it would report before creating it.
+     */
+    @PostMapping("/dry-run")
+    public ResponseEntity<PolicyDryRunResponse> dryRunPolicy(
+            @AuthenticationPrincipal User user,
+            @Valid @RequestBody PolicyDryRunRequest request) {
+
+        log.info("Dry-running tag policy '{}' for user {}", request.getName(), user.getId());
+
+        TagPolicy candidate = new TagPolicy();
+        candidate.setName(request.getName());
+        candidate.setRequiredTags(request.getRequiredTags());
+        candidate.setResourceTypes(request.getResourceTypes());
+
+        return ResponseEntity.ok(policyDryRunService.dryRun(user.getId(), candidate));
+    }
+
     /**
      * Get all tag policies for the authenticated user.
      */
@@ -147,6 +173,28 @@ public class TagPolicyController {
         return ResponseEntity.ok(TagPolicyResponse.fromEntity(disabled));
     }
 
+    /**
+     * Get the progress of the latest re-evaluation of a policy against stored resources, which
+     * runs in the background after the policy is created, changed or enabled.
+     */
+    @GetMapping("/{id}/reevaluation")
+    public ResponseEntity<PolicyReevaluationResponse> getReevaluationStatus(
+            @AuthenticationPrincipal User user,
+            @PathVariable UUID id) {
+
+        TagPolicy policy = tagPolicyService.getPolicyById(id);
+
+        // Verify ownership
+        if (!policy.getUser().getId().equals(user.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return policyReevaluationService.getStatus(id)
+                .map(PolicyReevaluationResponse::fromStatus)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * Delete a tag policy.
      */
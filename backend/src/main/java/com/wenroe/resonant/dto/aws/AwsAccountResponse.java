@@ -15,6 +15,8 @@ public class AwsAccountResponse {
     private String credentialType;
     private String status;
     private LocalDateTime lastScanAt;
+    private Integer scanIntervalMinutes;
+    private LocalDateTime nextScanAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -27,6 +29,8 @@ public class AwsAccountResponse {
         response.setCredentialType(account.getCredentialType().name());
         response.setStatus(account.getStatus().name());
         response.setLastScanAt(account.getLastScanAt());
+        response.setScanIntervalMinutes(account.getScanIntervalMinutes());
+        response.setNextScanAt(account.getNextScanAt());
         response.setCreatedAt(account.getCreatedAt());
         response.setUpdatedAt(account.getUpdatedAt());
         return response;
@@ -0,0 +1,11 @@
+package com.wenroe.resonant.dto.aws;
+
+import lombok.Data;
+
+/**
+ * Request DTO for updating the scheduled scan interval. A null interval disables scheduled scans.
+ */
+@Data
+public class UpdateScanScheduleRequest {
+    private Integer scanIntervalMinutes;
+}
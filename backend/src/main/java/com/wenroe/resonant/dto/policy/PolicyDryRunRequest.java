@@ -0,0 +1,28 @@
+package com.wenroe.resonant.dto.policy;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A candidate policy to evaluate against stored resources without saving it.
+ */
+@Data
+public class PolicyDryRunRequest {
+
+    private String name;
+
+    /**
+     * Required tags with optional allowed values, as in {@link CreateTagPolicyRequest}.
+     */
+    @NotNull(message = "Required tags must be specified")
+    @NotEmpty(message = "At least one required tag must be specified")
+    private Map<String, List<String>> requiredTags;
+
+    @NotNull(message = "Resource types must be specified")
+    @NotEmpty(message = "At least one resource type must be specified")
+    private List<String> resourceTypes;
+}
@@ -0,0 +1,59 @@
+package com.wenroe.resonant.dto.policy;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * What a candidate policy would report against the user's stored resources. Nothing is saved.
+ */
+@Data
+public class PolicyDryRunResponse {
+
+    private long resourcesEvaluated;
+    private long violatingResources;
+    private List<AccountCounts> byAccount;
+    private Map<String, Counts> byRegion;
+    private Map<String, Counts> byResourceType;
+
+    /**
+     * Up to the configured sample size of violating resources, in no particular order.
+     */
+    private List<Violator> sampleViolators;
+
+    private long durationMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Counts {
+        private long evaluated;
+        private long violating;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AccountCounts {
+        private UUID accountId;
+        private String awsAccountId;
+        private String accountAlias;
+        private long evaluated;
+        private long violating;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Violator {
+        private UUID accountId;
+        private String region;
+        private String resourceType;
+        private String resourceArn;
+        private Map<String, Object> violationDetails;
+    }
+}
@@ -0,0 +1,42 @@
+package com.wenroe.resonant.dto.policy;
+
+import com.wenroe.resonant.service.compliance.PolicyReevaluationStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of re-evaluating a policy against stored resources after it changed.
+ */
+@Data
+public class PolicyReevaluationResponse {
+
+    private UUID policyId;
+    private String status;
+    private Long resourcesTotal;
+    private Long resourcesEvaluated;
+    private Integer violationsFound;
+    private Integer violationsOpened;
+    private Integer violationsReopened;
+    private Integer violationsResolved;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String errorMessage;
+
+    public static PolicyReevaluationResponse fromStatus(PolicyReevaluationStatus status) {
+        PolicyReevaluationResponse response = new PolicyReevaluationResponse();
+        response.setPolicyId(status.policyId());
+        response.setStatus(status.state().name());
+        response.setResourcesTotal(status.resourcesTotal());
+        response.setResourcesEvaluated(status.resourcesEvaluated());
+        response.setViolationsFound(status.violationsFound());
+        response.setViolationsOpened(status.violationsOpened());
+        response.setViolationsReopened(status.violationsReopened());
+        response.setViolationsResolved(status.violationsResolved());
+        response.setStartedAt(status.startedAt());
+        response.setFinishedAt(status.finishedAt());
+        response.setErrorMessage(status.errorMessage());
+        return response;
+    }
+}
@@ -16,6 +16,8 @@ public class ScanJobResponse {
     private Integer resourcesScanned;
     private Integer violationsFound;
     private Integer violationsResolved;
+    private Integer resourcesChanged;
+    private Integer resourcesUnchanged;
     private LocalDateTime startedAt;
     private LocalDateTime completedAt;
     private Long durationSeconds;
@@ -31,6 +33,8 @@ public class ScanJobResponse {
         response.setResourcesScanned(scanJob.getResourcesScanned());
         response.setViolationsFound(scanJob.getViolationsFound());
         response.setViolationsResolved(scanJob.getViolationsResolved());
+        response.setResourcesChanged(scanJob.getResourcesChanged());
+        response.setResourcesUnchanged(scanJob.getResourcesUnchanged());
         response.setStartedAt(scanJob.getStartedAt());
         response.setCompletedAt(scanJob.getCompletedAt());
         response.setDurationSeconds(scanJob.getDurationSeconds());
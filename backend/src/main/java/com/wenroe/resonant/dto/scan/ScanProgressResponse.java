@@ -0,0 +1,28 @@
+package com.wenroe.resonant.dto.scan;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Payload of a scan progress Server-Sent Event: the event that just happened plus the running
+ * totals for the scan so far.
+ */
+@Data
+public class ScanProgressResponse {
+
+    private UUID scanJobId;
+    private String event;
+    private String resourceType;
+    private String region;
+    private Integer count;
+    private LocalDateTime timestamp;
+
+    private String status;
+    private Integer scannersTotal;
+    private Integer scannersFinished;
+    private Integer resourcesPersisted;
+    private Integer violationsFound;
+    private String errorMessage;
+}
@@ -0,0 +1,29 @@
+package com.wenroe.resonant.dto.scan;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class ScheduledScanResponse {
+
+    private UUID accountId;
+    private String accountAlias;
+    private Integer scanIntervalMinutes;
+    private LocalDateTime nextScanAt;
+    private LocalDateTime lastScanAt;
+    private boolean scanInProgress;
+
+    public static ScheduledScanResponse fromEntity(AwsAccount account, boolean scanInProgress) {
+        ScheduledScanResponse response = new ScheduledScanResponse();
+        response.setAccountId(account.getId());
+        response.setAccountAlias(account.getAccountAlias());
+        response.setScanIntervalMinutes(account.getScanIntervalMinutes());
+        response.setNextScanAt(account.getNextScanAt());
+        response.setLastScanAt(account.getLastScanAt());
+        response.setScanInProgress(scanInProgress);
+        return response;
+    }
+}
@@ -52,6 +52,17 @@ public class AwsAccount {
     @Column(name = "last_scan_at")
     private LocalDateTime lastScanAt;
 
+    // Fingerprint of the enabled policies the last completed scan evaluated resources against
+    @Column(name = "evaluated_policy_set_hash", length = 64)
+    private String evaluatedPolicySetHash;
+
+    // Minutes between scheduled scans; null means the account is only scanned on demand
+    @Column(name = "scan_interval_minutes")
+    private Integer scanIntervalMinutes;
+
+    @Column(name = "next_scan_at")
+    private LocalDateTime nextScanAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -64,6 +75,10 @@ public class AwsAccount {
         return status == AwsAccountStatus.ACTIVE;
     }
 
+    public boolean isScheduled() {
+        return scanIntervalMinutes != null;
+    }
+
     public boolean usesRole() {
         return credentialType == CredentialType.ROLE;
     }
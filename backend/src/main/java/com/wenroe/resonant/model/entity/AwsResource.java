@@ -68,6 +68,13 @@ public class AwsResource {
   @Column
   private Map<String, Object> metadata;
 
+  /**
+   * SHA-256 of name, region, tags and metadata as last scanned. Lets scans skip rewriting and
+   * re-evaluating resources whose content has not changed.
+   */
+  @Column(name = "content_hash", length = 64)
+  private String contentHash;
+
   /**
    * Compliance violations for this resource. Cascade delete ensures violations are removed when
    * resource is deleted.
@@ -39,6 +39,14 @@ public class ScanJob {
     @Column(name = "violations_resolved", nullable = false)
     private Integer violationsResolved = 0;
 
+    // Existing or new resources whose content changed and were rewritten and re-evaluated
+    @Column(name = "resources_changed", nullable = false)
+    private Integer resourcesChanged = 0;
+
+    // Resources whose content was unchanged and only had last_seen_at bumped
+    @Column(name = "resources_unchanged", nullable = false)
+    private Integer resourcesUnchanged = 0;
+
     @Column(name = "started_at")
     private LocalDateTime startedAt;
 
@@ -48,6 +56,20 @@ public class ScanJob {
     @Column(name = "error_message", length = 2000)
     private String errorMessage;
 
+    // Queue lease: the node currently executing this job and until when its claim is valid
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    // Number of times a node has claimed this job
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -56,6 +78,34 @@ public class ScanJob {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    public void claim(String owner, LocalDateTime now, LocalDateTime leaseExpiresAt) {
+        this.status = ScanStatus.RUNNING;
+        this.leaseOwner = owner;
+        this.heartbeatAt = now;
+        this.leaseExpiresAt = leaseExpiresAt;
+        this.attempts = attempts + 1;
+    }
+
+    public void requeue() {
+        this.status = ScanStatus.PENDING;
+        this.startedAt = null;
+        releaseLease();
+    }
+
+    /**
+     * Whether the job is still running under a lease held by the given node. Checked before every
+     * state change a running scan makes, so a node whose lease lapsed cannot overwrite the outcome
+     * of the node that took the job over.
+     */
+    public boolean isLeasedTo(String owner) {
+        return status == ScanStatus.RUNNING && owner != null && owner.equals(leaseOwner);
+    }
+
+    public void releaseLease() {
+        this.leaseOwner = null;
+        this.leaseExpiresAt = null;
+    }
+
     public void start() {
         this.status = ScanStatus.RUNNING;
         this.startedAt = LocalDateTime.now();
@@ -67,12 +117,19 @@ public class ScanJob {
         this.resourcesScanned = resourcesScanned;
         this.violationsFound = violationsFound;
         this.violationsResolved = violationsResolved;
+        releaseLease();
+    }
+
+    public void recordChangeCounts(int resourcesChanged, int resourcesUnchanged) {
+        this.resourcesChanged = resourcesChanged;
+        this.resourcesUnchanged = resourcesUnchanged;
     }
 
     public void fail(String errorMessage) {
         this.status = ScanStatus.FAILED;
         this.completedAt = LocalDateTime.now();
         this.errorMessage = errorMessage;
+        releaseLease();
     }
 
     public boolean isRunning() {
@@ -2,9 +2,18 @@ package com.wenroe.resonant.repository;
 
 import com.wenroe.resonant.model.entity.AwsAccount;
 import com.wenroe.resonant.model.enums.AwsAccountStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,4 +23,41 @@ public interface AwsAccountRepository extends JpaRepository<AwsAccount, UUID> {
     List<AwsAccount> findByUserId(UUID userId);
     Optional<AwsAccount> findByUserIdAndAccountId(UUID userId, String accountId);
     List<AwsAccount> findByStatus(AwsAccountStatus status);
+
+    /**
+     * Locks the given accounts' rows, in id order, until the transaction ends. Taken by a scan's
+     * start transaction and by policy re-evaluation batches, so that loading an account's
+     * violations and writing them never interleave between the two.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AwsAccount a WHERE a.id IN :ids ORDER BY a.id")
+    List<AwsAccount> lockAllById(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Find active, scheduled accounts whose next scan is due, most overdue first.
+     */
+    @Query("SELECT a FROM AwsAccount a JOIN FETCH a.user WHERE a.status = 'ACTIVE' "
+            + "AND a.scanIntervalMinutes IS NOT NULL AND a.nextScanAt <= :now ORDER BY a.nextScanAt")
+    List<AwsAccount> findDueForScan(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Find a user's scheduled accounts in the order they will next be scanned.
+     */
+    @Query("SELECT a FROM AwsAccount a WHERE a.user.id = :userId "
+            + "AND a.scanIntervalMinutes IS NOT NULL ORDER BY a.nextScanAt")
+    List<AwsAccount> findScheduledByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Moves an account's next scan time forward only if it still has the expected value, so that
+     * exactly one scheduler node claims each due scan.
+     *
+     * @return 1 if this caller claimed the scan, 0 if another node already did
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AwsAccount a SET a.nextScanAt = :nextScanAt "
+            + "WHERE a.id = :id AND a.nextScanAt = :expectedNextScanAt")
+    int advanceNextScanAt(@Param("id") UUID id,
+            @Param("expectedNextScanAt") LocalDateTime expectedNextScanAt,
+            @Param("nextScanAt") LocalDateTime nextScanAt);
 }
@@ -1,22 +1,47 @@
 package com.wenroe.resonant.repository;
 
 import com.wenroe.resonant.model.entity.AwsResource;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface AwsResourceRepository extends JpaRepository<AwsResource, UUID> {
 
+  /**
+   * Rows fetched per round trip by {@link #streamTagViewsByUserIdAndResourceTypes}.
+   */
+  String TAG_VIEW_FETCH_SIZE = "1000";
+
   /**
    * Find resource by ARN.
    */
   Optional<AwsResource> findByResourceArn(String resourceArn);
 
+  /**
+   * Find all resources matching any of the given ARNs. Used to prefetch existing rows in bulk.
+   */
+  List<AwsResource> findByResourceArnIn(Collection<String> resourceArns);
+
+  /**
+   * Bumps last_seen_at for resources that were seen again without changes, in one statement.
+   */
+  @Modifying
+  @Query("UPDATE AwsResource r SET r.lastSeenAt = :seenAt WHERE r.id IN :ids")
+  int updateLastSeenAt(@Param("ids") Collection<UUID> ids, @Param("seenAt") LocalDateTime seenAt);
+
   /**
    * Find all resources for an AWS account.
    */
@@ -31,6 +56,38 @@ public interface AwsResourceRepository extends JpaRepository<AwsResource, UUID>
   @Query("SELECT r FROM AwsResource r WHERE r.awsAccount.user.id = :userId")
   List<AwsResource> findByUserId(@Param("userId") UUID userId);
 
+  /**
+   * Reads one page of a user's resources of the given types, in id order after {@code afterId}.
+   * Keyset paging keeps every page equally cheap however far a policy re-evaluation has got.
+   */
+  @Query("SELECT r FROM AwsResource r " +
+      "WHERE r.awsAccount.user.id = :userId AND r.resourceType IN :resourceTypes " +
+      "AND r.id > :afterId ORDER BY r.id")
+  List<AwsResource> findPageByUserIdAndResourceTypes(@Param("userId") UUID userId,
+      @Param("resourceTypes") Collection<String> resourceTypes, @Param("afterId") UUID afterId,
+      Pageable pageable);
+
+  /**
+   * Count a user's resources of the given types.
+   */
+  @Query("SELECT COUNT(r) FROM AwsResource r " +
+      "WHERE r.awsAccount.user.id = :userId AND r.resourceType IN :resourceTypes")
+  long countByUserIdAndResourceTypes(@Param("userId") UUID userId,
+      @Param("resourceTypes") Collection<String> resourceTypes);
+
+  /**
+   * Streams a user's resources of the given types as tag views, fetching rows from the database
+   * in chunks of the fetch size instead of all at once. Must be consumed and closed within a
+   * transaction.
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TAG_VIEW_FETCH_SIZE))
+  @Query("SELECT new com.wenroe.resonant.repository.ResourceTagView(" +
+      "r.awsAccount.id, r.region, r.resourceType, r.resourceArn, r.tags) " +
+      "FROM AwsResource r " +
+      "WHERE r.awsAccount.user.id = :userId AND r.resourceType IN :resourceTypes")
+  Stream<ResourceTagView> streamTagViewsByUserIdAndResourceTypes(@Param("userId") UUID userId,
+      @Param("resourceTypes") Collection<String> resourceTypes);
+
   /**
    * Find resources by type for an account.
    */
@@ -1,11 +1,15 @@
 package com.wenroe.resonant.repository;
 
 import com.wenroe.resonant.model.entity.ComplianceViolation;
+import com.wenroe.resonant.model.entity.ScanJob;
 import com.wenroe.resonant.model.enums.ViolationStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -41,6 +45,142 @@ public interface ComplianceViolationRepository extends JpaRepository<ComplianceV
       "WHERE r.awsAccount.id = :accountId")
   List<ComplianceViolation> findByAwsAccountId(@Param("accountId") UUID accountId);
 
+  /**
+   * Finds a policy's violations for the given resources. Used to index one batch of a policy
+   * re-evaluation.
+   */
+  List<ComplianceViolation> findByTagPolicyIdAndAwsResourceIdIn(UUID policyId,
+      Collection<UUID> resourceIds);
+
+  /**
+   * Resolves all open violations of a policy in one statement, e.g. when it is disabled.
+   *
+   * @return the number of violations resolved
+   */
+  @Modifying
+  @Query("UPDATE ComplianceViolation v " +
+      "SET v.status = com.wenroe.resonant.model.enums.ViolationStatus.RESOLVED, " +
+      "v.resolvedAt = :resolvedAt, v.updatedAt = :resolvedAt " +
+      "WHERE v.tagPolicy.id = :policyId " +
+      "AND v.status = com.wenroe.resonant.model.enums.ViolationStatus.OPEN")
+  int resolveOpenViolationsByPolicyId(@Param("policyId") UUID policyId,
+      @Param("resolvedAt") LocalDateTime resolvedAt);
+
+  /**
+   * Resolves the open violations of a policy on resources whose type the policy no longer
+   * applies to.
+   *
+   * @return the number of violations resolved
+   */
+  @Modifying
+  @Query("UPDATE ComplianceViolation v " +
+      "SET v.status = com.wenroe.resonant.model.enums.ViolationStatus.RESOLVED, " +
+      "v.resolvedAt = :resolvedAt, v.updatedAt = :resolvedAt " +
+      "WHERE v.tagPolicy.id = :policyId " +
+      "AND v.status = com.wenroe.resonant.model.enums.ViolationStatus.OPEN " +
+      "AND v.awsResource.id IN (SELECT r.id FROM AwsResource r " +
+      "WHERE r.resourceType NOT IN :resourceTypes)")
+  int resolveOpenViolationsOutsideResourceTypes(@Param("policyId") UUID policyId,
+      @Param("resourceTypes") Collection<String> resourceTypes,
+      @Param("resolvedAt") LocalDateTime resolvedAt);
+
+  /**
+   * Resolves the given violations that are still open. Violations the user ignored or reopened
+   * in the meantime are left alone.
+   *
+   * @return the number of violations resolved
+   */
+  @Modifying
+  @Query("UPDATE ComplianceViolation v " +
+      "SET v.status = com.wenroe.resonant.model.enums.ViolationStatus.RESOLVED, " +
+      "v.resolvedAt = :resolvedAt, v.updatedAt = :resolvedAt " +
+      "WHERE v.id IN :ids AND v.status = com.wenroe.resonant.model.enums.ViolationStatus.OPEN")
+  int resolveOpenViolations(@Param("ids") Collection<UUID> ids,
+      @Param("resolvedAt") LocalDateTime resolvedAt);
+
+  /**
+   * Links violations that were re-confirmed by a scan to that scan, without rewriting them.
+   */
+  @Modifying
+  @Query("UPDATE ComplianceViolation v SET v.scanJob = :scanJob WHERE v.id IN :ids")
+  int assignScanJob(@Param("ids") Collection<UUID> ids, @Param("scanJob") ScanJob scanJob);
+
+  /**
+   * Evaluates every resource of an account against its owner's enabled policies in the database
+   * and upserts a violation for each failing (resource, policy) pair. New violations are opened,
+   * resolved ones reopened and ignored ones keep their status; all get fresh details and are
+   * linked to the scan. Details have the same shape and key order as the JVM evaluator's.
+   * <p>
+   * The JSONB {@code ?} and {@code ?&} operators are written as {@code jsonb_exists} and
+   * {@code jsonb_exists_all}, since {@code ?} is a JDBC parameter placeholder.
+   *
+   * @return the number of failing pairs (violations inserted or updated)
+   */
+  @Modifying
+  @Query(value = "INSERT INTO compliance_violations "
+      + "(aws_resource_id, tag_policy_id, scan_job_id, status, violation_details) "
+      + "SELECT e.resource_id, e.policy_id, :scanJobId, 'OPEN', "
+      + "  CASE WHEN e.missing_tags IS NULL THEN CAST('{}' AS jsonb) "
+      + "    ELSE jsonb_build_object('missingTags', e.missing_tags) END "
+      + "  || CASE WHEN e.invalid_tags IS NULL THEN CAST('{}' AS jsonb) "
+      + "    ELSE jsonb_build_object('invalidTags', e.invalid_tags) END "
+      + "FROM ("
+      + "  SELECT r.id AS resource_id, p.id AS policy_id, "
+      // Fast path: skip listing missing keys when all required keys are present
+      + "    CASE WHEN jsonb_exists_all(COALESCE(r.tags, CAST('{}' AS jsonb)), "
+      + "        ARRAY(SELECT jsonb_object_keys(p.required_tags))) THEN NULL "
+      + "      ELSE (SELECT jsonb_agg(rt.key ORDER BY rt.ord) "
+      + "        FROM jsonb_each(p.required_tags) WITH ORDINALITY AS rt(key, value, ord) "
+      + "        WHERE NOT jsonb_exists(COALESCE(r.tags, CAST('{}' AS jsonb)), rt.key)) "
+      + "    END AS missing_tags, "
+      + "    (SELECT jsonb_object_agg(rt.key, "
+      + "        jsonb_build_object('current', r.tags -> rt.key, 'allowed', rt.value)) "
+      + "      FROM jsonb_each(p.required_tags) AS rt(key, value) "
+      + "      WHERE jsonb_typeof(rt.value) = 'array' AND jsonb_array_length(rt.value) > 0 "
+      + "        AND jsonb_exists(COALESCE(r.tags, CAST('{}' AS jsonb)), rt.key) "
+      + "        AND NOT COALESCE(jsonb_exists(rt.value, r.tags ->> rt.key), false)"
+      + "    ) AS invalid_tags "
+      + "  FROM aws_resources r "
+      + "  JOIN aws_accounts a ON a.id = r.aws_account_id "
+      + "  JOIN tag_policies p ON p.user_id = a.user_id AND p.enabled = true "
+      + "    AND jsonb_exists(p.resource_types, r.resource_type) "
+      + "  WHERE r.aws_account_id = :accountId"
+      + ") e "
+      + "WHERE e.missing_tags IS NOT NULL OR e.invalid_tags IS NOT NULL "
+      + "ON CONFLICT (aws_resource_id, tag_policy_id) DO UPDATE SET "
+      + "  violation_details = EXCLUDED.violation_details, "
+      + "  scan_job_id = EXCLUDED.scan_job_id, "
+      + "  resolved_at = CASE WHEN compliance_violations.status = 'RESOLVED' THEN NULL "
+      + "    ELSE compliance_violations.resolved_at END, "
+      + "  status = CASE WHEN compliance_violations.status = 'RESOLVED' THEN 'OPEN' "
+      + "    ELSE compliance_violations.status END", nativeQuery = true)
+  int upsertAccountViolations(@Param("accountId") UUID accountId,
+      @Param("scanJobId") UUID scanJobId);
+
+  /**
+   * Resolves, in one set-based update, the open violations of an account whose resource now
+   * satisfies the policy. Only policies that are enabled and apply to the resource type count,
+   * matching {@link #upsertAccountViolations}.
+   *
+   * @return the number of violations resolved
+   */
+  @Modifying
+  @Query(value = "UPDATE compliance_violations cv "
+      + "SET status = 'RESOLVED', resolved_at = :resolvedAt "
+      + "FROM aws_resources r, aws_accounts a, tag_policies p "
+      + "WHERE cv.aws_resource_id = r.id AND cv.tag_policy_id = p.id "
+      + "  AND a.id = r.aws_account_id AND p.user_id = a.user_id "
+      + "  AND r.aws_account_id = :accountId AND cv.status = 'OPEN' "
+      + "  AND p.enabled = true AND jsonb_exists(p.resource_types, r.resource_type) "
+      + "  AND jsonb_exists_all(COALESCE(r.tags, CAST('{}' AS jsonb)), "
+      + "    ARRAY(SELECT jsonb_object_keys(p.required_tags))) "
+      + "  AND NOT EXISTS (SELECT 1 FROM jsonb_each(p.required_tags) AS rt(key, value) "
+      + "    WHERE jsonb_typeof(rt.value) = 'array' AND jsonb_array_length(rt.value) > 0 "
+      + "      AND NOT COALESCE(jsonb_exists(rt.value, r.tags ->> rt.key), false))",
+      nativeQuery = true)
+  int resolveCompliantAccountViolations(@Param("accountId") UUID accountId,
+      @Param("resolvedAt") LocalDateTime resolvedAt);
+
   @Query("SELECT COUNT(v) FROM ComplianceViolation v " +
       "JOIN v.awsResource r " +
       "JOIN r.awsAccount a " +
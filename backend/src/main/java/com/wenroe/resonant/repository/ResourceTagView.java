@@ -0,0 +1,13 @@
+package com.wenroe.resonant.repository;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The columns of a stored resource that policy evaluation reads, without the entity's metadata,
+ * violations or account proxy. Read-only; changes are not tracked.
+ */
+public record ResourceTagView(UUID accountId, String region, String resourceType,
+    String resourceArn, Map<String, String> tags) {
+
+}
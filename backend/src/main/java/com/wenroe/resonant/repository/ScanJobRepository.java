@@ -1,13 +1,19 @@
 package com.wenroe.resonant.repository;
 
 import com.wenroe.resonant.model.entity.ScanJob;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -40,6 +46,80 @@ public interface ScanJobRepository extends JpaRepository<ScanJob, UUID> {
     @Query("SELECT s FROM ScanJob s WHERE s.awsAccount.id = :accountId AND s.status = 'RUNNING'")
     Optional<ScanJob> findRunningScanForAccount(@Param("accountId") UUID accountId);
 
+    /**
+     * Find the active (pending or running) scan job for a specific account.
+     */
+    @Query("SELECT s FROM ScanJob s WHERE s.awsAccount.id = :accountId AND s.status IN ('PENDING', 'RUNNING')")
+    Optional<ScanJob> findActiveScanForAccount(@Param("accountId") UUID accountId);
+
+    /**
+     * Find which of the given accounts have a running scan.
+     */
+    @Query("SELECT s.awsAccount.id FROM ScanJob s WHERE s.awsAccount.id IN :accountIds AND s.status = 'RUNNING'")
+    Set<UUID> findRunningAccountIds(@Param("accountIds") Collection<UUID> accountIds);
+
+    /**
+     * Find the IDs of a user's accounts that have a pending or running scan.
+     */
+    @Query("SELECT s.awsAccount.id FROM ScanJob s WHERE s.user.id = :userId AND s.status IN ('PENDING', 'RUNNING')")
+    Set<UUID> findActiveAccountIdsForUser(@Param("userId") UUID userId);
+
+    /**
+     * Count scan jobs created after the given time, across all accounts.
+     */
+    long countByCreatedAtAfter(LocalDateTime since);
+
+    /**
+     * Takes the scheduler's dispatch lock for the rest of the current transaction, without
+     * waiting. Only one node at a time reads the per-minute start budget and queues scans against
+     * it.
+     *
+     * @return true if this transaction now holds the lock, false if another node holds it
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('resonant.scan-dispatch'))",
+            nativeQuery = true)
+    boolean tryLockScanDispatch();
+
+    /**
+     * Locks up to {@code limit} pending jobs, oldest first, skipping rows other nodes have locked.
+     * Must run inside the transaction that claims them.
+     */
+    @Query(value = "SELECT id FROM scan_jobs WHERE status = 'PENDING' ORDER BY created_at "
+            + "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UUID> lockPendingJobIds(@Param("limit") int limit);
+
+    /**
+     * Locks running jobs whose lease has expired, skipping rows other nodes have locked.
+     */
+    @Query(value = "SELECT id FROM scan_jobs WHERE status = 'RUNNING' AND lease_expires_at < :now "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UUID> lockExpiredLeaseJobIds(@Param("now") LocalDateTime now);
+
+    /**
+     * Find a scan job and lock its row until the transaction ends, so a lease check and the
+     * state change that depends on it cannot interleave with lease recovery on another node.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ScanJob s WHERE s.id = :id")
+    Optional<ScanJob> lockById(@Param("id") UUID id);
+
+    /**
+     * Find which of the given jobs are still running under a lease held by the given node.
+     */
+    @Query("SELECT s.id FROM ScanJob s WHERE s.id IN :ids AND s.leaseOwner = :owner AND s.status = 'RUNNING'")
+    Set<UUID> findIdsLeasedTo(@Param("ids") Collection<UUID> ids, @Param("owner") String owner);
+
+    /**
+     * Extends the leases of running jobs still owned by the given node.
+     *
+     * @return the number of leases renewed
+     */
+    @Modifying
+    @Query("UPDATE ScanJob s SET s.heartbeatAt = :now, s.leaseExpiresAt = :leaseExpiresAt "
+            + "WHERE s.id IN :ids AND s.leaseOwner = :owner AND s.status = 'RUNNING'")
+    int renewLeases(@Param("ids") Collection<UUID> ids, @Param("owner") String owner,
+            @Param("now") LocalDateTime now, @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
     /**
      * Count total scans for a user.
      */
@@ -2,10 +2,13 @@ package com.wenroe.resonant.repository;
 
 import com.wenroe.resonant.model.entity.TagPolicy;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,4 +19,29 @@ public interface TagPolicyRepository extends JpaRepository<TagPolicy, UUID> {
 
     @Query("SELECT tp FROM TagPolicy tp WHERE tp.user.id = :userId AND tp.enabled = true")
     List<TagPolicy> findEnabledPoliciesByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Find enabled policies changed since their last completed re-evaluation.
+     */
+    @Query(value = "SELECT p.id FROM tag_policies p "
+            + "LEFT JOIN policy_reevaluations r ON r.tag_policy_id = p.id "
+            + "WHERE p.enabled = true "
+            + "AND (r.tag_policy_id IS NULL OR r.evaluated_version < p.updated_at)",
+            nativeQuery = true)
+    List<UUID> findIdsPendingReevaluation();
+
+    /**
+     * Records that the version of a policy last updated at {@code evaluatedVersion} has been
+     * re-evaluated against all stored resources.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO policy_reevaluations (tag_policy_id, evaluated_version) "
+            + "VALUES (:id, :evaluatedVersion) "
+            + "ON CONFLICT (tag_policy_id) DO UPDATE "
+            + "SET evaluated_version = EXCLUDED.evaluated_version, "
+            + "completed_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    int markReevaluated(@Param("id") UUID id,
+            @Param("evaluatedVersion") LocalDateTime evaluatedVersion);
 }
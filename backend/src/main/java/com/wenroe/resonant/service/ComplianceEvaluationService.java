@@ -2,10 +2,17 @@ package com.wenroe.resonant.service;
 
 import com.wenroe.resonant.model.entity.AwsResource;
 import com.wenroe.resonant.model.entity.ComplianceViolation;
+import com.wenroe.resonant.model.entity.ScanJob;
 import com.wenroe.resonant.model.entity.TagPolicy;
 import com.wenroe.resonant.model.enums.Severity;
 import com.wenroe.resonant.model.enums.ViolationStatus;
+import com.wenroe.resonant.repository.AwsAccountRepository;
 import com.wenroe.resonant.repository.ComplianceViolationRepository;
+import com.wenroe.resonant.repository.ScanJobRepository;
+import com.wenroe.resonant.service.compliance.CompiledPolicySet;
+import com.wenroe.resonant.service.compliance.CompiledPolicySet.CompiledPolicy;
+import com.wenroe.resonant.service.compliance.ViolationIndex;
+import com.wenroe.resonant.service.compliance.ViolationReconciliation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,30 +29,47 @@ import java.util.*;
 @Slf4j
 public class ComplianceEvaluationService {
 
+    /**
+     * Maximum number of violation IDs bound into a single IN query or update. Keeps statements
+     * well below the PostgreSQL bind parameter limit.
+     */
+    static final int ID_CHUNK_SIZE = 1000;
+
     private final ComplianceViolationRepository violationRepository;
+    private final AwsAccountRepository awsAccountRepository;
+    private final ScanJobRepository scanJobRepository;
 
     /**
      * Evaluates a resource against all applicable enabled policies.
      * Returns the list of violations found (or empty if compliant).
+     * Compiles the policies on every call; use the {@link CompiledPolicySet} overload when
+     * evaluating many resources against the same policies.
      */
     @Transactional
     public List<ComplianceViolation> evaluateResource(AwsResource resource, List<TagPolicy> enabledPolicies) {
-        List<ComplianceViolation> violations = new ArrayList<>();
-
-        for (TagPolicy policy : enabledPolicies) {
-            // Check if policy applies to this resource type
-            if (!policy.appliesToResourceType(resource.getResourceType())) {
-                continue;
-            }
+        return evaluateResource(resource, CompiledPolicySet.compile(enabledPolicies));
+    }
 
-            // Evaluate the resource against this policy
-            Optional<ComplianceViolation> violation = evaluateResourceAgainstPolicy(resource, policy);
+    /**
+     * Evaluates a resource against the applicable policies of a compiled policy set.
+     * Returns the list of violations found (or empty if compliant).
+     */
+    @Transactional
+    public List<ComplianceViolation> evaluateResource(AwsResource resource, CompiledPolicySet policies) {
+        List<CompiledPolicy> applicable = policies.policiesFor(resource.getResourceType());
+        if (applicable.isEmpty()) {
+            return List.of();
+        }
 
-            if (violation.isPresent()) {
-                violations.add(violation.get());
-            } else {
+        List<ComplianceViolation> violations = new ArrayList<>();
+        for (CompiledPolicy policy : applicable) {
+            if (policy.isCompliant(resource.getTags())) {
                 // Resource is compliant - check if we need to auto-resolve existing violation
-                autoResolveViolationIfExists(resource, policy);
+                autoResolveViolationIfExists(resource, policy.getPolicy());
+            } else {
+                // Details are only built for resources that fail
+                violations.add(recordViolation(resource, policy.getPolicy(),
+                        policy.violationDetails(resource.getTags())));
             }
         }
 
@@ -53,50 +77,10 @@ public class ComplianceEvaluationService {
     }
 
     /**
-     * Evaluates a single resource against a single policy.
-     * Returns a violation if non-compliant, empty if compliant.
+     * Creates a violation for a non-compliant resource, or updates the existing one.
      */
-    private Optional<ComplianceViolation> evaluateResourceAgainstPolicy(AwsResource resource, TagPolicy policy) {
-        Map<String, Object> violationDetails = new HashMap<>();
-        List<String> missingTags = new ArrayList<>();
-        Map<String, Map<String, Object>> invalidTags = new HashMap<>();
-
-        Map<String, String> resourceTags = resource.getTags() != null ? resource.getTags() : new HashMap<>();
-
-        // Check each required tag
-        for (Map.Entry<String, List<String>> requiredTag : policy.getRequiredTags().entrySet()) {
-            String tagKey = requiredTag.getKey();
-            List<String> allowedValues = requiredTag.getValue();
-
-            if (!resourceTags.containsKey(tagKey)) {
-                // Tag is missing
-                missingTags.add(tagKey);
-            } else if (allowedValues != null && !allowedValues.isEmpty()) {
-                // Tag exists but need to check if value is allowed
-                String currentValue = resourceTags.get(tagKey);
-                if (!allowedValues.contains(currentValue)) {
-                    Map<String, Object> invalidTagInfo = new HashMap<>();
-                    invalidTagInfo.put("current", currentValue);
-                    invalidTagInfo.put("allowed", allowedValues);
-                    invalidTags.put(tagKey, invalidTagInfo);
-                }
-            }
-            // If allowedValues is null or empty, any value is acceptable
-        }
-
-        // If no violations found, resource is compliant
-        if (missingTags.isEmpty() && invalidTags.isEmpty()) {
-            return Optional.empty();
-        }
-
-        // Build violation details
-        if (!missingTags.isEmpty()) {
-            violationDetails.put("missingTags", missingTags);
-        }
-        if (!invalidTags.isEmpty()) {
-            violationDetails.put("invalidTags", invalidTags);
-        }
-
+    private ComplianceViolation recordViolation(AwsResource resource, TagPolicy policy,
+                                                Map<String, Object> violationDetails) {
         // Check if violation already exists
         Optional<ComplianceViolation> existing = violationRepository
                 .findByAwsResourceIdAndTagPolicyId(resource.getId(), policy.getId());
@@ -113,7 +97,7 @@ public class ComplianceEvaluationService {
                         resource.getResourceArn(), policy.getName());
             }
 
-            return Optional.of(violationRepository.save(violation));
+            return violationRepository.save(violation);
         } else {
             // Create new violation
             ComplianceViolation violation = new ComplianceViolation();
@@ -125,8 +109,228 @@ public class ComplianceEvaluationService {
             log.info("Created new violation for resource {} - policy {}",
                     resource.getResourceArn(), policy.getName());
 
-            return Optional.of(violationRepository.save(violation));
+            return violationRepository.save(violation);
+        }
+    }
+
+    /**
+     * Loads all existing violations of an account, once per scan, for
+     * {@link #reconcileViolations}.
+     */
+    @Transactional(readOnly = true)
+    public ViolationIndex loadViolationIndex(UUID accountId) {
+        List<ComplianceViolation> violations = violationRepository.findByAwsAccountId(accountId);
+        log.debug("Loaded {} existing violations for account {}", violations.size(), accountId);
+        return ViolationIndex.of(violations);
+    }
+
+    /**
+     * Evaluates a chunk of resources and reconciles the results with their existing violations
+     * in bulk. The new/reopened/resolved/unchanged diff is computed in memory against the index,
+     * without a lookup per resource-policy pair, and then applied with batched inserts, one
+     * chunked load of the violations whose details changed, and set-based status updates.
+     * The index is updated to reflect what was written. Without a scan job (policy
+     * re-evaluation), existing violations keep their scan links.
+     */
+    @Transactional
+    public ViolationReconciliation reconcileViolations(List<AwsResource> resources,
+                                                       CompiledPolicySet policies,
+                                                       ViolationIndex existing,
+                                                       ScanJob scanJob) {
+        List<ComplianceViolation> toInsert = new ArrayList<>();
+        Map<UUID, PendingUpdate> toUpdate = new HashMap<>();
+        List<PendingUpdate> toResolve = new ArrayList<>();
+        List<UUID> unchangedIds = new ArrayList<>();
+        int violationsFound = 0;
+
+        for (AwsResource resource : resources) {
+            for (CompiledPolicy policy : policies.policiesFor(resource.getResourceType())) {
+                TagPolicy tagPolicy = policy.getPolicy();
+                ViolationIndex.Entry entry = existing.get(resource.getId(), tagPolicy.getId());
+
+                if (policy.isCompliant(resource.getTags())) {
+                    // Only open violations are auto-resolved; ignored ones are left alone
+                    if (entry != null && entry.status() == ViolationStatus.OPEN) {
+                        toResolve.add(new PendingUpdate(entry.violationId(), resource.getId(),
+                                tagPolicy.getId(), entry.violationDetails()));
+                    }
+                    continue;
+                }
+
+                violationsFound++;
+                Map<String, Object> details = policy.violationDetails(resource.getTags());
+                if (entry == null) {
+                    ComplianceViolation violation = new ComplianceViolation();
+                    violation.setAwsResource(resource);
+                    violation.setTagPolicy(tagPolicy);
+                    violation.setScanJob(scanJob);
+                    violation.setViolationDetails(details);
+                    violation.setStatus(ViolationStatus.OPEN);
+                    toInsert.add(violation);
+                } else if (entry.status() == ViolationStatus.RESOLVED
+                        || !details.equals(entry.violationDetails())) {
+                    toUpdate.put(entry.violationId(), new PendingUpdate(entry.violationId(),
+                            resource.getId(), tagPolicy.getId(), details));
+                } else {
+                    unchangedIds.add(entry.violationId());
+                }
+            }
+        }
+
+        int resolved = resolveViolations(toResolve, existing);
+        if (scanJob != null) {
+            for (List<UUID> ids : partition(unchangedIds)) {
+                violationRepository.assignScanJob(ids, scanJob);
+            }
+        }
+        int reopened = updateViolations(toUpdate, existing, scanJob);
+        if (!toInsert.isEmpty()) {
+            for (ComplianceViolation saved : violationRepository.saveAll(toInsert)) {
+                existing.put(saved.getAwsResource().getId(), saved.getTagPolicy().getId(),
+                        new ViolationIndex.Entry(saved.getId(), saved.getStatus(),
+                                saved.getViolationDetails()));
+            }
+        }
+
+        log.debug("Reconciled violations for {} resources: {} opened, {} reopened, {} updated, "
+                        + "{} resolved, {} unchanged", resources.size(), toInsert.size(), reopened,
+                toUpdate.size() - reopened, resolved, unchangedIds.size());
+        return new ViolationReconciliation(violationsFound, toInsert.size(), reopened, resolved,
+                unchangedIds.size());
+    }
+
+    /**
+     * Re-evaluates one batch of stored resources against a single changed policy, in its own
+     * transaction. Only that policy's violations for the batch are loaded and reconciled; scan
+     * links are left as they are.
+     * <p>
+     * The batch's accounts are locked first, the same lock a scan takes when it starts. Resources
+     * of accounts with a running scan are skipped: that scan reconciles from violations it loaded
+     * at its start, and it or the next scan re-evaluates every resource after a policy change.
+     */
+    @Transactional
+    public ViolationReconciliation reevaluatePolicyBatch(UUID policyId, CompiledPolicySet policy,
+                                                         List<AwsResource> resources) {
+        Set<UUID> accountIds = new HashSet<>();
+        for (AwsResource resource : resources) {
+            accountIds.add(resource.getAwsAccount().getId());
+        }
+        awsAccountRepository.lockAllById(accountIds);
+        Set<UUID> scanning = scanJobRepository.findRunningAccountIds(accountIds);
+
+        List<AwsResource> toEvaluate = resources;
+        if (!scanning.isEmpty()) {
+            toEvaluate = resources.stream()
+                    .filter(resource -> !scanning.contains(resource.getAwsAccount().getId()))
+                    .toList();
+            log.info("Policy {}: left {} resources in {} accounts being scanned to their scan",
+                    policyId, resources.size() - toEvaluate.size(), scanning.size());
         }
+
+        List<UUID> resourceIds = toEvaluate.stream().map(AwsResource::getId).toList();
+        ViolationIndex existing = ViolationIndex.of(
+                violationRepository.findByTagPolicyIdAndAwsResourceIdIn(policyId, resourceIds));
+        return reconcileViolations(toEvaluate, policy, existing, null);
+    }
+
+    /**
+     * Resolves the open violations of a policy that no longer apply, in set-based updates: all of
+     * them when the policy is disabled, otherwise those on resource types it no longer covers.
+     *
+     * @return the number of violations resolved
+     */
+    @Transactional
+    public int resolveInapplicableViolations(TagPolicy policy) {
+        LocalDateTime resolvedAt = LocalDateTime.now();
+        int resolved = Boolean.TRUE.equals(policy.getEnabled())
+                ? violationRepository.resolveOpenViolationsOutsideResourceTypes(policy.getId(),
+                        policy.getResourceTypes(), resolvedAt)
+                : violationRepository.resolveOpenViolationsByPolicyId(policy.getId(), resolvedAt);
+        if (resolved > 0) {
+            log.info("Resolved {} violations no longer covered by policy '{}' ({})",
+                    resolved, policy.getName(), policy.getId());
+        }
+        return resolved;
+    }
+
+    /**
+     * Evaluates every resource of an account against its owner's enabled policies inside the
+     * database, with one set-based resolve and one {@code INSERT ... ON CONFLICT} upsert, instead
+     * of loading resources and violations into memory. Produces the same violations and details
+     * as {@link #reconcileViolations}; used when {@code resonant.compliance.engine} is {@code sql}.
+     * <p>
+     * The upsert does not report which rows were inserted or reopened, so only the found and
+     * resolved counts are filled in.
+     */
+    @Transactional
+    public ViolationReconciliation evaluateAccountInDatabase(UUID accountId, UUID scanJobId) {
+        int resolved = violationRepository.resolveCompliantAccountViolations(accountId,
+                LocalDateTime.now());
+        int violationsFound = violationRepository.upsertAccountViolations(accountId, scanJobId);
+
+        log.info("Evaluated account {} in database: {} violations found, {} resolved",
+                accountId, violationsFound, resolved);
+        return new ViolationReconciliation(violationsFound, 0, 0, resolved, 0);
+    }
+
+    /**
+     * Resolves open violations with set-based updates.
+     *
+     * @return the number of violations resolved
+     */
+    private int resolveViolations(List<PendingUpdate> toResolve, ViolationIndex existing) {
+        if (toResolve.isEmpty()) {
+            return 0;
+        }
+
+        int resolved = 0;
+        LocalDateTime resolvedAt = LocalDateTime.now();
+        List<UUID> ids = toResolve.stream().map(PendingUpdate::violationId).toList();
+        for (List<UUID> chunk : partition(ids)) {
+            resolved += violationRepository.resolveOpenViolations(chunk, resolvedAt);
+        }
+
+        for (PendingUpdate update : toResolve) {
+            existing.put(update.resourceId(), update.policyId(), new ViolationIndex.Entry(
+                    update.violationId(), ViolationStatus.RESOLVED, update.details()));
+        }
+        return resolved;
+    }
+
+    /**
+     * Rewrites the details of violations that changed, reopening resolved ones. The violations
+     * are loaded in chunks and flushed as JDBC batches. Decisions are made on the loaded state,
+     * so a violation ignored since the index was loaded stays ignored.
+     *
+     * @return the number of violations reopened
+     */
+    private int updateViolations(Map<UUID, PendingUpdate> toUpdate, ViolationIndex existing,
+                                 ScanJob scanJob) {
+        int reopened = 0;
+        for (List<UUID> chunk : partition(new ArrayList<>(toUpdate.keySet()))) {
+            for (ComplianceViolation violation : violationRepository.findAllById(chunk)) {
+                PendingUpdate update = toUpdate.get(violation.getId());
+                violation.setViolationDetails(update.details());
+                if (scanJob != null) {
+                    violation.setScanJob(scanJob);
+                }
+                if (violation.getStatus() == ViolationStatus.RESOLVED) {
+                    violation.reopen();
+                    reopened++;
+                }
+                existing.put(update.resourceId(), update.policyId(), new ViolationIndex.Entry(
+                        violation.getId(), violation.getStatus(), update.details()));
+            }
+        }
+        return reopened;
+    }
+
+    private static <T> List<List<T>> partition(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += ID_CHUNK_SIZE) {
+            chunks.add(items.subList(from, Math.min(from + ID_CHUNK_SIZE, items.size())));
+        }
+        return chunks;
     }
 
     /**
@@ -202,4 +406,11 @@ public class ComplianceEvaluationService {
 
         return stats;
     }
-}
\ No newline at end of file
+
+    /**
+     * A violation write computed in memory, to be applied in bulk.
+     */
+    private record PendingUpdate(UUID violationId, UUID resourceId, UUID policyId,
+                                 Map<String, Object> details) {
+    }
+}
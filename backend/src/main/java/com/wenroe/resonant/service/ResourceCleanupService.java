@@ -6,10 +6,11 @@ import com.wenroe.resonant.model.entity.AwsResource;
 import com.wenroe.resonant.model.entity.ResourceTypeSetting;
 import com.wenroe.resonant.repository.AwsAccountRegionRepository;
 import com.wenroe.resonant.repository.AwsResourceRepository;
+import com.wenroe.resonant.service.aws.scanners.ResourceScanner;
+import com.wenroe.resonant.service.aws.scanners.ScannerScope;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,23 +20,32 @@ import org.springframework.transaction.annotation.Transactional;
  * Resources are removed when: 1. Their resource type is disabled globally 2. Their region is
  * disabled for the account (regional resources only) 3. Global resources when no regions are
  * enabled for the account
+ * <p>
+ * Whether a resource type is global is declared by its scanner's {@link ScannerScope}. Types
+ * without a scanner are treated as regional.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ResourceCleanupService {
 
-  // Resource types that are global (not region-specific)
-  private static final Set<String> GLOBAL_RESOURCE_TYPES = Set.of(
-      "cloudfront:distribution",
-      "iam:role",
-      "iam:user",
-      "iam:policy",
-      "route53:hostedzone"
-  );
   private final AwsResourceRepository awsResourceRepository;
   private final AwsAccountRegionRepository awsAccountRegionRepository;
   private final ResourceTypeSettingService resourceTypeSettingService;
+  // Resource types that are global (not region-specific)
+  private final Set<String> globalResourceTypes;
+
+  public ResourceCleanupService(AwsResourceRepository awsResourceRepository,
+      AwsAccountRegionRepository awsAccountRegionRepository,
+      ResourceTypeSettingService resourceTypeSettingService,
+      List<ResourceScanner> resourceScanners) {
+    this.awsResourceRepository = awsResourceRepository;
+    this.awsAccountRegionRepository = awsAccountRegionRepository;
+    this.resourceTypeSettingService = resourceTypeSettingService;
+    this.globalResourceTypes = resourceScanners.stream()
+        .filter(scanner -> scanner.getScope() == ScannerScope.GLOBAL)
+        .map(ResourceScanner::getResourceType)
+        .collect(Collectors.toUnmodifiableSet());
+  }
 
   /**
    * Clean up resources that are no longer in scope for the given account. This is called at the
@@ -108,6 +118,6 @@ public class ResourceCleanupService {
    * Determine if a resource is global (not region-specific).
    */
   private boolean isGlobalResource(AwsResource resource) {
-    return GLOBAL_RESOURCE_TYPES.contains(resource.getResourceType());
+    return globalResourceTypes.contains(resource.getResourceType());
   }
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package com.wenroe.resonant.service;
+
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.repository.AwsResourceRepository;
+import com.wenroe.resonant.util.ResourceContentHashUtil;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for writing discovered AWS resources to the database.
+ * <p>
+ * Supports two modes: a bulk mode that prefetches existing rows for a whole set of ARNs with
+ * chunked IN queries and writes through Hibernate JDBC batching, and the original per-resource mode
+ * (one lookup and one save per resource), kept for comparison. The bulk mode compares content
+ * hashes and skips rewriting resources that have not changed since the previous scan.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResourcePersistenceService {
+
+  /**
+   * Maximum number of ARNs bound into a single IN query. Keeps statements well below the
+   * PostgreSQL bind parameter limit.
+   */
+  static final int PREFETCH_CHUNK_SIZE = 1000;
+
+  private final AwsResourceRepository awsResourceRepository;
+
+  /**
+   * Inserts new resources and updates existing ones (matched by ARN) in bulk. Existing rows are
+   * loaded with chunked IN queries and all writes are flushed as JDBC batches. Existing resources
+   * whose content hash is unchanged are not rewritten; they only get a batched last_seen_at bump.
+   *
+   * @return the new and changed resources as persisted (in discovery order, duplicate ARNs
+   * collapsed) and the number of unchanged resources
+   */
+  @Transactional
+  public UpsertResult upsertResources(Collection<AwsResource> discoveredResources) {
+    return upsertResources(discoveredResources, false);
+  }
+
+  /**
+   * Same as {@link #upsertResources(Collection)}, optionally also returning the unchanged
+   * resources as loaded, for callers that must re-evaluate them.
+   *
+   * @param includeUnchanged whether {@link UpsertResult#getUnchanged()} lists the unchanged
+   * resources; when false it is empty
+   */
+  @Transactional
+  public UpsertResult upsertResources(Collection<AwsResource> discoveredResources,
+      boolean includeUnchanged) {
+    // Collapse duplicate ARNs (last one wins) so a batch never inserts the same ARN twice
+    Map<String, AwsResource> discoveredByArn = new LinkedHashMap<>();
+    for (AwsResource discovered : discoveredResources) {
+      discoveredByArn.put(discovered.getResourceArn(), discovered);
+    }
+
+    List<String> arns = new ArrayList<>(discoveredByArn.keySet());
+    List<AwsResource> changed = new ArrayList<>(arns.size());
+    List<AwsResource> unchanged = new ArrayList<>();
+    int unchangedCount = 0;
+    LocalDateTime seenAt = LocalDateTime.now();
+
+    for (int from = 0; from < arns.size(); from += PREFETCH_CHUNK_SIZE) {
+      List<String> arnChunk = arns.subList(from, Math.min(from + PREFETCH_CHUNK_SIZE, arns.size()));
+
+      Map<String, AwsResource> existingByArn = awsResourceRepository.findByResourceArnIn(arnChunk)
+          .stream()
+          .collect(Collectors.toMap(AwsResource::getResourceArn, Function.identity()));
+
+      List<AwsResource> toSave = new ArrayList<>(arnChunk.size());
+      List<UUID> unchangedIds = new ArrayList<>();
+      for (String arn : arnChunk) {
+        AwsResource discovered = discoveredByArn.get(arn);
+        AwsResource existing = existingByArn.get(arn);
+        String contentHash = ResourceContentHashUtil.contentHash(discovered);
+
+        if (existing == null) {
+          discovered.setContentHash(contentHash);
+          toSave.add(discovered);
+        } else if (contentHash.equals(existing.getContentHash())) {
+          unchangedIds.add(existing.getId());
+          if (includeUnchanged) {
+            unchanged.add(existing);
+          }
+        } else {
+          toSave.add(applyDiscovered(existing, discovered, contentHash));
+        }
+      }
+
+      if (!toSave.isEmpty()) {
+        changed.addAll(awsResourceRepository.saveAll(toSave));
+      }
+      if (!unchangedIds.isEmpty()) {
+        awsResourceRepository.updateLastSeenAt(unchangedIds, seenAt);
+        unchangedCount += unchangedIds.size();
+      }
+    }
+
+    log.debug("Bulk upserted {} resources ({} changed, {} unchanged, {} discovered)",
+        changed.size() + unchangedCount, changed.size(), unchangedCount,
+        discoveredResources.size());
+    return new UpsertResult(changed, unchangedCount, unchanged);
+  }
+
+  /**
+   * Inserts or updates a single resource (matched by ARN) with one lookup and one save.
+   */
+  @Transactional
+  public AwsResource upsertResource(AwsResource discovered) {
+    Optional<AwsResource> existing = awsResourceRepository.findByResourceArn(
+        discovered.getResourceArn());
+
+    AwsResource resource;
+    String contentHash = ResourceContentHashUtil.contentHash(discovered);
+    if (existing.isPresent()) {
+      resource = applyDiscovered(existing.get(), discovered, contentHash);
+      log.debug("Updated existing resource: {}", resource.getResourceArn());
+    } else {
+      resource = discovered;
+      resource.setContentHash(contentHash);
+      log.debug("Discovered new resource: {}", resource.getResourceArn());
+    }
+
+    return awsResourceRepository.save(resource);
+  }
+
+  /**
+   * Copies the freshly discovered state onto an existing resource.
+   */
+  private AwsResource applyDiscovered(AwsResource existing, AwsResource discovered,
+      String contentHash) {
+    existing.setTags(discovered.getTags());
+    existing.setMetadata(discovered.getMetadata());
+    existing.setName(discovered.getName());
+    existing.setRegion(discovered.getRegion());
+    existing.setContentHash(contentHash);
+    existing.updateLastSeen();
+    return existing;
+  }
+
+  /**
+   * Outcome of a bulk upsert.
+   */
+  @Getter
+  @AllArgsConstructor
+  public static class UpsertResult {
+
+    // New resources and existing ones whose content changed, as persisted
+    private final List<AwsResource> changed;
+
+    // Existing resources whose content was unchanged; only last_seen_at was updated
+    private final int unchangedCount;
+
+    // The unchanged resources themselves, when requested; otherwise empty
+    private final List<AwsResource> unchanged;
+
+    public UpsertResult(List<AwsResource> changed, int unchangedCount) {
+      this(changed, unchangedCount, List.of());
+    }
+  }
+}
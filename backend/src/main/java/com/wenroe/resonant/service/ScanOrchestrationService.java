@@ -1,30 +1,49 @@
 package com.wenroe.resonant.service;
 
 import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsAccountRegion;
 import com.wenroe.resonant.model.entity.AwsResource;
-import com.wenroe.resonant.model.entity.ComplianceViolation;
 import com.wenroe.resonant.model.entity.ResourceTypeSetting;
 import com.wenroe.resonant.model.entity.ScanJob;
 import com.wenroe.resonant.model.entity.TagPolicy;
 import com.wenroe.resonant.model.entity.User;
 import com.wenroe.resonant.model.enums.ScanStatus;
 import com.wenroe.resonant.repository.AwsAccountRepository;
-import com.wenroe.resonant.repository.AwsResourceRepository;
 import com.wenroe.resonant.repository.ScanJobRepository;
 import com.wenroe.resonant.repository.UserRepository;
+import com.wenroe.resonant.service.ResourcePersistenceService.UpsertResult;
 import com.wenroe.resonant.service.aws.scanners.ResourceScanner;
+import com.wenroe.resonant.service.compliance.CompiledPolicySet;
+import com.wenroe.resonant.service.compliance.ComplianceEngine;
+import com.wenroe.resonant.service.compliance.ViolationIndex;
+import com.wenroe.resonant.service.compliance.ViolationReconciliation;
+import com.wenroe.resonant.service.scan.ScanContext;
+import com.wenroe.resonant.service.scan.ScanEngine;
+import com.wenroe.resonant.service.scan.ScanJobWorker;
+import com.wenroe.resonant.service.scan.ScanLeaseLostException;
+import com.wenroe.resonant.service.scan.ScanProgressPublisher;
+import com.wenroe.resonant.service.scan.ScanResourcePipeline;
+import com.wenroe.resonant.service.scan.ScanTotals;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -34,8 +53,11 @@ import org.springframework.transaction.annotation.Transactional;
  * Service that orchestrates the entire scanning process for an AWS account. Coordinates resource
  * discovery, compliance evaluation, and violation tracking.
  * <p>
- * Scans execute asynchronously with parallel scanner execution for improved performance.
- * Automatically discovers and uses all ResourceScanner implementations.
+ * Scans are dispatched asynchronously on the scan executor, and discovery runs on virtual threads
+ * through the {@link ScanEngine}. Automatically discovers and uses all ResourceScanner
+ * implementations. Scanners stream resources into a bounded pipeline, and resources are persisted
+ * and evaluated in fixed-size chunks while discovery is still running. AWS calls never run inside
+ * a transaction, so a scan only holds a database connection for each short phase transaction.
  */
 @Service
 @RequiredArgsConstructor
@@ -43,7 +65,6 @@ import org.springframework.transaction.annotation.Transactional;
 public class ScanOrchestrationService {
 
   private final AwsAccountRepository awsAccountRepository;
-  private final AwsResourceRepository awsResourceRepository;
   private final ScanJobRepository scanJobRepository;
   private final TagPolicyService tagPolicyService;
   private final ComplianceEvaluationService complianceEvaluationService;
@@ -51,6 +72,9 @@ public class ScanOrchestrationService {
   private final AwsAccountRegionService regionService;
   private final ResourceTypeSettingService resourceTypeSettingService;
   private final ResourceCleanupService resourceCleanupService;
+  private final ResourcePersistenceService resourcePersistenceService;
+  private final ScanEngine scanEngine;
+  private final ScanProgressPublisher scanProgressPublisher;
 
   // Spring auto-injects all ResourceScanner implementations
   private final List<ResourceScanner> resourceScanners;
@@ -61,9 +85,28 @@ public class ScanOrchestrationService {
   @Lazy
   private ScanOrchestrationService self;
 
+  // Bulk (prefetch + JDBC batch) persistence; set to false to use the per-resource path
+  @Value("${resonant.scan.batch-persistence:true}")
+  private boolean batchPersistence = true;
+
+  // Resources persisted and evaluated per chunk while discovery is still running
+  @Value("${resonant.scan.chunk-size:500}")
+  private int chunkSize = 500;
+
+  // Resources buffered between scanners and persistence before scanners block
+  @Value("${resonant.scan.queue-capacity:2000}")
+  private int queueCapacity = 2000;
+
+  // Evaluate compliance per chunk in memory (jvm) or once per account in the database (sql)
+  @Value("${resonant.compliance.engine:jvm}")
+  private ComplianceEngine complianceEngine = ComplianceEngine.JVM;
+
+  // Threads driving the scans running on this node, so a scan can be cancelled by job ID
+  private final Map<UUID, Thread> scanThreads = new ConcurrentHashMap<>();
+
   /**
-   * Initiates a scan for an AWS account. Returns the created ScanJob immediately. The actual scan
-   * executes asynchronously in a background thread.
+   * Initiates a scan for an AWS account. Returns the created PENDING ScanJob immediately. The job
+   * is picked up from the durable queue by a {@link ScanJobWorker} on any node.
    */
   public ScanJob initiateScan(UUID accountId, UUID userId) {
     log.info("=== INITIATE SCAN: accountId={}, userId={}", accountId, userId);
@@ -88,9 +131,9 @@ public class ScanOrchestrationService {
           "No regions enabled for scanning. Please enable at least one region.");
     }
 
-    // Check if there's already a running scan for this account
-    Optional<ScanJob> existingRunningScan = scanJobRepository.findRunningScanForAccount(accountId);
-    if (existingRunningScan.isPresent()) {
+    // Check if there's already a queued or running scan for this account
+    Optional<ScanJob> existingActiveScan = scanJobRepository.findActiveScanForAccount(accountId);
+    if (existingActiveScan.isPresent()) {
       throw new RuntimeException("A scan is already running for this account");
     }
 
@@ -103,24 +146,37 @@ public class ScanOrchestrationService {
     scanJob.setAwsAccount(account);
     scanJob.setUser(user);
     scanJob.setStatus(ScanStatus.PENDING);
-    ScanJob savedJob = scanJobRepository.save(scanJob);
-
-    log.info("=== SCAN JOB SAVED: id={}, status={}", savedJob.getId(), savedJob.getStatus());
 
-    // Execute scan asynchronously
-    log.info("=== CALLING executeScanAsync (should return immediately)");
-    self.executeScanAsync(savedJob.getId());
-    log.info("=== RETURNED FROM executeScanAsync");
+    // The partial unique index on active jobs closes the race between the check above and here
+    ScanJob savedJob;
+    try {
+      savedJob = scanJobRepository.saveAndFlush(scanJob);
+    } catch (DataIntegrityViolationException e) {
+      throw new RuntimeException("A scan is already running for this account");
+    }
 
+    log.info("=== SCAN JOB QUEUED: id={}, status={}", savedJob.getId(), savedJob.getStatus());
     return savedJob;
   }
 
+  /**
+   * Initiates a scan in a transaction of its own. The job is committed as soon as it is queued even
+   * when the caller holds a longer transaction, and a rejected scan does not roll the caller back.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public ScanJob initiateScanInNewTransaction(UUID accountId, UUID userId) {
+    return initiateScan(accountId, userId);
+  }
+
   /**
    * Executes the actual scanning process asynchronously. Runs in a separate thread pool to avoid
-   * blocking the request thread.
+   * blocking the polling thread. The returned future completes when the scan has finished, whether
+   * it succeeded or failed.
+   *
+   * @param leaseOwner the node that claimed the job; every state change is fenced on its lease
    */
   @Async("scanExecutor")
-  public void executeScanAsync(UUID scanJobId) {
+  public CompletableFuture<Void> executeScanAsync(UUID scanJobId, String leaseOwner) {
     String threadName = Thread.currentThread().getName();
     log.info("=== ASYNC STARTED: scanJobId={}, thread={}", scanJobId, threadName);
 
@@ -131,61 +187,258 @@ public class ScanOrchestrationService {
 
     try {
       log.info("=== CALLING self.executeScan");
-      self.executeScan(scanJobId);
+      self.executeScan(scanJobId, leaseOwner);
       log.info("=== COMPLETED self.executeScan");
     } catch (Exception e) {
+      // executeScan has already marked the job as failed
       log.error("=== ASYNC EXECUTION FAILED: scanJobId={}, error={}",
           scanJobId, e.getMessage(), e);
-      self.markScanAsFailed(scanJobId, e.getMessage());
     }
+    return CompletableFuture.completedFuture(null);
   }
 
   /**
-   * Executes the scanning process. Runs all scanners in parallel for improved performance. Uses a
-   * new transaction to ensure database operations complete even if called from async context.
+   * Executes the scanning process in three phases so that no database connection is held while
+   * AWS is being called:
+   * <ol>
+   *   <li>a short start transaction that marks the job running and loads everything discovery
+   *   needs,</li>
+   *   <li>discovery outside any transaction, with resources persisted and evaluated in short
+   *   per-chunk transactions as they arrive,</li>
+   *   <li>a separate completion transaction that records the totals.</li>
+   * </ol>
+   * Not transactional itself; each phase runs in its own transaction through the Spring proxy.
+   * The start, completion and failure updates only apply while the job is still leased to
+   * {@code leaseOwner}; a scan that lost its lease stops without recording a result.
    */
-  @Transactional(propagation = Propagation.REQUIRES_NEW)
-  public void executeScan(UUID scanJobId) {
+  public void executeScan(UUID scanJobId, String leaseOwner) {
     log.info("=== EXECUTE SCAN: scanJobId={}, thread={}",
         scanJobId, Thread.currentThread().getName());
 
-    ScanJob scanJob = scanJobRepository.findById(scanJobId)
+    scanThreads.put(scanJobId, Thread.currentThread());
+    try {
+      // Phase 1: mark the job running and load account, policies and settings
+      ScanContext context = self.startScan(scanJobId, leaseOwner);
+      AwsAccount account = context.getAccount();
+
+      // Phase 2: run enabled scanners on virtual threads, streaming into a bounded pipeline
+      List<ResourceScanner> enabledScanners = getEnabledScanners(context);
+      scanProgressPublisher.scanStarted(scanJobId, enabledScanners.size());
+
+      if (enabledScanners.isEmpty()) {
+        log.info("No enabled scanners for account {} -- completing scan with zero resources",
+            account.getAccountId());
+        self.completeScan(scanJobId, leaseOwner, context.getEnabledPolicies(), new ScanTotals());
+        scanProgressPublisher.scanCompleted(scanJobId, 0);
+        return;
+      }
+
+      ScanResourcePipeline pipeline = new ScanResourcePipeline(queueCapacity);
+      Future<Integer> discovery = scanEngine.startDiscovery(account, enabledScanners,
+          context.getEnabledRegions(), pipeline, scanProgressPublisher.forScan(scanJobId));
+
+      // Persist and evaluate fixed-size chunks, one short transaction each, while discovery runs
+      ScanTotals totals = new ScanTotals();
+      try {
+        pipeline.drain(chunkSize, chunk -> {
+          int violationsBefore = totals.getViolationsFound();
+          self.persistChunk(scanJobId, leaseOwner, chunk, context.getEnabledPolicies(),
+              context.isReevaluateUnchanged(), context.getExistingViolations(), totals);
+          // Published after the chunk's transaction has committed
+          scanProgressPublisher.resourcesPersisted(scanJobId, chunk.size(),
+              totals.getViolationsFound() - violationsBefore);
+        });
+      } catch (RuntimeException e) {
+        discovery.cancel(true);
+        throw e;
+      }
+      awaitDiscovery(discovery);
+
+      // In SQL mode every resource is now persisted, so the account is evaluated in one pass
+      if (complianceEngine == ComplianceEngine.SQL) {
+        ViolationReconciliation reconciliation =
+            complianceEvaluationService.evaluateAccountInDatabase(account.getId(), scanJobId);
+        totals.addViolations(reconciliation.getViolationsFound(),
+            reconciliation.getViolationsResolved());
+      }
+
+      // Phase 3: record the results
+      self.completeScan(scanJobId, leaseOwner, context.getEnabledPolicies(), totals);
+      scanProgressPublisher.scanCompleted(scanJobId, totals.getResourcesScanned());
+      logThroughput(scanJobId, totals);
+
+    } catch (Exception e) {
+      // A cancelled scan still needs the database to record its outcome
+      Thread.interrupted();
+      if (self.markScanAsFailed(scanJobId, leaseOwner, e.getMessage())) {
+        log.error("Scan job {} failed: {}", scanJobId, e.getMessage(), e);
+        scanProgressPublisher.scanFailed(scanJobId, e.getMessage());
+      } else {
+        log.warn("Scan job {} stopped on node {} after losing its lease: {}",
+            scanJobId, leaseOwner, e.getMessage());
+      }
+      throw e;
+    } finally {
+      scanThreads.remove(scanJobId);
+    }
+  }
+
+  /**
+   * Interrupts the scan of a job running on this node, for example after its lease was lost.
+   * Discovery is cancelled and the scan stops at its next blocking point.
+   *
+   * @return whether a scan of the job was running here
+   */
+  public boolean cancelScan(UUID scanJobId) {
+    Thread thread = scanThreads.get(scanJobId);
+    if (thread == null) {
+      return false;
+    }
+    log.warn("Cancelling scan job {} on thread {}", scanJobId, thread.getName());
+    thread.interrupt();
+    return true;
+  }
+
+  /**
+   * Start phase: marks the job as running, cleans up out-of-scope resources and loads the
+   * account, enabled policies, existing violations, enabled resource types and enabled regions.
+   * The returned context is detached and safe to use after this transaction commits.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public ScanContext startScan(UUID scanJobId, String leaseOwner) {
+    ScanJob scanJob = scanJobRepository.lockById(scanJobId)
         .orElseThrow(() -> new RuntimeException("Scan job not found"));
+    if (!scanJob.isLeasedTo(leaseOwner)) {
+      throw new ScanLeaseLostException(scanJobId, leaseOwner);
+    }
 
-    scanJob.start();
+    // Held until the job is RUNNING and its violations are loaded; policy re-evaluation batches
+    // take the same lock and skip accounts with a running scan
+    awsAccountRepository.lockAllById(List.of(scanJob.getAwsAccount().getId()));
 
+    scanJob.start();
     scanJobRepository.save(scanJob);
 
-    try {
-      AwsAccount account = scanJob.getAwsAccount();
-      UUID userId = scanJob.getUser().getId();
+    // Initialize the lazy account now; scanners read it after the session is closed
+    AwsAccount account = Hibernate.unproxy(scanJob.getAwsAccount(), AwsAccount.class);
+    UUID userId = scanJob.getUser().getId();
 
-      // Pre-action: Clean up out-of-scope resources based on current settings
-      resourceCleanupService.cleanupOutOfScopeResources(account);
+    // Pre-action: Clean up out-of-scope resources based on current settings
+    resourceCleanupService.cleanupOutOfScopeResources(account);
 
-      // Step 1: Get enabled policies for the user
-      List<TagPolicy> enabledPolicies = getEnabledPolicies(userId);
+    // Step 1: Get enabled policies for the user
+    List<TagPolicy> enabledPolicies = getEnabledPolicies(userId);
 
-      // Step 2: Run all scanners in parallel
-      List<CompletableFuture<List<AwsResource>>> scanFutures = getCompletableFutures(
-          account);
+    Set<String> enabledResourceTypes = resourceTypeSettingService.getEnabledResourceTypes()
+        .stream()
+        .map(ResourceTypeSetting::getResourceType)
+        .collect(Collectors.toSet());
 
-      if (allScannersDisabled(scanFutures, account, scanJob)) {
-        return;
-      }
+    List<String> enabledRegions = regionService.getEnabledRegionsByAccountId(account.getId())
+        .stream()
+        .map(AwsAccountRegion::getRegionCode)
+        .toList();
+
+    // Existing violations are loaded once, after cleanup, and reconciled in memory per chunk;
+    // the SQL engine reconciles in the database and needs no index
+    ViolationIndex existingViolations = complianceEngine == ComplianceEngine.SQL
+        ? ViolationIndex.empty()
+        : complianceEvaluationService.loadViolationIndex(account.getId());
+
+    // Skipping unchanged resources is only safe if they were evaluated against these policies
+    CompiledPolicySet policySet = CompiledPolicySet.compile(enabledPolicies);
+    boolean reevaluateUnchanged = !policySet.fingerprint()
+        .equals(account.getEvaluatedPolicySetHash());
+    if (reevaluateUnchanged) {
+      log.info("Policies changed since account {} was last evaluated; re-evaluating all resources",
+          account.getAccountId());
+    }
 
-      List<AwsResource> discoveredResources = collectScanResults(
-          scanFutures);
+    return new ScanContext(scanJobId, account, policySet, reevaluateUnchanged,
+        existingViolations, enabledResourceTypes, enabledRegions);
+  }
 
-      // Step 3: Save or update resources and evaluate compliance
-      persistResourcesAndCheckCompliance(discoveredResources, enabledPolicies, scanJob, account);
+  /**
+   * Chunk phase: saves or updates one chunk of discovered resources and evaluates compliance for
+   * it in a single short transaction. Resources whose content is unchanged since the previous scan
+   * are not re-evaluated, unless {@code reevaluateUnchanged} is set because the policies changed
+   * since then. Violations are reconciled against the scan's index of existing violations rather
+   * than looked up per resource. With the SQL engine only the resources are written here;
+   * compliance is evaluated for the whole account after discovery.
+   * <p>
+   * The job row stays locked until the chunk commits, so another node cannot take the job over
+   * while a chunk is being written.
+   *
+   * @throws ScanLeaseLostException if the job is no longer leased to {@code leaseOwner}
+   */
+  @Transactional
+  public void persistChunk(UUID scanJobId, String leaseOwner, List<AwsResource> chunk,
+      CompiledPolicySet enabledPolicies, boolean reevaluateUnchanged,
+      ViolationIndex existingViolations, ScanTotals totals) {
+    ScanJob scanJob = scanJobRepository.lockById(scanJobId)
+        .orElseThrow(() -> new RuntimeException("Scan job not found"));
+    if (!scanJob.isLeasedTo(leaseOwner)) {
+      throw new ScanLeaseLostException(scanJobId, leaseOwner);
+    }
 
-    } catch (Exception e) {
-      log.error("Scan job {} failed: {}", scanJob.getId(), e.getMessage(), e);
-      scanJob.fail(e.getMessage());
-      scanJobRepository.save(scanJob);
-      throw e;
+    long startNanos = System.nanoTime();
+    boolean evaluateUnchanged = reevaluateUnchanged && complianceEngine != ComplianceEngine.SQL;
+    UpsertResult result = persistResources(chunk, evaluateUnchanged);
+    long persistNanos = System.nanoTime() - startNanos;
+
+    if (complianceEngine == ComplianceEngine.SQL) {
+      totals.addChunk(result.getChanged().size(), result.getUnchangedCount(), 0, 0, persistNanos);
+      return;
+    }
+
+    List<AwsResource> toEvaluate = result.getChanged();
+    if (!result.getUnchanged().isEmpty()) {
+      toEvaluate = new ArrayList<>(result.getChanged());
+      toEvaluate.addAll(result.getUnchanged());
     }
+
+    // Step 3: Evaluate compliance for the chunk and reconcile its violations in bulk
+    ViolationReconciliation reconciliation = complianceEvaluationService.reconcileViolations(
+        toEvaluate, enabledPolicies, existingViolations, scanJob);
+
+    totals.addChunk(result.getChanged().size(), result.getUnchangedCount(),
+        reconciliation.getViolationsFound(), reconciliation.getViolationsResolved(), persistNanos);
+    log.debug("Scan job {} persisted chunk: {} changed, {} unchanged ({} so far)",
+        scanJobId, result.getChanged().size(), result.getUnchangedCount(),
+        totals.getResourcesScanned());
+  }
+
+  /**
+   * Completion phase: updates the account's last scan time and the policy set its resources were
+   * evaluated against, and completes the scan job. Nothing is written if the job is no longer
+   * leased to {@code leaseOwner}.
+   *
+   * @throws ScanLeaseLostException if the lease was lost
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void completeScan(UUID scanJobId, String leaseOwner, CompiledPolicySet enabledPolicies,
+      ScanTotals totals) {
+    ScanJob scanJob = scanJobRepository.lockById(scanJobId)
+        .orElseThrow(() -> new RuntimeException("Scan job not found"));
+    if (!scanJob.isLeasedTo(leaseOwner)) {
+      throw new ScanLeaseLostException(scanJobId, leaseOwner);
+    }
+
+    // Step 4: Update account last scan time
+    AwsAccount account = scanJob.getAwsAccount();
+    account.setLastScanAt(LocalDateTime.now());
+    account.setEvaluatedPolicySetHash(enabledPolicies.fingerprint());
+    awsAccountRepository.save(account);
+
+    // Step 5: Complete scan job
+    scanJob.recordChangeCounts(totals.getResourcesChanged(), totals.getResourcesUnchanged());
+    scanJob.complete(totals.getResourcesScanned(), totals.getViolationsFound(),
+        totals.getViolationsResolved());
+    scanJobRepository.save(scanJob);
+
+    log.info("Scan job {} completed successfully. Scanned {} resources ({} changed, {} unchanged), "
+            + "found {} violations", scanJobId, totals.getResourcesScanned(),
+        totals.getResourcesChanged(), totals.getResourcesUnchanged(), totals.getViolationsFound());
   }
 
   private List<TagPolicy> getEnabledPolicies(UUID userId) {
@@ -200,142 +453,88 @@ public class ScanOrchestrationService {
     return enabledPolicies;
   }
 
-  private List<CompletableFuture<List<AwsResource>>> getCompletableFutures(AwsAccount account) {
-    Set<String> enabledResourceTypes = resourceTypeSettingService.getEnabledResourceTypes()
-        .stream()
-        .map(ResourceTypeSetting::getResourceType)
-        .collect(Collectors.toSet());
+  private List<ResourceScanner> getEnabledScanners(ScanContext context) {
+    AwsAccount account = context.getAccount();
+    Set<String> enabledResourceTypes = context.getEnabledResourceTypes();
 
-    log.info(
-        "Starting parallel resource scans with {} scanners for account {} (enabled types: {})",
+    log.info("Selecting from {} scanners for account {} (enabled types: {})",
         resourceScanners.size(), account.getAccountId(), enabledResourceTypes);
 
-    List<CompletableFuture<List<AwsResource>>> scanFutures = new ArrayList<>();
-
+    List<ResourceScanner> enabledScanners = new ArrayList<>();
     for (ResourceScanner scanner : resourceScanners) {
       if (enabledResourceTypes.contains(scanner.getResourceType())) {
-        CompletableFuture<List<AwsResource>> future = CompletableFuture.supplyAsync(
-            () -> {
-              log.info("Running {} scanner for account {}",
-                  scanner.getResourceType(), account.getAccountId());
-              try {
-                List<AwsResource> resources = scanner.scan(account);
-                log.info("{} scanner found {} resources",
-                    scanner.getResourceType(), resources.size());
-                return resources;
-              } catch (Exception e) {
-                log.error("{} scanner failed: {}",
-                    scanner.getResourceType(), e.getMessage(), e);
-                return List.of(); // Return empty list on error
-              }
-            });
-        scanFutures.add(future);
+        enabledScanners.add(scanner);
       } else {
         log.info("Skipping {} scanner (disabled): {}",
             scanner.getResourceType(), account.getAccountId());
       }
     }
-    return scanFutures;
+    return enabledScanners;
   }
 
-  private boolean allScannersDisabled(List<CompletableFuture<List<AwsResource>>> scanFutures,
-      AwsAccount account, ScanJob scanJob) {
-    if (scanFutures.isEmpty()) {
-      log.info("No enabled scanners for account {} -- completing scan with zero resources",
-          account.getAccountId());
-
-      // Complete scan job with zero resources
-      scanJob.complete(0, 0, 0);
-      scanJobRepository.save(scanJob);
-      return true;
+  /**
+   * Waits for discovery to finish after the pipeline has been drained, surfacing a missed deadline
+   * or cancellation as a scan failure.
+   */
+  private void awaitDiscovery(Future<Integer> discovery) {
+    try {
+      discovery.get();
+    } catch (InterruptedException e) {
+      discovery.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while waiting for discovery");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new RuntimeException("Discovery failed: " + e.getCause().getMessage(), e.getCause());
     }
-    return false;
   }
 
-  private void persistResourcesAndCheckCompliance(List<AwsResource> discoveredResources,
-      List<TagPolicy> enabledPolicies,
-      ScanJob scanJob, AwsAccount account) {
-    int resourcesScanned = 0;
-    int violationsFound = 0;
-    int violationsResolved = 0;
+  /**
+   * Writes discovered resources using either the bulk or the per-resource path. The per-resource
+   * path always rewrites, so every resource counts as changed.
+   */
+  private UpsertResult persistResources(List<AwsResource> discoveredResources,
+      boolean includeUnchanged) {
+    if (batchPersistence) {
+      return resourcePersistenceService.upsertResources(discoveredResources, includeUnchanged);
+    }
 
+    List<AwsResource> persistedResources = new ArrayList<>(discoveredResources.size());
     for (AwsResource discovered : discoveredResources) {
-      // Check if resource already exists
-      Optional<AwsResource> existing = awsResourceRepository.findByResourceArn(
-          discovered.getResourceArn());
-
-      AwsResource resource;
-      if (existing.isPresent()) {
-        // Update existing resource
-        resource = existing.get();
-        resource.setTags(discovered.getTags());
-        resource.setMetadata(discovered.getMetadata());
-        resource.setName(discovered.getName());
-        resource.setRegion(discovered.getRegion());
-        resource.updateLastSeen();
-        log.debug("Updated existing resource: {}", resource.getResourceArn());
-      } else {
-        // Save new resource
-        resource = discovered;
-        log.debug("Discovered new resource: {}", resource.getResourceArn());
-      }
-
-      resource = awsResourceRepository.save(resource);
-      resourcesScanned++;
-
-      // Step 4: Evaluate compliance for this resource
-      List<ComplianceViolation> violations = complianceEvaluationService
-          .evaluateResource(resource, enabledPolicies);
-
-      // Link violations to this scan job
-      for (ComplianceViolation violation : violations) {
-        violation.setScanJob(scanJob);
-      }
-
-      violationsFound += violations.size();
+      persistedResources.add(resourcePersistenceService.upsertResource(discovered));
     }
-
-    // Step 5: Update account last scan time
-    account.setLastScanAt(LocalDateTime.now());
-    awsAccountRepository.save(account);
-
-    // Step 6: Complete scan job
-    scanJob.complete(resourcesScanned, violationsFound, violationsResolved);
-    scanJobRepository.save(scanJob);
-
-    log.info("Scan job {} completed successfully. Scanned {} resources, found {} violations",
-        scanJob.getId(), resourcesScanned, violationsFound);
+    return new UpsertResult(persistedResources, 0);
   }
 
-  private List<AwsResource> collectScanResults(
-      List<CompletableFuture<List<AwsResource>>> scanFutures) {
-    // Wait for all scanners to complete
-    CompletableFuture<Void> allScans = CompletableFuture.allOf(
-        scanFutures.toArray(new CompletableFuture[0]));
-    allScans.join();
-
-    // Collect all discovered resources
-    List<AwsResource> discoveredResources = new ArrayList<>();
-    for (CompletableFuture<List<AwsResource>> future : scanFutures) {
-      discoveredResources.addAll(future.join());
-    }
-
-    log.info("Discovered {} total resources from {} scanners",
-        discoveredResources.size(), resourceScanners.size());
-    return discoveredResources;
+  /**
+   * Logs the throughput of the persistence step, for comparing batch and per-resource modes.
+   */
+  private void logThroughput(UUID scanJobId, ScanTotals totals) {
+    long persistMillis = Math.max(1, totals.getPersistNanos() / 1_000_000);
+    double rowsPerSecond = totals.getResourcesScanned() * 1000.0 / persistMillis;
+    log.info("Scan job {} persisted {} resources in {} ms ({} rows/sec, mode={})",
+        scanJobId, totals.getResourcesScanned(), persistMillis,
+        String.format("%.1f", rowsPerSecond), batchPersistence ? "batch" : "per-resource");
   }
 
   /**
    * Marks a scan as failed. Uses new transaction to ensure update even if outer transaction rolls
-   * back.
+   * back. Leaves the job alone if it is no longer leased to {@code leaseOwner}.
+   *
+   * @return false if the lease was lost, so the failure belongs to this node only
    */
   @Transactional(propagation = Propagation.REQUIRES_NEW)
-  protected void markScanAsFailed(UUID scanJobId, String errorMessage) {
+  protected boolean markScanAsFailed(UUID scanJobId, String leaseOwner, String errorMessage) {
     try {
-      ScanJob scanJob = scanJobRepository.findById(scanJobId)
+      ScanJob scanJob = scanJobRepository.lockById(scanJobId)
           .orElse(null);
 
       if (scanJob != null) {
+        if (!scanJob.isLeasedTo(leaseOwner)) {
+          return false;
+        }
         scanJob.fail(errorMessage);
         scanJobRepository.save(scanJob);
         log.info("Marked scan job {} as FAILED", scanJobId);
@@ -343,6 +542,7 @@ public class ScanOrchestrationService {
     } catch (Exception e) {
       log.error("Failed to mark scan {} as failed: {}", scanJobId, e.getMessage());
     }
+    return true;
   }
 
   /**
@@ -373,4 +573,4 @@ public class ScanOrchestrationService {
   public Optional<ScanJob> getLastScanForAccount(UUID accountId) {
     return scanJobRepository.findFirstByAwsAccountIdOrderByCreatedAtDesc(accountId);
   }
-}
\ No newline at end of file
+}
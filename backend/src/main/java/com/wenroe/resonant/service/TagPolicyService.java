@@ -4,8 +4,10 @@ import com.wenroe.resonant.model.entity.TagPolicy;
 import com.wenroe.resonant.model.entity.User;
 import com.wenroe.resonant.repository.TagPolicyRepository;
 import com.wenroe.resonant.repository.UserRepository;
+import com.wenroe.resonant.service.compliance.PolicyChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,6 +16,10 @@ import java.util.UUID;
 
 /**
  * Service for managing tag compliance policies.
+ * <p>
+ * Changes that affect which resources violate a policy are applied to stored resources without a
+ * rescan: violations the policy no longer covers are resolved in the same transaction, and an
+ * enabled policy is re-evaluated asynchronously once the change commits.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,6 +28,8 @@ public class TagPolicyService {
 
     private final TagPolicyRepository tagPolicyRepository;
     private final UserRepository userRepository;
+    private final ComplianceEvaluationService complianceEvaluationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates a new tag policy for a user.
@@ -45,6 +53,10 @@ public class TagPolicyService {
 
         TagPolicy saved = tagPolicyRepository.save(policy);
         log.info("Created tag policy '{}' for user {}", saved.getName(), userId);
+
+        if (Boolean.TRUE.equals(saved.getEnabled())) {
+            eventPublisher.publishEvent(new PolicyChangedEvent(saved.getId()));
+        }
         return saved;
     }
 
@@ -61,6 +73,8 @@ public class TagPolicyService {
             throw new RuntimeException("Not authorized to update this tag policy");
         }
 
+        boolean wasEnabled = Boolean.TRUE.equals(existing.getEnabled());
+
         // Update fields
         if (updatedPolicy.getName() != null) {
             existing.setName(updatedPolicy.getName());
@@ -89,6 +103,12 @@ public class TagPolicyService {
 
         TagPolicy saved = tagPolicyRepository.save(existing);
         log.info("Updated tag policy '{}' ({})", saved.getName(), policyId);
+
+        // Name, description and severity do not change which resources violate the policy
+        if (updatedPolicy.getRequiredTags() != null || updatedPolicy.getResourceTypes() != null
+                || Boolean.TRUE.equals(saved.getEnabled()) != wasEnabled) {
+            applyPolicyChange(saved);
+        }
         return saved;
     }
 
@@ -129,6 +149,8 @@ public class TagPolicyService {
         policy.setEnabled(true);
         TagPolicy saved = tagPolicyRepository.save(policy);
         log.info("Enabled tag policy '{}' ({})", saved.getName(), policyId);
+
+        applyPolicyChange(saved);
         return saved;
     }
 
@@ -147,6 +169,8 @@ public class TagPolicyService {
         policy.setEnabled(false);
         TagPolicy saved = tagPolicyRepository.save(policy);
         log.info("Disabled tag policy '{}' ({})", saved.getName(), policyId);
+
+        applyPolicyChange(saved);
         return saved;
     }
 
@@ -167,6 +191,17 @@ public class TagPolicyService {
         log.info("Deleted tag policy '{}' ({})", policy.getName(), policyId);
     }
 
+    /**
+     * Resolves the policy's open violations that it no longer covers, all of them if it is now
+     * disabled, and queues a re-evaluation of an enabled policy for after the commit.
+     */
+    private void applyPolicyChange(TagPolicy policy) {
+        complianceEvaluationService.resolveInapplicableViolations(policy);
+        if (Boolean.TRUE.equals(policy.getEnabled())) {
+            eventPublisher.publishEvent(new PolicyChangedEvent(policy.getId()));
+        }
+    }
+
     /**
      * Counts total policies for a user.
      */
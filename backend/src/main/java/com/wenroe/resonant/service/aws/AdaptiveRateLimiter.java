@@ -0,0 +1,115 @@
+package com.wenroe.resonant.service.aws;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket whose rate adapts with additive-increase/multiplicative-decrease (AIMD): every
+ * successful call nudges the rate up by about one permit per second per second, and a throttle
+ * response cuts it by a constant factor, at most once per cooldown so a burst of throttled calls
+ * in flight counts as a single congestion signal.
+ * <p>
+ * Callers reserve a slot under a short lock and sleep outside it, so waiting virtual threads do
+ * not pin their carrier.
+ */
+class AdaptiveRateLimiter {
+
+  // Unused permits accumulate for at most this long, bounding the burst after an idle period
+  private static final long MAX_BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final double minRate;
+  private final double maxRate;
+  private final double decreaseFactor;
+  private final long decreaseCooldownNanos;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private double rate;
+  private long nextPermitNanos;
+  private long lastDecreaseNanos;
+
+  AdaptiveRateLimiter(double initialRate, double minRate, double maxRate, double decreaseFactor,
+      Duration decreaseCooldown) {
+    this.minRate = minRate;
+    this.maxRate = maxRate;
+    this.decreaseFactor = decreaseFactor;
+    this.decreaseCooldownNanos = decreaseCooldown.toNanos();
+    this.rate = Math.min(Math.max(initialRate, minRate), maxRate);
+    long now = System.nanoTime();
+    this.nextPermitNanos = now - MAX_BURST_NANOS;
+    this.lastDecreaseNanos = now - decreaseCooldownNanos;
+  }
+
+  /**
+   * Takes one permit, sleeping until it is available.
+   *
+   * @return how long the caller waited, in nanoseconds
+   */
+  long acquire() throws InterruptedException {
+    long waitNanos;
+    lock.lock();
+    try {
+      long now = System.nanoTime();
+      long slot = Math.max(nextPermitNanos, now - MAX_BURST_NANOS);
+      nextPermitNanos = slot + intervalNanos();
+      waitNanos = slot - now;
+    } finally {
+      lock.unlock();
+    }
+
+    if (waitNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+      return waitNanos;
+    }
+    return 0;
+  }
+
+  /**
+   * Additive increase: about one permit per second for every second of successful traffic.
+   */
+  void onSuccess() {
+    lock.lock();
+    try {
+      rate = Math.min(maxRate, rate + 1.0 / rate);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Multiplicative decrease, and drops any accumulated burst so the lower rate applies at once.
+   *
+   * @return true if the rate was reduced, false if still within the cooldown of the last decrease
+   */
+  boolean onThrottle() {
+    lock.lock();
+    try {
+      long now = System.nanoTime();
+      if (now - lastDecreaseNanos < decreaseCooldownNanos) {
+        return false;
+      }
+      lastDecreaseNanos = now;
+      rate = Math.max(minRate, rate * decreaseFactor);
+      nextPermitNanos = Math.max(nextPermitNanos, now);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Current rate in permits per second.
+   */
+  double rate() {
+    lock.lock();
+    try {
+      return rate;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private long intervalNanos() {
+    return (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+  }
+}
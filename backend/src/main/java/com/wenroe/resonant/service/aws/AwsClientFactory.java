@@ -2,232 +2,489 @@ package com.wenroe.resonant.service.aws;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
 import com.wenroe.resonant.model.entity.AwsAccount;
 import com.wenroe.resonant.service.security.CredentialEncryptionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
 import java.time.Duration;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
-import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.cloudfront.CloudFrontClient;
 import software.amazon.awssdk.services.ec2.Ec2Client;
 import software.amazon.awssdk.services.rds.RdsClient;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.ResourceGroupsTaggingApiClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
 import software.amazon.awssdk.services.sts.StsClient;
+import software.amazon.awssdk.services.sts.auth.StsAssumeRoleCredentialsProvider;
 import software.amazon.awssdk.services.sts.model.AssumeRoleRequest;
-import software.amazon.awssdk.services.sts.model.AssumeRoleResponse;
-import software.amazon.awssdk.services.sts.model.Credentials;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
 
 /**
  * Factory for creating AWS SDK clients with proper credential management and caching. Handles both
  * IAM role assumption and access key authentication.
  * <p>
- * Credentials are cached per account to avoid repeated AssumeRole calls. Cache expiration is set 5
- * minutes before AWS credential expiration for safety.
+ * Each account has a cached credentials provider. Role providers assume the role through one shared
+ * STS client and refresh asynchronously ahead of the credentials' actual expiration, so scans
+ * spanning an expiry never block on STS. The cache is resized from the account count by
+ * {@link CredentialCacheSizer}; AssumeRole latency is published as the
+ * {@code resonant.aws.credentials.refresh} timer.
+ * <p>
+ * Every account-scoped client is rate limited by the shared {@link AwsRateGovernor}.
+ * <p>
+ * Account-scoped clients are long-lived and pooled per (account, service, region). They share one
+ * {@link SdkHttpClient} connection pool and read credentials from the credential cache on each
+ * request, so they outlive credential refreshes. Callers must not close them. A pooled client is
+ * closed when it has not been requested for the idle timeout, or when the account's credentials
+ * are evicted. A client pushed out by the size limit may still be in use by a running scan, so it
+ * is only closed once the idle timeout has passed since its eviction. Hit and miss counts are
+ * published as the {@code aws.clients} cache metrics.
  */
 @Component
 @Slf4j
 public class AwsClientFactory {
 
+  // Region part of the pool key for the cross-region S3 client
+  private static final String CROSS_REGION = "cross-region";
+
+  // Credentials this close to expiry are refreshed synchronously rather than in the background
+  private static final Duration STALE_TIME = Duration.ofMinutes(2);
+
   private final CredentialEncryptionService encryptionService;
-  private final Cache<UUID, AwsCredentials> credentialCache;
+  private final AwsRateGovernor rateGovernor;
+  private final SdkHttpClient httpClient;
+  private final Cache<UUID, AwsCredentialsProvider> credentialProviders;
+  private final Cache<ClientKey, SdkClient> clientCache;
+  private final Cache<SdkClient, ClientKey> retiredClients;
+  private final StsClient stsClient;
   private final Integer sessionDuration;
+  private final Duration prefetchTime;
+  private final long minCredentialCacheSize;
 
   public AwsClientFactory(
       CredentialEncryptionService encryptionService,
-      @Value("${resonant.aws.session-duration:3600}") Integer sessionDuration) {
+      AwsRateGovernor rateGovernor,
+      SdkHttpClient httpClient,
+      MeterRegistry meterRegistry,
+      @Value("${resonant.aws.session-duration:3600}") Integer sessionDuration,
+      @Value("${resonant.aws.credentials.prefetch-time:PT15M}") Duration prefetchTime,
+      @Value("${resonant.aws.credentials.min-cache-size:100}") long minCredentialCacheSize,
+      @Value("${resonant.aws.client-cache.max-size:2000}") long clientCacheMaxSize,
+      @Value("${resonant.aws.client-cache.idle-timeout:PT1H}") Duration clientIdleTimeout) {
+    if (prefetchTime.compareTo(STALE_TIME) <= 0
+        || prefetchTime.compareTo(Duration.ofSeconds(sessionDuration)) >= 0) {
+      throw new IllegalArgumentException("Credential prefetch time " + prefetchTime
+          + " must be between " + STALE_TIME + " and the session duration " + sessionDuration
+          + "s");
+    }
+
     this.encryptionService = encryptionService;
+    this.rateGovernor = rateGovernor;
+    this.httpClient = httpClient;
     this.sessionDuration = sessionDuration;
-
-    // Cache credentials for (sessionDuration - 5 minutes) to ensure safety buffer
-    long cacheDurationSeconds = Math.max(sessionDuration - 300, 300);
-
-    this.credentialCache = Caffeine.newBuilder()
-        .expireAfterWrite(Duration.ofSeconds(cacheDurationSeconds))
-        .maximumSize(100)
+    this.prefetchTime = prefetchTime;
+    this.minCredentialCacheSize = minCredentialCacheSize;
+    this.stsClient = buildStsClient(meterRegistry);
+
+    // Providers refresh in the background for as long as they are cached, so one idle for as
+    // long as its clients is closed along with them. The size follows the account count.
+    this.credentialProviders = Caffeine.newBuilder()
+        .expireAfterAccess(clientIdleTimeout)
+        .maximumSize(minCredentialCacheSize)
+        .removalListener((UUID accountId, AwsCredentialsProvider provider, RemovalCause cause) ->
+            closeProvider(accountId, provider, cause))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, credentialProviders, "aws.credentials");
+
+    log.info("Initialized credential providers (session: {}s, refresh {} before expiry)",
+        sessionDuration, prefetchTime);
+
+    // Clients are only closed once evicted; the idle timeout must exceed the scan deadline so a
+    // client fetched at the start of a long scan is not closed while still in use
+    this.clientCache = Caffeine.newBuilder()
+        .expireAfterAccess(clientIdleTimeout)
+        .maximumSize(clientCacheMaxSize)
+        .removalListener((ClientKey key, SdkClient client, RemovalCause cause) ->
+            retireClient(key, client, cause))
         .recordStats()
         .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, clientCache, "aws.clients");
+
+    // Size-evicted clients wait out the idle timeout, and with it the scan deadline, before closing
+    this.retiredClients = Caffeine.newBuilder()
+        .expireAfterWrite(clientIdleTimeout)
+        .scheduler(Scheduler.systemScheduler())
+        .removalListener((SdkClient client, ClientKey key, RemovalCause cause) ->
+            closeClient(key, client, cause))
+        .build();
 
-    log.info("Initialized credential cache with {}s expiration (session: {}s, buffer: 300s)",
-        cacheDurationSeconds, sessionDuration);
+    log.info("Initialized AWS client cache (max {} clients, idle timeout {})",
+        clientCacheMaxSize, clientIdleTimeout);
   }
 
   /**
-   * Creates an STS client for role assumption. Uses default credentials from: 1. Environment
-   * variables (AWS_ACCESS_KEY_ID, AWS_SECRET_ACCESS_KEY) 2. ~/.aws/credentials file (default
-   * profile or AWS_PROFILE env var) 3. IAM role (if running on EC2/ECS)
+   * Builds the STS client shared by every role account's credentials provider. Uses default
+   * credentials from: 1. Environment variables (AWS_ACCESS_KEY_ID, AWS_SECRET_ACCESS_KEY) 2.
+   * ~/.aws/credentials file (default profile or AWS_PROFILE env var) 3. IAM role (if running on
+   * EC2/ECS)
    * <p>
    * For local development, ensure AWS CLI is configured (aws configure).
    */
-  public StsClient createStsClient() {
+  private StsClient buildStsClient(MeterRegistry meterRegistry) {
     return StsClient.builder()
         .region(Region.US_EAST_1) // STS is global, but needs a region
+        .httpClient(httpClient)
+        .overrideConfiguration(ClientOverrideConfiguration.builder()
+            .addExecutionInterceptor(new AssumeRoleTimer(meterRegistry))
+            .build())
         .build(); // Uses default credential provider chain
   }
 
   /**
-   * Assumes an IAM role and returns temporary credentials.
+   * Builds the credentials provider for an account. Role accounts get a provider that assumes the
+   * role on first use and then refreshes in the background once the credentials are within the
+   * prefetch time of their actual expiration, so requests never wait on STS while the current
+   * credentials are still valid. Access key accounts get their decrypted keys.
    */
-  private AwsSessionCredentials assumeRole(AwsAccount account) {
+  private AwsCredentialsProvider buildProvider(AwsAccount account) {
     if (!account.usesRole()) {
-      throw new IllegalArgumentException("Account is not configured for role assumption");
+      String accessKey = encryptionService.decrypt(account.getAccessKeyEncrypted());
+      String secretKey = encryptionService.decrypt(account.getSecretKeyEncrypted());
+      return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
     }
 
-    try (StsClient stsClient = createStsClient()) {
-      AssumeRoleRequest assumeRoleRequest = AssumeRoleRequest.builder()
-          .roleArn(account.getRoleArn())
-          .roleSessionName("resonant-scan-" + System.currentTimeMillis())
-          .externalId(account.getExternalId())
-          .durationSeconds(sessionDuration)
-          .build();
-
-      AssumeRoleResponse response = stsClient.assumeRole(assumeRoleRequest);
-      Credentials credentials = response.credentials();
-
-      log.info("Successfully assumed role for account: {} (expires: {})",
-          account.getAccountId(), credentials.expiration());
-
-      return AwsSessionCredentials.create(
-          credentials.accessKeyId(),
-          credentials.secretAccessKey(),
-          credentials.sessionToken()
-      );
+    log.info("Creating refreshing credentials provider for account: {}", account.getAccountId());
+    return StsAssumeRoleCredentialsProvider.builder()
+        .stsClient(stsClient)
+        .refreshRequest(() -> AssumeRoleRequest.builder()
+            .roleArn(account.getRoleArn())
+            .roleSessionName("resonant-scan-" + System.currentTimeMillis())
+            .externalId(account.getExternalId())
+            .durationSeconds(sessionDuration)
+            .build())
+        .asyncCredentialUpdateEnabled(true)
+        .prefetchTime(prefetchTime)
+        .staleTime(STALE_TIME)
+        .build();
+  }
 
+  /**
+   * Resolves credentials for an AWS account from its cached provider. Role credentials are
+   * refreshed by the provider ahead of expiry, so only the first call for an account (or one made
+   * after the credentials went stale) waits on AssumeRole.
+   */
+  public AwsCredentials resolveCredentials(AwsAccount account) {
+    AwsCredentialsProvider provider = credentialProviders.get(account.getId(),
+        id -> buildProvider(account));
+    try {
+      return provider.resolveCredentials();
     } catch (Exception e) {
-      log.error("Failed to assume role for account {}: {}",
+      // Drop the provider so the next call starts over, e.g. after the account is fixed
+      credentialProviders.invalidate(account.getId());
+      log.error("Failed to resolve credentials for account {}: {}",
           account.getAccountId(), e.getMessage());
-      throw new RuntimeException("Failed to assume AWS role: " + e.getMessage(), e);
+      throw new RuntimeException("Failed to resolve AWS credentials: " + e.getMessage(), e);
     }
   }
 
   /**
-   * Resolves credentials for an AWS account with caching. For role-based accounts, credentials are
-   * cached to avoid repeated AssumeRole calls. For access key accounts, credentials are decrypted
-   * and cached.
+   * Resizes the credential cache to hold every account with some headroom, never going below the
+   * configured minimum. Called periodically with the current account count.
    */
-  public AwsCredentials resolveCredentials(AwsAccount account) {
-    UUID accountId = account.getId();
-
-    AwsCredentials cached = credentialCache.getIfPresent(accountId);
-    if (cached != null) {
-      log.debug("Using cached credentials for account: {}", account.getAccountId());
-      return cached;
-    }
-
-    log.info("Resolving fresh credentials for account: {}", account.getAccountId());
-
-    AwsCredentials credentials;
-    if (account.usesRole()) {
-      credentials = assumeRole(account);
-    } else {
-      // Decrypt and use access keys
-      String accessKey = encryptionService.decrypt(account.getAccessKeyEncrypted());
-      String secretKey = encryptionService.decrypt(account.getSecretKeyEncrypted());
-      credentials = AwsBasicCredentials.create(accessKey, secretKey);
-    }
-
-    credentialCache.put(accountId, credentials);
-    log.debug("Cached credentials for account: {}", account.getAccountId());
+  public void resizeCredentialCache(long accountCount) {
+    long target = Math.max(minCredentialCacheSize, accountCount + accountCount / 4);
+    credentialProviders.policy().eviction().ifPresent(eviction -> {
+      if (eviction.getMaximum() != target) {
+        log.info("Resizing credential cache from {} to {} for {} accounts",
+            eviction.getMaximum(), target, accountCount);
+        eviction.setMaximum(target);
+      }
+    });
+  }
 
-    return credentials;
+  /**
+   * Gets the maximum number of accounts the credential cache holds.
+   */
+  public long getCredentialCacheCapacity() {
+    return credentialProviders.policy().eviction()
+        .map(eviction -> eviction.getMaximum())
+        .orElse(Long.MAX_VALUE);
   }
 
   /**
-   * Evicts cached credentials for an account. Useful when credential errors occur or account is
-   * updated.
+   * Evicts cached credentials for an account, along with its pooled clients. Useful when
+   * credential errors occur or account is updated.
    */
   public void evictCredentials(UUID accountId) {
-    credentialCache.invalidate(accountId);
-    log.info("Evicted cached credentials for account: {}", accountId);
+    credentialProviders.invalidate(accountId);
+    clientCache.invalidateAll(clientCache.asMap().keySet().stream()
+        .filter(key -> Objects.equals(key.accountId(), accountId))
+        .toList());
+    log.info("Evicted cached credentials and clients for account: {}", accountId);
   }
 
   /**
-   * Clears all cached credentials.
+   * Clears all cached credentials and pooled clients.
    */
   public void clearCredentialCache() {
-    credentialCache.invalidateAll();
-    log.info("Cleared all cached credentials");
+    credentialProviders.invalidateAll();
+    clientCache.invalidateAll();
+    log.info("Cleared all cached credentials and clients");
+  }
+
+  /**
+   * Closes the cached providers, pooled clients and the shared STS client on shutdown.
+   */
+  @PreDestroy
+  public void close() {
+    clearCredentialCache();
+    credentialProviders.cleanUp();
+    clientCache.cleanUp();
+    retiredClients.invalidateAll();
+    retiredClients.cleanUp();
+    stsClient.close();
   }
 
   /**
    * Gets cache statistics for monitoring.
    */
   public String getCacheStats() {
-    return credentialCache.stats().toString();
+    return credentialProviders.stats().toString();
   }
 
   /**
-   * Creates an EC2 client for the specified account and region.
+   * Gets pooled client cache statistics for monitoring.
    */
-  public Ec2Client createEc2Client(AwsAccount account, String regionCode) {
-    AwsCredentials credentials = resolveCredentials(account);
+  public String getClientCacheStats() {
+    return clientCache.stats().toString();
+  }
 
-    return Ec2Client.builder()
-        .region(Region.of(regionCode))
-        .credentialsProvider(StaticCredentialsProvider.create(credentials))
-        .build();
+  /**
+   * Number of clients evicted for size that are waiting to be closed.
+   */
+  public long getRetiredClientCount() {
+    return retiredClients.estimatedSize();
   }
 
   /**
-   * Creates an S3 client for the specified account. If regionCode is null, enables cross-region
-   * access for operations on buckets in any region. If regionCode is provided, creates a
-   * region-specific client.
+   * Returns the pooled client for a key, building it on first use.
    */
-  public S3Client createS3Client(AwsAccount account, String regionCode) {
-    AwsCredentials credentials = resolveCredentials(account);
-
-    S3ClientBuilder builder = S3Client.builder()
-        .credentialsProvider(StaticCredentialsProvider.create(credentials));
-
-    if (regionCode == null) {
-      // Enable cross-region access for S3 operations
-      builder.region(Region.US_EAST_1);
-      builder.crossRegionAccessEnabled(true);
-      log.debug("Created S3 client with cross-region access enabled");
-    } else {
-      // Region-specific client
-      builder.region(Region.of(regionCode));
-      log.debug("Created S3 client for region: {}", regionCode);
+  private <T extends SdkClient> T pooledClient(AwsAccount account, String service, String region,
+      Class<T> type, Supplier<T> builder) {
+    SdkClient client = clientCache.get(new ClientKey(account.getId(), service, region),
+        key -> {
+          log.debug("Creating pooled {} client for account {} in {}",
+              service, account.getAccountId(), region);
+          return builder.get();
+        });
+    return type.cast(client);
+  }
+
+  /**
+   * Credentials provider for pooled clients. Reads the provider cache on every request, so a
+   * client keeps working after its account's credentials are refreshed or evicted.
+   */
+  private AwsCredentialsProvider credentialsProvider(AwsAccount account) {
+    return () -> resolveCredentials(account);
+  }
+
+  private void closeProvider(UUID accountId, AwsCredentialsProvider provider,
+      RemovalCause cause) {
+    if (provider instanceof SdkAutoCloseable closeable) {
+      // Stops the provider's background refresh; the shared STS client stays open
+      closeable.close();
+      log.debug("Closed credentials provider for account {} ({})", accountId, cause);
+    }
+  }
+
+  private void retireClient(ClientKey key, SdkClient client, RemovalCause cause) {
+    if (client != null && cause == RemovalCause.SIZE) {
+      retiredClients.put(client, key);
+      log.debug("Retired pooled {} client for account {} in {}",
+          key.service(), key.accountId(), key.region());
+      return;
     }
+    closeClient(key, client, cause);
+  }
 
-    return builder.build();
+  private void closeClient(ClientKey key, SdkClient client, RemovalCause cause) {
+    if (client == null) {
+      return;
+    }
+    try {
+      client.close();
+      log.debug("Closed pooled {} client for account {} in {} ({})",
+          key.service(), key.accountId(), key.region(), cause);
+    } catch (Exception e) {
+      log.warn("Failed to close pooled {} client: {}", key.service(), e.getMessage());
+    }
   }
 
   /**
-   * Creates a CloudFront client for the specified account. CloudFront is a global service (uses
-   * us-east-1 as endpoint).
+   * Returns the pooled EC2 client for the specified account and region.
    */
-  public CloudFrontClient createCloudFrontClient(AwsAccount account) {
-    AwsCredentials credentials = resolveCredentials(account);
+  public Ec2Client createEc2Client(AwsAccount account, String regionCode) {
+    return pooledClient(account, "ec2", regionCode, Ec2Client.class,
+        () -> Ec2Client.builder()
+            .region(Region.of(regionCode))
+            .credentialsProvider(credentialsProvider(account))
+            .httpClient(httpClient)
+            .overrideConfiguration(rateGovernor.overrideConfiguration(account))
+            .build());
+  }
 
-    return CloudFrontClient.builder()
-        .region(Region.AWS_GLOBAL)
-        .credentialsProvider(StaticCredentialsProvider.create(credentials))
-        .build();
+  /**
+   * Returns the pooled S3 client for the specified account. If regionCode is null, the client has
+   * cross-region access enabled for operations on buckets in any region. If regionCode is
+   * provided, the client is region-specific.
+   */
+  public S3Client createS3Client(AwsAccount account, String regionCode) {
+    return pooledClient(account, "s3", regionCode != null ? regionCode : CROSS_REGION,
+        S3Client.class, () -> {
+          S3ClientBuilder builder = S3Client.builder()
+              .credentialsProvider(credentialsProvider(account))
+              .httpClient(httpClient)
+              .overrideConfiguration(rateGovernor.overrideConfiguration(account));
+
+          if (regionCode == null) {
+            // Enable cross-region access for S3 operations
+            builder.region(Region.US_EAST_1);
+            builder.crossRegionAccessEnabled(true);
+          } else {
+            // Region-specific client
+            builder.region(Region.of(regionCode));
+          }
+          return builder.build();
+        });
+  }
+
+  /**
+   * Returns the pooled CloudFront client for the specified account. CloudFront is a global
+   * service (uses us-east-1 as endpoint).
+   */
+  public CloudFrontClient createCloudFrontClient(AwsAccount account) {
+    return pooledClient(account, "cloudfront", Region.AWS_GLOBAL.id(), CloudFrontClient.class,
+        () -> CloudFrontClient.builder()
+            .region(Region.AWS_GLOBAL)
+            .credentialsProvider(credentialsProvider(account))
+            .httpClient(httpClient)
+            .overrideConfiguration(rateGovernor.overrideConfiguration(account))
+            .build());
   }
 
   /**
-   * Creates an RDS client for the specified account and region.
+   * Returns the pooled RDS client for the specified account and region.
    */
   public RdsClient createRdsClient(AwsAccount account, String regionCode) {
-    AwsCredentials credentials = resolveCredentials(account);
+    return pooledClient(account, "rds", regionCode, RdsClient.class,
+        () -> RdsClient.builder()
+            .region(Region.of(regionCode))
+            .credentialsProvider(credentialsProvider(account))
+            .httpClient(httpClient)
+            .overrideConfiguration(rateGovernor.overrideConfiguration(account))
+            .build());
+  }
 
-    return RdsClient.builder()
-        .region(Region.of(regionCode))
-        .credentialsProvider(StaticCredentialsProvider.create(credentials))
-        .build();
+  /**
+   * Returns the pooled Resource Groups Tagging API client for the specified account and region.
+   * The tagging API is regional; global services such as CloudFront are served from us-east-1.
+   */
+  public ResourceGroupsTaggingApiClient createResourceGroupsTaggingClient(AwsAccount account,
+      String regionCode) {
+    return pooledClient(account, "tagging", regionCode, ResourceGroupsTaggingApiClient.class,
+        () -> ResourceGroupsTaggingApiClient.builder()
+            .region(Region.of(regionCode))
+            .credentialsProvider(credentialsProvider(account))
+            .httpClient(httpClient)
+            .overrideConfiguration(rateGovernor.overrideConfiguration(account))
+            .build());
   }
 
   /**
-   * Creates an EC2 client for listing regions (uses us-east-1 as default).
+   * Returns the pooled EC2 client for listing regions (uses us-east-1 as default).
    */
   public Ec2Client createEc2ClientForRegionDiscovery(AwsAccount account) {
     return createEc2Client(account, "us-east-1");
   }
+
+  /**
+   * Records the latency of every AssumeRole call made by the shared STS client as the
+   * {@code resonant.aws.credentials.refresh} timer, tagged with its outcome.
+   */
+  private static class AssumeRoleTimer implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Long> START_NANOS =
+        new ExecutionAttribute<>("resonant.assumeRoleStartNanos");
+
+    private final Timer success;
+    private final Timer failure;
+
+    AssumeRoleTimer(MeterRegistry meterRegistry) {
+      this.success = refreshTimer(meterRegistry, "success");
+      this.failure = refreshTimer(meterRegistry, "failure");
+    }
+
+    private static Timer refreshTimer(MeterRegistry meterRegistry, String outcome) {
+      return Timer.builder("resonant.aws.credentials.refresh")
+          .description("Latency of AssumeRole calls that refresh account credentials")
+          .tag("outcome", outcome)
+          .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context,
+        ExecutionAttributes executionAttributes) {
+      if (context.request() instanceof AssumeRoleRequest) {
+        executionAttributes.putAttribute(START_NANOS, System.nanoTime());
+      }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context,
+        ExecutionAttributes executionAttributes) {
+      record(success, executionAttributes);
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context,
+        ExecutionAttributes executionAttributes) {
+      record(failure, executionAttributes);
+    }
+
+    private void record(Timer timer, ExecutionAttributes executionAttributes) {
+      Long startNanos = executionAttributes.getAttribute(START_NANOS);
+      if (startNanos != null) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  /**
+   * Identifies a pooled client.
+   */
+  record ClientKey(UUID accountId, String service, String region) {
+
+  }
 }
\ No newline at end of file
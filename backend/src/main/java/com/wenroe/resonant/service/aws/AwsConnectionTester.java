@@ -60,14 +60,14 @@ public class AwsConnectionTester {
       }
 
       // Step 2: Test EC2 DescribeRegions (ensures we can scan)
-      try (Ec2Client ec2Client = clientFactory.createEc2ClientForRegionDiscovery(account)) {
-        DescribeRegionsResponse regions = ec2Client.describeRegions(
-            DescribeRegionsRequest.builder().allRegions(false).build()
-        );
-
-        result.setAvailableRegionCount(regions.regions().size());
-        log.info("Successfully listed {} AWS regions", regions.regions().size());
-      }
+      // Pooled by the factory; not closed here
+      Ec2Client ec2Client = clientFactory.createEc2ClientForRegionDiscovery(account);
+      DescribeRegionsResponse regions = ec2Client.describeRegions(
+          DescribeRegionsRequest.builder().allRegions(false).build()
+      );
+
+      result.setAvailableRegionCount(regions.regions().size());
+      log.info("Successfully listed {} AWS regions", regions.regions().size());
 
       // Step 3: Validate account ID matches
       if (!result.getAccountId().equals(account.getAccountId())) {
@@ -0,0 +1,170 @@
+package com.wenroe.resonant.service.aws;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.awscore.AwsExecutionAttribute;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.regions.Region;
+
+/**
+ * Client-side rate control for AWS API calls, keyed by (account, service, region).
+ * <p>
+ * AWS throttles per account, per service and per region, so each key gets its own
+ * {@link AdaptiveRateLimiter}, shared by every client and every concurrent scan that calls it.
+ * Clients built by {@link AwsClientFactory} carry an interceptor that takes a permit before each
+ * HTTP attempt, including SDK retries, and feeds the response back: 429 and 503 responses, and
+ * throttling errors that exhaust the SDK's retries, halve the rate; successes raise it slowly.
+ * <p>
+ * Metrics, tagged by account, service and region: {@code resonant.aws.throttles} (throttle
+ * responses), {@code resonant.aws.rate_limit} (current permits per second) and
+ * {@code resonant.aws.rate_limit.wait} (time spent waiting for a permit).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AwsRateGovernor {
+
+  private static final Duration DECREASE_COOLDOWN = Duration.ofSeconds(1);
+
+  private final MeterRegistry meterRegistry;
+  private final Map<GovernorKey, AdaptiveRateLimiter> limiters = new ConcurrentHashMap<>();
+
+  @Value("${resonant.aws.rate-limit.enabled:true}")
+  private boolean enabled = true;
+
+  // Requests per second each key starts at
+  @Value("${resonant.aws.rate-limit.initial-rate:20}")
+  private double initialRate = 20;
+
+  @Value("${resonant.aws.rate-limit.min-rate:1}")
+  private double minRate = 1;
+
+  @Value("${resonant.aws.rate-limit.max-rate:100}")
+  private double maxRate = 100;
+
+  // Factor the rate is multiplied by on a throttle response
+  @Value("${resonant.aws.rate-limit.decrease-factor:0.5}")
+  private double decreaseFactor = 0.5;
+
+  /**
+   * Client configuration that routes an account's calls through the governor.
+   */
+  public ClientOverrideConfiguration overrideConfiguration(AwsAccount account) {
+    ClientOverrideConfiguration.Builder builder = ClientOverrideConfiguration.builder();
+    if (enabled) {
+      builder.addExecutionInterceptor(new GovernorInterceptor(account.getAccountId()));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Current rate for a key, in permits per second, or the initial rate if it has not been used.
+   */
+  public double currentRate(String accountId, String service, String region) {
+    AdaptiveRateLimiter limiter = limiters.get(new GovernorKey(accountId, service, region));
+    return limiter != null ? limiter.rate() : initialRate;
+  }
+
+  AdaptiveRateLimiter limiterFor(GovernorKey key) {
+    return limiters.computeIfAbsent(key, k -> {
+      AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(initialRate, minRate, maxRate,
+          decreaseFactor, DECREASE_COOLDOWN);
+      Gauge.builder("resonant.aws.rate_limit", limiter, AdaptiveRateLimiter::rate)
+          .description("Current client-side AWS request rate limit (requests/second)")
+          .tags(k.tags())
+          .register(meterRegistry);
+      return limiter;
+    });
+  }
+
+  void recordThrottle(GovernorKey key) {
+    meterRegistry.counter("resonant.aws.throttles", key.tags()).increment();
+    AdaptiveRateLimiter limiter = limiterFor(key);
+    if (limiter.onThrottle()) {
+      log.warn("AWS throttled {} in {} for account {}; reducing rate to {}/s",
+          key.service(), key.region(), key.accountId(), String.format("%.1f", limiter.rate()));
+    }
+  }
+
+  record GovernorKey(String accountId, String service, String region) {
+
+    Tags tags() {
+      return Tags.of("account", accountId, "service", service, "region", region);
+    }
+  }
+
+  /**
+   * Takes a permit before every HTTP attempt and reports the outcome back to the limiter.
+   */
+  private class GovernorInterceptor implements ExecutionInterceptor {
+
+    private final String accountId;
+
+    GovernorInterceptor(String accountId) {
+      this.accountId = accountId;
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context,
+        ExecutionAttributes executionAttributes) {
+      GovernorKey key = keyFor(executionAttributes);
+      try {
+        long waitedNanos = limiterFor(key).acquire();
+        if (waitedNanos > 0) {
+          meterRegistry.timer("resonant.aws.rate_limit.wait", key.tags())
+              .record(waitedNanos, TimeUnit.NANOSECONDS);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw AbortedException.builder()
+            .message("Interrupted while waiting for AWS rate limit")
+            .cause(e)
+            .build();
+      }
+    }
+
+    @Override
+    public void afterTransmission(Context.AfterTransmission context,
+        ExecutionAttributes executionAttributes) {
+      int status = context.httpResponse().statusCode();
+      if (status == 429 || status == 503) {
+        recordThrottle(keyFor(executionAttributes));
+      } else if (status < 400) {
+        limiterFor(keyFor(executionAttributes)).onSuccess();
+      }
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context,
+        ExecutionAttributes executionAttributes) {
+      // Throttles returned as 400 (e.g. CloudFront "Throttling") are only recognizable here
+      if (context.exception() instanceof AwsServiceException e && e.isThrottlingException()
+          && e.statusCode() != 429 && e.statusCode() != 503) {
+        recordThrottle(keyFor(executionAttributes));
+      }
+    }
+
+    private GovernorKey keyFor(ExecutionAttributes executionAttributes) {
+      String service = executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME);
+      Region region = executionAttributes.getAttribute(AwsExecutionAttribute.AWS_REGION);
+      return new GovernorKey(accountId, service != null ? service : "unknown",
+          region != null ? region.id() : "global");
+    }
+  }
+}
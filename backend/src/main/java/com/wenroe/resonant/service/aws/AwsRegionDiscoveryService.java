@@ -31,7 +31,9 @@ public class AwsRegionDiscoveryService {
   public List<String> discoverEnabledRegions(AwsAccount account) {
     log.info("Discovering enabled regions for AWS account: {}", account.getAccountId());
 
-    try (Ec2Client ec2Client = clientFactory.createEc2ClientForRegionDiscovery(account)) {
+    try {
+      // Pooled by the factory; not closed here
+      Ec2Client ec2Client = clientFactory.createEc2ClientForRegionDiscovery(account);
 
       DescribeRegionsResponse response = ec2Client.describeRegions();
 
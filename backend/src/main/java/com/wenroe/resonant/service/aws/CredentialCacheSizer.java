@@ -0,0 +1,38 @@
+package com.wenroe.resonant.service.aws;
+
+import com.wenroe.resonant.repository.AwsAccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the credential cache of the {@link AwsClientFactory} large enough for every account, so
+ * fleets that grow past the initial size do not evict and re-assume roles mid-scan. Runs at
+ * startup and then periodically.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CredentialCacheSizer {
+
+  private final AwsAccountRepository accountRepository;
+  private final AwsClientFactory clientFactory;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onStartup() {
+    resize();
+  }
+
+  @Scheduled(fixedDelayString = "${resonant.aws.credentials.resize-interval:PT10M}",
+      initialDelayString = "${resonant.aws.credentials.resize-interval:PT10M}")
+  public void resize() {
+    try {
+      clientFactory.resizeCredentialCache(accountRepository.count());
+    } catch (Exception e) {
+      log.warn("Failed to resize credential cache: {}", e.getMessage());
+    }
+  }
+}
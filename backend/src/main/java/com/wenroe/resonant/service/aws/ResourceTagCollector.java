@@ -0,0 +1,123 @@
+package com.wenroe.resonant.service.aws;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wenroe.resonant.model.entity.AwsAccount;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.ResourceGroupsTaggingApiClient;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.model.GetResourcesRequest;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.model.ResourceTagMapping;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.model.Tag;
+
+/**
+ * Collects tags in bulk through the Resource Groups Tagging API, replacing one tag call per
+ * resource with a few paged {@code GetResources} calls per region.
+ * <p>
+ * Results are keyed by ARN for scanners to join against their own output. The tagging API only
+ * returns resources that have been tagged, so an ARN missing from the result has no tags. When the
+ * API is unavailable, most commonly because the account's role does not grant
+ * {@code tag:GetResources}, {@link Optional#empty()} is returned and the scanner falls back to its
+ * per-resource tag calls. Access denials are remembered per account for a while so every region
+ * and scan does not retry a call that is bound to fail.
+ */
+@Component
+@Slf4j
+public class ResourceTagCollector {
+
+  // GetResources maximum page size
+  static final int RESOURCES_PER_PAGE = 100;
+
+  private static final Duration DENIAL_MEMORY = Duration.ofHours(1);
+
+  private final AwsClientFactory clientFactory;
+  private final boolean enabled;
+  private final Cache<UUID, Boolean> deniedAccounts;
+
+  public ResourceTagCollector(
+      AwsClientFactory clientFactory,
+      @Value("${resonant.scan.bulk-tags.enabled:true}") boolean enabled) {
+    this.clientFactory = clientFactory;
+    this.enabled = enabled;
+    this.deniedAccounts = Caffeine.newBuilder()
+        .expireAfterWrite(DENIAL_MEMORY)
+        .maximumSize(10_000)
+        .build();
+  }
+
+  /**
+   * Collects the tags of every tagged resource of one type in a region.
+   *
+   * @param resourceTypeFilter tagging API resource type filter, e.g. {@code "s3"} or
+   *                           {@code "cloudfront:distribution"}
+   * @return tags keyed by resource ARN, or empty if the caller should fetch tags per resource
+   */
+  public Optional<Map<String, Map<String, String>>> collectTags(AwsAccount account,
+      String regionCode, String resourceTypeFilter) {
+    if (!enabled || deniedAccounts.getIfPresent(account.getId()) != null) {
+      return Optional.empty();
+    }
+
+    long startNanos = System.nanoTime();
+    try {
+      // Pooled by the factory; not closed here
+      ResourceGroupsTaggingApiClient client = clientFactory.createResourceGroupsTaggingClient(
+          account, regionCode);
+
+      GetResourcesRequest request = GetResourcesRequest.builder()
+          .resourceTypeFilters(resourceTypeFilter)
+          .resourcesPerPage(RESOURCES_PER_PAGE)
+          .build();
+
+      Map<String, Map<String, String>> tagsByArn = new HashMap<>();
+      for (ResourceTagMapping mapping : client.getResourcesPaginator(request)
+          .resourceTagMappingList()) {
+        Map<String, String> tags = new HashMap<>();
+        if (mapping.hasTags()) {
+          for (Tag tag : mapping.tags()) {
+            tags.put(tag.key(), tag.value());
+          }
+        }
+        tagsByArn.put(mapping.resourceARN(), tags);
+      }
+
+      log.debug("Collected tags for {} {} resources in region {} for account {} in {} ms",
+          tagsByArn.size(), resourceTypeFilter, regionCode, account.getAccountId(),
+          Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+      return Optional.of(tagsByArn);
+
+    } catch (CancellationException e) {
+      throw e;
+    } catch (AwsServiceException e) {
+      if (isAccessDenied(e)) {
+        deniedAccounts.put(account.getId(), Boolean.TRUE);
+        log.warn("Tagging API access denied for account {}; using per-resource tag calls for {}",
+            account.getAccountId(), DENIAL_MEMORY);
+      } else {
+        log.warn("Bulk tag collection for {} failed in region {} for account {}: {}",
+            resourceTypeFilter, regionCode, account.getAccountId(), e.getMessage());
+      }
+      return Optional.empty();
+    } catch (Exception e) {
+      log.warn("Bulk tag collection for {} failed in region {} for account {}: {}",
+          resourceTypeFilter, regionCode, account.getAccountId(), e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private boolean isAccessDenied(AwsServiceException e) {
+    if (e.statusCode() == 403) {
+      return true;
+    }
+    return e.awsErrorDetails() != null
+        && "AccessDeniedException".equals(e.awsErrorDetails().errorCode());
+  }
+}
@@ -0,0 +1,60 @@
+package com.wenroe.resonant.service.aws;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the region of each S3 bucket across scans, so a bucket's location is looked up once
+ * rather than on every scan. Bucket names are globally unique and a bucket never moves region;
+ * the expiry only covers a bucket being deleted and recreated elsewhere under the same name.
+ */
+@Component
+@Slf4j
+public class S3BucketRegionCache {
+
+  private final Cache<String, String> regionsByBucket;
+
+  public S3BucketRegionCache(
+      @Value("${resonant.scan.s3.region-cache.max-size:50000}") long maxSize,
+      @Value("${resonant.scan.s3.region-cache.ttl:P7D}") Duration ttl) {
+    this.regionsByBucket = Caffeine.newBuilder()
+        .expireAfterWrite(ttl)
+        .maximumSize(maxSize)
+        .recordStats()
+        .build();
+
+    log.info("Initialized S3 bucket region cache (max {} buckets, ttl {})", maxSize, ttl);
+  }
+
+  /**
+   * Returns the cached region of a bucket, or {@code null} if it is not known yet.
+   */
+  public String getRegion(String bucketName) {
+    return regionsByBucket.getIfPresent(bucketName);
+  }
+
+  /**
+   * Records the region of a bucket.
+   */
+  public void putRegion(String bucketName, String region) {
+    regionsByBucket.put(bucketName, region);
+  }
+
+  /**
+   * Forgets the region of a bucket, forcing the next scan to look it up again.
+   */
+  public void evict(String bucketName) {
+    regionsByBucket.invalidate(bucketName);
+  }
+
+  /**
+   * Gets cache statistics for monitoring.
+   */
+  public String getCacheStats() {
+    return regionsByBucket.stats().toString();
+  }
+}
@@ -1,21 +1,35 @@
 package com.wenroe.resonant.service.aws.scanners;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.wenroe.resonant.model.entity.AwsAccount;
 import com.wenroe.resonant.model.entity.AwsResource;
 import com.wenroe.resonant.service.aws.AwsClientFactory;
+import com.wenroe.resonant.service.aws.ResourceTagCollector;
+import com.wenroe.resonant.service.scan.ScanTaskScope;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.cloudfront.CloudFrontClient;
+import software.amazon.awssdk.services.cloudfront.model.DistributionConfig;
+import software.amazon.awssdk.services.cloudfront.model.DistributionList;
 import software.amazon.awssdk.services.cloudfront.model.DistributionSummary;
 import software.amazon.awssdk.services.cloudfront.model.GetDistributionRequest;
 import software.amazon.awssdk.services.cloudfront.model.GetDistributionResponse;
-import software.amazon.awssdk.services.cloudfront.model.ListDistributionsResponse;
+import software.amazon.awssdk.services.cloudfront.model.ListDistributionsRequest;
 import software.amazon.awssdk.services.cloudfront.model.ListTagsForResourceRequest;
 import software.amazon.awssdk.services.cloudfront.model.ListTagsForResourceResponse;
 import software.amazon.awssdk.services.cloudfront.model.Origin;
@@ -25,6 +39,14 @@ import software.amazon.awssdk.services.cloudfront.model.Tags;
 /**
  * Service for scanning CloudFront distributions and their tags. CloudFront is a global service (not
  * region-specific).
+ * <p>
+ * Distributions are listed page by page and scanned concurrently on virtual threads. The parts of
+ * each distribution's configuration we keep are cached across scans together with the ETag they
+ * were read at, and {@code GetDistribution} is skipped while the distribution's
+ * {@code lastModifiedTime} is unchanged.
+ * <p>
+ * Tags for all distributions come from one bulk {@link ResourceTagCollector} pass when the tagging
+ * API is available, and from {@code ListTagsForResource} per distribution otherwise.
  */
 @Service
 @RequiredArgsConstructor
@@ -32,14 +54,37 @@ import software.amazon.awssdk.services.cloudfront.model.Tags;
 public class CloudFrontResourceScanner implements ResourceScanner {
 
   private static final String RESOURCE_TYPE = "cloudfront:distribution";
+  // CloudFront is global; its tags are served by the tagging API in us-east-1
+  private static final String TAGGING_REGION = "us-east-1";
+
+  // Distributions whose configuration has not been read for this long are dropped from the cache
+  private static final Duration CONFIG_CACHE_EXPIRY = Duration.ofDays(7);
+  private static final long CONFIG_CACHE_MAX_SIZE = 10_000;
 
   private final AwsClientFactory clientFactory;
+  private final ResourceTagCollector tagCollector;
+
+  // Configuration extracts keyed by distribution ARN, shared across scans
+  private final Cache<String, DistributionConfigExtract> configCache = Caffeine.newBuilder()
+      .expireAfterAccess(CONFIG_CACHE_EXPIRY)
+      .maximumSize(CONFIG_CACHE_MAX_SIZE)
+      .recordStats()
+      .build();
+
+  // Distributions scanned concurrently per account; each makes up to two calls
+  @Value("${resonant.scan.cloudfront.distribution-concurrency:8}")
+  private int distributionConcurrency = 8;
 
   @Override
   public String getResourceType() {
     return RESOURCE_TYPE;
   }
 
+  @Override
+  public ScannerScope getScope() {
+    return ScannerScope.GLOBAL;
+  }
+
   /**
    * Scans all CloudFront distributions for an AWS account. CloudFront is a global service.
    */
@@ -48,54 +93,118 @@ public class CloudFrontResourceScanner implements ResourceScanner {
     return scanDistributions(account);
   }
 
+  /**
+   * Streams all CloudFront distributions for an AWS account into the sink as each one is scanned.
+   */
+  @Override
+  public void scan(AwsAccount account, ResourceSink sink) {
+    scanDistributions(account, sink);
+  }
+
   /**
    * Scans all CloudFront distributions for an AWS account. CloudFront is a global service.
    */
   public List<AwsResource> scanDistributions(AwsAccount account) {
-    List<AwsResource> resources = new ArrayList<>();
+    // Distributions are scanned concurrently, so the collecting list must be thread-safe
+    List<AwsResource> resources = Collections.synchronizedList(new ArrayList<>());
+    scanDistributions(account, resources::add);
+    return resources;
+  }
 
-    try (CloudFrontClient cfClient = clientFactory.createCloudFrontClient(account)) {
+  private void scanDistributions(AwsAccount account, ResourceSink sink) {
+    try {
+      // Pooled by the factory; not closed here
+      CloudFrontClient cfClient = clientFactory.createCloudFrontClient(account);
+
+      // Null when the tagging API is unavailable; tags are then fetched per distribution
+      Map<String, Map<String, String>> bulkTags = tagCollector
+          .collectTags(account, TAGGING_REGION, RESOURCE_TYPE)
+          .orElse(null);
+
+      // One virtual thread per distribution; the semaphore bounds how many are scanned at once
+      Semaphore distributionPermits = new Semaphore(Math.max(1, distributionConcurrency));
+      AtomicInteger failed = new AtomicInteger();
+      int found = 0;
+      try (ScanTaskScope scope = new ScanTaskScope("cloudfront-" + account.getAccountId())) {
+        String marker = null;
+        do {
+          DistributionList page = cfClient.listDistributions(
+              ListDistributionsRequest.builder()
+                  .marker(marker)
+                  .build()
+          ).distributionList();
+
+          if (page == null) {
+            break;
+          }
+          if (page.hasItems()) {
+            for (DistributionSummary dist : page.items()) {
+              scope.fork(distributionPermits, () -> {
+                scanDistributionIsolated(cfClient, account, dist, bulkTags, sink, failed);
+                return null;
+              });
+              found++;
+            }
+          }
+          marker = Boolean.TRUE.equals(page.isTruncated()) ? page.nextMarker() : null;
+        } while (marker != null);
 
-      // List all distributions
-      ListDistributionsResponse response = cfClient.listDistributions();
+        // Only cancellation escapes scanDistributionIsolated
+        scope.join();
+      }
 
-      if (response.distributionList() == null ||
-          !response.distributionList().hasItems() ||
-          response.distributionList().items() == null) {
+      if (found == 0) {
         log.info("No CloudFront distributions found in account {}", account.getAccountId());
-        return resources;
+        return;
       }
-
-      List<DistributionSummary> distributions = response.distributionList().items();
-      log.info("Found {} CloudFront distributions in account {}",
-          distributions.size(), account.getAccountId());
-
-      for (DistributionSummary dist : distributions) {
-        try {
-          AwsResource resource = scanDistribution(cfClient, account, dist);
-          resources.add(resource);
-          log.debug("Scanned CloudFront distribution: {} (domain: {})",
-              dist.id(), dist.domainName());
-        } catch (Exception e) {
-          log.error("Failed to scan CloudFront distribution {}: {}",
-              dist.id(), e.getMessage(), e);
-        }
+      log.info("Found {} CloudFront distributions in account {}", found, account.getAccountId());
+      if (failed.get() > 0) {
+        log.warn("{} of {} CloudFront distributions failed to scan in account {}",
+            failed.get(), found, account.getAccountId());
       }
 
+    } catch (CancellationException e) {
+      throw e;
     } catch (Exception e) {
       log.error("Failed to scan CloudFront distributions for account {}: {}",
           account.getAccountId(), e.getMessage());
       throw new RuntimeException("CloudFront scan failed: " + e.getMessage(), e);
     }
+  }
 
-    return resources;
+  /**
+   * Scans one distribution and emits it. A failure is logged and isolated to the distribution,
+   * except for cancellation, which aborts the whole scan.
+   */
+  private void scanDistributionIsolated(CloudFrontClient cfClient, AwsAccount account,
+      DistributionSummary dist, Map<String, Map<String, String>> bulkTags, ResourceSink sink,
+      AtomicInteger failed) {
+    AwsResource resource;
+    try {
+      resource = scanDistribution(cfClient, account, dist, bulkTags);
+      log.debug("Scanned CloudFront distribution: {} (domain: {})", dist.id(), dist.domainName());
+    } catch (CancellationException e) {
+      throw e;
+    } catch (Exception e) {
+      failed.incrementAndGet();
+      log.error("Failed to scan CloudFront distribution {}: {}", dist.id(), e.getMessage(), e);
+      return;
+    }
+    sink.accept(resource);
+  }
+
+  /**
+   * Gets cache statistics for the distribution configuration cache.
+   */
+  public String getConfigCacheStats() {
+    return configCache.stats().toString();
   }
 
   /**
    * Scans a single CloudFront distribution and retrieves its tags and metadata.
    */
   private AwsResource scanDistribution(CloudFrontClient cfClient, AwsAccount account,
-      DistributionSummary dist) {
+      DistributionSummary dist, Map<String, Map<String, String>> bulkTags) {
 
     String distributionId = dist.id();
     String distributionArn = dist.arn();
@@ -108,12 +217,14 @@ public class CloudFrontResourceScanner implements ResourceScanner {
     resource.setRegion("global"); // CloudFront is global
     resource.setResourceArn(distributionArn);
 
-    // Get tags
-    Map<String, String> tags = getDistributionTags(cfClient, distributionArn);
+    // Get tags; a distribution missing from the bulk result has none
+    Map<String, String> tags = bulkTags != null
+        ? new HashMap<>(bulkTags.getOrDefault(distributionArn, Map.of()))
+        : getDistributionTags(cfClient, distributionArn);
     resource.setTags(tags);
 
     // Get detailed metadata
-    Map<String, Object> metadata = getDistributionMetadata(cfClient, distributionId, dist);
+    Map<String, Object> metadata = getDistributionMetadata(cfClient, dist);
     resource.setMetadata(metadata);
 
     resource.setLastSeenAt(LocalDateTime.now());
@@ -152,10 +263,12 @@ public class CloudFrontResourceScanner implements ResourceScanner {
   }
 
   /**
-   * Gets detailed metadata for a CloudFront distribution.
+   * Gets detailed metadata for a CloudFront distribution. Summary fields are always current; the
+   * configuration extract comes from the cache when the distribution has not been modified since
+   * it was read.
    */
   private Map<String, Object> getDistributionMetadata(CloudFrontClient cfClient,
-      String distributionId, DistributionSummary summary) {
+      DistributionSummary summary) {
     Map<String, Object> metadata = new HashMap<>();
 
     // Basic info from summary
@@ -169,36 +282,89 @@ public class CloudFrontResourceScanner implements ResourceScanner {
       metadata.put("comment", summary.comment());
     }
 
-    // Get detailed configuration
+    DistributionConfigExtract extract = getConfigExtract(cfClient, summary);
+    if (extract != null) {
+      metadata.putAll(extract.metadata());
+    }
+
+    return metadata;
+  }
+
+  /**
+   * Returns the cached configuration extract if the distribution is unchanged since it was read,
+   * otherwise reads the configuration and caches the new extract under its ETag.
+   *
+   * @return the extract, or {@code null} if the configuration could not be read
+   */
+  private DistributionConfigExtract getConfigExtract(CloudFrontClient cfClient,
+      DistributionSummary summary) {
+    String cacheKey = summary.arn();
+    DistributionConfigExtract cached = configCache.getIfPresent(cacheKey);
+    if (cached != null && summary.lastModifiedTime() != null
+        && summary.lastModifiedTime().equals(cached.lastModifiedTime())) {
+      log.debug("Reusing cached config for distribution {} (ETag {})",
+          summary.id(), cached.eTag());
+      return cached;
+    }
+
     try {
       GetDistributionResponse response = cfClient.getDistribution(
           GetDistributionRequest.builder()
-              .id(distributionId)
+              .id(summary.id())
               .build()
       );
 
-      if (response.distribution() != null &&
-          response.distribution().distributionConfig() != null) {
-
-        var config = response.distribution().distributionConfig();
-
-        metadata.put("defaultRootObject", config.defaultRootObject());
+      if (response.distribution() == null
+          || response.distribution().distributionConfig() == null) {
+        return null;
+      }
 
-        // Origins
-        if (config.origins() != null && config.origins().items() != null) {
-          List<String> originDomains = new ArrayList<>();
-          for (Origin origin : config.origins().items()) {
-            originDomains.add(origin.domainName());
-          }
-          metadata.put("origins", originDomains);
-        }
+      if (cached != null && Objects.equals(cached.eTag(), response.eTag())) {
+        // Touched but not reconfigured; only the modification time moved on
+        DistributionConfigExtract refreshed = new DistributionConfigExtract(
+            summary.lastModifiedTime(), cached.eTag(), cached.metadata());
+        configCache.put(cacheKey, refreshed);
+        return refreshed;
       }
 
+      DistributionConfigExtract extract = new DistributionConfigExtract(
+          summary.lastModifiedTime(), response.eTag(),
+          extractConfig(response.distribution().distributionConfig()));
+      configCache.put(cacheKey, extract);
+      return extract;
+
     } catch (Exception e) {
       log.debug("Failed to get detailed config for distribution {}: {}",
-          distributionId, e.getMessage());
+          summary.id(), e.getMessage());
+      return null;
     }
+  }
+
+  /**
+   * Extracts the configuration fields kept in resource metadata.
+   */
+  private Map<String, Object> extractConfig(DistributionConfig config) {
+    Map<String, Object> metadata = new HashMap<>();
+
+    metadata.put("defaultRootObject", config.defaultRootObject());
+
+    // Origins
+    if (config.origins() != null && config.origins().items() != null) {
+      List<String> originDomains = new ArrayList<>();
+      for (Origin origin : config.origins().items()) {
+        originDomains.add(origin.domainName());
+      }
+      metadata.put("origins", originDomains);
+    }
+
+    return Collections.unmodifiableMap(metadata);
+  }
+
+  /**
+   * Configuration fields of a distribution as read at a given ETag and modification time.
+   */
+  private record DistributionConfigExtract(Instant lastModifiedTime, String eTag,
+                                           Map<String, Object> metadata) {
 
-    return metadata;
   }
-}
\ No newline at end of file
+}
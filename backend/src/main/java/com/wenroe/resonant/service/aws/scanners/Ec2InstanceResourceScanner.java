@@ -0,0 +1,205 @@
+package com.wenroe.resonant.service.aws.scanners;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.service.AwsAccountRegionService;
+import com.wenroe.resonant.service.aws.AwsClientFactory;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.ec2.Ec2Client;
+import software.amazon.awssdk.services.ec2.model.DescribeInstancesRequest;
+import software.amazon.awssdk.services.ec2.model.Filter;
+import software.amazon.awssdk.services.ec2.model.Instance;
+import software.amazon.awssdk.services.ec2.model.Reservation;
+import software.amazon.awssdk.services.ec2.model.Tag;
+
+/**
+ * Service for scanning EC2 instances and their tags across all enabled regions. Instances are
+ * region-specific resources, so regions are scanned concurrently on virtual threads.
+ * <p>
+ * Within a region, instances are listed with paginated {@code DescribeInstances} calls that carry
+ * each instance's tags, so no per-instance calls are made. The state filter is applied by EC2, so
+ * terminated instances are never transferred, and each page is streamed into the sink before the
+ * next is requested, so memory stays bounded by one page regardless of fleet size.
+ */
+@Service
+@Slf4j
+public class Ec2InstanceResourceScanner extends RegionalResourceScanner {
+
+  private static final String RESOURCE_TYPE = "ec2:instance";
+
+  // DescribeInstances maximum page size
+  static final int PAGE_SIZE = 1000;
+
+  private final AwsClientFactory clientFactory;
+
+  // Instance states to scan; instances in other states (e.g. terminated) are filtered out by EC2
+  @Value("${resonant.scan.ec2.instance-states:pending,running,stopping,stopped}")
+  private List<String> instanceStates = List.of("pending", "running", "stopping", "stopped");
+
+  public Ec2InstanceResourceScanner(AwsClientFactory clientFactory,
+      AwsAccountRegionService regionService) {
+    super(regionService);
+    this.clientFactory = clientFactory;
+  }
+
+  @Override
+  public String getResourceType() {
+    return RESOURCE_TYPE;
+  }
+
+  @Override
+  protected String getDisplayName() {
+    return "EC2 instances";
+  }
+
+  /**
+   * Scans instances in a specific region, streaming each one into the sink as its page arrives.
+   * The paginator requests the next page only once the current one has been consumed.
+   *
+   * @return the number of instances emitted
+   */
+  @Override
+  public int scanRegion(AwsAccount account, String region, ResourceSink sink) {
+    int emitted = 0;
+
+    try {
+      // Pooled by the factory; not closed here
+      Ec2Client ec2Client = clientFactory.createEc2Client(account, region);
+
+      DescribeInstancesRequest request = DescribeInstancesRequest.builder()
+          .filters(Filter.builder()
+              .name("instance-state-name")
+              .values(instanceStates)
+              .build())
+          .maxResults(PAGE_SIZE)
+          .build();
+
+      for (Reservation reservation : ec2Client.describeInstancesPaginator(request)
+          .reservations()) {
+        for (Instance instance : reservation.instances()) {
+          AwsResource resource;
+          try {
+            resource = scanInstance(account, instance, region);
+          } catch (Exception e) {
+            log.error("Failed to scan EC2 instance {} in region {}: {}",
+                instance.instanceId(), region, e.getMessage(), e);
+            continue;
+          }
+          sink.accept(resource);
+          emitted++;
+        }
+      }
+
+      if (emitted == 0) {
+        log.debug("No EC2 instances found in region {}", region);
+      }
+
+    } catch (CancellationException e) {
+      throw e;
+    } catch (Exception e) {
+      log.error("Failed to list EC2 instances in region {}: {}", region,
+          e.getMessage());
+      throw new RuntimeException(
+          "EC2 instance scan failed in region " + region + ": " + e.getMessage(),
+          e);
+    }
+
+    return emitted;
+  }
+
+  /**
+   * Builds the resource for a single instance from its DescribeInstances entry.
+   */
+  private AwsResource scanInstance(AwsAccount account, Instance instance, String region) {
+    String instanceId = instance.instanceId();
+
+    AwsResource resource = new AwsResource();
+    resource.setAwsAccount(account);
+    resource.setResourceId(instanceId);
+    resource.setResourceType(RESOURCE_TYPE);
+    resource.setRegion(region);
+
+    // Build ARN
+    String arn = String.format("arn:aws:ec2:%s:%s:instance/%s",
+        region, account.getAccountId(), instanceId);
+    resource.setResourceArn(arn);
+
+    // Tags come inline with the instance
+    Map<String, String> tags = getInstanceTags(instance);
+    resource.setTags(tags);
+    resource.setName(tags.getOrDefault("Name", instanceId));
+
+    resource.setMetadata(getInstanceMetadata(instance));
+    resource.setLastSeenAt(LocalDateTime.now());
+
+    return resource;
+  }
+
+  /**
+   * Extracts tags from an instance.
+   */
+  private Map<String, String> getInstanceTags(Instance instance) {
+    Map<String, String> tags = new HashMap<>();
+    if (instance.hasTags()) {
+      for (Tag tag : instance.tags()) {
+        tags.put(tag.key(), tag.value());
+      }
+    }
+    return tags;
+  }
+
+  /**
+   * Gets additional metadata for an instance. Optional properties are omitted when not set.
+   */
+  private Map<String, Object> getInstanceMetadata(Instance instance) {
+    Map<String, Object> metadata = new HashMap<>();
+
+    // Basic instance properties
+    metadata.put("instanceType", instance.instanceTypeAsString());
+    if (instance.state() != null) {
+      metadata.put("state", instance.state().nameAsString());
+    }
+    if (instance.launchTime() != null) {
+      metadata.put("launchTime", instance.launchTime().toString());
+    }
+    metadata.put("imageId", instance.imageId());
+    metadata.put("architecture", instance.architectureAsString());
+    if (instance.platformDetails() != null) {
+      metadata.put("platformDetails", instance.platformDetails());
+    }
+    if (instance.instanceLifecycleAsString() != null) {
+      metadata.put("instanceLifecycle", instance.instanceLifecycleAsString());
+    }
+
+    // Placement and networking
+    if (instance.placement() != null) {
+      metadata.put("availabilityZone", instance.placement().availabilityZone());
+    }
+    if (instance.vpcId() != null) {
+      metadata.put("vpcId", instance.vpcId());
+    }
+    if (instance.subnetId() != null) {
+      metadata.put("subnetId", instance.subnetId());
+    }
+    if (instance.privateIpAddress() != null) {
+      metadata.put("privateIpAddress", instance.privateIpAddress());
+    }
+    if (instance.publicIpAddress() != null) {
+      metadata.put("publicIpAddress", instance.publicIpAddress());
+    }
+
+    // IAM instance profile
+    if (instance.iamInstanceProfile() != null) {
+      metadata.put("iamInstanceProfileArn", instance.iamInstanceProfile().arn());
+    }
+
+    return metadata;
+  }
+}
@@ -0,0 +1,174 @@
+package com.wenroe.resonant.service.aws.scanners;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.service.AwsAccountRegionService;
+import com.wenroe.resonant.service.aws.AwsClientFactory;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.rds.RdsClient;
+import software.amazon.awssdk.services.rds.model.DBCluster;
+import software.amazon.awssdk.services.rds.model.DescribeDbClustersRequest;
+import software.amazon.awssdk.services.rds.model.Tag;
+
+/**
+ * Service for scanning RDS DB clusters (Aurora and Multi-AZ clusters) and their tags across all
+ * enabled regions. Clusters are region-specific resources, so regions are scanned concurrently on
+ * virtual threads.
+ * <p>
+ * Tags are taken from the {@code TagList} that paginated {@code DescribeDBClusters} calls already
+ * return, so no per-cluster {@code ListTagsForResource} calls are made. Each page is streamed into
+ * the sink before the next is requested. * <p>
+ * Neptune and DocumentDB clusters, which the same API returns, are skipped.
+ */
+@Service
+@Slf4j
+public class RdsClusterResourceScanner extends RegionalResourceScanner {
+
+  private static final String RESOURCE_TYPE = "rds:db-cluster";
+
+  // DescribeDBClusters maximum page size
+  static final int PAGE_SIZE = 100;
+
+  private final AwsClientFactory clientFactory;
+
+  public RdsClusterResourceScanner(AwsClientFactory clientFactory,
+      AwsAccountRegionService regionService) {
+    super(regionService);
+    this.clientFactory = clientFactory;
+  }
+
+  @Override
+  public String getResourceType() {
+    return RESOURCE_TYPE;
+  }
+
+  @Override
+  protected String getDisplayName() {
+    return "RDS DB clusters";
+  }
+
+  /**
+   * Scans DB clusters in a specific region, streaming each one into the sink as its page arrives.
+   *
+   * @return the number of DB clusters emitted
+   */
+  @Override
+  public int scanRegion(AwsAccount account, String region, ResourceSink sink) {
+    int emitted = 0;
+
+    try {
+      // Pooled by the factory; not closed here
+      RdsClient rdsClient = clientFactory.createRdsClient(account, region);
+
+      DescribeDbClustersRequest request = DescribeDbClustersRequest.builder()
+          .maxRecords(PAGE_SIZE)
+          .build();
+
+      for (DBCluster dbCluster : rdsClient.describeDBClustersPaginator(request).dbClusters()) {
+        if (!RdsInstanceResourceScanner.isRdsEngine(dbCluster.engine())) {
+          log.debug("Skipping {} cluster {} in region {}", dbCluster.engine(),
+              dbCluster.dbClusterIdentifier(), region);
+          continue;
+        }
+        AwsResource resource;
+        try {
+          resource = scanDbCluster(account, dbCluster, region);
+        } catch (Exception e) {
+          log.error("Failed to scan RDS DB cluster {} in region {}: {}",
+              dbCluster.dbClusterIdentifier(), region, e.getMessage(), e);
+          continue;
+        }
+        sink.accept(resource);
+        emitted++;
+      }
+
+      if (emitted == 0) {
+        log.debug("No RDS DB clusters found in region {}", region);
+      }
+
+    } catch (CancellationException e) {
+      throw e;
+    } catch (Exception e) {
+      log.error("Failed to list RDS DB clusters in region {}: {}", region,
+          e.getMessage());
+      throw new RuntimeException(
+          "RDS DB cluster scan failed in region " + region + ": "
+              + e.getMessage(), e);
+    }
+
+    return emitted;
+  }
+
+  /**
+   * Builds the resource for a single DB cluster from its DescribeDBClusters entry.
+   */
+  private AwsResource scanDbCluster(AwsAccount account, DBCluster dbCluster, String region) {
+    String identifier = dbCluster.dbClusterIdentifier();
+
+    AwsResource resource = new AwsResource();
+    resource.setAwsAccount(account);
+    resource.setResourceId(identifier);
+    resource.setResourceType(RESOURCE_TYPE);
+    resource.setName(identifier);
+    resource.setRegion(region);
+
+    // Use the ARN returned by RDS, building it only if absent
+    String arn = dbCluster.dbClusterArn() != null
+        ? dbCluster.dbClusterArn()
+        : String.format("arn:aws:rds:%s:%s:cluster:%s", region, account.getAccountId(),
+            identifier);
+    resource.setResourceArn(arn);
+
+    resource.setTags(getTags(dbCluster));
+    resource.setMetadata(getDbClusterMetadata(dbCluster));
+    resource.setLastSeenAt(LocalDateTime.now());
+
+    return resource;
+  }
+
+  /**
+   * Extracts tags from the DB cluster's TagList.
+   */
+  private Map<String, String> getTags(DBCluster dbCluster) {
+    Map<String, String> tags = new HashMap<>();
+    if (dbCluster.hasTagList()) {
+      for (Tag tag : dbCluster.tagList()) {
+        tags.put(tag.key(), tag.value());
+      }
+    }
+    return tags;
+  }
+
+  /**
+   * Gets additional metadata for a DB cluster. Optional properties are omitted when not set.
+   */
+  private Map<String, Object> getDbClusterMetadata(DBCluster dbCluster) {
+    Map<String, Object> metadata = new HashMap<>();
+
+    // Engine and state
+    metadata.put("engine", dbCluster.engine());
+    metadata.put("engineVersion", dbCluster.engineVersion());
+    if (dbCluster.engineMode() != null) {
+      metadata.put("engineMode", dbCluster.engineMode());
+    }
+    metadata.put("status", dbCluster.status());
+
+    // Availability and security
+    metadata.put("multiAZ", dbCluster.multiAZ());
+    metadata.put("storageEncrypted", dbCluster.storageEncrypted());
+    metadata.put("deletionProtection", dbCluster.deletionProtection());
+    if (dbCluster.hasDbClusterMembers()) {
+      metadata.put("memberCount", dbCluster.dbClusterMembers().size());
+    }
+    if (dbCluster.clusterCreateTime() != null) {
+      metadata.put("createdAt", dbCluster.clusterCreateTime().toString());
+    }
+
+    return metadata;
+  }
+}
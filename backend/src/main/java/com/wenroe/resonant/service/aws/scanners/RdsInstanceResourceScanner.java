@@ -0,0 +1,199 @@
+package com.wenroe.resonant.service.aws.scanners;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.service.AwsAccountRegionService;
+import com.wenroe.resonant.service.aws.AwsClientFactory;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.rds.RdsClient;
+import software.amazon.awssdk.services.rds.model.DBInstance;
+import software.amazon.awssdk.services.rds.model.DescribeDbInstancesRequest;
+import software.amazon.awssdk.services.rds.model.Tag;
+
+/**
+ * Service for scanning RDS DB instances and their tags across all enabled regions. DB instances are
+ * region-specific resources, so regions are scanned concurrently on virtual threads.
+ * <p>
+ * Tags are taken from the {@code TagList} that paginated {@code DescribeDBInstances} calls already
+ * return, so no per-instance {@code ListTagsForResource} calls are made. Each page is streamed into
+ * the sink before the next is requested.
+ * <p>
+ * The RDS API also returns Neptune and DocumentDB instances; those are skipped, since they are not
+ * RDS resources.
+ */
+@Service
+@Slf4j
+public class RdsInstanceResourceScanner extends RegionalResourceScanner {
+
+  private static final String RESOURCE_TYPE = "rds:db-instance";
+
+  // DescribeDBInstances maximum page size
+  static final int PAGE_SIZE = 100;
+
+  // Engines of other services that share the RDS management API
+  private static final Set<String> NON_RDS_ENGINES = Set.of("neptune", "docdb");
+
+  private final AwsClientFactory clientFactory;
+
+  public RdsInstanceResourceScanner(AwsClientFactory clientFactory,
+      AwsAccountRegionService regionService) {
+    super(regionService);
+    this.clientFactory = clientFactory;
+  }
+
+  @Override
+  public String getResourceType() {
+    return RESOURCE_TYPE;
+  }
+
+  @Override
+  protected String getDisplayName() {
+    return "RDS DB instances";
+  }
+
+  /**
+   * Scans DB instances in a specific region, streaming each one into the sink as its page arrives.
+   *
+   * @return the number of DB instances emitted
+   */
+  @Override
+  public int scanRegion(AwsAccount account, String region, ResourceSink sink) {
+    int emitted = 0;
+
+    try {
+      // Pooled by the factory; not closed here
+      RdsClient rdsClient = clientFactory.createRdsClient(account, region);
+
+      DescribeDbInstancesRequest request = DescribeDbInstancesRequest.builder()
+          .maxRecords(PAGE_SIZE)
+          .build();
+
+      for (DBInstance dbInstance : rdsClient.describeDBInstancesPaginator(request)
+          .dbInstances()) {
+        if (!isRdsEngine(dbInstance.engine())) {
+          log.debug("Skipping {} instance {} in region {}", dbInstance.engine(),
+              dbInstance.dbInstanceIdentifier(), region);
+          continue;
+        }
+        AwsResource resource;
+        try {
+          resource = scanDbInstance(account, dbInstance, region);
+        } catch (Exception e) {
+          log.error("Failed to scan RDS DB instance {} in region {}: {}",
+              dbInstance.dbInstanceIdentifier(), region, e.getMessage(), e);
+          continue;
+        }
+        sink.accept(resource);
+        emitted++;
+      }
+
+      if (emitted == 0) {
+        log.debug("No RDS DB instances found in region {}", region);
+      }
+
+    } catch (CancellationException e) {
+      throw e;
+    } catch (Exception e) {
+      log.error("Failed to list RDS DB instances in region {}: {}", region,
+          e.getMessage());
+      throw new RuntimeException(
+          "RDS DB instance scan failed in region " + region + ": "
+              + e.getMessage(), e);
+    }
+
+    return emitted;
+  }
+
+  /**
+   * Whether an engine belongs to RDS itself rather than to Neptune or DocumentDB.
+   */
+  static boolean isRdsEngine(String engine) {
+    return engine == null || !NON_RDS_ENGINES.contains(engine);
+  }
+
+  /**
+   * Builds the resource for a single DB instance from its DescribeDBInstances entry.
+   */
+  private AwsResource scanDbInstance(AwsAccount account, DBInstance dbInstance, String region) {
+    String identifier = dbInstance.dbInstanceIdentifier();
+
+    AwsResource resource = new AwsResource();
+    resource.setAwsAccount(account);
+    resource.setResourceId(identifier);
+    resource.setResourceType(RESOURCE_TYPE);
+    resource.setName(identifier);
+    resource.setRegion(region);
+
+    // Use the ARN returned by RDS, building it only if absent
+    String arn = dbInstance.dbInstanceArn() != null
+        ? dbInstance.dbInstanceArn()
+        : String.format("arn:aws:rds:%s:%s:db:%s", region, account.getAccountId(), identifier);
+    resource.setResourceArn(arn);
+
+    resource.setTags(getTags(dbInstance));
+    resource.setMetadata(getDbInstanceMetadata(dbInstance));
+    resource.setLastSeenAt(LocalDateTime.now());
+
+    return resource;
+  }
+
+  /**
+   * Extracts tags from the DB instance's TagList.
+   */
+  private Map<String, String> getTags(DBInstance dbInstance) {
+    Map<String, String> tags = new HashMap<>();
+    if (dbInstance.hasTagList()) {
+      for (Tag tag : dbInstance.tagList()) {
+        tags.put(tag.key(), tag.value());
+      }
+    }
+    return tags;
+  }
+
+  /**
+   * Gets additional metadata for a DB instance. Optional properties are omitted when not set.
+   */
+  private Map<String, Object> getDbInstanceMetadata(DBInstance dbInstance) {
+    Map<String, Object> metadata = new HashMap<>();
+
+    // Engine and sizing
+    metadata.put("engine", dbInstance.engine());
+    metadata.put("engineVersion", dbInstance.engineVersion());
+    metadata.put("instanceClass", dbInstance.dbInstanceClass());
+    metadata.put("status", dbInstance.dbInstanceStatus());
+    if (dbInstance.allocatedStorage() != null) {
+      metadata.put("allocatedStorage", dbInstance.allocatedStorage());
+    }
+    if (dbInstance.storageType() != null) {
+      metadata.put("storageType", dbInstance.storageType());
+    }
+
+    // Availability and security
+    metadata.put("multiAZ", dbInstance.multiAZ());
+    metadata.put("storageEncrypted", dbInstance.storageEncrypted());
+    metadata.put("publiclyAccessible", dbInstance.publiclyAccessible());
+    metadata.put("deletionProtection", dbInstance.deletionProtection());
+    if (dbInstance.availabilityZone() != null) {
+      metadata.put("availabilityZone", dbInstance.availabilityZone());
+    }
+    if (dbInstance.dbSubnetGroup() != null && dbInstance.dbSubnetGroup().vpcId() != null) {
+      metadata.put("vpcId", dbInstance.dbSubnetGroup().vpcId());
+    }
+
+    // Aurora instances belong to a cluster
+    if (dbInstance.dbClusterIdentifier() != null) {
+      metadata.put("dbClusterIdentifier", dbInstance.dbClusterIdentifier());
+    }
+    if (dbInstance.instanceCreateTime() != null) {
+      metadata.put("createdAt", dbInstance.instanceCreateTime().toString());
+    }
+
+    return metadata;
+  }
+}
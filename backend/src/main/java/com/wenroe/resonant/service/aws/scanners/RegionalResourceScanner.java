@@ -0,0 +1,137 @@
+package com.wenroe.resonant.service.aws.scanners;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsAccountRegion;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.service.AwsAccountRegionService;
+import com.wenroe.resonant.service.scan.ScanTaskScope;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Base for scanners of region-specific resources that can be listed one region at a time. Each
+ * enabled region is a separate work unit: the orchestrator schedules
+ * {@link #scanRegion(AwsAccount, String, ResourceSink)} per region on its shared work queue, while
+ * {@link #scan(AwsAccount, ResourceSink)} fans the regions out itself for callers that run a
+ * single scanner directly.
+ */
+@Slf4j
+public abstract class RegionalResourceScanner implements RegionalScanner {
+
+  private final AwsAccountRegionService regionService;
+
+  // Maximum number of regions scanned concurrently for one account by scan(account, sink)
+  @Value("${resonant.scan.region-parallelism:4}")
+  private int regionParallelism = 4;
+
+  protected RegionalResourceScanner(AwsAccountRegionService regionService) {
+    this.regionService = regionService;
+  }
+
+  /**
+   * Describes the scanned resources in log messages, e.g. "VPCs".
+   */
+  protected abstract String getDisplayName();
+
+  @Override
+  public final ScannerScope getScope() {
+    return ScannerScope.REGIONAL;
+  }
+
+  /**
+   * Scans all resources across all enabled regions for an AWS account.
+   */
+  @Override
+  public List<AwsResource> scan(AwsAccount account) {
+    // Regions are scanned concurrently, so the collecting list must be thread-safe
+    List<AwsResource> resources = Collections.synchronizedList(new ArrayList<>());
+    scan(account, resources::add);
+    return resources;
+  }
+
+  /**
+   * Streams all resources across all enabled regions into the sink. Regions are scanned
+   * concurrently on virtual threads, at most {@code resonant.scan.region-parallelism} at a time
+   * for this account. A failure in one region is logged and does not affect the others.
+   */
+  @Override
+  public void scan(AwsAccount account, ResourceSink sink) {
+    List<AwsAccountRegion> enabledRegions = regionService.getEnabledRegionsByAccountId(
+        account.getId());
+
+    if (enabledRegions.isEmpty()) {
+      log.warn("No enabled regions for account {}. Skipping {} scan.",
+          account.getAccountId(), getDisplayName());
+      return;
+    }
+
+    int parallelism = Math.max(1, Math.min(regionParallelism, enabledRegions.size()));
+    log.info("Scanning {} in {} regions for account {} ({} at a time)",
+        getDisplayName(), enabledRegions.size(), account.getAccountId(), parallelism);
+
+    // One virtual thread per region; the semaphore bounds how many call AWS at once
+    Semaphore regionPermits = new Semaphore(parallelism);
+    try (ScanTaskScope scope = new ScanTaskScope(
+        getResourceType().replace(':', '-') + "-" + account.getAccountId())) {
+      List<Future<RegionResult>> futures = new ArrayList<>(enabledRegions.size());
+      for (AwsAccountRegion region : enabledRegions) {
+        futures.add(scope.fork(regionPermits,
+            () -> scanRegionIsolated(account, region.getRegionCode(), sink)));
+      }
+
+      // Only cancellation escapes scanRegionIsolated, so join fails only when cancelled
+      scope.join();
+      logRegionTimings(account, futures.stream().map(Future::resultNow).toList());
+    }
+  }
+
+  /**
+   * Scans one region and records how long it took. Failures are isolated to the region, except
+   * for cancellation, which aborts the whole scan.
+   */
+  private RegionResult scanRegionIsolated(AwsAccount account, String region, ResourceSink sink) {
+    long startNanos = System.nanoTime();
+    try {
+      int regionCount = scanRegion(account, region, sink);
+      Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+      log.info("Found {} {} in region {} in {} ms", regionCount, getDisplayName(), region,
+          elapsed.toMillis());
+      sink.regionCompleted(region, regionCount);
+      return new RegionResult(region, regionCount, elapsed, false);
+    } catch (CancellationException e) {
+      throw e;
+    } catch (Exception e) {
+      log.error("Failed to scan {} in region {}: {}", getDisplayName(), region, e.getMessage(),
+          e);
+      return new RegionResult(region, 0, Duration.ofNanos(System.nanoTime() - startNanos), true);
+    }
+  }
+
+  private void logRegionTimings(AwsAccount account, List<RegionResult> results) {
+    int total = results.stream().mapToInt(RegionResult::count).sum();
+    String timings = results.stream()
+        .sorted(Comparator.comparing(RegionResult::elapsed).reversed())
+        .map(r -> r.region() + "=" + r.elapsed().toMillis() + "ms" + (r.failed() ? "!" : ""))
+        .collect(Collectors.joining(", "));
+
+    // Slowest region first; "!" marks a region that failed
+    log.info("Found {} total {} across all enabled regions for account {}. Region timings: {}",
+        total, getDisplayName(), account.getAccountId(), timings);
+  }
+
+  /**
+   * Outcome and duration of scanning one region.
+   */
+  private record RegionResult(String region, int count, Duration elapsed, boolean failed) {
+
+  }
+}
@@ -0,0 +1,24 @@
+package com.wenroe.resonant.service.aws.scanners;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+
+/**
+ * A scanner whose work splits into one unit per enabled region. The orchestrator schedules one
+ * {@link #scanRegion(AwsAccount, String, ResourceSink)} call per region instead of calling
+ * {@link #scan(AwsAccount, ResourceSink)}. Scanners that can only list the whole account at once,
+ * such as global services or S3's account-wide bucket listing, implement {@link ResourceScanner}
+ * only and run as a single unit.
+ */
+public interface RegionalScanner extends ResourceScanner {
+
+  /**
+   * Scans one region of the account into the sink. Failures are thrown to the caller, which
+   * isolates them to the region.
+   *
+   * @param account The AWS account to scan
+   * @param region  The region code to scan
+   * @param sink    Receiver for discovered resources (may block to apply backpressure)
+   * @return the number of resources emitted for the region
+   */
+  int scanRegion(AwsAccount account, String region, ResourceSink sink);
+}
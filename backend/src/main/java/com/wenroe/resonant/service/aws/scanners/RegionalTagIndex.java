@@ -0,0 +1,81 @@
+package com.wenroe.resonant.service.aws.scanners;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.service.aws.ResourceTagCollector;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk-collected tags for one resource type, held for the duration of a scan and loaded lazily
+ * per region. The first resource seen in a region triggers the collection; concurrent lookups for
+ * the same region wait for it instead of collecting again. A region whose collection fails falls
+ * back to per-resource tag calls; only cancellation of the collecting thread is propagated.
+ */
+@Slf4j
+class RegionalTagIndex {
+
+  private final ResourceTagCollector tagCollector;
+  private final AwsAccount account;
+  private final String resourceTypeFilter;
+  private final Map<String, CompletableFuture<Optional<Map<String, Map<String, String>>>>>
+      tagsByRegion = new ConcurrentHashMap<>();
+
+  RegionalTagIndex(ResourceTagCollector tagCollector, AwsAccount account,
+      String resourceTypeFilter) {
+    this.tagCollector = tagCollector;
+    this.account = account;
+    this.resourceTypeFilter = resourceTypeFilter;
+  }
+
+  /**
+   * Returns the tags of a resource from the region's bulk collection.
+   *
+   * @return the resource's tags (empty if it has none), or {@code null} if bulk tags are not
+   * available for the region and the caller should fetch them per resource
+   */
+  Map<String, String> tagsFor(String region, String arn) {
+    return regionTags(region)
+        .map(tagsByArn -> new HashMap<>(tagsByArn.getOrDefault(arn, Map.of())))
+        .orElse(null);
+  }
+
+  private Optional<Map<String, Map<String, String>>> regionTags(String region) {
+    CompletableFuture<Optional<Map<String, Map<String, String>>>> created =
+        new CompletableFuture<>();
+    CompletableFuture<Optional<Map<String, Map<String, String>>>> existing =
+        tagsByRegion.putIfAbsent(region, created);
+
+    if (existing == null) {
+      // This caller collects; the network call runs outside any map lock
+      try {
+        created.complete(tagCollector.collectTags(account, region, resourceTypeFilter));
+      } catch (CancellationException e) {
+        // Lookups waiting on this region fall back to their own tag calls
+        created.complete(Optional.empty());
+        throw e;
+      } catch (RuntimeException e) {
+        log.warn("Bulk tag collection for {} failed in region {}; using per-resource tag calls",
+            resourceTypeFilter, region, e);
+        created.complete(Optional.empty());
+      }
+      existing = created;
+    }
+
+    try {
+      return existing.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while waiting for bulk tags in " + region);
+    } catch (ExecutionException e) {
+      log.warn("Bulk tag collection for {} in region {} failed; using per-resource tag calls",
+          resourceTypeFilter, region, e.getCause());
+      return Optional.empty();
+    }
+  }
+}
@@ -18,6 +18,26 @@ public interface ResourceScanner {
    */
   List<AwsResource> scan(AwsAccount account);
 
+  /**
+   * Streams resources for the given AWS account into a sink as they are discovered, so callers can
+   * persist them before the scan finishes. The default implementation materializes
+   * {@link #scan(AwsAccount)}; scanners override it to emit resources incrementally.
+   *
+   * @param account The AWS account to scan
+   * @param sink    Receiver for discovered resources (may block to apply backpressure)
+   */
+  default void scan(AwsAccount account, ResourceSink sink) {
+    scan(account).forEach(sink::accept);
+  }
+
+  /**
+   * Returns where this scanner's resources live. Cleanup of disabled regions only applies to
+   * {@link ScannerScope#REGIONAL} resource types.
+   */
+  default ScannerScope getScope() {
+    return ScannerScope.REGIONAL;
+  }
+
   /**
    * Returns the resource type(s) this scanner handles. Used for logging and metrics.
    *
@@ -0,0 +1,28 @@
+package com.wenroe.resonant.service.aws.scanners;
+
+import com.wenroe.resonant.model.entity.AwsResource;
+
+/**
+ * Receives resources from a {@link ResourceScanner} as they are discovered. Implementations may
+ * block to apply backpressure and must be safe to call from multiple scanner threads.
+ */
+@FunctionalInterface
+public interface ResourceSink {
+
+  /**
+   * Accepts a single discovered resource.
+   *
+   * @param resource The discovered resource with tags and metadata
+   */
+  void accept(AwsResource resource);
+
+  /**
+   * Signals that a regional scanner has finished one region. Used for progress reporting only;
+   * the default ignores it.
+   *
+   * @param region The region code
+   * @param resourceCount Number of resources emitted for the region
+   */
+  default void regionCompleted(String region, int resourceCount) {
+  }
+}
@@ -3,13 +3,22 @@ package com.wenroe.resonant.service.aws.scanners;
 import com.wenroe.resonant.model.entity.AwsAccount;
 import com.wenroe.resonant.model.entity.AwsResource;
 import com.wenroe.resonant.service.aws.AwsClientFactory;
+import com.wenroe.resonant.service.aws.ResourceTagCollector;
+import com.wenroe.resonant.service.aws.S3BucketRegionCache;
+import com.wenroe.resonant.service.scan.ScanTaskScope;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.Bucket;
@@ -29,7 +38,13 @@ import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.Tag;
 
 /**
- * Service for scanning S3 buckets and their tags.
+ * Service for scanning S3 buckets and their tags. Buckets are enriched concurrently on virtual
+ * threads. Each bucket's region is resolved first, from the {@link S3BucketRegionCache} when
+ * known, and the remaining per-bucket calls are then issued in parallel through a client for
+ * that region, so they never pay a cross-region redirect.
+ * <p>
+ * Tags come from one bulk {@link ResourceTagCollector} pass per region when the tagging API is
+ * available, and from {@code GetBucketTagging} per bucket otherwise.
  */
 @Service
 @RequiredArgsConstructor
@@ -37,8 +52,16 @@ import software.amazon.awssdk.services.s3.model.Tag;
 public class S3ResourceScanner implements ResourceScanner {
 
   private static final String RESOURCE_TYPE = "s3:bucket";
+  private static final String TAGGING_RESOURCE_TYPE = "s3";
 
   private final AwsClientFactory clientFactory;
+  private final S3BucketRegionCache regionCache;
+  private final ResourceTagCollector tagCollector;
+
+  // Buckets enriched concurrently per account; each in-flight bucket makes up to four calls at
+  // once through the shared HTTP pool (resonant.aws.http.max-connections)
+  @Value("${resonant.scan.s3.bucket-concurrency:16}")
+  private int bucketConcurrency = 16;
 
   @Override
   public String getResourceType() {
@@ -54,48 +77,146 @@ public class S3ResourceScanner implements ResourceScanner {
     return scanS3Buckets(account);
   }
 
+  /**
+   * Streams all S3 buckets for an AWS account into the sink as each bucket is scanned.
+   */
+  @Override
+  public void scan(AwsAccount account, ResourceSink sink) {
+    scanS3Buckets(account, sink);
+  }
+
   /**
    * Scans all S3 buckets for an AWS account. S3 is global, but bucket operations require
    * region-specific clients.
    */
   public List<AwsResource> scanS3Buckets(AwsAccount account) {
-    List<AwsResource> resources = new ArrayList<>();
+    // Buckets are scanned concurrently, so the collecting list must be thread-safe
+    List<AwsResource> resources = Collections.synchronizedList(new ArrayList<>());
+    scanS3Buckets(account, resources::add);
+    return resources;
+  }
 
-    try (S3Client s3Client = clientFactory.createS3Client(account, null)) {
+  private void scanS3Buckets(AwsAccount account, ResourceSink sink) {
+    try {
+      // Pooled by the factory; not closed here
+      S3Client s3Client = clientFactory.createS3Client(account, null);
 
       // List all buckets (works from any region)
       ListBucketsResponse bucketsResponse = s3Client.listBuckets();
-      log.info("Found {} S3 buckets in account {}",
-          bucketsResponse.buckets().size(), account.getAccountId());
-
-      for (Bucket bucket : bucketsResponse.buckets()) {
-        try {
-          AwsResource resource = scanBucket(s3Client, account, bucket);
-          resources.add(resource);
-          log.debug("Scanned S3 bucket: {} in region {}",
-              bucket.name(), resource.getRegion());
-        } catch (Exception e) {
-          log.error("Failed to scan S3 bucket {}: {}", bucket.name(), e.getMessage(), e);
+      List<Bucket> buckets = bucketsResponse.buckets();
+      int concurrency = Math.max(1, Math.min(bucketConcurrency, buckets.size()));
+      log.info("Found {} S3 buckets in account {} (scanning {} at a time)",
+          buckets.size(), account.getAccountId(), concurrency);
+
+      // One virtual thread per bucket; the semaphore bounds how many are enriched at once
+      Semaphore bucketPermits = new Semaphore(concurrency);
+      AtomicInteger failed = new AtomicInteger();
+      BucketContext context = new BucketContext(s3Client,
+          new RegionalTagIndex(tagCollector, account, TAGGING_RESOURCE_TYPE));
+      try (ScanTaskScope scope = new ScanTaskScope("s3-" + account.getAccountId())) {
+        for (Bucket bucket : buckets) {
+          scope.fork(bucketPermits, () -> {
+            scanBucketIsolated(context, account, bucket, sink, failed);
+            return null;
+          });
         }
+        // Only cancellation escapes scanBucketIsolated
+        scope.join();
       }
 
+      if (failed.get() > 0) {
+        log.warn("{} of {} S3 buckets failed to scan in account {}",
+            failed.get(), buckets.size(), account.getAccountId());
+      }
+
+    } catch (CancellationException e) {
+      throw e;
     } catch (Exception e) {
       log.error("Failed to scan S3 buckets for account {}: {}",
           account.getAccountId(), e.getMessage());
       throw new RuntimeException("S3 scan failed: " + e.getMessage(), e);
     }
+  }
 
-    return resources;
+  /**
+   * Scans one bucket and emits it. A failure is logged and isolated to the bucket, except for
+   * cancellation, which aborts the whole scan.
+   */
+  private void scanBucketIsolated(BucketContext context, AwsAccount account, Bucket bucket,
+      ResourceSink sink, AtomicInteger failed) {
+    AwsResource resource;
+    try {
+      resource = scanBucket(context, account, bucket);
+      log.debug("Scanned S3 bucket: {} in region {}", bucket.name(), resource.getRegion());
+    } catch (CancellationException e) {
+      throw e;
+    } catch (Exception e) {
+      failed.incrementAndGet();
+      log.error("Failed to scan S3 bucket {}: {}", bucket.name(), e.getMessage(), e);
+      return;
+    }
+    sink.accept(resource);
   }
 
   /**
-   * Scans a single S3 bucket and retrieves its tags and metadata.
+   * Scans a single S3 bucket. If S3 answers that the bucket lives in another region than the one
+   * used, the bucket was most likely deleted and recreated elsewhere since its region was cached:
+   * the entry is evicted and the bucket is scanned once more with a fresh lookup.
    */
-  private AwsResource scanBucket(S3Client s3Client, AwsAccount account, Bucket bucket) {
+  private AwsResource scanBucket(BucketContext context, AwsAccount account, Bucket bucket) {
+    try {
+      return scanBucketInRegion(context, account, bucket);
+    } catch (BucketRegionMismatchException e) {
+      log.info("S3 bucket {} is not in its cached region, looking it up again: {}",
+          bucket.name(), e.getMessage());
+      regionCache.evict(bucket.name());
+      return scanBucketInRegion(context, account, bucket);
+    }
+  }
+
+  /**
+   * Scans a single S3 bucket and retrieves its tags and metadata. Once the bucket's region is
+   * known, the versioning, encryption and public access block calls, plus the tagging call when
+   * bulk tags are unavailable, are independent and run in parallel against a client for that
+   * region. If the region cannot be resolved, they fall back to the cross-region client.
+   */
+  private AwsResource scanBucketInRegion(BucketContext context, AwsAccount account,
+      Bucket bucket) {
     String bucketName = bucket.name();
+    String arn = String.format("arn:aws:s3:::%s", bucketName);
 
-    // Get bucket region first
-    String region = getBucketRegion(s3Client, bucketName);
+    String resolvedRegion = resolveBucketRegion(context.globalClient(), bucketName);
+    S3Client bucketClient = resolvedRegion != null
+        ? clientFactory.createS3Client(account, resolvedRegion)
+        : context.globalClient();
+    String region = resolvedRegion != null ? resolvedRegion : "us-east-1";
+
+    // Bulk tags need the bucket's real region; null means fetch them per bucket
+    Map<String, String> bulkTags = resolvedRegion != null
+        ? context.tagIndex().tagsFor(resolvedRegion, arn)
+        : null;
+
+    Map<String, String> tags;
+    Map<String, Object> metadata = new HashMap<>();
+    try (ScanTaskScope calls = new ScanTaskScope("s3-bucket-" + bucketName)) {
+      Future<Map<String, String>> tagsCall = bulkTags == null
+          ? calls.fork(() -> getBucketTags(bucketClient, bucketName))
+          : null;
+      Future<Map<String, Object>> versioningCall = calls.fork(
+          () -> getBucketVersioning(bucketClient, bucketName));
+      Future<Map<String, Object>> encryptionCall = calls.fork(
+          () -> getBucketEncryption(bucketClient, bucketName));
+      Future<Map<String, Object>> publicAccessCall = calls.fork(
+          () -> getPublicAccessBlock(bucketClient, bucketName));
+
+      // Each call handles its own errors except a wrong region, so join fails only on that or on
+      // cancellation
+      calls.join();
+      tags = tagsCall != null ? tagsCall.resultNow() : bulkTags;
+      metadata.putAll(versioningCall.resultNow());
+      metadata.putAll(encryptionCall.resultNow());
+      metadata.putAll(publicAccessCall.resultNow());
+    }
 
     AwsResource resource = new AwsResource();
     resource.setAwsAccount(account);
@@ -104,16 +225,10 @@ public class S3ResourceScanner implements ResourceScanner {
     resource.setName(bucketName);
     resource.setRegion(region);
 
-    // Build ARN
-    String arn = String.format("arn:aws:s3:::%s", bucketName);
     resource.setResourceArn(arn);
 
-    // Get tags
-    Map<String, String> tags = getBucketTags(s3Client, bucketName);
     resource.setTags(tags);
 
-    // Get metadata
-    Map<String, Object> metadata = getBucketMetadata(s3Client, bucketName);
     metadata.put("creationDate", bucket.creationDate().toString());
     resource.setMetadata(metadata);
 
@@ -123,7 +238,26 @@ public class S3ResourceScanner implements ResourceScanner {
   }
 
   /**
-   * Gets the region/location of an S3 bucket.
+   * Resolves the region of an S3 bucket, from the cache when it has been seen before. Only
+   * successful lookups are cached.
+   *
+   * @return the bucket's region, or {@code null} if it could not be determined
+   */
+  private String resolveBucketRegion(S3Client s3Client, String bucketName) {
+    String cached = regionCache.getRegion(bucketName);
+    if (cached != null) {
+      return cached;
+    }
+
+    String region = getBucketRegion(s3Client, bucketName);
+    if (region != null) {
+      regionCache.putRegion(bucketName, region);
+    }
+    return region;
+  }
+
+  /**
+   * Gets the region/location of an S3 bucket, or {@code null} if the lookup fails.
    */
   private String getBucketRegion(S3Client s3Client, String bucketName) {
     try {
@@ -148,9 +282,9 @@ public class S3ResourceScanner implements ResourceScanner {
 
       return locationConstraint;
     } catch (Exception e) {
-      log.warn("Failed to get location for bucket {}, defaulting to us-east-1: {}",
-          bucketName, e.getMessage());
-      return "us-east-1";
+      log.warn("Failed to get location for bucket {}; scanning it through the cross-region "
+          + "client and recording it as us-east-1: {}", bucketName, e.getMessage());
+      return null;
     }
   }
 
@@ -174,6 +308,7 @@ public class S3ResourceScanner implements ResourceScanner {
       log.debug("Found {} tags for bucket {}", tags.size(), bucketName);
 
     } catch (S3Exception e) {
+      throwIfWrongRegion(bucketName, e);
       if (e.statusCode() == 404) {
         log.debug("No tags found for bucket {}", bucketName);
       } else {
@@ -187,12 +322,10 @@ public class S3ResourceScanner implements ResourceScanner {
   }
 
   /**
-   * Gets additional metadata for an S3 bucket (versioning, encryption, etc.).
+   * Gets the versioning status of an S3 bucket.
    */
-  private Map<String, Object> getBucketMetadata(S3Client s3Client, String bucketName) {
+  private Map<String, Object> getBucketVersioning(S3Client s3Client, String bucketName) {
     Map<String, Object> metadata = new HashMap<>();
-
-    // Get versioning status
     try {
       GetBucketVersioningResponse versioningResponse = s3Client.getBucketVersioning(
           GetBucketVersioningRequest.builder()
@@ -200,11 +333,20 @@ public class S3ResourceScanner implements ResourceScanner {
               .build()
       );
       metadata.put("versioning", versioningResponse.statusAsString());
+    } catch (S3Exception e) {
+      throwIfWrongRegion(bucketName, e);
+      log.debug("Failed to get versioning for bucket {}: {}", bucketName, e.getMessage());
     } catch (Exception e) {
       log.debug("Failed to get versioning for bucket {}: {}", bucketName, e.getMessage());
     }
+    return metadata;
+  }
 
-    // Get encryption status
+  /**
+   * Gets the default encryption status of an S3 bucket.
+   */
+  private Map<String, Object> getBucketEncryption(S3Client s3Client, String bucketName) {
+    Map<String, Object> metadata = new HashMap<>();
     try {
       GetBucketEncryptionResponse encryptionResponse = s3Client.getBucketEncryption(
           GetBucketEncryptionRequest.builder()
@@ -215,14 +357,21 @@ public class S3ResourceScanner implements ResourceScanner {
         metadata.put("encryption", "enabled");
       }
     } catch (S3Exception e) {
+      throwIfWrongRegion(bucketName, e);
       if (e.statusCode() == 404) {
         metadata.put("encryption", "disabled");
       }
     } catch (Exception e) {
       log.debug("Failed to get encryption for bucket {}: {}", bucketName, e.getMessage());
     }
+    return metadata;
+  }
 
-    // Get public access block configuration
+  /**
+   * Gets the public access block configuration of an S3 bucket.
+   */
+  private Map<String, Object> getPublicAccessBlock(S3Client s3Client, String bucketName) {
+    Map<String, Object> metadata = new HashMap<>();
     try {
       GetPublicAccessBlockResponse publicAccessResponse = s3Client.getPublicAccessBlock(
           GetPublicAccessBlockRequest.builder()
@@ -234,10 +383,41 @@ public class S3ResourceScanner implements ResourceScanner {
       metadata.put("blockPublicPolicy", config.blockPublicPolicy());
       metadata.put("ignorePublicAcls", config.ignorePublicAcls());
       metadata.put("restrictPublicBuckets", config.restrictPublicBuckets());
+    } catch (S3Exception e) {
+      throwIfWrongRegion(bucketName, e);
+      log.debug("Failed to get public access block for bucket {}: {}", bucketName, e.getMessage());
     } catch (Exception e) {
       log.debug("Failed to get public access block for bucket {}: {}", bucketName, e.getMessage());
     }
-
     return metadata;
   }
-}
\ No newline at end of file
+
+  /**
+   * Fails the bucket's scan when S3 reports that the request went to the wrong region: a 301
+   * redirect, or a signature scoped to another region.
+   */
+  private static void throwIfWrongRegion(String bucketName, S3Exception e) {
+    String errorCode = e.awsErrorDetails() != null ? e.awsErrorDetails().errorCode() : null;
+    if (e.statusCode() == 301 || "PermanentRedirect".equals(errorCode)
+        || "AuthorizationHeaderMalformed".equals(errorCode)) {
+      throw new BucketRegionMismatchException(bucketName, e);
+    }
+  }
+
+  /**
+   * A bucket call was sent to a region the bucket is not in.
+   */
+  private static final class BucketRegionMismatchException extends RuntimeException {
+
+    BucketRegionMismatchException(String bucketName, S3Exception cause) {
+      super("Bucket " + bucketName + " is in another region: " + cause.getMessage(), cause);
+    }
+  }
+
+  /**
+   * Cross-region client and bulk tags shared by all buckets of one scan.
+   */
+  private record BucketContext(S3Client globalClient, RegionalTagIndex tagIndex) {
+
+  }
+}
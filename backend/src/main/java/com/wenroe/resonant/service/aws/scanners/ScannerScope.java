@@ -0,0 +1,20 @@
+package com.wenroe.resonant.service.aws.scanners;
+
+/**
+ * Where the resources of a {@link ResourceScanner} live, which decides how they are cleaned up
+ * when an account's enabled regions change.
+ */
+public enum ScannerScope {
+
+  /**
+   * Resources are not tied to a region (e.g. CloudFront distributions). They are kept while the
+   * account has any enabled region.
+   */
+  GLOBAL,
+
+  /**
+   * Resources live in a region (e.g. VPCs, S3 buckets). They are removed once their region is
+   * disabled for the account.
+   */
+  REGIONAL
+}
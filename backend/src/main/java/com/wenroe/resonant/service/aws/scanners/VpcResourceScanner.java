@@ -1,128 +1,133 @@
 package com.wenroe.resonant.service.aws.scanners;
 
 import com.wenroe.resonant.model.entity.AwsAccount;
-import com.wenroe.resonant.model.entity.AwsAccountRegion;
 import com.wenroe.resonant.model.entity.AwsResource;
 import com.wenroe.resonant.service.AwsAccountRegionService;
 import com.wenroe.resonant.service.aws.AwsClientFactory;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.ec2.Ec2Client;
 import software.amazon.awssdk.services.ec2.model.DescribeSubnetsRequest;
-import software.amazon.awssdk.services.ec2.model.DescribeSubnetsResponse;
 import software.amazon.awssdk.services.ec2.model.DescribeVpcsRequest;
-import software.amazon.awssdk.services.ec2.model.DescribeVpcsResponse;
+import software.amazon.awssdk.services.ec2.model.Subnet;
 import software.amazon.awssdk.services.ec2.model.Tag;
 import software.amazon.awssdk.services.ec2.model.Vpc;
 
 /**
  * Service for scanning VPCs and their tags across all enabled regions. VPCs are region-specific
- * resources.
+ * resources, so regions are scanned concurrently on virtual threads. Within a region, VPCs and
+ * subnets are each listed page by page in a single paginated pass.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class VpcResourceScanner implements ResourceScanner {
+public class VpcResourceScanner extends RegionalResourceScanner {
 
   private static final String RESOURCE_TYPE = "ec2:vpc";
 
   private final AwsClientFactory clientFactory;
-  private final AwsAccountRegionService regionService;
+
+  public VpcResourceScanner(AwsClientFactory clientFactory,
+      AwsAccountRegionService regionService) {
+    super(regionService);
+    this.clientFactory = clientFactory;
+  }
 
   @Override
   public String getResourceType() {
     return RESOURCE_TYPE;
   }
 
-  /**
-   * Scans all VPCs across all enabled regions for an AWS account.
-   */
   @Override
-  public List<AwsResource> scan(AwsAccount account) {
-    List<AwsResource> resources = new ArrayList<>();
-
-    // Get enabled regions for this account
-    List<AwsAccountRegion> enabledRegions = regionService.getEnabledRegionsByAccountId(
-        account.getId());
-
-    if (enabledRegions.isEmpty()) {
-      log.warn("No enabled regions for account {}. Skipping VPC scan.",
-          account.getAccountId());
-      return resources;
-    }
-
-    log.info("Scanning VPCs in {} regions for account {}",
-        enabledRegions.size(), account.getAccountId());
-
-    // Scan each region
-    for (AwsAccountRegion region : enabledRegions) {
-      try {
-        List<AwsResource> regionResources = scanVpcsInRegion(account, region);
-        resources.addAll(regionResources);
-        log.info("Found {} VPCs in region {}", regionResources.size(), region.getRegionCode());
-      } catch (Exception e) {
-        log.error("Failed to scan VPCs in region {}: {}", region.getRegionCode(), e.getMessage(),
-            e);
-      }
-    }
-
-    log.info("Found {} total VPCs across all enabled regions for account {}",
-        resources.size(), account.getAccountId());
-
-    return resources;
+  protected String getDisplayName() {
+    return "VPCs";
   }
 
   /**
-   * Scans VPCs in a specific region.
+   * Scans VPCs in a specific region, streaming each one into the sink as its page arrives. Subnet
+   * counts for the whole region are fetched once, when the first VPC is seen, rather than with one
+   * call per VPC.
+   *
+   * @return the number of VPCs emitted
    */
-  private List<AwsResource> scanVpcsInRegion(AwsAccount account, AwsAccountRegion region) {
-    List<AwsResource> resources = new ArrayList<>();
+  @Override
+  public int scanRegion(AwsAccount account, String region, ResourceSink sink) {
+    int emitted = 0;
 
-    try (Ec2Client ec2Client = clientFactory.createEc2Client(account, region.getRegionCode())) {
+    try {
+      // Pooled by the factory; not closed here
+      Ec2Client ec2Client = clientFactory.createEc2Client(account, region);
 
-      DescribeVpcsResponse response = ec2Client.describeVpcs(
-          DescribeVpcsRequest.builder().build()
-      );
+      Map<String, Integer> subnetCounts = null;
+      boolean subnetsCounted = false;
 
-      if (!response.hasVpcs()) {
-        log.debug("No VPCs found in region {}", region.getRegionCode());
-        return resources;
-      }
-
-      log.debug("Found {} VPCs in region {} for account {}",
-          response.vpcs().size(), region.getRegionCode(), account.getAccountId());
+      for (Vpc vpc : ec2Client.describeVpcsPaginator(DescribeVpcsRequest.builder().build())
+          .vpcs()) {
+        if (!subnetsCounted) {
+          subnetCounts = countSubnetsByVpc(ec2Client, region);
+          subnetsCounted = true;
+        }
 
-      for (Vpc vpc : response.vpcs()) {
+        AwsResource resource;
         try {
-          AwsResource resource = scanVpc(ec2Client, account, vpc, region.getRegionCode());
-          resources.add(resource);
-          log.debug("Scanned VPC: {} in region {}", vpc.vpcId(), region.getRegionCode());
+          resource = scanVpc(account, vpc, region, subnetCounts);
+          log.debug("Scanned VPC: {} in region {}", vpc.vpcId(), region);
         } catch (Exception e) {
           log.error("Failed to scan VPC {} in region {}: {}",
-              vpc.vpcId(), region.getRegionCode(), e.getMessage(), e);
+              vpc.vpcId(), region, e.getMessage(), e);
+          continue;
         }
+        sink.accept(resource);
+        emitted++;
+      }
+
+      if (emitted == 0) {
+        log.debug("No VPCs found in region {}", region);
       }
 
+    } catch (CancellationException e) {
+      throw e;
     } catch (Exception e) {
-      log.error("Failed to list VPCs in region {}: {}", region.getRegionCode(), e.getMessage());
+      log.error("Failed to list VPCs in region {}: {}", region, e.getMessage());
       throw new RuntimeException(
-          "VPC scan failed in region " + region.getRegionCode() + ": " + e.getMessage(), e);
+          "VPC scan failed in region " + region + ": " + e.getMessage(), e);
     }
 
-    return resources;
+    return emitted;
+  }
+
+  /**
+   * Counts the subnets of every VPC in a region with one paginated pass over the region's subnets.
+   *
+   * @return subnet counts keyed by VPC ID, or {@code null} if the subnets could not be listed
+   */
+  private Map<String, Integer> countSubnetsByVpc(Ec2Client ec2Client, String region) {
+    Map<String, Integer> counts = new HashMap<>();
+    try {
+      for (Subnet subnet : ec2Client.describeSubnetsPaginator(
+          DescribeSubnetsRequest.builder().build()).subnets()) {
+        counts.merge(subnet.vpcId(), 1, Integer::sum);
+      }
+      log.debug("Counted subnets for {} VPCs in region {}", counts.size(), region);
+      return counts;
+    } catch (CancellationException e) {
+      throw e;
+    } catch (Exception e) {
+      log.debug("Failed to list subnets in region {}: {}", region, e.getMessage());
+      return null;
+    }
   }
 
   /**
    * Scans a single VPC and retrieves its tags and metadata.
    */
-  private AwsResource scanVpc(Ec2Client ec2Client, AwsAccount account, Vpc vpc, String region) {
+  private AwsResource scanVpc(AwsAccount account, Vpc vpc, String region,
+      Map<String, Integer> subnetCounts) {
     String vpcId = vpc.vpcId();
 
     AwsResource resource = new AwsResource();
@@ -142,7 +147,7 @@ public class VpcResourceScanner implements ResourceScanner {
     resource.setTags(tags);
 
     // Get metadata
-    Map<String, Object> metadata = getVpcMetadata(ec2Client, vpc);
+    Map<String, Object> metadata = getVpcMetadata(vpc, subnetCounts);
     resource.setMetadata(metadata);
 
     resource.setLastSeenAt(LocalDateTime.now());
@@ -183,9 +188,10 @@ public class VpcResourceScanner implements ResourceScanner {
   }
 
   /**
-   * Gets additional metadata for a VPC.
+   * Gets additional metadata for a VPC. The subnet count is omitted if the region's subnets could
+   * not be listed.
    */
-  private Map<String, Object> getVpcMetadata(Ec2Client ec2Client, Vpc vpc) {
+  private Map<String, Object> getVpcMetadata(Vpc vpc, Map<String, Integer> subnetCounts) {
     Map<String, Object> metadata = new HashMap<>();
 
     // Basic VPC properties
@@ -219,18 +225,11 @@ public class VpcResourceScanner implements ResourceScanner {
       metadata.put("dhcpOptionsId", vpc.dhcpOptionsId());
     }
 
-    // Get subnet count
-    try {
-      DescribeSubnetsResponse subnetsResponse = ec2Client.describeSubnets(
-          DescribeSubnetsRequest.builder()
-              .filters(f -> f.name("vpc-id").values(vpc.vpcId()))
-              .build()
-      );
-      metadata.put("subnetCount", subnetsResponse.subnets().size());
-    } catch (Exception e) {
-      log.debug("Failed to get subnet count for VPC {}: {}", vpc.vpcId(), e.getMessage());
+    // Subnet count from the region-wide pass
+    if (subnetCounts != null) {
+      metadata.put("subnetCount", subnetCounts.getOrDefault(vpc.vpcId(), 0));
     }
 
     return metadata;
   }
-}
\ No newline at end of file
+}
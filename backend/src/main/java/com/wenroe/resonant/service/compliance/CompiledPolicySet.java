@@ -0,0 +1,204 @@
+package com.wenroe.resonant.service.compliance;
+
+import com.wenroe.resonant.model.entity.TagPolicy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Enabled tag policies compiled once per scan for evaluating many resources.
+ * <p>
+ * Policies are indexed by resource type, so a resource is only checked against the policies that
+ * apply to it, in the order they were given. Each policy's required tags are flattened into arrays
+ * and its allowed values into hash sets. Checking a compliant resource allocates nothing; violation
+ * details are only built once a resource is known to fail.
+ * <p>
+ * Immutable after {@link #compile(List)} and safe to share across threads. Later changes to the
+ * source policies are not reflected.
+ */
+public final class CompiledPolicySet {
+
+  private static final CompiledPolicySet EMPTY =
+      new CompiledPolicySet(Map.of(), 0, fingerprint(List.of()));
+
+  private final Map<String, List<CompiledPolicy>> policiesByResourceType;
+  private final int policyCount;
+  private final String fingerprint;
+
+  private CompiledPolicySet(Map<String, List<CompiledPolicy>> policiesByResourceType,
+      int policyCount, String fingerprint) {
+    this.policiesByResourceType = policiesByResourceType;
+    this.policyCount = policyCount;
+    this.fingerprint = fingerprint;
+  }
+
+  /**
+   * Compiles the given policies. Policies without resource types or required tags apply to
+   * nothing and are left out.
+   */
+  public static CompiledPolicySet compile(List<TagPolicy> policies) {
+    if (policies == null || policies.isEmpty()) {
+      return EMPTY;
+    }
+
+    Map<String, List<CompiledPolicy>> index = new HashMap<>();
+    List<TagPolicy> compiledPolicies = new ArrayList<>();
+    for (TagPolicy policy : policies) {
+      if (policy.getResourceTypes() == null || policy.getRequiredTags() == null) {
+        continue;
+      }
+      CompiledPolicy compiled = new CompiledPolicy(policy);
+      // A type listed twice must not evaluate the policy twice
+      for (String resourceType : new HashSet<>(policy.getResourceTypes())) {
+        index.computeIfAbsent(resourceType, type -> new ArrayList<>()).add(compiled);
+      }
+      compiledPolicies.add(policy);
+    }
+
+    index.replaceAll((type, compiled) -> List.copyOf(compiled));
+    return new CompiledPolicySet(index, compiledPolicies.size(), fingerprint(compiledPolicies));
+  }
+
+  /**
+   * Returns the policies that apply to a resource type, in their original order.
+   */
+  public List<CompiledPolicy> policiesFor(String resourceType) {
+    if (resourceType == null) {
+      return List.of();
+    }
+    return policiesByResourceType.getOrDefault(resourceType, List.of());
+  }
+
+  public int size() {
+    return policyCount;
+  }
+
+  public boolean isEmpty() {
+    return policyCount == 0;
+  }
+
+  /**
+   * Hex SHA-256 of everything that decides the outcome of an evaluation: each compiled policy's
+   * id, severity, required tags and resource types. Independent of policy order, so two sets with
+   * the same fingerprint evaluate every resource the same way.
+   */
+  public String fingerprint() {
+    return fingerprint;
+  }
+
+  private static String fingerprint(List<TagPolicy> policies) {
+    List<String> entries = new ArrayList<>(policies.size());
+    for (TagPolicy policy : policies) {
+      entries.add(policy.getId() + "|" + policy.getSeverity() + "|"
+          + new TreeMap<>(policy.getRequiredTags()) + "|"
+          + new TreeSet<>(policy.getResourceTypes()));
+    }
+    Collections.sort(entries);
+
+    try {
+      byte[] canonical = String.join("\n", entries).getBytes(StandardCharsets.UTF_8);
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException("Failed to fingerprint policy set", e);
+    }
+  }
+
+  /**
+   * One policy's required tags in a form that can be checked without allocating.
+   */
+  public static final class CompiledPolicy {
+
+    private final TagPolicy policy;
+    private final String[] tagKeys;
+    // Parallel to tagKeys; null where any value is acceptable
+    private final Set<String>[] allowedValues;
+    // Parallel to tagKeys; the allowed values as listed in the policy, for violation details
+    private final List<String>[] allowedValueLists;
+
+    @SuppressWarnings("unchecked")
+    private CompiledPolicy(TagPolicy policy) {
+      this.policy = policy;
+      Map<String, List<String>> requiredTags = policy.getRequiredTags();
+      this.tagKeys = new String[requiredTags.size()];
+      this.allowedValues = new Set[requiredTags.size()];
+      this.allowedValueLists = new List[requiredTags.size()];
+
+      int i = 0;
+      for (Map.Entry<String, List<String>> requiredTag : requiredTags.entrySet()) {
+        tagKeys[i] = requiredTag.getKey();
+        List<String> allowed = requiredTag.getValue();
+        // Null or empty allowed values accept any value; HashSet because values may be null
+        allowedValues[i] = allowed == null || allowed.isEmpty() ? null : new HashSet<>(allowed);
+        allowedValueLists[i] = allowed == null ? null : new ArrayList<>(allowed);
+        i++;
+      }
+    }
+
+    public TagPolicy getPolicy() {
+      return policy;
+    }
+
+    /**
+     * Returns whether the tags have every required key with an allowed value. Allocation-free.
+     */
+    public boolean isCompliant(Map<String, String> tags) {
+      Map<String, String> resourceTags = tags != null ? tags : Collections.emptyMap();
+      for (int i = 0; i < tagKeys.length; i++) {
+        if (!hasValidValue(resourceTags, i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Builds the violation details for tags that are not compliant: {@code missingTags} lists the
+     * absent keys and {@code invalidTags} maps each key with a disallowed value to its current and
+     * allowed values. Returns an empty map for compliant tags.
+     */
+    public Map<String, Object> violationDetails(Map<String, String> tags) {
+      Map<String, String> resourceTags = tags != null ? tags : Collections.emptyMap();
+      List<String> missingTags = new ArrayList<>();
+      Map<String, Map<String, Object>> invalidTags = new HashMap<>();
+
+      for (int i = 0; i < tagKeys.length; i++) {
+        String tagKey = tagKeys[i];
+        if (!resourceTags.containsKey(tagKey)) {
+          missingTags.add(tagKey);
+        } else if (!hasValidValue(resourceTags, i)) {
+          Map<String, Object> invalidTagInfo = new HashMap<>();
+          invalidTagInfo.put("current", resourceTags.get(tagKey));
+          invalidTagInfo.put("allowed", allowedValueLists[i]);
+          invalidTags.put(tagKey, invalidTagInfo);
+        }
+      }
+
+      Map<String, Object> details = new HashMap<>();
+      if (!missingTags.isEmpty()) {
+        details.put("missingTags", missingTags);
+      }
+      if (!invalidTags.isEmpty()) {
+        details.put("invalidTags", invalidTags);
+      }
+      return details;
+    }
+
+    private boolean hasValidValue(Map<String, String> resourceTags, int i) {
+      String value = resourceTags.get(tagKeys[i]);
+      if (value == null && !resourceTags.containsKey(tagKeys[i])) {
+        return false;
+      }
+      return allowedValues[i] == null || allowedValues[i].contains(value);
+    }
+  }
+}
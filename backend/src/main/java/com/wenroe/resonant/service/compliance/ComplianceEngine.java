@@ -0,0 +1,19 @@
+package com.wenroe.resonant.service.compliance;
+
+/**
+ * Where a scan evaluates compliance, selected with {@code resonant.compliance.engine}.
+ */
+public enum ComplianceEngine {
+
+  /**
+   * Each persisted chunk is evaluated in memory against a {@link CompiledPolicySet} and reconciled
+   * against the scan's {@link ViolationIndex}. Only resources that changed are re-evaluated.
+   */
+  JVM,
+
+  /**
+   * The whole account is evaluated once discovery has finished, with set-based statements using
+   * PostgreSQL JSONB operators. Nothing is loaded into memory, but every resource is re-evaluated.
+   */
+  SQL
+}
@@ -0,0 +1,13 @@
+package com.wenroe.resonant.service.compliance;
+
+import java.util.UUID;
+
+/**
+ * Published when an enabled policy was created or changed in a way that can change which stored
+ * resources violate it. Handled after the change commits, by re-evaluating the policy.
+ *
+ * @param policyId the changed policy
+ */
+public record PolicyChangedEvent(UUID policyId) {
+
+}
@@ -0,0 +1,254 @@
+package com.wenroe.resonant.service.compliance;
+
+import com.wenroe.resonant.dto.policy.PolicyDryRunResponse;
+import com.wenroe.resonant.dto.policy.PolicyDryRunResponse.AccountCounts;
+import com.wenroe.resonant.dto.policy.PolicyDryRunResponse.Counts;
+import com.wenroe.resonant.dto.policy.PolicyDryRunResponse.Violator;
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.TagPolicy;
+import com.wenroe.resonant.repository.AwsAccountRepository;
+import com.wenroe.resonant.repository.AwsResourceRepository;
+import com.wenroe.resonant.repository.ResourceTagView;
+import com.wenroe.resonant.service.compliance.CompiledPolicySet.CompiledPolicy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Evaluates a candidate policy against a user's stored resources without saving the policy or any
+ * violation, to show what it would report before it is created.
+ * <p>
+ * Resources are read as tag views from a database cursor on the calling thread and handed off in
+ * chunks to virtual threads, each of which tallies its chunk on its own. The tallies are merged
+ * once the cursor is exhausted. Only a bounded number of chunks is held in memory at once: the
+ * reader waits for a free slot before handing off the next one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PolicyDryRunService {
+
+  private final AwsResourceRepository awsResourceRepository;
+  private final AwsAccountRepository awsAccountRepository;
+
+  // One chunk per round trip of the streaming query
+  private int chunkSize = Integer.parseInt(AwsResourceRepository.TAG_VIEW_FETCH_SIZE);
+
+  // Chunks read ahead of evaluation; 0 = twice the available processors
+  @Value("${resonant.compliance.dry-run.max-chunks-in-flight:0}")
+  private int maxChunksInFlight = 0;
+
+  @Value("${resonant.compliance.dry-run.sample-size:50}")
+  private int sampleSize = 50;
+
+  /**
+   * Evaluates the candidate against every stored resource of its types owned by the user.
+   */
+  @Transactional(readOnly = true)
+  public PolicyDryRunResponse dryRun(UUID userId, TagPolicy candidate) {
+    long startTime = System.currentTimeMillis();
+    CompiledPolicySet policySet = CompiledPolicySet.compile(List.of(candidate));
+    int permits = maxChunksInFlight > 0
+        ? maxChunksInFlight : 2 * Runtime.getRuntime().availableProcessors();
+    Semaphore chunksInFlight = new Semaphore(permits);
+    List<Future<DryRunTally>> tallies = new ArrayList<>();
+
+    // Closing the executor waits for the chunks still being evaluated
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        Stream<ResourceTagView> resources = awsResourceRepository
+            .streamTagViewsByUserIdAndResourceTypes(userId, candidate.getResourceTypes())) {
+      Iterator<ResourceTagView> cursor = resources.iterator();
+      List<ResourceTagView> chunk = new ArrayList<>(chunkSize);
+      while (cursor.hasNext()) {
+        chunk.add(cursor.next());
+        if (chunk.size() == chunkSize || !cursor.hasNext()) {
+          tallies.add(submit(executor, chunksInFlight, policySet, chunk));
+          chunk = new ArrayList<>(chunkSize);
+        }
+      }
+    }
+
+    DryRunTally total = new DryRunTally(sampleSize);
+    for (Future<DryRunTally> tally : tallies) {
+      total.merge(join(tally));
+    }
+
+    PolicyDryRunResponse response = toResponse(userId, total);
+    response.setDurationMs(System.currentTimeMillis() - startTime);
+    log.info("Dry run of policy '{}' for user {}: {} of {} resources violating in {} ms",
+        candidate.getName(), userId, response.getViolatingResources(),
+        response.getResourcesEvaluated(), response.getDurationMs());
+    return response;
+  }
+
+  private Future<DryRunTally> submit(ExecutorService executor, Semaphore chunksInFlight,
+      CompiledPolicySet policySet, List<ResourceTagView> chunk) {
+    try {
+      chunksInFlight.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while reading resources for a dry run");
+    }
+
+    return executor.submit(() -> {
+      try {
+        DryRunTally tally = new DryRunTally(sampleSize);
+        for (ResourceTagView resource : chunk) {
+          tally.evaluate(resource, policySet);
+        }
+        return tally;
+      } finally {
+        chunksInFlight.release();
+      }
+    });
+  }
+
+  private static DryRunTally join(Future<DryRunTally> tally) {
+    try {
+      return tally.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while evaluating a dry run");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new RuntimeException("Dry run failed: " + e.getCause().getMessage(), e.getCause());
+    }
+  }
+
+  private PolicyDryRunResponse toResponse(UUID userId, DryRunTally total) {
+    Map<UUID, AwsAccount> accounts = awsAccountRepository.findByUserId(userId).stream()
+        .collect(Collectors.toMap(AwsAccount::getId, Function.identity()));
+
+    List<AccountCounts> byAccount = new ArrayList<>();
+    total.byAccount.forEach((accountId, counts) -> {
+      AwsAccount account = accounts.get(accountId);
+      byAccount.add(new AccountCounts(accountId,
+          account != null ? account.getAccountId() : null,
+          account != null ? account.getAccountAlias() : null,
+          counts.evaluated, counts.violating));
+    });
+    byAccount.sort(Comparator.comparingLong(AccountCounts::getViolating).reversed()
+        .thenComparing(counts -> String.valueOf(counts.getAwsAccountId())));
+
+    PolicyDryRunResponse response = new PolicyDryRunResponse();
+    response.setResourcesEvaluated(total.evaluated);
+    response.setViolatingResources(total.violating);
+    response.setByAccount(byAccount);
+    response.setByRegion(toCounts(total.byRegion));
+    response.setByResourceType(toCounts(total.byResourceType));
+    response.setSampleViolators(total.sample);
+    return response;
+  }
+
+  private static Map<String, Counts> toCounts(Map<String, Tally> tallies) {
+    Map<String, Counts> counts = new TreeMap<>();
+    tallies.forEach((key, tally) -> counts.put(key, new Counts(tally.evaluated, tally.violating)));
+    return counts;
+  }
+
+  /**
+   * Evaluated and violating resource counts for one account, region or type.
+   */
+  private static final class Tally {
+
+    private long evaluated;
+    private long violating;
+
+    void add(boolean isViolating) {
+      evaluated++;
+      if (isViolating) {
+        violating++;
+      }
+    }
+
+    void merge(Tally other) {
+      evaluated += other.evaluated;
+      violating += other.violating;
+    }
+  }
+
+  /**
+   * Counts for one chunk, or for the whole run once merged. Confined to one thread at a time.
+   */
+  private static final class DryRunTally {
+
+    private final int sampleSize;
+    private long evaluated;
+    private long violating;
+    private final Map<UUID, Tally> byAccount = new HashMap<>();
+    private final Map<String, Tally> byRegion = new HashMap<>();
+    private final Map<String, Tally> byResourceType = new HashMap<>();
+    private final List<Violator> sample = new ArrayList<>();
+
+    DryRunTally(int sampleSize) {
+      this.sampleSize = sampleSize;
+    }
+
+    void evaluate(ResourceTagView resource, CompiledPolicySet policySet) {
+      boolean isViolating = false;
+      for (CompiledPolicy policy : policySet.policiesFor(resource.resourceType())) {
+        if (policy.isCompliant(resource.tags())) {
+          continue;
+        }
+        isViolating = true;
+        // Details are only built for the resources that make it into the sample
+        if (sample.size() < sampleSize) {
+          sample.add(new Violator(resource.accountId(), resource.region(),
+              resource.resourceType(), resource.resourceArn(),
+              policy.violationDetails(resource.tags())));
+        }
+      }
+
+      evaluated++;
+      if (isViolating) {
+        violating++;
+      }
+      byAccount.computeIfAbsent(resource.accountId(), id -> new Tally()).add(isViolating);
+      byRegion.computeIfAbsent(resource.region(), region -> new Tally()).add(isViolating);
+      byResourceType.computeIfAbsent(resource.resourceType(), type -> new Tally())
+          .add(isViolating);
+    }
+
+    void merge(DryRunTally other) {
+      evaluated += other.evaluated;
+      violating += other.violating;
+      other.byAccount.forEach((id, tally) -> byAccount.merge(id, tally, DryRunTally::combine));
+      other.byRegion.forEach((region, tally) ->
+          byRegion.merge(region, tally, DryRunTally::combine));
+      other.byResourceType.forEach((type, tally) ->
+          byResourceType.merge(type, tally, DryRunTally::combine));
+      for (Violator violator : other.sample) {
+        if (sample.size() >= sampleSize) {
+          break;
+        }
+        sample.add(violator);
+      }
+    }
+
+    private static Tally combine(Tally existing, Tally other) {
+      existing.merge(other);
+      return existing;
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package com.wenroe.resonant.service.compliance;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.model.entity.TagPolicy;
+import com.wenroe.resonant.repository.AwsResourceRepository;
+import com.wenroe.resonant.repository.TagPolicyRepository;
+import com.wenroe.resonant.service.ComplianceEvaluationService;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Re-evaluates a changed policy against the resources already stored for its owner, so policy
+ * edits take effect without rescanning AWS.
+ * <p>
+ * A run starts once the change has committed and works through the resources of the policy's
+ * types in id order, one batch per transaction, reconciling only that policy's violations. Runs
+ * execute one at a time on a dedicated thread; a policy changed again while its run is still
+ * queued is evaluated once, with its latest state. Progress is kept in memory for
+ * {@link #getStatus(UUID)}.
+ * <p>
+ * The queue itself is not durable, but what it holds can be re-derived: a completed run records
+ * the policy version it evaluated, and any enabled policy changed since is queued again when a
+ * node starts. A run lost to a restart or a failure is therefore resumed, from the beginning, by
+ * the next node to start.
+ * <p>
+ * Accounts with a running scan are skipped; see
+ * {@link ComplianceEvaluationService#reevaluatePolicyBatch}.
+ */
+@Service
+@Slf4j
+public class PolicyReevaluationService {
+
+  // Sorts before every other UUID, so the first page starts at the beginning
+  private static final UUID FIRST_ID = new UUID(0, 0);
+
+  private final TagPolicyRepository tagPolicyRepository;
+  private final AwsResourceRepository awsResourceRepository;
+  private final ComplianceEvaluationService complianceEvaluationService;
+  private final Executor executor;
+  private final boolean enabled;
+  private final int batchSize;
+  private final Cache<UUID, PolicyReevaluationStatus> statusByPolicy;
+  private final Set<UUID> queuedPolicies = ConcurrentHashMap.newKeySet();
+
+  public PolicyReevaluationService(TagPolicyRepository tagPolicyRepository,
+      AwsResourceRepository awsResourceRepository,
+      ComplianceEvaluationService complianceEvaluationService,
+      @Qualifier("policyReevaluationExecutor") Executor executor,
+      @Value("${resonant.compliance.reevaluation.enabled:true}") boolean enabled,
+      @Value("${resonant.compliance.reevaluation.batch-size:500}") int batchSize,
+      @Value("${resonant.compliance.reevaluation.retention:PT1H}") Duration retention) {
+    this.tagPolicyRepository = tagPolicyRepository;
+    this.awsResourceRepository = awsResourceRepository;
+    this.complianceEvaluationService = complianceEvaluationService;
+    this.executor = executor;
+    this.enabled = enabled;
+    this.batchSize = batchSize;
+    // Finished runs are kept briefly so clients polling after the fact still see the outcome
+    this.statusByPolicy = Caffeine.newBuilder()
+        .expireAfterWrite(retention)
+        .build();
+  }
+
+  /**
+   * Queues a re-evaluation after the policy change has committed, unless one is already queued.
+   */
+  @TransactionalEventListener
+  public void onPolicyChanged(PolicyChangedEvent event) {
+    if (enabled) {
+      queue(event.policyId());
+    }
+  }
+
+  /**
+   * Queues the re-evaluations that were pending when a node last stopped, or that failed.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void resumePending() {
+    if (!enabled) {
+      return;
+    }
+
+    List<UUID> pending = tagPolicyRepository.findIdsPendingReevaluation();
+    if (!pending.isEmpty()) {
+      log.info("Resuming {} pending policy re-evaluations", pending.size());
+      pending.forEach(this::queue);
+    }
+  }
+
+  private void queue(UUID policyId) {
+    if (!queuedPolicies.add(policyId)) {
+      log.debug("Re-evaluation of policy {} is already queued", policyId);
+      return;
+    }
+    statusByPolicy.put(policyId, PolicyReevaluationStatus.queued(policyId));
+    executor.execute(() -> reevaluate(policyId));
+  }
+
+  /**
+   * Returns the progress of the latest re-evaluation of a policy, if one ran recently.
+   */
+  public Optional<PolicyReevaluationStatus> getStatus(UUID policyId) {
+    return Optional.ofNullable(statusByPolicy.getIfPresent(policyId));
+  }
+
+  /**
+   * Re-evaluates a policy against all stored resources of its types, batch by batch.
+   */
+  void reevaluate(UUID policyId) {
+    // Removed first, so a change made during this run queues another one
+    queuedPolicies.remove(policyId);
+    PolicyReevaluationStatus status = PolicyReevaluationStatus.queued(policyId);
+
+    try {
+      Optional<TagPolicy> found = tagPolicyRepository.findById(policyId);
+      if (found.isEmpty() || !Boolean.TRUE.equals(found.get().getEnabled())) {
+        // Deleted or disabled since the change; its violations were handled by that change
+        statusByPolicy.put(policyId, status.started(0).completed());
+        return;
+      }
+
+      TagPolicy policy = found.get();
+      UUID userId = policy.getUser().getId();
+      List<String> resourceTypes = policy.getResourceTypes();
+      CompiledPolicySet compiledPolicy = CompiledPolicySet.compile(List.of(policy));
+
+      status = status.started(
+          awsResourceRepository.countByUserIdAndResourceTypes(userId, resourceTypes));
+      statusByPolicy.put(policyId, status);
+      log.info("Re-evaluating policy '{}' ({}) against {} stored resources",
+          policy.getName(), policyId, status.resourcesTotal());
+
+      UUID afterId = FIRST_ID;
+      List<AwsResource> batch;
+      do {
+        batch = awsResourceRepository.findPageByUserIdAndResourceTypes(userId, resourceTypes,
+            afterId, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+          break;
+        }
+
+        ViolationReconciliation reconciliation =
+            complianceEvaluationService.reevaluatePolicyBatch(policyId, compiledPolicy, batch);
+        status = status.withBatch(batch.size(), reconciliation);
+        statusByPolicy.put(policyId, status);
+        afterId = batch.getLast().getId();
+      } while (batch.size() == batchSize);
+
+      // Recorded after the last batch, so a run cut short stays pending
+      tagPolicyRepository.markReevaluated(policyId, policy.getUpdatedAt());
+      status = status.completed();
+      statusByPolicy.put(policyId, status);
+      log.info("Re-evaluated policy {}: {} resources, {} violations ({} opened, {} reopened), "
+              + "{} resolved", policyId, status.resourcesEvaluated(), status.violationsFound(),
+          status.violationsOpened(), status.violationsReopened(), status.violationsResolved());
+
+    } catch (Exception e) {
+      log.error("Re-evaluation of policy {} failed: {}", policyId, e.getMessage(), e);
+      statusByPolicy.put(policyId, status.failed(e.getMessage()));
+    }
+  }
+}
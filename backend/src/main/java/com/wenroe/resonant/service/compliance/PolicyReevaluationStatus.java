@@ -0,0 +1,60 @@
+package com.wenroe.resonant.service.compliance;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of re-evaluating one policy against stored resources. Immutable; each batch produces
+ * a new snapshot.
+ *
+ * @param resourcesTotal resources of the policy's types when the run started
+ * @param resourcesEvaluated resources evaluated so far
+ * @param errorMessage why the run failed, for {@link State#FAILED}
+ */
+public record PolicyReevaluationStatus(UUID policyId, State state, long resourcesTotal,
+    long resourcesEvaluated, int violationsFound, int violationsOpened, int violationsReopened,
+    int violationsResolved, LocalDateTime startedAt, LocalDateTime finishedAt,
+    String errorMessage) {
+
+  public enum State {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  public static PolicyReevaluationStatus queued(UUID policyId) {
+    return new PolicyReevaluationStatus(policyId, State.QUEUED, 0, 0, 0, 0, 0, 0, null, null,
+        null);
+  }
+
+  public PolicyReevaluationStatus started(long total) {
+    return new PolicyReevaluationStatus(policyId, State.RUNNING, total, 0, 0, 0, 0, 0,
+        LocalDateTime.now(), null, null);
+  }
+
+  /**
+   * Adds one reconciled batch to the totals.
+   */
+  public PolicyReevaluationStatus withBatch(int resourceCount, ViolationReconciliation batch) {
+    return new PolicyReevaluationStatus(policyId, state, resourcesTotal,
+        resourcesEvaluated + resourceCount,
+        violationsFound + batch.getViolationsFound(),
+        violationsOpened + batch.getViolationsOpened(),
+        violationsReopened + batch.getViolationsReopened(),
+        violationsResolved + batch.getViolationsResolved(),
+        startedAt, null, null);
+  }
+
+  public PolicyReevaluationStatus completed() {
+    return new PolicyReevaluationStatus(policyId, State.COMPLETED, resourcesTotal,
+        resourcesEvaluated, violationsFound, violationsOpened, violationsReopened,
+        violationsResolved, startedAt, LocalDateTime.now(), null);
+  }
+
+  public PolicyReevaluationStatus failed(String message) {
+    return new PolicyReevaluationStatus(policyId, State.FAILED, resourcesTotal,
+        resourcesEvaluated, violationsFound, violationsOpened, violationsReopened,
+        violationsResolved, startedAt, LocalDateTime.now(), message);
+  }
+}
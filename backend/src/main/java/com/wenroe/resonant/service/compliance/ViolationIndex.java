@@ -0,0 +1,74 @@
+package com.wenroe.resonant.service.compliance;
+
+import com.wenroe.resonant.model.entity.ComplianceViolation;
+import com.wenroe.resonant.model.enums.ViolationStatus;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An account's existing compliance violations, loaded once per scan and keyed by
+ * (resource, policy), so each chunk can be reconciled in memory instead of looking violations up
+ * one pair at a time.
+ * <p>
+ * Holds plain values rather than entities, so it stays valid across the scan's chunk
+ * transactions. It is updated as chunks are reconciled. Not thread-safe; a scan reconciles its
+ * chunks one at a time.
+ */
+public class ViolationIndex {
+
+  private final Map<Key, Entry> entries;
+
+  private ViolationIndex(Map<Key, Entry> entries) {
+    this.entries = entries;
+  }
+
+  public static ViolationIndex empty() {
+    return new ViolationIndex(new HashMap<>());
+  }
+
+  public static ViolationIndex of(Collection<ComplianceViolation> violations) {
+    Map<Key, Entry> entries = new HashMap<>(Math.max(16, violations.size() * 4 / 3 + 1));
+    for (ComplianceViolation violation : violations) {
+      // Reading the id of a lazy association does not initialize it
+      Key key = new Key(violation.getAwsResource().getId(), violation.getTagPolicy().getId());
+      entries.put(key, new Entry(violation.getId(), violation.getStatus(),
+          violation.getViolationDetails()));
+    }
+    return new ViolationIndex(entries);
+  }
+
+  /**
+   * Returns the violation for a resource and policy, or {@code null} if there is none.
+   */
+  public Entry get(UUID resourceId, UUID policyId) {
+    return entries.get(new Key(resourceId, policyId));
+  }
+
+  /**
+   * Records the current state of a violation after it was written.
+   */
+  public void put(UUID resourceId, UUID policyId, Entry entry) {
+    entries.put(new Key(resourceId, policyId), entry);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  private record Key(UUID resourceId, UUID policyId) {
+
+  }
+
+  /**
+   * Last known state of one violation.
+   */
+  public record Entry(UUID violationId, ViolationStatus status,
+      Map<String, Object> violationDetails) {
+
+    Entry withStatus(ViolationStatus newStatus) {
+      return new Entry(violationId, newStatus, violationDetails);
+    }
+  }
+}
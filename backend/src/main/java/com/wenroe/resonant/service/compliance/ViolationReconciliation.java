@@ -0,0 +1,27 @@
+package com.wenroe.resonant.service.compliance;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Outcome of reconciling one chunk of evaluated resources against their existing violations.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ViolationReconciliation {
+
+  // Resource-policy pairs that are not compliant, whether newly found or already recorded
+  private final int violationsFound;
+
+  // Violations created because a pair failed for the first time
+  private final int violationsOpened;
+
+  // Resolved violations reopened because the pair fails again
+  private final int violationsReopened;
+
+  // Open violations resolved because the pair is now compliant
+  private final int violationsResolved;
+
+  // Failing pairs whose recorded violation already had the same status and details
+  private final int violationsUnchanged;
+}
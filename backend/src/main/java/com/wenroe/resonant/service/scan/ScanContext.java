@@ -0,0 +1,32 @@
+package com.wenroe.resonant.service.scan;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.service.compliance.CompiledPolicySet;
+import com.wenroe.resonant.service.compliance.ViolationIndex;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Everything a scan needs after its start transaction has committed. All entities are fully
+ * loaded, so discovery can run without a persistence context or database connection.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ScanContext {
+
+  private final UUID scanJobId;
+  private final AwsAccount account;
+  // Compiled once per scan and shared by every chunk
+  private final CompiledPolicySet enabledPolicies;
+  // The policies changed since the account was last evaluated, so unchanged resources are
+  // evaluated too
+  private final boolean reevaluateUnchanged;
+  // The account's violations as of the start of the scan, reconciled chunk by chunk
+  private final ViolationIndex existingViolations;
+  private final Set<String> enabledResourceTypes;
+  // Codes of the account's enabled regions, the regional work units of the scan
+  private final List<String> enabledRegions;
+}
@@ -0,0 +1,12 @@
+package com.wenroe.resonant.service.scan;
+
+/**
+ * Thrown when a scan does not finish within its configured deadline. All of its subtasks have
+ * been cancelled by the time this is thrown.
+ */
+public class ScanDeadlineExceededException extends RuntimeException {
+
+  public ScanDeadlineExceededException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,236 @@
+package com.wenroe.resonant.service.scan;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.service.aws.scanners.RegionalScanner;
+import com.wenroe.resonant.service.aws.scanners.ResourceScanner;
+import com.wenroe.resonant.service.aws.scanners.ResourceSink;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs resource discovery for a scan on virtual threads.
+ * <p>
+ * Discovery is split into work units: one per region for scanners with regional work units, and
+ * one per scanner for the rest. Each scan gets a root {@link ScanTaskScope} with the configured
+ * deadline and one subtask per unit, so a scanner with many regions is spread over the same
+ * workers as everything else instead of fanning out on its own. Regional units are queued region
+ * by region across scanners, so no single scanner or region holds every permit.
+ * <p>
+ * Concurrency is bounded by semaphores rather than platform thread pools: a global fair limit on
+ * work units running across all scans here, and a per-scan limit so one large account cannot take
+ * every global permit. Scanners may still open nested scopes for their own fan-out (resources).
+ */
+@Component
+@Slf4j
+public class ScanEngine {
+
+  private final Duration scanDeadline;
+  private final Semaphore workUnitPermits;
+
+  // Maximum number of work units running at once for a single scan
+  @Value("${resonant.scan.account-parallelism:8}")
+  private int accountParallelism = 8;
+
+  public ScanEngine(
+      @Value("${resonant.scan.deadline:PT30M}") Duration scanDeadline,
+      @Value("${resonant.scan.max-concurrent-work-units:32}") int maxConcurrentWorkUnits) {
+    this.scanDeadline = scanDeadline;
+    this.workUnitPermits = new Semaphore(maxConcurrentWorkUnits, true);
+  }
+
+  /**
+   * Starts all scanners for an account on a root virtual thread and returns immediately. The
+   * pipeline is completed once discovery ends, whether it succeeded, failed or was cancelled, so a
+   * consumer draining it always terminates.
+   * <p>
+   * Failures of individual work units are isolated. The returned future fails with
+   * {@link ScanDeadlineExceededException} if the deadline passes, or with
+   * {@link CancellationException} if the pipeline was aborted. Cancelling the future cancels every
+   * task in the scan. Scanner and region progress is reported to {@code progress} as it happens.
+   *
+   * @param regions the account's enabled region codes, one work unit each for regional scanners
+   * @return the total number of resources emitted by all scanners
+   */
+  public Future<Integer> startDiscovery(AwsAccount account, List<ResourceScanner> scanners,
+      List<String> regions, ScanResourcePipeline pipeline, ScanProgressListener progress) {
+    FutureTask<Integer> discovery = new FutureTask<>(() -> {
+      try {
+        return discover(account, scanners, regions, pipeline, progress);
+      } finally {
+        pipeline.complete();
+      }
+    });
+
+    Thread.ofVirtual()
+        .name("scan-root-" + account.getAccountId())
+        .start(discovery);
+    return discovery;
+  }
+
+  private int discover(AwsAccount account, List<ResourceScanner> scanners, List<String> regions,
+      ScanResourcePipeline pipeline, ScanProgressListener progress) {
+    List<WorkUnit> units = planWorkUnits(scanners, regions);
+    Map<ResourceScanner, ScannerRun> runs = new IdentityHashMap<>();
+    for (WorkUnit unit : units) {
+      runs.computeIfAbsent(unit.scanner(), ScannerRun::new).unitCount++;
+    }
+
+    log.info("Starting {} work units for {} scanners in {} regions for account {} "
+            + "(deadline {}, {} at a time)", units.size(), scanners.size(), regions.size(),
+        account.getAccountId(), scanDeadline, accountParallelism);
+
+    Semaphore accountPermits = new Semaphore(Math.max(1, accountParallelism));
+    try (ScanTaskScope scope = new ScanTaskScope("scan-" + account.getAccountId(),
+        scanDeadline)) {
+      List<Future<Integer>> unitCounts = new ArrayList<>(units.size());
+      for (WorkUnit unit : units) {
+        ScannerRun run = runs.get(unit.scanner());
+        // The account permit is taken first, so a waiting scan does not hold a global permit
+        unitCounts.add(scope.fork(accountPermits, () -> {
+          workUnitPermits.acquire();
+          try {
+            return runWorkUnit(unit, run, account, pipeline, progress);
+          } finally {
+            workUnitPermits.release();
+          }
+        }));
+      }
+
+      scope.join();
+      return unitCounts.stream().mapToInt(Future::resultNow).sum();
+    }
+  }
+
+  /**
+   * Orders the work units for a scan. Whole-scanner units come first, since they tend to be the
+   * longest, followed by the regional units interleaved region by region across scanners. A
+   * regional scanner with no regions to scan gets a single whole-scanner unit, so it still
+   * reports progress.
+   */
+  static List<WorkUnit> planWorkUnits(List<ResourceScanner> scanners, List<String> regions) {
+    List<WorkUnit> units = new ArrayList<>();
+    List<ResourceScanner> regionalScanners = new ArrayList<>();
+    for (ResourceScanner scanner : scanners) {
+      if (scanner instanceof RegionalScanner && !regions.isEmpty()) {
+        regionalScanners.add(scanner);
+      } else {
+        units.add(new WorkUnit(scanner, null));
+      }
+    }
+
+    for (String region : regions) {
+      for (ResourceScanner scanner : regionalScanners) {
+        units.add(new WorkUnit(scanner, region));
+      }
+    }
+    return units;
+  }
+
+  /**
+   * Runs a single work unit, streaming its resources into the pipeline. Failures are isolated to
+   * the unit: resources emitted before the failure are kept and other units continue.
+   * Cancellation is propagated so the whole scan stops.
+   *
+   * @return the number of resources the unit emitted
+   */
+  private int runWorkUnit(WorkUnit unit, ScannerRun run, AwsAccount account,
+      ScanResourcePipeline pipeline, ScanProgressListener progress) {
+    String resourceType = run.resourceType;
+    if (run.started.compareAndSet(false, true)) {
+      log.info("Running {} scanner for account {}", resourceType, account.getAccountId());
+      progress.scannerStarted(resourceType);
+    }
+
+    AtomicInteger discovered = new AtomicInteger();
+    ResourceSink sink = new ResourceSink() {
+      @Override
+      public void accept(AwsResource resource) {
+        pipeline.accept(resource);
+        discovered.incrementAndGet();
+      }
+
+      @Override
+      public void regionCompleted(String region, int resourceCount) {
+        progress.regionCompleted(resourceType, region, resourceCount);
+      }
+    };
+
+    String error = null;
+    try {
+      if (unit.region() == null) {
+        unit.scanner().scan(account, sink);
+      } else {
+        // Only regional scanners are planned with a region
+        int regionCount = ((RegionalScanner) unit.scanner()).scanRegion(account, unit.region(),
+            sink);
+        progress.regionCompleted(resourceType, unit.region(), regionCount);
+      }
+      log.debug("{} found {} resources", unit, discovered.get());
+    } catch (CancellationException e) {
+      log.info("{} cancelled after {} resources", unit, discovered.get());
+      throw e;
+    } catch (Exception e) {
+      error = unit.region() == null ? e.getMessage() : unit.region() + ": " + e.getMessage();
+      log.error("{} failed after {} resources: {}", unit, discovered.get(), e.getMessage(), e);
+    }
+
+    run.unitFinished(discovered.get(), error, progress);
+    return discovered.get();
+  }
+
+  /**
+   * One schedulable piece of discovery: a whole scanner when {@code region} is {@code null},
+   * otherwise one region of a scanner with regional work units.
+   */
+  record WorkUnit(ResourceScanner scanner, String region) {
+
+    @Override
+    public String toString() {
+      return scanner.getResourceType() + " scanner" + (region != null ? " in " + region : "");
+    }
+  }
+
+  /**
+   * Tracks the units of one scanner, so progress reports the scanner as started with its first
+   * unit and finished with its last, carrying the first error any unit hit.
+   */
+  private static final class ScannerRun {
+
+    private final String resourceType;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicInteger finishedUnits = new AtomicInteger();
+    private final AtomicInteger discovered = new AtomicInteger();
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+    // Set while planning, before any unit is forked
+    private int unitCount;
+
+    private ScannerRun(ResourceScanner scanner) {
+      this.resourceType = scanner.getResourceType();
+    }
+
+    private void unitFinished(int resourceCount, String error, ScanProgressListener progress) {
+      int total = discovered.addAndGet(resourceCount);
+      if (error != null) {
+        firstError.compareAndSet(null, error);
+      }
+      if (finishedUnits.incrementAndGet() == unitCount) {
+        log.info("{} scanner found {} resources", resourceType, total);
+        progress.scannerFinished(resourceType, total, firstError.get());
+      }
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package com.wenroe.resonant.service.scan;
+
+import com.wenroe.resonant.model.entity.ScanJob;
+import com.wenroe.resonant.repository.ScanJobRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Durable scan job queue backed by the scan_jobs table.
+ * <p>
+ * PENDING rows are the queue. Nodes claim them with {@code SELECT ... FOR UPDATE SKIP LOCKED}, so
+ * concurrent nodes never claim the same job, and hold a time-limited lease that is extended by
+ * heartbeats while the scan runs. RUNNING jobs whose lease expires (the node died or lost the
+ * database) are requeued, or failed once they have used up their attempts. Per-account
+ * exclusivity is enforced by a partial unique index on active jobs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScanJobQueueService {
+
+  private final ScanJobRepository scanJobRepository;
+
+  // How long a claim stays valid without a heartbeat
+  @Value("${resonant.scan.queue.lease-duration:PT2M}")
+  private Duration leaseDuration = Duration.ofMinutes(2);
+
+  // Claims allowed before an orphaned job is failed instead of requeued
+  @Value("${resonant.scan.queue.max-attempts:3}")
+  private int maxAttempts = 3;
+
+  /**
+   * Claims up to {@code limit} pending jobs, oldest first, for the given node.
+   *
+   * @return the IDs of the claimed jobs, now RUNNING and leased to {@code owner}
+   */
+  @Transactional
+  public List<UUID> claimPendingJobs(String owner, int limit) {
+    if (limit <= 0) {
+      return List.of();
+    }
+
+    List<UUID> jobIds = scanJobRepository.lockPendingJobIds(limit);
+    if (jobIds.isEmpty()) {
+      return jobIds;
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    for (ScanJob scanJob : scanJobRepository.findAllById(jobIds)) {
+      scanJob.claim(owner, now, now.plus(leaseDuration));
+      log.info("Node {} claimed scan job {} (attempt {})", owner, scanJob.getId(),
+          scanJob.getAttempts());
+    }
+    return jobIds;
+  }
+
+  /**
+   * Extends the leases of jobs the node is still running.
+   *
+   * @return the jobs whose lease the node no longer holds: requeued, taken over or failed after
+   * the lease expired, or already finished
+   */
+  @Transactional
+  public Set<UUID> renewLeases(String owner, Collection<UUID> jobIds) {
+    if (jobIds.isEmpty()) {
+      return Set.of();
+    }
+    LocalDateTime now = LocalDateTime.now();
+    int renewed = scanJobRepository.renewLeases(jobIds, owner, now, now.plus(leaseDuration));
+    if (renewed == jobIds.size()) {
+      return Set.of();
+    }
+
+    Set<UUID> lost = new HashSet<>(jobIds);
+    lost.removeAll(scanJobRepository.findIdsLeasedTo(jobIds, owner));
+    return lost;
+  }
+
+  /**
+   * Requeues RUNNING jobs whose lease has expired, or fails them once they have been claimed
+   * {@code max-attempts} times.
+   *
+   * @return the number of orphaned jobs recovered
+   */
+  @Transactional
+  public int recoverExpiredLeases() {
+    List<UUID> jobIds = scanJobRepository.lockExpiredLeaseJobIds(LocalDateTime.now());
+
+    for (ScanJob scanJob : scanJobRepository.findAllById(jobIds)) {
+      if (scanJob.getAttempts() >= maxAttempts) {
+        log.warn("Scan job {} lease held by {} expired after {} attempts; failing it",
+            scanJob.getId(), scanJob.getLeaseOwner(), scanJob.getAttempts());
+        scanJob.fail("Scan lease expired after " + scanJob.getAttempts() + " attempts");
+      } else {
+        log.warn("Scan job {} lease held by {} expired; requeueing it",
+            scanJob.getId(), scanJob.getLeaseOwner());
+        scanJob.requeue();
+      }
+    }
+    return jobIds.size();
+  }
+}
@@ -0,0 +1,113 @@
+package com.wenroe.resonant.service.scan;
+
+import com.wenroe.resonant.service.ScanOrchestrationService;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pulls scan jobs from the durable queue on this node.
+ * <p>
+ * Polls for pending jobs while it has free capacity, dispatches each claimed job to the scan
+ * executor, sends heartbeats for the jobs it is running and periodically recovers jobs orphaned by
+ * other nodes. Heartbeats run on their own scheduler thread so a slow poll or recovery cannot
+ * delay them past the lease duration; a scan whose lease was lost anyway is cancelled. Disabled
+ * with {@code resonant.scan.queue.enabled=false}.
+ */
+@Component
+@ConditionalOnProperty(name = "resonant.scan.queue.enabled", havingValue = "true",
+    matchIfMissing = true)
+@Slf4j
+public class ScanJobWorker {
+
+  private final ScanJobQueueService queueService;
+  private final ScanOrchestrationService orchestrationService;
+  private final int maxConcurrentScans;
+  private final String nodeId;
+  private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+  public ScanJobWorker(ScanJobQueueService queueService,
+      ScanOrchestrationService orchestrationService,
+      @Value("${resonant.scan.queue.max-concurrent-scans:4}") int maxConcurrentScans) {
+    this.queueService = queueService;
+    this.orchestrationService = orchestrationService;
+    this.maxConcurrentScans = maxConcurrentScans;
+    this.nodeId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    log.info("Scan job worker {} started with capacity {}", nodeId, maxConcurrentScans);
+  }
+
+  /**
+   * Claims as many pending jobs as this node has free slots for and starts them.
+   */
+  @Scheduled(fixedDelayString = "${resonant.scan.queue.poll-interval:PT2S}")
+  public void pollForJobs() {
+    int freeSlots = maxConcurrentScans - inFlight.size();
+    if (freeSlots <= 0) {
+      return;
+    }
+
+    List<UUID> claimed = queueService.claimPendingJobs(nodeId, freeSlots);
+    for (UUID scanJobId : claimed) {
+      dispatch(scanJobId);
+    }
+  }
+
+  /**
+   * Extends the leases of the jobs this node is running and cancels the scans whose lease was
+   * taken over by another node.
+   */
+  @Scheduled(fixedDelayString = "${resonant.scan.queue.heartbeat-interval:PT30S}",
+      scheduler = "scanHeartbeatScheduler")
+  public void heartbeat() {
+    Set<UUID> running = Set.copyOf(inFlight);
+    for (UUID scanJobId : queueService.renewLeases(nodeId, running)) {
+      // Finished jobs are no longer in flight, so their results are not affected
+      if (inFlight.contains(scanJobId)) {
+        log.warn("Node {} lost the lease on scan job {}; cancelling it", nodeId, scanJobId);
+        orchestrationService.cancelScan(scanJobId);
+      }
+    }
+  }
+
+  /**
+   * Requeues or fails jobs whose owning node stopped sending heartbeats.
+   */
+  @Scheduled(fixedDelayString = "${resonant.scan.queue.recovery-interval:PT1M}")
+  public void recoverOrphanedJobs() {
+    int recovered = queueService.recoverExpiredLeases();
+    if (recovered > 0) {
+      log.info("Node {} recovered {} orphaned scan jobs", nodeId, recovered);
+    }
+  }
+
+  private void dispatch(UUID scanJobId) {
+    if (!inFlight.add(scanJobId)) {
+      log.warn("Scan job {} is already running on node {}", scanJobId, nodeId);
+      return;
+    }
+    try {
+      orchestrationService.executeScanAsync(scanJobId, nodeId)
+          .whenComplete((ignored, error) -> inFlight.remove(scanJobId));
+    } catch (RuntimeException e) {
+      // Executor rejected the job; its lease will expire and it will be requeued
+      inFlight.remove(scanJobId);
+      log.error("Failed to dispatch scan job {}: {}", scanJobId, e.getMessage(), e);
+    }
+  }
+
+  private static String hostName() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException e) {
+      return "unknown-host";
+    }
+  }
+}
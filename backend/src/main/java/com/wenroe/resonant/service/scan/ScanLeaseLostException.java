@@ -0,0 +1,15 @@
+package com.wenroe.resonant.service.scan;
+
+import java.util.UUID;
+
+/**
+ * Thrown when a scan job is no longer leased to the node running it: the lease expired and the
+ * job was requeued, taken over by another node or failed. The local scan must stop without
+ * recording a result.
+ */
+public class ScanLeaseLostException extends RuntimeException {
+
+  public ScanLeaseLostException(UUID scanJobId, String leaseOwner) {
+    super("Scan job " + scanJobId + " is no longer leased to " + leaseOwner);
+  }
+}
@@ -0,0 +1,268 @@
+package com.wenroe.resonant.service.scan;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wenroe.resonant.dto.scan.ScanProgressResponse;
+import com.wenroe.resonant.model.entity.ScanJob;
+import com.wenroe.resonant.model.enums.ScanStatus;
+import com.wenroe.resonant.service.scan.ScanProgressEvent.Type;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fans scan progress events out to Server-Sent Event subscribers.
+ * <p>
+ * Progress for each scan is folded into an in-memory snapshot as events arrive, so subscribing
+ * costs one ownership lookup and watching costs nothing further: a new subscriber gets the current
+ * snapshot followed by live events, and no watcher ever triggers a database read. Each subscriber
+ * has its own bounded buffer drained by a virtual thread, so a slow client never blocks the scan
+ * that publishes the events; a client that falls too far behind is disconnected and resumes from
+ * a fresh snapshot when it reconnects.
+ * <p>
+ * Events are in-process only. A subscriber connected to a node other than the one running the
+ * scan receives the snapshot and then nothing until it times out.
+ */
+@Component
+@Slf4j
+public class ScanProgressBroadcaster {
+
+  private static final String SNAPSHOT_EVENT = "snapshot";
+
+  private final Duration emitterTimeout;
+  private final int subscriberBuffer;
+  private final Cache<UUID, ScanProgress> progressByScan;
+
+  public ScanProgressBroadcaster(
+      @Value("${resonant.scan.progress.emitter-timeout:PT30M}") Duration emitterTimeout,
+      @Value("${resonant.scan.progress.subscriber-buffer:256}") int subscriberBuffer,
+      @Value("${resonant.scan.progress.retention:PT1H}") Duration retention) {
+    this.emitterTimeout = emitterTimeout;
+    this.subscriberBuffer = subscriberBuffer;
+    // Finished scans are kept briefly so late subscribers still see the final state
+    this.progressByScan = Caffeine.newBuilder()
+        .expireAfterAccess(retention)
+        .build();
+  }
+
+  /**
+   * Opens a progress stream for a scan job. The first event is a snapshot of the progress so far;
+   * the stream completes after the scan's terminal event.
+   */
+  public SseEmitter subscribe(ScanJob scanJob) {
+    SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+    Subscriber subscriber = new Subscriber(scanJob.getId(), emitter, subscriberBuffer);
+    ScanProgress progress = progressByScan.get(scanJob.getId(), ScanProgress::new);
+
+    synchronized (progress) {
+      if (!progress.hasEvents()) {
+        progress.seed(scanJob);
+      }
+      subscriber.enqueue(SNAPSHOT_EVENT, progress.toResponse(null));
+      if (progress.isTerminal()) {
+        subscriber.finish();
+      } else {
+        progress.subscribers.add(subscriber);
+      }
+    }
+
+    Runnable unsubscribe = () -> {
+      synchronized (progress) {
+        progress.subscribers.remove(subscriber);
+      }
+      subscriber.close();
+    };
+    emitter.onCompletion(unsubscribe);
+    emitter.onTimeout(unsubscribe);
+    emitter.onError(error -> unsubscribe.run());
+
+    subscriber.start();
+    return emitter;
+  }
+
+  @EventListener
+  public void onProgress(ScanProgressEvent event) {
+    ScanProgress progress = progressByScan.get(event.scanJobId(), ScanProgress::new);
+
+    synchronized (progress) {
+      progress.apply(event);
+      if (progress.subscribers.isEmpty()) {
+        return;
+      }
+
+      ScanProgressResponse response = progress.toResponse(event);
+      String eventName = event.type().name().toLowerCase();
+      for (Subscriber subscriber : progress.subscribers) {
+        subscriber.enqueue(eventName, response);
+      }
+      if (event.type().isTerminal()) {
+        progress.subscribers.forEach(Subscriber::finish);
+        progress.subscribers.clear();
+      }
+    }
+  }
+
+  /**
+   * Running totals for one scan. Guarded by its own monitor.
+   */
+  private static class ScanProgress {
+
+    private final UUID scanJobId;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private boolean hasEvents;
+    private ScanStatus status = ScanStatus.PENDING;
+    private int scannersTotal;
+    private int scannersFinished;
+    private int resourcesPersisted;
+    private int violationsFound;
+    private String errorMessage;
+
+    ScanProgress(UUID scanJobId) {
+      this.scanJobId = scanJobId;
+    }
+
+    boolean hasEvents() {
+      return hasEvents;
+    }
+
+    boolean isTerminal() {
+      return status == ScanStatus.SUCCESS || status == ScanStatus.FAILED;
+    }
+
+    /**
+     * Initializes totals from the persisted job when no events have been seen on this node.
+     */
+    void seed(ScanJob scanJob) {
+      status = scanJob.getStatus();
+      resourcesPersisted = valueOf(scanJob.getResourcesScanned());
+      violationsFound = valueOf(scanJob.getViolationsFound());
+      errorMessage = scanJob.getErrorMessage();
+    }
+
+    void apply(ScanProgressEvent event) {
+      hasEvents = true;
+      switch (event.type()) {
+        case SCAN_STARTED -> {
+          status = ScanStatus.RUNNING;
+          scannersTotal = event.count();
+        }
+        case SCANNER_FINISHED -> scannersFinished++;
+        case RESOURCES_PERSISTED -> resourcesPersisted += event.count();
+        case VIOLATIONS_FOUND -> violationsFound += event.count();
+        case SCAN_COMPLETED -> status = ScanStatus.SUCCESS;
+        case SCAN_FAILED -> {
+          status = ScanStatus.FAILED;
+          errorMessage = event.message();
+        }
+        default -> {
+          // SCANNER_STARTED and REGION_COMPLETED do not change the totals
+        }
+      }
+    }
+
+    ScanProgressResponse toResponse(ScanProgressEvent event) {
+      ScanProgressResponse response = new ScanProgressResponse();
+      response.setScanJobId(scanJobId);
+      if (event != null) {
+        response.setEvent(event.type().name());
+        response.setResourceType(event.resourceType());
+        response.setRegion(event.region());
+        response.setCount(event.count());
+        response.setTimestamp(event.timestamp());
+      } else {
+        response.setEvent(SNAPSHOT_EVENT.toUpperCase());
+      }
+      response.setStatus(status.name());
+      response.setScannersTotal(scannersTotal);
+      response.setScannersFinished(scannersFinished);
+      response.setResourcesPersisted(resourcesPersisted);
+      response.setViolationsFound(violationsFound);
+      response.setErrorMessage(errorMessage);
+      return response;
+    }
+
+    private static int valueOf(Integer value) {
+      return value != null ? value : 0;
+    }
+  }
+
+  /**
+   * One connected client: a bounded buffer of events drained onto the emitter by a virtual
+   * thread.
+   */
+  private static class Subscriber {
+
+    // Queued after the last event to complete the stream
+    private static final SseEmitter.SseEventBuilder END_OF_STREAM = SseEmitter.event();
+
+    private final UUID scanJobId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+    private volatile Thread sender;
+    private volatile boolean closed;
+
+    Subscriber(UUID scanJobId, SseEmitter emitter, int capacity) {
+      this.scanJobId = scanJobId;
+      this.emitter = emitter;
+      this.buffer = new ArrayBlockingQueue<>(capacity);
+    }
+
+    void enqueue(String name, ScanProgressResponse data) {
+      if (closed) {
+        return;
+      }
+      if (!buffer.offer(SseEmitter.event().name(name).data(data))) {
+        log.debug("Progress subscriber for scan {} fell behind; disconnecting", scanJobId);
+        closed = true;
+        emitter.complete();
+      }
+    }
+
+    void finish() {
+      if (!closed && !buffer.offer(END_OF_STREAM)) {
+        closed = true;
+        emitter.complete();
+      }
+    }
+
+    void start() {
+      sender = Thread.ofVirtual().name("scan-progress-" + scanJobId).start(this::sendLoop);
+    }
+
+    void close() {
+      closed = true;
+      Thread thread = sender;
+      if (thread != null) {
+        thread.interrupt();
+      }
+    }
+
+    private void sendLoop() {
+      try {
+        while (!closed) {
+          SseEmitter.SseEventBuilder next = buffer.take();
+          if (next == END_OF_STREAM) {
+            emitter.complete();
+            return;
+          }
+          emitter.send(next);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (IOException | IllegalStateException e) {
+        // Client went away; the emitter's error callback unsubscribes
+        log.debug("Progress stream for scan {} closed: {}", scanJobId, e.getMessage());
+        closed = true;
+      }
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.wenroe.resonant.service.scan;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of a running scan, published on the in-process application event bus.
+ *
+ * @param scanJobId the scan the event belongs to
+ * @param type what happened
+ * @param resourceType the scanner's resource type, for scanner and region events
+ * @param region the region code, for region events
+ * @param count resources or violations the event refers to
+ * @param message error message for failures
+ */
+public record ScanProgressEvent(UUID scanJobId, Type type, String resourceType, String region,
+    int count, String message, LocalDateTime timestamp) {
+
+  public enum Type {
+    SCAN_STARTED,
+    SCANNER_STARTED,
+    SCANNER_FINISHED,
+    REGION_COMPLETED,
+    RESOURCES_PERSISTED,
+    VIOLATIONS_FOUND,
+    SCAN_COMPLETED,
+    SCAN_FAILED;
+
+    public boolean isTerminal() {
+      return this == SCAN_COMPLETED || this == SCAN_FAILED;
+    }
+  }
+}
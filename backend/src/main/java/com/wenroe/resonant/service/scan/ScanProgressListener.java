@@ -0,0 +1,16 @@
+package com.wenroe.resonant.service.scan;
+
+/**
+ * Receives discovery progress for one scan from the {@link ScanEngine}.
+ */
+public interface ScanProgressListener {
+
+  void scannerStarted(String resourceType);
+
+  /**
+   * @param error the failure message, or {@code null} if the scanner succeeded
+   */
+  void scannerFinished(String resourceType, int resourceCount, String error);
+
+  void regionCompleted(String resourceType, String region, int resourceCount);
+}
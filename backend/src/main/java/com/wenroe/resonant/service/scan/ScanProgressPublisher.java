@@ -0,0 +1,66 @@
+package com.wenroe.resonant.service.scan;
+
+import com.wenroe.resonant.service.scan.ScanProgressEvent.Type;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes {@link ScanProgressEvent}s for a scan. Listeners run synchronously on the publishing
+ * thread, so they must only hand events off, never block.
+ */
+@Component
+@RequiredArgsConstructor
+public class ScanProgressPublisher {
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  public void scanStarted(UUID scanJobId, int scannerCount) {
+    publish(scanJobId, Type.SCAN_STARTED, null, null, scannerCount, null);
+  }
+
+  public void resourcesPersisted(UUID scanJobId, int resourceCount, int violationCount) {
+    publish(scanJobId, Type.RESOURCES_PERSISTED, null, null, resourceCount, null);
+    if (violationCount > 0) {
+      publish(scanJobId, Type.VIOLATIONS_FOUND, null, null, violationCount, null);
+    }
+  }
+
+  public void scanCompleted(UUID scanJobId, int resourcesScanned) {
+    publish(scanJobId, Type.SCAN_COMPLETED, null, null, resourcesScanned, null);
+  }
+
+  public void scanFailed(UUID scanJobId, String errorMessage) {
+    publish(scanJobId, Type.SCAN_FAILED, null, null, 0, errorMessage);
+  }
+
+  /**
+   * Returns a listener that publishes discovery progress for the given scan.
+   */
+  public ScanProgressListener forScan(UUID scanJobId) {
+    return new ScanProgressListener() {
+      @Override
+      public void scannerStarted(String resourceType) {
+        publish(scanJobId, Type.SCANNER_STARTED, resourceType, null, 0, null);
+      }
+
+      @Override
+      public void scannerFinished(String resourceType, int resourceCount, String error) {
+        publish(scanJobId, Type.SCANNER_FINISHED, resourceType, null, resourceCount, error);
+      }
+
+      @Override
+      public void regionCompleted(String resourceType, String region, int resourceCount) {
+        publish(scanJobId, Type.REGION_COMPLETED, resourceType, region, resourceCount, null);
+      }
+    };
+  }
+
+  private void publish(UUID scanJobId, Type type, String resourceType, String region, int count,
+      String message) {
+    eventPublisher.publishEvent(new ScanProgressEvent(scanJobId, type, resourceType, region,
+        count, message, LocalDateTime.now()));
+  }
+}
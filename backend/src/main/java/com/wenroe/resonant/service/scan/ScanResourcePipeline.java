@@ -0,0 +1,116 @@
+package com.wenroe.resonant.service.scan;
+
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.service.aws.scanners.ResourceSink;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded hand-off between resource scanners (producers) and the persistence loop (consumer).
+ * <p>
+ * Scanners push resources through {@link #accept(AwsResource)}, which blocks while the queue is
+ * full so slow database writes throttle discovery instead of growing the heap. The consumer
+ * drains fixed-size chunks with {@link #drain(int, Consumer)} until {@link #complete()} has been
+ * called and the queue is empty.
+ */
+@Slf4j
+public class ScanResourcePipeline implements ResourceSink {
+
+  private static final long POLL_INTERVAL_MILLIS = 100;
+
+  private final BlockingQueue<AwsResource> queue;
+  private volatile boolean completed;
+  private volatile boolean aborted;
+
+  public ScanResourcePipeline(int capacity) {
+    this.queue = new ArrayBlockingQueue<>(capacity);
+  }
+
+  /**
+   * Enqueues a discovered resource, blocking while the queue is full.
+   *
+   * @throws CancellationException if the consumer aborted or the producer thread was interrupted
+   */
+  @Override
+  public void accept(AwsResource resource) {
+    failIfAborted();
+    try {
+      while (!queue.offer(resource, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+        failIfAborted();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while waiting for scan pipeline capacity");
+    }
+    // An abort may have cleared the queue just before this resource was added
+    if (aborted) {
+      queue.clear();
+      failIfAborted();
+    }
+  }
+
+  /**
+   * Signals that no more resources will be produced.
+   */
+  public void complete() {
+    completed = true;
+  }
+
+  /**
+   * Aborts the pipeline, discarding queued resources and failing any blocked producers.
+   */
+  public void abort() {
+    aborted = true;
+    queue.clear();
+  }
+
+  /**
+   * Drains the queue on the calling thread, handing resources to the handler in chunks of at most
+   * {@code chunkSize}. Returns once producers have completed and the queue is empty. If the handler
+   * throws, the pipeline is aborted so producers do not block forever.
+   */
+  public void drain(int chunkSize, Consumer<List<AwsResource>> chunkHandler) {
+    List<AwsResource> chunk = new ArrayList<>(chunkSize);
+    try {
+      while (true) {
+        boolean producersDone = completed;
+        AwsResource next = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+        if (next != null) {
+          chunk.add(next);
+          queue.drainTo(chunk, chunkSize - chunk.size());
+          if (chunk.size() >= chunkSize) {
+            chunkHandler.accept(chunk);
+            chunk = new ArrayList<>(chunkSize);
+          }
+        } else if (producersDone) {
+          // Completion was observed before an empty poll, so nothing can still be in flight
+          break;
+        }
+      }
+
+      if (!chunk.isEmpty()) {
+        chunkHandler.accept(chunk);
+      }
+    } catch (InterruptedException e) {
+      abort();
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while draining scan pipeline");
+    } catch (RuntimeException e) {
+      abort();
+      throw e;
+    }
+  }
+
+  private void failIfAborted() {
+    if (aborted) {
+      throw new CancellationException("Scan pipeline aborted");
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package com.wenroe.resonant.service.scan;
+
+import com.wenroe.resonant.dto.scan.ScheduledScanResponse;
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.repository.AwsAccountRepository;
+import com.wenroe.resonant.repository.ScanJobRepository;
+import com.wenroe.resonant.service.AwsAccountService;
+import com.wenroe.resonant.service.ScanOrchestrationService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Continuous scanning on a per-account interval.
+ * <p>
+ * Each scheduled account carries its own next scan time. Start times are spread out rather than
+ * aligned: the first scan lands at a random point within the first interval, and every later scan
+ * is offset by a random jitter of up to {@code jitter-fraction} of the interval, so accounts
+ * configured at the same moment drift apart. A global cap on scans queued per minute, counted
+ * across all nodes from scan_jobs, bounds the burst of AWS and database load when many accounts
+ * are due at once; accounts over the cap stay due and are picked up, most overdue first, on a
+ * later tick. Nodes dispatch one at a time under a database advisory lock, so the budget one node
+ * reads already includes every scan another node queued against it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScanScheduleService {
+
+  static final int MIN_INTERVAL_MINUTES = 15;
+
+  private final AwsAccountRepository awsAccountRepository;
+  private final ScanJobRepository scanJobRepository;
+  private final AwsAccountService awsAccountService;
+  private final ScanOrchestrationService scanOrchestrationService;
+
+  // Scans queued per minute across all nodes, manual and scheduled
+  @Value("${resonant.scan.scheduler.max-starts-per-minute:30}")
+  private int maxStartsPerMinute = 30;
+
+  // Random offset applied to each interval, as a fraction of the interval
+  @Value("${resonant.scan.scheduler.jitter-fraction:0.1}")
+  private double jitterFraction = 0.1;
+
+  /**
+   * Sets or clears an account's scan interval. A new interval schedules the first scan at a random
+   * point within one interval from now.
+   *
+   * @param intervalMinutes minutes between scans, or {@code null} to disable scheduled scans
+   */
+  @Transactional
+  public AwsAccount updateScanInterval(UUID accountId, UUID userId, Integer intervalMinutes) {
+    AwsAccount account = awsAccountService.getAccountByIdAndVerifyOwnership(accountId, userId);
+
+    if (intervalMinutes == null) {
+      account.setScanIntervalMinutes(null);
+      account.setNextScanAt(null);
+      log.info("Disabled scheduled scans for account {}", account.getAccountId());
+      return awsAccountRepository.save(account);
+    }
+
+    if (intervalMinutes < MIN_INTERVAL_MINUTES) {
+      throw new IllegalArgumentException(
+          "Scan interval must be at least " + MIN_INTERVAL_MINUTES + " minutes");
+    }
+
+    long intervalSeconds = Duration.ofMinutes(intervalMinutes).toSeconds();
+    account.setScanIntervalMinutes(intervalMinutes);
+    account.setNextScanAt(LocalDateTime.now()
+        .plusSeconds(ThreadLocalRandom.current().nextLong(intervalSeconds)));
+    log.info("Scheduled account {} every {} minutes, first scan at {}",
+        account.getAccountId(), intervalMinutes, account.getNextScanAt());
+    return awsAccountRepository.save(account);
+  }
+
+  /**
+   * Lists a user's scheduled accounts in the order they will next be scanned.
+   */
+  @Transactional(readOnly = true)
+  public List<ScheduledScanResponse> getUpcomingSchedule(UUID userId) {
+    Set<UUID> scanning = scanJobRepository.findActiveAccountIdsForUser(userId);
+    return awsAccountRepository.findScheduledByUserId(userId).stream()
+        .map(account -> ScheduledScanResponse.fromEntity(account,
+            scanning.contains(account.getId())))
+        .toList();
+  }
+
+  /**
+   * Queues scans for accounts that are due, within what is left of the per-minute cap. Each due
+   * account's next scan time is advanced with a compare-and-set, so when several nodes run the
+   * scheduler only one of them queues a given scan. Accounts whose previous scan is still queued
+   * or running are skipped until their next interval.
+   * <p>
+   * The budget is read and spent while holding the dispatch lock, and each scan is committed as it
+   * is queued, before the lock is released. A node that finds the lock taken skips this tick.
+   *
+   * @return the number of scans queued
+   */
+  @Transactional
+  public int dispatchDueScans() {
+    if (!scanJobRepository.tryLockScanDispatch()) {
+      log.debug("Another node is dispatching scheduled scans; skipping this tick");
+      return 0;
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    long recentStarts = scanJobRepository.countByCreatedAtAfter(now.minusMinutes(1));
+    int budget = maxStartsPerMinute - (int) recentStarts;
+    if (budget <= 0) {
+      log.debug("Scan rate cap reached ({} in the last minute); deferring due scans",
+          recentStarts);
+      return 0;
+    }
+
+    List<AwsAccount> dueAccounts = awsAccountRepository.findDueForScan(now,
+        PageRequest.of(0, budget));
+    int started = 0;
+
+    for (AwsAccount account : dueAccounts) {
+      LocalDateTime nextScanAt = nextScanAfter(now, account.getScanIntervalMinutes());
+      if (awsAccountRepository.advanceNextScanAt(account.getId(), account.getNextScanAt(),
+          nextScanAt) == 0) {
+        // Another scheduler node claimed this scan
+        continue;
+      }
+
+      if (scanJobRepository.findActiveScanForAccount(account.getId()).isPresent()) {
+        log.info("Skipping scheduled scan for account {}: previous scan still in progress",
+            account.getAccountId());
+        continue;
+      }
+
+      try {
+        scanOrchestrationService.initiateScanInNewTransaction(account.getId(),
+            account.getUser().getId());
+        started++;
+      } catch (RuntimeException e) {
+        log.warn("Scheduled scan for account {} not started: {}",
+            account.getAccountId(), e.getMessage());
+      }
+    }
+
+    if (started > 0) {
+      log.info("Queued {} scheduled scans ({} due)", started, dueAccounts.size());
+    }
+    return started;
+  }
+
+  /**
+   * Next scan time one interval from {@code from}, offset by a random jitter in
+   * [-jitterFraction, +jitterFraction] of the interval.
+   */
+  LocalDateTime nextScanAfter(LocalDateTime from, int intervalMinutes) {
+    long intervalSeconds = Duration.ofMinutes(intervalMinutes).toSeconds();
+    long maxJitterSeconds = (long) (intervalSeconds * jitterFraction);
+    long jitterSeconds = maxJitterSeconds > 0
+        ? ThreadLocalRandom.current().nextLong(-maxJitterSeconds, maxJitterSeconds + 1)
+        : 0;
+    return from.plusSeconds(intervalSeconds + jitterSeconds);
+  }
+}
@@ -0,0 +1,30 @@
+package com.wenroe.resonant.service.scan;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically queues scans for accounts whose scheduled scan is due. Disabled with
+ * {@code resonant.scan.scheduler.enabled=false}.
+ */
+@Component
+@ConditionalOnProperty(name = "resonant.scan.scheduler.enabled", havingValue = "true",
+    matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ScanScheduler {
+
+  private final ScanScheduleService scanScheduleService;
+
+  @Scheduled(fixedDelayString = "${resonant.scan.scheduler.tick-interval:PT30S}")
+  public void tick() {
+    try {
+      scanScheduleService.dispatchDueScans();
+    } catch (Exception e) {
+      log.error("Scheduled scan dispatch failed: {}", e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package com.wenroe.resonant.service.scan;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Structured scope for one level of the scan task tree (account, scanner, region, resource).
+ * <p>
+ * Every forked subtask runs on its own virtual thread. Subtasks never outlive the scope: closing
+ * it cancels anything still running and waits for it to stop. The first exception that escapes a
+ * subtask is treated as fatal and cancels all siblings, so subtasks that should fail in isolation
+ * must handle their own errors. Nested scopes opened inside a subtask are cancelled transitively,
+ * because cancelling a subtask interrupts its thread and an interrupted {@link #join()} cancels
+ * the nested scope's own subtasks.
+ * <p>
+ * Mirrors the shutdown-on-failure policy of {@code StructuredTaskScope}, which is still a preview
+ * API in Java 21, on top of a virtual-thread-per-task executor.
+ */
+@Slf4j
+public class ScanTaskScope implements AutoCloseable {
+
+  // How long close() waits for cancelled subtasks to stop
+  private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
+  private final String name;
+  private final Instant deadline;
+  private final ExecutorService executor;
+  private final List<Future<?>> subtasks = new CopyOnWriteArrayList<>();
+  private final List<Thread> threads = new CopyOnWriteArrayList<>();
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+  /**
+   * Opens a scope without a deadline. Used for nested levels, which are bounded by the deadline
+   * of the enclosing scope through cancellation.
+   */
+  public ScanTaskScope(String name) {
+    this(name, null);
+  }
+
+  /**
+   * Opens a scope whose {@link #join()} gives up, cancelling all subtasks, once the timeout has
+   * elapsed. A {@code null} timeout means no deadline.
+   */
+  public ScanTaskScope(String name, Duration timeout) {
+    this.name = name;
+    this.deadline = timeout != null ? Instant.now().plus(timeout) : null;
+    ThreadFactory factory = Thread.ofVirtual().name(name + "-", 0).factory();
+    this.executor = Executors.newThreadPerTaskExecutor(task -> {
+      Thread thread = factory.newThread(task);
+      threads.add(thread);
+      return thread;
+    });
+  }
+
+  /**
+   * Starts a subtask on a new virtual thread. Only the thread that owns the scope forks, and only
+   * before it calls {@link #join()}.
+   */
+  public <T> Future<T> fork(Callable<T> task) {
+    Future<T> future = executor.submit(() -> {
+      try {
+        return task.call();
+      } catch (Throwable t) {
+        onFailure(t);
+        throw t;
+      }
+    });
+    subtasks.add(future);
+    if (failure.get() != null) {
+      // A sibling already failed; the scope is shutting down
+      future.cancel(true);
+    }
+    return future;
+  }
+
+  /**
+   * Starts a subtask that holds one permit of {@code permits} while it runs. The virtual thread
+   * waits for the permit, so the semaphore, not a thread pool, bounds the concurrency.
+   */
+  public <T> Future<T> fork(Semaphore permits, Callable<T> task) {
+    return fork(() -> {
+      permits.acquire();
+      try {
+        return task.call();
+      } finally {
+        permits.release();
+      }
+    });
+  }
+
+  /**
+   * Waits for all subtasks to finish.
+   *
+   * @throws CancellationException if the calling thread is interrupted; subtasks are cancelled
+   * @throws ScanDeadlineExceededException if the deadline passes first; subtasks are cancelled
+   * @throws RuntimeException wrapping the first subtask failure; siblings are cancelled
+   */
+  public void join() {
+    try {
+      for (Future<?> subtask : subtasks) {
+        awaitSubtask(subtask);
+      }
+    } catch (InterruptedException e) {
+      cancelAll();
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Scan scope " + name + " was cancelled");
+    } catch (TimeoutException e) {
+      cancelAll();
+      throw new ScanDeadlineExceededException(
+          "Scan scope " + name + " exceeded its deadline of " + deadline);
+    }
+
+    Throwable cause = failure.get();
+    if (cause != null) {
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new RuntimeException("Scan scope " + name + " failed: " + cause.getMessage(), cause);
+    }
+  }
+
+  /**
+   * Cancels any subtask still running and waits for them to stop.
+   * <p>
+   * Waits on the subtask threads themselves: the executor counts a cancelled subtask as finished
+   * as soon as its future is cancelled, while its thread may still be running.
+   */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    long closeDeadline = System.nanoTime() + CLOSE_TIMEOUT.toNanos();
+    try {
+      for (Thread thread : threads) {
+        long remainingNanos = closeDeadline - System.nanoTime();
+        if (remainingNanos <= 0 || !thread.join(Duration.ofNanos(remainingNanos))) {
+          log.warn("Scan scope {} still has running subtasks after {}", name, CLOSE_TIMEOUT);
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void awaitSubtask(Future<?> subtask) throws InterruptedException, TimeoutException {
+    try {
+      if (deadline == null) {
+        subtask.get();
+      } else {
+        long remainingNanos = Duration.between(Instant.now(), deadline).toNanos();
+        subtask.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+      }
+    } catch (ExecutionException | CancellationException e) {
+      // Recorded by onFailure, or a sibling cancelled after the first failure
+    }
+  }
+
+  private void onFailure(Throwable t) {
+    if (failure.compareAndSet(null, t)) {
+      log.debug("Subtask in scan scope {} failed, cancelling siblings: {}", name, t.getMessage());
+      cancelAll();
+    }
+  }
+
+  private void cancelAll() {
+    subtasks.forEach(subtask -> subtask.cancel(true));
+  }
+}
@@ -0,0 +1,43 @@
+package com.wenroe.resonant.service.scan;
+
+import lombok.Getter;
+
+/**
+ * Running totals for a scan, accumulated across persisted chunks.
+ */
+@Getter
+public class ScanTotals {
+
+  private int resourcesScanned;
+  private int resourcesChanged;
+  private int resourcesUnchanged;
+  private int violationsFound;
+  private int violationsResolved;
+  private long persistNanos;
+
+  /**
+   * Records one persisted chunk.
+   *
+   * @param changed new resources and existing ones whose content changed
+   * @param unchanged existing resources whose content was unchanged
+   * @param resolved open violations resolved because their resource is now compliant
+   */
+  public void addChunk(int changed, int unchanged, int violations, int resolved,
+      long elapsedNanos) {
+    resourcesScanned += changed + unchanged;
+    resourcesChanged += changed;
+    resourcesUnchanged += unchanged;
+    violationsFound += violations;
+    violationsResolved += resolved;
+    persistNanos += elapsedNanos;
+  }
+
+  /**
+   * Records violations found and resolved outside the per-chunk evaluation, e.g. by the database
+   * compliance engine once discovery has finished.
+   */
+  public void addViolations(int violations, int resolved) {
+    violationsFound += violations;
+    violationsResolved += resolved;
+  }
+}
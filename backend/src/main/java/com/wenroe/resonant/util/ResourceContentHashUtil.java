@@ -0,0 +1,47 @@
+package com.wenroe.resonant.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wenroe.resonant.model.entity.AwsResource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Computes a stable fingerprint of the scanned content of a resource, used to skip writes for
+ * resources that have not changed since the previous scan.
+ */
+public class ResourceContentHashUtil {
+
+  // Map keys are sorted at every nesting level so the hash does not depend on iteration order
+  private static final ObjectMapper CANONICAL_MAPPER = new ObjectMapper()
+      .findAndRegisterModules()
+      .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+  private ResourceContentHashUtil() {
+  }
+
+  /**
+   * Returns the hex SHA-256 of the resource's tags and metadata, plus the name and region, which
+   * are written alongside them.
+   */
+  public static String contentHash(AwsResource resource) {
+    Map<String, Object> content = new LinkedHashMap<>();
+    content.put("name", resource.getName());
+    content.put("region", resource.getRegion());
+    content.put("tags", resource.getTags());
+    content.put("metadata", resource.getMetadata());
+
+    try {
+      byte[] canonical = CANONICAL_MAPPER.writeValueAsString(content)
+          .getBytes(StandardCharsets.UTF_8);
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+    } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+      throw new RuntimeException("Failed to hash resource " + resource.getResourceArn(), e);
+    }
+  }
+}
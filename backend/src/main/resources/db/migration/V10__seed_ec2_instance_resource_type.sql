@@ -0,0 +1,4 @@
+-- Register the EC2 instance scanner; scanners only run for types listed here
+INSERT INTO resource_type_settings (id, resource_type, display_name, description, enabled, created_at, updated_at) VALUES
+   (gen_random_uuid(), 'ec2:instance', 'EC2 Instances', 'Amazon EC2 virtual machine instances', true, NOW(), NOW())
+ON CONFLICT (resource_type) DO NOTHING;
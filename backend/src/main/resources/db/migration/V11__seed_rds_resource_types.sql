@@ -0,0 +1,5 @@
+-- Register the RDS scanners; scanners only run for types listed here
+INSERT INTO resource_type_settings (id, resource_type, display_name, description, enabled, created_at, updated_at) VALUES
+   (gen_random_uuid(), 'rds:db-instance', 'RDS DB Instances', 'Amazon RDS database instances', true, NOW(), NOW()),
+   (gen_random_uuid(), 'rds:db-cluster', 'RDS DB Clusters', 'Amazon RDS and Aurora database clusters', true, NOW(), NOW())
+ON CONFLICT (resource_type) DO NOTHING;
@@ -0,0 +1,14 @@
+-- Which version of each policy was last re-evaluated against stored resources.
+-- An enabled policy whose updated_at is later than its evaluated_version (or that has no row)
+-- still has a re-evaluation pending; nodes resume those at startup.
+-- Kept out of tag_policies so recording a run does not fire that table's updated_at trigger.
+
+CREATE TABLE policy_reevaluations (
+    tag_policy_id UUID PRIMARY KEY REFERENCES tag_policies(id) ON DELETE CASCADE,
+    evaluated_version TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Existing policies were evaluated by the scans that ran before this table existed
+INSERT INTO policy_reevaluations (tag_policy_id, evaluated_version)
+SELECT id, updated_at FROM tag_policies WHERE updated_at IS NOT NULL;
@@ -0,0 +1,11 @@
+-- Fingerprint of scanned resource content (name, region, tags, metadata).
+-- Scans compare it to skip rewriting and re-evaluating unchanged resources.
+ALTER TABLE aws_resources ADD COLUMN content_hash VARCHAR(64);
+
+-- Per-scan counts of resources that were rewritten vs. only marked as seen
+ALTER TABLE scan_jobs ADD COLUMN resources_changed INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE scan_jobs ADD COLUMN resources_unchanged INTEGER NOT NULL DEFAULT 0;
+
+-- Fingerprint of the enabled policy set the account's resources were last evaluated against.
+-- Scans skip re-evaluating unchanged resources only while it matches the current policy set.
+ALTER TABLE aws_accounts ADD COLUMN evaluated_policy_set_hash VARCHAR(64);
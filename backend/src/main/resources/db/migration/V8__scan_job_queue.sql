@@ -0,0 +1,36 @@
+-- Durable scan job queue on scan_jobs.
+-- Nodes claim PENDING jobs with SELECT ... FOR UPDATE SKIP LOCKED, hold a lease renewed by
+-- heartbeats, and RUNNING jobs whose lease expired are requeued or failed.
+
+ALTER TABLE scan_jobs ADD COLUMN lease_owner VARCHAR(100);
+ALTER TABLE scan_jobs ADD COLUMN lease_expires_at TIMESTAMP;
+ALTER TABLE scan_jobs ADD COLUMN heartbeat_at TIMESTAMP;
+ALTER TABLE scan_jobs ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
+
+-- Scans that were RUNNING in memory when this version was deployed are gone
+UPDATE scan_jobs
+SET status = 'FAILED',
+    completed_at = CURRENT_TIMESTAMP,
+    error_message = 'Scan was interrupted by a restart'
+WHERE status = 'RUNNING';
+
+-- Keep only the newest PENDING job per account; it will be picked up by the queue
+UPDATE scan_jobs s
+SET status = 'FAILED',
+    completed_at = CURRENT_TIMESTAMP,
+    error_message = 'Superseded by a newer pending scan'
+WHERE s.status = 'PENDING'
+  AND EXISTS (SELECT 1
+              FROM scan_jobs newer
+              WHERE newer.aws_account_id = s.aws_account_id
+                AND newer.status = 'PENDING'
+                AND newer.created_at > s.created_at);
+
+-- At most one active (PENDING or RUNNING) scan per account, across all nodes
+CREATE UNIQUE INDEX uq_scan_jobs_active_account
+    ON scan_jobs (aws_account_id)
+    WHERE status IN ('PENDING', 'RUNNING');
+
+-- Claim order and lease expiry lookups
+CREATE INDEX idx_scan_jobs_pending ON scan_jobs (created_at) WHERE status = 'PENDING';
+CREATE INDEX idx_scan_jobs_lease ON scan_jobs (lease_expires_at) WHERE status = 'RUNNING';
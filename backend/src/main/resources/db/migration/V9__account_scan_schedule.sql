@@ -0,0 +1,14 @@
+-- Per-account continuous scanning.
+-- scan_interval_minutes NULL means the account is only scanned on demand.
+
+ALTER TABLE aws_accounts ADD COLUMN scan_interval_minutes INTEGER;
+ALTER TABLE aws_accounts ADD COLUMN next_scan_at TIMESTAMP;
+
+ALTER TABLE aws_accounts
+    ADD CONSTRAINT chk_aws_accounts_scan_interval CHECK (scan_interval_minutes IS NULL OR scan_interval_minutes > 0);
+
+-- Due-account lookup by the scheduler
+CREATE INDEX idx_aws_accounts_next_scan ON aws_accounts (next_scan_at) WHERE scan_interval_minutes IS NOT NULL;
+
+COMMENT ON COLUMN aws_accounts.scan_interval_minutes IS 'Minutes between scheduled scans; NULL disables scheduled scanning';
+COMMENT ON COLUMN aws_accounts.next_scan_at IS 'When the scheduler will next queue a scan (includes jitter)';
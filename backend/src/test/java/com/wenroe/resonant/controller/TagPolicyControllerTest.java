@@ -1,16 +1,20 @@
 package com.wenroe.resonant.controller;
 
 import com.wenroe.resonant.dto.policy.CreateTagPolicyRequest;
+import com.wenroe.resonant.dto.policy.PolicyDryRunRequest;
+import com.wenroe.resonant.dto.policy.PolicyDryRunResponse;
 import com.wenroe.resonant.dto.policy.TagPolicyResponse;
 import com.wenroe.resonant.dto.policy.UpdateTagPolicyRequest;
 import com.wenroe.resonant.model.entity.TagPolicy;
 import com.wenroe.resonant.model.entity.User;
 import com.wenroe.resonant.model.enums.Severity;
 import com.wenroe.resonant.service.TagPolicyService;
+import com.wenroe.resonant.service.compliance.PolicyDryRunService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -34,6 +38,9 @@ class TagPolicyControllerTest {
     @Mock
     private TagPolicyService tagPolicyService;
 
+    @Mock
+    private PolicyDryRunService policyDryRunService;
+
     @InjectMocks
     private TagPolicyController tagPolicyController;
 
@@ -225,6 +232,35 @@ class TagPolicyControllerTest {
         verify(tagPolicyService).disablePolicy(eq(policyId), any(UUID.class));
     }
 
+    @Test
+    @DisplayName("Should dry-run a candidate policy without creating it")
+    void dryRunPolicy_Success() {
+        // Given
+        PolicyDryRunRequest request = new PolicyDryRunRequest();
+        request.setName("Candidate");
+        request.setRequiredTags(Map.of("Environment", List.of("prod")));
+        request.setResourceTypes(List.of("s3:bucket"));
+
+        PolicyDryRunResponse dryRun = new PolicyDryRunResponse();
+        dryRun.setResourcesEvaluated(10);
+        dryRun.setViolatingResources(4);
+        when(policyDryRunService.dryRun(eq(userId), any(TagPolicy.class))).thenReturn(dryRun);
+
+        // When
+        ResponseEntity<PolicyDryRunResponse> response =
+                tagPolicyController.dryRunPolicy(testUser, request);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(dryRun);
+
+        ArgumentCaptor<TagPolicy> candidate = ArgumentCaptor.forClass(TagPolicy.class);
+        verify(policyDryRunService).dryRun(eq(userId), candidate.capture());
+        assertThat(candidate.getValue().getRequiredTags()).isEqualTo(request.getRequiredTags());
+        assertThat(candidate.getValue().getResourceTypes()).containsExactly("s3:bucket");
+        verifyNoInteractions(tagPolicyService);
+    }
+
     @Test
     @DisplayName("Should delete policy")
     void deletePolicy_Success() {
@@ -0,0 +1,277 @@
+package com.wenroe.resonant.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.model.entity.ComplianceViolation;
+import com.wenroe.resonant.model.entity.ScanJob;
+import com.wenroe.resonant.model.entity.TagPolicy;
+import com.wenroe.resonant.model.entity.User;
+import com.wenroe.resonant.model.enums.AwsAccountStatus;
+import com.wenroe.resonant.model.enums.CredentialType;
+import com.wenroe.resonant.model.enums.Severity;
+import com.wenroe.resonant.model.enums.ViolationStatus;
+import com.wenroe.resonant.repository.AwsAccountRepository;
+import com.wenroe.resonant.repository.AwsResourceRepository;
+import com.wenroe.resonant.repository.ComplianceViolationRepository;
+import com.wenroe.resonant.repository.ScanJobRepository;
+import com.wenroe.resonant.repository.TagPolicyRepository;
+import com.wenroe.resonant.repository.UserRepository;
+import com.wenroe.resonant.service.ComplianceEvaluationService;
+import com.wenroe.resonant.service.TagPolicyService;
+import com.wenroe.resonant.service.compliance.CompiledPolicySet;
+import com.wenroe.resonant.service.compliance.ViolationIndex;
+import com.wenroe.resonant.service.compliance.ViolationReconciliation;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Verifies that the in-database compliance engine produces exactly the violations the in-memory
+ * engine does: same statuses, same details and the same scan job links, starting from the same
+ * mix of open, resolved and ignored violations. Needs PostgreSQL for the JSONB functions, so it
+ * runs against a container with the Flyway schema. It is the only check of the SQL engine's
+ * statements, so it is skipped without Docker only outside CI ({@code CI} unset); in CI a missing
+ * Docker daemon fails the build instead.
+ */
+@Testcontainers
+@EnabledIf("dockerAvailableOrCi")
+@SpringBootTest(properties = {
+    "spring.datasource.driver-class-name=org.postgresql.Driver",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.jpa.properties.hibernate.globally_quoted_identifiers=false"
+})
+@ActiveProfiles("test")
+@DisplayName("Compliance Engine Equivalence Integration Tests")
+class ComplianceEngineEquivalenceIntegrationTest {
+
+  @Container
+  @ServiceConnection
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+  static boolean dockerAvailableOrCi() {
+    return System.getenv("CI") != null || DockerClientFactory.instance().isDockerAvailable();
+  }
+
+  @Autowired
+  private ComplianceEvaluationService complianceEvaluationService;
+
+  @Autowired
+  private TagPolicyService tagPolicyService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private AwsAccountRepository awsAccountRepository;
+
+  @Autowired
+  private AwsResourceRepository awsResourceRepository;
+
+  @Autowired
+  private TagPolicyRepository policyRepository;
+
+  @Autowired
+  private ComplianceViolationRepository violationRepository;
+
+  @Autowired
+  private ScanJobRepository scanJobRepository;
+
+  private User testUser;
+  private AwsAccount testAccount;
+  private ScanJob testScanJob;
+  private TagPolicy environmentPolicy;
+  private TagPolicy costPolicy;
+  private TagPolicy disabledPolicy;
+  private AwsResource untagged;
+  private AwsResource invalidEnvironment;
+  private AwsResource compliant;
+  private AwsResource instance;
+
+  @BeforeEach
+  void setUp() {
+    violationRepository.deleteAll();
+    scanJobRepository.deleteAll();
+    awsResourceRepository.deleteAll();
+    policyRepository.deleteAll();
+    awsAccountRepository.deleteAll();
+    userRepository.deleteAll();
+
+    testUser = new User();
+    testUser.setEmail("test@example.com");
+    testUser.setName("Test User");
+    testUser.setPasswordHash("hash");
+    testUser = userRepository.save(testUser);
+
+    testAccount = new AwsAccount();
+    testAccount.setUser(testUser);
+    testAccount.setAccountId("123456789012");
+    testAccount.setAccountAlias("test-account");
+    testAccount.setRoleArn("arn:aws:iam::123456789012:role/test");
+    testAccount.setExternalId("external-123");
+    testAccount.setCredentialType(CredentialType.ROLE);
+    testAccount.setStatus(AwsAccountStatus.ACTIVE);
+    testAccount = awsAccountRepository.save(testAccount);
+
+    testScanJob = new ScanJob();
+    testScanJob.setUser(testUser);
+    testScanJob.setAwsAccount(testAccount);
+    testScanJob = scanJobRepository.save(testScanJob);
+
+    Map<String, List<String>> environmentTags = new HashMap<>();
+    environmentTags.put("Environment", List.of("prod", "dev"));
+    environmentTags.put("Owner", null);  // Any value accepted
+    environmentPolicy = createPolicy("Environment Policy", environmentTags,
+        List.of("s3:bucket"), true);
+
+    Map<String, List<String>> costTags = new HashMap<>();
+    costTags.put("CostCenter", List.of("eng", "sales"));
+    costTags.put("Team", List.of());  // Empty list also accepts any value
+    costPolicy = createPolicy("Cost Policy", costTags, List.of("s3:bucket", "ec2:instance"),
+        true);
+
+    disabledPolicy = createPolicy("Backup Policy", Map.of("Backup", List.of("daily")),
+        List.of("s3:bucket"), false);
+
+    untagged = createResource("untagged-bucket", "s3:bucket", null);
+    invalidEnvironment = createResource("invalid-bucket", "s3:bucket", Map.of(
+        "Environment", "staging", "Owner", "alice", "CostCenter", "eng", "Team", "web"));
+    compliant = createResource("compliant-bucket", "s3:bucket", Map.of(
+        "Environment", "prod", "Owner", "bob", "CostCenter", "sales", "Team", "data"));
+    instance = createResource("i-0123456789", "ec2:instance", Map.of("CostCenter", "ops"));
+    createResource("vpc-0123456789", "ec2:vpc", Map.of());
+  }
+
+  @Test
+  @DisplayName("Should produce the same violations in the database as in memory")
+  void sqlEngineMatchesJvmEngine() {
+    // Given: the JVM engine's result from the seeded violations
+    seedExistingViolations();
+    ViolationIndex index = complianceEvaluationService.loadViolationIndex(testAccount.getId());
+    CompiledPolicySet policies = CompiledPolicySet.compile(
+        tagPolicyService.getEnabledPoliciesByUserId(testUser.getId()));
+    ViolationReconciliation jvmResult = complianceEvaluationService.reconcileViolations(
+        awsResourceRepository.findByAwsAccountId(testAccount.getId()), policies, index,
+        testScanJob);
+    Map<String, List<Object>> jvmViolations = snapshotViolations();
+
+    // When: the SQL engine runs from the same starting point
+    seedExistingViolations();
+    ViolationReconciliation sqlResult = complianceEvaluationService.evaluateAccountInDatabase(
+        testAccount.getId(), testScanJob.getId());
+    Map<String, List<Object>> sqlViolations = snapshotViolations();
+
+    // Then
+    assertThat(sqlViolations).isEqualTo(jvmViolations);
+    assertThat(sqlResult.getViolationsFound()).isEqualTo(jvmResult.getViolationsFound());
+    assertThat(sqlResult.getViolationsResolved()).isEqualTo(jvmResult.getViolationsResolved());
+
+    // Sanity check that every kind of transition was exercised
+    assertThat(jvmViolations)
+        .containsEntry(key(compliant, environmentPolicy),
+            List.of(ViolationStatus.RESOLVED, Map.of("missingTags", List.of("Owner")), true, ""))
+        .containsEntry(key(compliant, disabledPolicy),
+            List.of(ViolationStatus.OPEN, Map.of("missingTags", List.of("Backup")), false, ""))
+        .containsKeys(key(untagged, environmentPolicy), key(untagged, costPolicy),
+            key(invalidEnvironment, environmentPolicy), key(instance, costPolicy))
+        .hasSize(6);
+    assertThat(jvmViolations.get(key(untagged, environmentPolicy)).get(0))
+        .isEqualTo(ViolationStatus.OPEN);
+    assertThat(jvmViolations.get(key(instance, costPolicy)).get(0))
+        .isEqualTo(ViolationStatus.IGNORED);
+    assertThat(jvmResult.getViolationsResolved()).isEqualTo(1);
+  }
+
+  /**
+   * Replaces all violations with the starting set: an open violation for a resource that is now
+   * compliant, a resolved one for a resource that fails again, an ignored one with stale details
+   * and an open one for a disabled policy, which neither engine may touch.
+   */
+  private void seedExistingViolations() {
+    violationRepository.deleteAll();
+    createViolation(compliant, environmentPolicy, ViolationStatus.OPEN,
+        Map.of("missingTags", List.of("Owner")));
+    createViolation(untagged, environmentPolicy, ViolationStatus.RESOLVED,
+        Map.of("missingTags", List.of("Owner")));
+    createViolation(instance, costPolicy, ViolationStatus.IGNORED,
+        Map.of("missingTags", List.of("CostCenter")));
+    createViolation(compliant, disabledPolicy, ViolationStatus.OPEN,
+        Map.of("missingTags", List.of("Backup")));
+  }
+
+  /**
+   * Captures each violation as (status, details, resolved, scan job) keyed by resource and
+   * policy. Resolution times differ between runs, so only their presence is compared.
+   */
+  private Map<String, List<Object>> snapshotViolations() {
+    Map<String, List<Object>> snapshot = new HashMap<>();
+    for (ComplianceViolation violation : violationRepository.findAll()) {
+      String key = violation.getAwsResource().getId() + "/" + violation.getTagPolicy().getId();
+      String scanJobId = violation.getScanJob() != null
+          ? violation.getScanJob().getId().toString() : "";
+      snapshot.put(key, Arrays.asList(violation.getStatus(), violation.getViolationDetails(),
+          violation.getResolvedAt() != null, scanJobId));
+    }
+    return snapshot;
+  }
+
+  private static String key(AwsResource resource, TagPolicy policy) {
+    return resource.getId() + "/" + policy.getId();
+  }
+
+  private TagPolicy createPolicy(String name, Map<String, List<String>> requiredTags,
+      List<String> resourceTypes, boolean enabled) {
+    TagPolicy policy = new TagPolicy();
+    policy.setUser(testUser);
+    policy.setName(name);
+    policy.setRequiredTags(requiredTags);
+    policy.setResourceTypes(resourceTypes);
+    policy.setSeverity(Severity.HIGH);
+    policy.setEnabled(enabled);
+    return policyRepository.save(policy);
+  }
+
+  private AwsResource createResource(String resourceId, String resourceType,
+      Map<String, String> tags) {
+    AwsResource resource = new AwsResource();
+    resource.setAwsAccount(testAccount);
+    resource.setResourceId(resourceId);
+    resource.setResourceArn("arn:aws:test:::" + resourceId);
+    resource.setResourceType(resourceType);
+    resource.setRegion("us-east-1");
+    resource.setName(resourceId);
+    resource.setTags(tags);
+    resource.setMetadata(new HashMap<>());
+    return awsResourceRepository.save(resource);
+  }
+
+  private void createViolation(AwsResource resource, TagPolicy policy, ViolationStatus status,
+      Map<String, Object> details) {
+    ComplianceViolation violation = new ComplianceViolation();
+    violation.setAwsResource(resource);
+    violation.setTagPolicy(policy);
+    violation.setStatus(status);
+    violation.setViolationDetails(details);
+    if (status == ViolationStatus.RESOLVED) {
+      violation.setResolvedAt(LocalDateTime.now());
+    }
+    violationRepository.save(violation);
+  }
+}
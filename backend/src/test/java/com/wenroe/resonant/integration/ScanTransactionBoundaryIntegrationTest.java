@@ -0,0 +1,229 @@
+package com.wenroe.resonant.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsAccountRegion;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.model.entity.ResourceTypeSetting;
+import com.wenroe.resonant.model.entity.ScanJob;
+import com.wenroe.resonant.model.entity.User;
+import com.wenroe.resonant.model.enums.AwsAccountStatus;
+import com.wenroe.resonant.model.enums.CredentialType;
+import com.wenroe.resonant.model.enums.ScanStatus;
+import com.wenroe.resonant.repository.AwsAccountRegionRepository;
+import com.wenroe.resonant.repository.AwsAccountRepository;
+import com.wenroe.resonant.repository.AwsResourceRepository;
+import com.wenroe.resonant.repository.ComplianceViolationRepository;
+import com.wenroe.resonant.repository.ResourceTypeSettingRepository;
+import com.wenroe.resonant.repository.ScanJobRepository;
+import com.wenroe.resonant.repository.TagPolicyRepository;
+import com.wenroe.resonant.repository.UserRepository;
+import com.wenroe.resonant.service.ScanOrchestrationService;
+import com.wenroe.resonant.service.aws.scanners.ResourceScanner;
+import com.wenroe.resonant.service.aws.scanners.ResourceSink;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Verifies that a scan does not hold a database connection while scanners are talking to AWS.
+ * A probe scanner stands in for a real one and records the connection pool state from inside
+ * {@code scan}. Not {@code @Transactional}: the scan phases must really commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ScanTransactionBoundaryIntegrationTest.ProbeScannerConfig.class)
+@DisplayName("Scan Transaction Boundary Integration Tests")
+class ScanTransactionBoundaryIntegrationTest {
+
+  private static final String PROBE_RESOURCE_TYPE = "test:probe";
+
+  @Autowired
+  private ScanOrchestrationService orchestrationService;
+
+  @Autowired
+  private ProbeScanner probeScanner;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private AwsAccountRepository awsAccountRepository;
+
+  @Autowired
+  private AwsAccountRegionRepository awsAccountRegionRepository;
+
+  @Autowired
+  private AwsResourceRepository awsResourceRepository;
+
+  @Autowired
+  private ResourceTypeSettingRepository resourceTypeSettingRepository;
+
+  @Autowired
+  private ComplianceViolationRepository violationRepository;
+
+  @Autowired
+  private TagPolicyRepository policyRepository;
+
+  @Autowired
+  private ScanJobRepository scanJobRepository;
+
+  private AwsAccount testAccount;
+  private ScanJob testScanJob;
+
+  @BeforeEach
+  void setUp() {
+    cleanDatabase();
+
+    User testUser = new User();
+    testUser.setEmail("test@example.com");
+    testUser.setName("Test User");
+    testUser.setPasswordHash("hash");
+    testUser = userRepository.save(testUser);
+
+    testAccount = new AwsAccount();
+    testAccount.setUser(testUser);
+    testAccount.setAccountId("123456789012");
+    testAccount.setAccountAlias("test-account");
+    testAccount.setRoleArn("arn:aws:iam::123456789012:role/test");
+    testAccount.setExternalId("external-123");
+    testAccount.setCredentialType(CredentialType.ROLE);
+    testAccount.setStatus(AwsAccountStatus.ACTIVE);
+    testAccount = awsAccountRepository.save(testAccount);
+
+    AwsAccountRegion region = new AwsAccountRegion();
+    region.setAwsAccount(testAccount);
+    region.setRegionCode("us-east-1");
+    region.setEnabled(true);
+    awsAccountRegionRepository.save(region);
+
+    // Only the probe scanner is enabled; the real AWS scanners are skipped
+    ResourceTypeSetting setting = new ResourceTypeSetting();
+    setting.setResourceType(PROBE_RESOURCE_TYPE);
+    setting.setDisplayName("Probe");
+    setting.setEnabled(true);
+    resourceTypeSettingRepository.save(setting);
+
+    testScanJob = new ScanJob();
+    testScanJob.setUser(testUser);
+    testScanJob.setAwsAccount(testAccount);
+    testScanJob.claim("node-1", LocalDateTime.now(), LocalDateTime.now().plusMinutes(2));
+    testScanJob = scanJobRepository.save(testScanJob);
+
+    probeScanner.reset();
+  }
+
+  @AfterEach
+  void tearDown() {
+    cleanDatabase();
+  }
+
+  @Test
+  @DisplayName("Should not hold a database connection or transaction during discovery")
+  void shouldNotHoldConnectionDuringDiscovery() {
+    // When
+    orchestrationService.executeScan(testScanJob.getId(), "node-1");
+
+    // Then - the probe ran outside any transaction with every pooled connection idle
+    assertThat(probeScanner.invoked).isTrue();
+    assertThat(probeScanner.transactionActive).isFalse();
+    assertThat(probeScanner.activeConnections).isZero();
+
+    // And the resource emitted afterwards was still persisted and the job completed
+    ScanJob completed = scanJobRepository.findById(testScanJob.getId()).orElseThrow();
+    assertThat(completed.getStatus()).isEqualTo(ScanStatus.SUCCESS);
+    assertThat(completed.getResourcesScanned()).isEqualTo(1);
+    assertThat(awsResourceRepository.findByAwsAccountId(testAccount.getId())).hasSize(1);
+  }
+
+  private void cleanDatabase() {
+    violationRepository.deleteAll();
+    awsResourceRepository.deleteAll();
+    awsAccountRegionRepository.deleteAll();
+    resourceTypeSettingRepository.deleteAll();
+    scanJobRepository.deleteAll();
+    policyRepository.deleteAll();
+    awsAccountRepository.deleteAll();
+    userRepository.deleteAll();
+  }
+
+  @TestConfiguration
+  static class ProbeScannerConfig {
+
+    @Bean
+    ProbeScanner probeScanner(DataSource dataSource) {
+      return new ProbeScanner(dataSource);
+    }
+  }
+
+  /**
+   * Scanner that records the transaction and pool state at the point where a real scanner would
+   * call AWS, then emits a single resource.
+   */
+  static class ProbeScanner implements ResourceScanner {
+
+    private final DataSource dataSource;
+
+    private volatile boolean invoked;
+    private volatile boolean transactionActive;
+    private volatile int activeConnections = -1;
+
+    ProbeScanner(DataSource dataSource) {
+      this.dataSource = dataSource;
+    }
+
+    void reset() {
+      invoked = false;
+      transactionActive = false;
+      activeConnections = -1;
+    }
+
+    @Override
+    public List<AwsResource> scan(AwsAccount account) {
+      throw new UnsupportedOperationException("Probe scanner only supports streaming");
+    }
+
+    @Override
+    public void scan(AwsAccount account, ResourceSink sink) {
+      invoked = true;
+      transactionActive = TransactionSynchronizationManager.isActualTransactionActive();
+      try {
+        activeConnections = dataSource.unwrap(HikariDataSource.class)
+            .getHikariPoolMXBean()
+            .getActiveConnections();
+      } catch (SQLException e) {
+        throw new IllegalStateException("Test datasource is not a Hikari pool", e);
+      }
+
+      AwsResource resource = new AwsResource();
+      resource.setAwsAccount(account);
+      resource.setResourceId("probe-1");
+      resource.setResourceArn("arn:aws:test:us-east-1:123456789012:probe/probe-1");
+      resource.setResourceType(PROBE_RESOURCE_TYPE);
+      resource.setRegion("us-east-1");
+      resource.setName("probe-1");
+      resource.setTags(Map.of());
+      sink.accept(resource);
+    }
+
+    @Override
+    public String getResourceType() {
+      return PROBE_RESOURCE_TYPE;
+    }
+  }
+}
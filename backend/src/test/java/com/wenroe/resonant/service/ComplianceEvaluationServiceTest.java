@@ -1,11 +1,18 @@
 package com.wenroe.resonant.service;
 
+import com.wenroe.resonant.model.entity.AwsAccount;
 import com.wenroe.resonant.model.entity.AwsResource;
 import com.wenroe.resonant.model.entity.ComplianceViolation;
+import com.wenroe.resonant.model.entity.ScanJob;
 import com.wenroe.resonant.model.entity.TagPolicy;
 import com.wenroe.resonant.model.enums.Severity;
 import com.wenroe.resonant.model.enums.ViolationStatus;
+import com.wenroe.resonant.repository.AwsAccountRepository;
 import com.wenroe.resonant.repository.ComplianceViolationRepository;
+import com.wenroe.resonant.repository.ScanJobRepository;
+import com.wenroe.resonant.service.compliance.CompiledPolicySet;
+import com.wenroe.resonant.service.compliance.ViolationIndex;
+import com.wenroe.resonant.service.compliance.ViolationReconciliation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,6 +21,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -27,6 +35,12 @@ class ComplianceEvaluationServiceTest {
     @Mock
     private ComplianceViolationRepository violationRepository;
 
+    @Mock
+    private AwsAccountRepository awsAccountRepository;
+
+    @Mock
+    private ScanJobRepository scanJobRepository;
+
     @InjectMocks
     private ComplianceEvaluationService complianceEvaluationService;
 
@@ -46,6 +60,9 @@ class ComplianceEvaluationServiceTest {
         testResource.setResourceArn("arn:aws:s3:::test-bucket");
         testResource.setResourceType("s3:bucket");
         testResource.setTags(new HashMap<>());
+        AwsAccount account = new AwsAccount();
+        account.setId(UUID.randomUUID());
+        testResource.setAwsAccount(account);
 
         // Setup test policy
         testPolicy = new TagPolicy();
@@ -264,6 +281,202 @@ class ComplianceEvaluationServiceTest {
         assertThat(violations).isEmpty();
     }
 
+    @Test
+    @DisplayName("Should insert new violations in bulk without per-pair lookups")
+    void reconcileViolations_InsertsNewViolations() {
+        // Given - resource has no tags and no existing violation
+        ScanJob scanJob = new ScanJob();
+        List<ComplianceViolation> inserted = new ArrayList<>();
+        when(violationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ComplianceViolation> violations = invocation.getArgument(0);
+            violations.forEach(violation -> violation.setId(UUID.randomUUID()));
+            inserted.addAll(violations);
+            return violations;
+        });
+        ViolationIndex index = ViolationIndex.empty();
+
+        // When
+        ViolationReconciliation result = complianceEvaluationService.reconcileViolations(
+                List.of(testResource), CompiledPolicySet.compile(List.of(testPolicy)), index,
+                scanJob);
+
+        // Then
+        assertThat(result.getViolationsFound()).isEqualTo(1);
+        assertThat(result.getViolationsOpened()).isEqualTo(1);
+        assertThat(inserted).singleElement().satisfies(violation -> {
+            assertThat(violation.getScanJob()).isSameAs(scanJob);
+            assertThat(violation.getStatus()).isEqualTo(ViolationStatus.OPEN);
+            assertThat(violation.getViolationDetails()).containsKey("missingTags");
+        });
+        verify(violationRepository, never()).findByAwsResourceIdAndTagPolicyId(any(), any());
+        assertThat(index.get(resourceId, policyId).status()).isEqualTo(ViolationStatus.OPEN);
+    }
+
+    @Test
+    @DisplayName("Should resolve open violations of compliant resources with a set-based update")
+    void reconcileViolations_ResolvesCompliant() {
+        // Given - compliant resource with an open violation
+        testResource.setTags(Map.of("Environment", "prod", "Owner", "alice"));
+        ComplianceViolation open = existingViolation(ViolationStatus.OPEN, Map.of());
+        ViolationIndex index = ViolationIndex.of(List.of(open));
+        when(violationRepository.resolveOpenViolations(eq(List.of(open.getId())), any()))
+                .thenReturn(1);
+
+        // When
+        ViolationReconciliation result = complianceEvaluationService.reconcileViolations(
+                List.of(testResource), CompiledPolicySet.compile(List.of(testPolicy)), index,
+                new ScanJob());
+
+        // Then
+        assertThat(result.getViolationsFound()).isZero();
+        assertThat(result.getViolationsResolved()).isEqualTo(1);
+        assertThat(index.get(resourceId, policyId).status()).isEqualTo(ViolationStatus.RESOLVED);
+        verify(violationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should reopen resolved violations that fail again")
+    void reconcileViolations_ReopensResolved() {
+        // Given
+        ComplianceViolation resolved = existingViolation(ViolationStatus.RESOLVED, Map.of());
+        resolved.setResolvedAt(LocalDateTime.now());
+        ViolationIndex index = ViolationIndex.of(List.of(resolved));
+        when(violationRepository.findAllById(List.of(resolved.getId())))
+                .thenReturn(List.of(resolved));
+
+        // When
+        ViolationReconciliation result = complianceEvaluationService.reconcileViolations(
+                List.of(testResource), CompiledPolicySet.compile(List.of(testPolicy)), index,
+                new ScanJob());
+
+        // Then
+        assertThat(result.getViolationsFound()).isEqualTo(1);
+        assertThat(result.getViolationsReopened()).isEqualTo(1);
+        assertThat(resolved.getStatus()).isEqualTo(ViolationStatus.OPEN);
+        assertThat(resolved.getResolvedAt()).isNull();
+        assertThat(resolved.getViolationDetails()).containsKey("missingTags");
+    }
+
+    @Test
+    @DisplayName("Should only link unchanged violations to the scan")
+    void reconcileViolations_LeavesUnchangedViolations() {
+        // Given - open violation whose details are already current
+        Map<String, Object> details = CompiledPolicySet.compile(List.of(testPolicy))
+                .policiesFor("s3:bucket").get(0).violationDetails(testResource.getTags());
+        ComplianceViolation open = existingViolation(ViolationStatus.OPEN, details);
+        ViolationIndex index = ViolationIndex.of(List.of(open));
+        ScanJob scanJob = new ScanJob();
+
+        // When
+        ViolationReconciliation result = complianceEvaluationService.reconcileViolations(
+                List.of(testResource), CompiledPolicySet.compile(List.of(testPolicy)), index,
+                scanJob);
+
+        // Then
+        assertThat(result.getViolationsFound()).isEqualTo(1);
+        assertThat(result.getViolationsUnchanged()).isEqualTo(1);
+        verify(violationRepository).assignScanJob(List.of(open.getId()), scanJob);
+        verify(violationRepository, never()).findAllById(any());
+        verify(violationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should leave ignored violations of compliant resources alone")
+    void reconcileViolations_KeepsIgnored() {
+        // Given
+        testResource.setTags(Map.of("Environment", "prod", "Owner", "alice"));
+        ViolationIndex index = ViolationIndex.of(
+                List.of(existingViolation(ViolationStatus.IGNORED, Map.of())));
+
+        // When
+        ViolationReconciliation result = complianceEvaluationService.reconcileViolations(
+                List.of(testResource), CompiledPolicySet.compile(List.of(testPolicy)), index,
+                new ScanJob());
+
+        // Then
+        assertThat(result.getViolationsResolved()).isZero();
+        verify(violationRepository, never()).resolveOpenViolations(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should re-evaluate a policy batch against only that policy's violations")
+    void reevaluatePolicyBatch_KeepsScanLinks() {
+        // Given - open violation whose details are already current
+        CompiledPolicySet policySet = CompiledPolicySet.compile(List.of(testPolicy));
+        Map<String, Object> details = policySet.policiesFor("s3:bucket").get(0)
+                .violationDetails(testResource.getTags());
+        ComplianceViolation open = existingViolation(ViolationStatus.OPEN, details);
+        when(violationRepository.findByTagPolicyIdAndAwsResourceIdIn(policyId, List.of(resourceId)))
+                .thenReturn(List.of(open));
+
+        // When
+        ViolationReconciliation result = complianceEvaluationService.reevaluatePolicyBatch(
+                policyId, policySet, List.of(testResource));
+
+        // Then - re-confirmed without a scan, so its scan link is left alone
+        assertThat(result.getViolationsUnchanged()).isEqualTo(1);
+        verify(violationRepository, never()).assignScanJob(any(), any());
+        verify(violationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should leave resources of accounts being scanned to their scan")
+    void reevaluatePolicyBatch_SkipsAccountsBeingScanned() {
+        // Given - a second resource in an account that is being scanned
+        AwsAccount scanned = new AwsAccount();
+        scanned.setId(UUID.randomUUID());
+        AwsResource scannedResource = new AwsResource();
+        scannedResource.setId(UUID.randomUUID());
+        scannedResource.setResourceType("s3:bucket");
+        scannedResource.setAwsAccount(scanned);
+        when(scanJobRepository.findRunningAccountIds(
+                Set.of(testResource.getAwsAccount().getId(), scanned.getId())))
+                .thenReturn(Set.of(scanned.getId()));
+        when(violationRepository.findByTagPolicyIdAndAwsResourceIdIn(policyId, List.of(resourceId)))
+                .thenReturn(List.of());
+        when(violationRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        ViolationReconciliation result = complianceEvaluationService.reevaluatePolicyBatch(
+                policyId, CompiledPolicySet.compile(List.of(testPolicy)),
+                List.of(testResource, scannedResource));
+
+        // Then - the accounts are locked before anything is read, and only one is evaluated
+        verify(awsAccountRepository).lockAllById(
+                Set.of(testResource.getAwsAccount().getId(), scanned.getId()));
+        assertThat(result.getViolationsOpened()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should resolve all open violations of a disabled policy")
+    void resolveInapplicableViolations_DisabledPolicy() {
+        // Given
+        testPolicy.setEnabled(false);
+        when(violationRepository.resolveOpenViolationsByPolicyId(eq(policyId), any()))
+                .thenReturn(3);
+
+        // When
+        int resolved = complianceEvaluationService.resolveInapplicableViolations(testPolicy);
+
+        // Then
+        assertThat(resolved).isEqualTo(3);
+        verify(violationRepository, never())
+                .resolveOpenViolationsOutsideResourceTypes(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should resolve open violations on resource types an enabled policy dropped")
+    void resolveInapplicableViolations_EnabledPolicy() {
+        // When
+        complianceEvaluationService.resolveInapplicableViolations(testPolicy);
+
+        // Then
+        verify(violationRepository).resolveOpenViolationsOutsideResourceTypes(
+                eq(policyId), eq(List.of("s3:bucket")), any());
+        verify(violationRepository, never()).resolveOpenViolationsByPolicyId(any(), any());
+    }
+
     @Test
     @DisplayName("Should ignore violation")
     void ignoreViolation_Success() {
@@ -343,4 +556,15 @@ class ComplianceEvaluationServiceTest {
         assertThat(bySeverity.get("HIGH")).isEqualTo(3L);
         assertThat(bySeverity.get("MEDIUM")).isEqualTo(2L);
     }
-}
\ No newline at end of file
+
+    private ComplianceViolation existingViolation(ViolationStatus status,
+                                                  Map<String, Object> details) {
+        ComplianceViolation violation = new ComplianceViolation();
+        violation.setId(UUID.randomUUID());
+        violation.setAwsResource(testResource);
+        violation.setTagPolicy(testPolicy);
+        violation.setStatus(status);
+        violation.setViolationDetails(details);
+        return violation;
+    }
+}
@@ -1,6 +1,8 @@
 package com.wenroe.resonant.service;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -12,13 +14,14 @@ import com.wenroe.resonant.model.entity.AwsResource;
 import com.wenroe.resonant.model.entity.ResourceTypeSetting;
 import com.wenroe.resonant.repository.AwsAccountRegionRepository;
 import com.wenroe.resonant.repository.AwsResourceRepository;
+import com.wenroe.resonant.service.aws.scanners.ResourceScanner;
+import com.wenroe.resonant.service.aws.scanners.ScannerScope;
 import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -35,7 +38,6 @@ class ResourceCleanupServiceTest {
   @Mock
   private ResourceTypeSettingService resourceTypeSettingService;
 
-  @InjectMocks
   private ResourceCleanupService cleanupService;
 
   private AwsAccount testAccount;
@@ -45,6 +47,13 @@ class ResourceCleanupServiceTest {
     testAccount = new AwsAccount();
     testAccount.setId(UUID.randomUUID());
     testAccount.setAccountId("123456789012");
+
+    // Global resource types are declared by the scanners' scopes
+    cleanupService = new ResourceCleanupService(awsResourceRepository,
+        awsAccountRegionRepository, resourceTypeSettingService, List.of(
+            scanner("s3:bucket", ScannerScope.REGIONAL),
+            scanner("ec2:vpc", ScannerScope.REGIONAL),
+            scanner("cloudfront:distribution", ScannerScope.GLOBAL)));
   }
 
   @Test
@@ -263,4 +272,11 @@ class ResourceCleanupServiceTest {
     resource.setResourceId("test-" + UUID.randomUUID());
     return resource;
   }
-}
\ No newline at end of file
+
+  private ResourceScanner scanner(String resourceType, ScannerScope scope) {
+    ResourceScanner scanner = mock(ResourceScanner.class);
+    lenient().when(scanner.getResourceType()).thenReturn(resourceType);
+    lenient().when(scanner.getScope()).thenReturn(scope);
+    return scanner;
+  }
+}
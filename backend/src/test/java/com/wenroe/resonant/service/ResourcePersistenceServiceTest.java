@@ -0,0 +1,236 @@
+package com.wenroe.resonant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.repository.AwsResourceRepository;
+import com.wenroe.resonant.service.ResourcePersistenceService.UpsertResult;
+import com.wenroe.resonant.util.ResourceContentHashUtil;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ResourcePersistenceService Tests")
+class ResourcePersistenceServiceTest {
+
+  @Mock
+  private AwsResourceRepository awsResourceRepository;
+
+  @InjectMocks
+  private ResourcePersistenceService persistenceService;
+
+  private AwsAccount testAccount;
+
+  @BeforeEach
+  void setUp() {
+    testAccount = new AwsAccount();
+    testAccount.setId(UUID.randomUUID());
+    testAccount.setAccountId("123456789012");
+  }
+
+  @Test
+  @DisplayName("Should insert new and update existing resources in bulk")
+  void shouldUpsertResourcesInBulk() {
+    // Given
+    AwsResource existing = createResource("arn:aws:s3:::existing", Map.of("Owner", "old"));
+    existing.setId(UUID.randomUUID());
+
+    AwsResource discoveredExisting = createResource("arn:aws:s3:::existing",
+        Map.of("Owner", "new"));
+    AwsResource discoveredNew = createResource("arn:aws:s3:::new", Map.of());
+
+    when(awsResourceRepository.findByResourceArnIn(anyCollection()))
+        .thenReturn(List.of(existing));
+    when(awsResourceRepository.saveAll(any()))
+        .thenAnswer(i -> new ArrayList<>(i.<Collection<AwsResource>>getArgument(0)));
+
+    // When
+    List<AwsResource> persisted = persistenceService.upsertResources(
+        List.of(discoveredExisting, discoveredNew)).getChanged();
+
+    // Then
+    assertThat(persisted).hasSize(2);
+    assertThat(persisted.get(0)).isSameAs(existing);
+    assertThat(persisted.get(0).getTags()).containsEntry("Owner", "new");
+    assertThat(persisted.get(1)).isSameAs(discoveredNew);
+
+    verify(awsResourceRepository, never()).findByResourceArn(any());
+    verify(awsResourceRepository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("Should prefetch existing resources in chunks")
+  void shouldPrefetchInChunks() {
+    // Given
+    int total = ResourcePersistenceService.PREFETCH_CHUNK_SIZE * 2 + 1;
+    List<AwsResource> discovered = new ArrayList<>();
+    for (int i = 0; i < total; i++) {
+      discovered.add(createResource("arn:aws:s3:::bucket-" + i, Map.of()));
+    }
+
+    when(awsResourceRepository.findByResourceArnIn(anyCollection())).thenReturn(List.of());
+    when(awsResourceRepository.saveAll(any()))
+        .thenAnswer(i -> new ArrayList<>(i.<Collection<AwsResource>>getArgument(0)));
+
+    // When
+    List<AwsResource> persisted = persistenceService.upsertResources(discovered).getChanged();
+
+    // Then
+    assertThat(persisted).hasSize(total);
+    verify(awsResourceRepository, times(3)).findByResourceArnIn(anyCollection());
+    verify(awsResourceRepository, times(3)).saveAll(any());
+  }
+
+  @Test
+  @DisplayName("Should collapse duplicate ARNs within a batch")
+  void shouldCollapseDuplicateArns() {
+    // Given
+    AwsResource first = createResource("arn:aws:s3:::dup", Map.of("Owner", "first"));
+    AwsResource second = createResource("arn:aws:s3:::dup", Map.of("Owner", "second"));
+
+    when(awsResourceRepository.findByResourceArnIn(anyCollection())).thenReturn(List.of());
+    when(awsResourceRepository.saveAll(any()))
+        .thenAnswer(i -> new ArrayList<>(i.<Collection<AwsResource>>getArgument(0)));
+
+    // When
+    List<AwsResource> persisted = persistenceService.upsertResources(List.of(first, second))
+        .getChanged();
+
+    // Then
+    assertThat(persisted).hasSize(1);
+    assertThat(persisted.get(0).getTags()).containsEntry("Owner", "second");
+  }
+
+  @Test
+  @DisplayName("Should only bump last seen for resources whose content is unchanged")
+  void shouldSkipUnchangedResources() {
+    // Given
+    AwsResource unchangedExisting = createResource("arn:aws:s3:::same", Map.of("Owner", "a"));
+    unchangedExisting.setId(UUID.randomUUID());
+    unchangedExisting.setContentHash(ResourceContentHashUtil.contentHash(unchangedExisting));
+
+    AwsResource changedExisting = createResource("arn:aws:s3:::changed", Map.of("Owner", "a"));
+    changedExisting.setId(UUID.randomUUID());
+    changedExisting.setContentHash(ResourceContentHashUtil.contentHash(changedExisting));
+
+    AwsResource discoveredSame = createResource("arn:aws:s3:::same", Map.of("Owner", "a"));
+    AwsResource discoveredChanged = createResource("arn:aws:s3:::changed", Map.of("Owner", "b"));
+
+    when(awsResourceRepository.findByResourceArnIn(anyCollection()))
+        .thenReturn(List.of(unchangedExisting, changedExisting));
+    when(awsResourceRepository.saveAll(any()))
+        .thenAnswer(i -> new ArrayList<>(i.<Collection<AwsResource>>getArgument(0)));
+
+    // When
+    UpsertResult result = persistenceService.upsertResources(
+        List.of(discoveredSame, discoveredChanged));
+
+    // Then
+    assertThat(result.getUnchangedCount()).isEqualTo(1);
+    assertThat(result.getChanged()).containsExactly(changedExisting);
+    assertThat(changedExisting.getContentHash())
+        .isEqualTo(ResourceContentHashUtil.contentHash(discoveredChanged));
+
+    verify(awsResourceRepository).saveAll(List.of(changedExisting));
+    verify(awsResourceRepository).updateLastSeenAt(eq(List.of(unchangedExisting.getId())),
+        any(LocalDateTime.class));
+  }
+
+  @Test
+  @DisplayName("Should return unchanged resources when asked to, without rewriting them")
+  void shouldReturnUnchangedResourcesWhenRequested() {
+    // Given
+    AwsResource existing = createResource("arn:aws:s3:::same", Map.of("Owner", "a"));
+    existing.setId(UUID.randomUUID());
+    existing.setContentHash(ResourceContentHashUtil.contentHash(existing));
+    AwsResource discovered = createResource("arn:aws:s3:::same", Map.of("Owner", "a"));
+
+    when(awsResourceRepository.findByResourceArnIn(anyCollection())).thenReturn(List.of(existing));
+
+    // When
+    UpsertResult result = persistenceService.upsertResources(List.of(discovered), true);
+
+    // Then
+    assertThat(result.getChanged()).isEmpty();
+    assertThat(result.getUnchangedCount()).isEqualTo(1);
+    assertThat(result.getUnchanged()).containsExactly(existing);
+    verify(awsResourceRepository, never()).saveAll(any());
+    verify(awsResourceRepository).updateLastSeenAt(eq(List.of(existing.getId())),
+        any(LocalDateTime.class));
+  }
+
+  @Test
+  @DisplayName("Should hash content independently of map ordering")
+  void shouldHashIndependentlyOfMapOrdering() {
+    // Given
+    Map<String, String> tags = new LinkedHashMap<>();
+    tags.put("B", "2");
+    tags.put("A", "1");
+    Map<String, String> reordered = new LinkedHashMap<>();
+    reordered.put("A", "1");
+    reordered.put("B", "2");
+
+    // When
+    String hash = ResourceContentHashUtil.contentHash(createResource("arn:aws:s3:::x", tags));
+    String reorderedHash = ResourceContentHashUtil.contentHash(
+        createResource("arn:aws:s3:::x", reordered));
+
+    // Then
+    assertThat(hash).isEqualTo(reorderedHash);
+  }
+
+  @Test
+  @DisplayName("Should update a single existing resource on the per-resource path")
+  void shouldUpsertSingleResource() {
+    // Given
+    AwsResource existing = createResource("arn:aws:s3:::existing", Map.of());
+    existing.setId(UUID.randomUUID());
+    AwsResource discovered = createResource("arn:aws:s3:::existing", Map.of("Team", "core"));
+    discovered.setName("renamed");
+
+    when(awsResourceRepository.findByResourceArn("arn:aws:s3:::existing"))
+        .thenReturn(Optional.of(existing));
+    when(awsResourceRepository.save(any(AwsResource.class))).thenAnswer(i -> i.getArgument(0));
+
+    // When
+    AwsResource persisted = persistenceService.upsertResource(discovered);
+
+    // Then
+    assertThat(persisted).isSameAs(existing);
+    assertThat(persisted.getName()).isEqualTo("renamed");
+    assertThat(persisted.getTags()).containsEntry("Team", "core");
+  }
+
+  private AwsResource createResource(String arn, Map<String, String> tags) {
+    AwsResource resource = new AwsResource();
+    resource.setAwsAccount(testAccount);
+    resource.setResourceArn(arn);
+    resource.setResourceId(arn.substring(arn.lastIndexOf(':') + 1));
+    resource.setResourceType("s3:bucket");
+    resource.setRegion("us-east-1");
+    resource.setName(resource.getResourceId());
+    resource.setTags(tags);
+    return resource;
+  }
+}
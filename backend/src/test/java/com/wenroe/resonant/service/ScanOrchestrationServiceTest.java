@@ -3,7 +3,12 @@ package com.wenroe.resonant.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -17,22 +22,38 @@ import com.wenroe.resonant.model.entity.User;
 import com.wenroe.resonant.model.enums.AwsAccountStatus;
 import com.wenroe.resonant.model.enums.ScanStatus;
 import com.wenroe.resonant.repository.AwsAccountRepository;
-import com.wenroe.resonant.repository.AwsResourceRepository;
 import com.wenroe.resonant.repository.ScanJobRepository;
 import com.wenroe.resonant.repository.UserRepository;
+import com.wenroe.resonant.service.ResourcePersistenceService.UpsertResult;
 import com.wenroe.resonant.service.aws.scanners.ResourceScanner;
+import com.wenroe.resonant.service.aws.scanners.ResourceSink;
+import com.wenroe.resonant.service.compliance.CompiledPolicySet;
+import com.wenroe.resonant.service.compliance.ComplianceEngine;
+import com.wenroe.resonant.service.compliance.ViolationReconciliation;
+import com.wenroe.resonant.service.scan.ScanEngine;
+import com.wenroe.resonant.service.scan.ScanLeaseLostException;
+import com.wenroe.resonant.service.scan.ScanProgressEvent;
+import com.wenroe.resonant.service.scan.ScanProgressPublisher;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,8 +63,6 @@ class ScanOrchestrationServiceTest {
   @Mock
   private AwsAccountRepository awsAccountRepository;
 
-  @Mock
-  private AwsResourceRepository awsResourceRepository;
 
   @Mock
   private ScanJobRepository scanJobRepository;
@@ -51,13 +70,13 @@ class ScanOrchestrationServiceTest {
   @Mock
   private TagPolicyService tagPolicyService;
 
-  @Mock
+  @Mock(answer = Answers.CALLS_REAL_METHODS)
   private ResourceScanner s3Scanner;
 
-  @Mock
+  @Mock(answer = Answers.CALLS_REAL_METHODS)
   private ResourceScanner cloudFrontScanner;
 
-  @Mock
+  @Mock(answer = Answers.CALLS_REAL_METHODS)
   private ResourceScanner vpcScanner;
 
   @Mock
@@ -75,14 +94,23 @@ class ScanOrchestrationServiceTest {
   @Mock
   private ResourceCleanupService resourceCleanupService;
 
+  @Mock
+  private ResourcePersistenceService resourcePersistenceService;
+
+  private static final String NODE_ID = "node-1";
+
   private ScanOrchestrationService orchestrationService;
 
   @Captor
   private ArgumentCaptor<ScanJob> scanJobCaptor;
 
+  @Captor
+  private ArgumentCaptor<List<AwsResource>> resourcesCaptor;
+
   private User testUser;
   private AwsAccount testAccount;
   private ScanJob testScanJob;
+  private final List<Object> publishedEvents = new ArrayList<>();
 
   @BeforeEach
   void setUp() {
@@ -104,12 +132,12 @@ class ScanOrchestrationServiceTest {
     testScanJob.setAwsAccount(testAccount);
     testScanJob.setUser(testUser);
     testScanJob.setStatus(ScanStatus.PENDING);
+    testScanJob.claim(NODE_ID, LocalDateTime.now(), LocalDateTime.now().plusMinutes(2));
 
     // Create service with list of scanners
     List<ResourceScanner> scanners = List.of(s3Scanner, cloudFrontScanner, vpcScanner);
     orchestrationService = new ScanOrchestrationService(
         awsAccountRepository,
-        awsResourceRepository,
         scanJobRepository,
         tagPolicyService,
         complianceEvaluationService,
@@ -117,6 +145,9 @@ class ScanOrchestrationServiceTest {
         regionService,
         resourceTypeSettingService,
         resourceCleanupService,
+        resourcePersistenceService,
+        new ScanEngine(Duration.ofMinutes(1), 4),
+        new ScanProgressPublisher(publishedEvents::add),
         scanners
     );
 
@@ -130,10 +161,14 @@ class ScanOrchestrationServiceTest {
     // Given
     when(awsAccountRepository.findById(testAccount.getId())).thenReturn(Optional.of(testAccount));
     when(regionService.hasEnabledRegions(testAccount.getId())).thenReturn(true);
-    when(scanJobRepository.findRunningScanForAccount(testAccount.getId()))
+    when(scanJobRepository.findActiveScanForAccount(testAccount.getId()))
         .thenReturn(Optional.empty());
     when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
-    when(scanJobRepository.save(any(ScanJob.class))).thenReturn(testScanJob);
+    when(scanJobRepository.saveAndFlush(any(ScanJob.class))).thenAnswer(invocation -> {
+      ScanJob saved = invocation.getArgument(0);
+      saved.setId(testScanJob.getId());
+      return saved;
+    });
 
     // When
     ScanJob result = orchestrationService.initiateScan(testAccount.getId(), testUser.getId());
@@ -143,7 +178,26 @@ class ScanOrchestrationServiceTest {
     assertThat(result.getId()).isEqualTo(testScanJob.getId());
     assertThat(result.getStatus()).isEqualTo(ScanStatus.PENDING);
 
-    verify(scanJobRepository).save(any(ScanJob.class));
+    verify(scanJobRepository).saveAndFlush(any(ScanJob.class));
+  }
+
+  @Test
+  @DisplayName("Should reject scan when another node queued one concurrently")
+  void shouldRejectScanWhenActiveJobInsertConflicts() {
+    // Given
+    when(awsAccountRepository.findById(testAccount.getId())).thenReturn(Optional.of(testAccount));
+    when(regionService.hasEnabledRegions(testAccount.getId())).thenReturn(true);
+    when(scanJobRepository.findActiveScanForAccount(testAccount.getId()))
+        .thenReturn(Optional.empty());
+    when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
+    when(scanJobRepository.saveAndFlush(any(ScanJob.class)))
+        .thenThrow(new DataIntegrityViolationException("uq_scan_jobs_active_account"));
+
+    // When/Then
+    assertThatThrownBy(
+        () -> orchestrationService.initiateScan(testAccount.getId(), testUser.getId()))
+        .isInstanceOf(RuntimeException.class)
+        .hasMessageContaining("scan is already running");
   }
 
   @Test
@@ -209,7 +263,7 @@ class ScanOrchestrationServiceTest {
 
     when(awsAccountRepository.findById(testAccount.getId())).thenReturn(Optional.of(testAccount));
     when(regionService.hasEnabledRegions(testAccount.getId())).thenReturn(true);
-    when(scanJobRepository.findRunningScanForAccount(testAccount.getId()))
+    when(scanJobRepository.findActiveScanForAccount(testAccount.getId()))
         .thenReturn(Optional.of(runningScan));
 
     // When/Then
@@ -227,7 +281,7 @@ class ScanOrchestrationServiceTest {
     when(cloudFrontScanner.getResourceType()).thenReturn("cloudfront:distribution");
     when(vpcScanner.getResourceType()).thenReturn("vpc:vpc");
 
-    when(scanJobRepository.findById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
+    when(scanJobRepository.lockById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
     doNothing().when(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
     when(tagPolicyService.getEnabledPoliciesByUserId(testUser.getId()))
         .thenReturn(List.of(new TagPolicy()));
@@ -252,23 +306,25 @@ class ScanOrchestrationServiceTest {
     vpcResource.setResourceArn("arn:aws:ec2:us-east-1:123456789012:vpc/vpc-123");
     vpcResource.setResourceType("vpc:vpc");
 
-    when(s3Scanner.scan(testAccount)).thenReturn(List.of(s3Resource));
-    when(cloudFrontScanner.scan(testAccount)).thenReturn(List.of(cfResource));
-    when(vpcScanner.scan(testAccount)).thenReturn(List.of(vpcResource));
+    stubScan(s3Scanner, List.of(s3Resource));
+    stubScan(cloudFrontScanner, List.of(cfResource));
+    stubScan(vpcScanner, List.of(vpcResource));
 
-    when(awsResourceRepository.findByResourceArn(any())).thenReturn(Optional.empty());
-    when(awsResourceRepository.save(any(AwsResource.class))).thenAnswer(i -> i.getArgument(0));
-    when(complianceEvaluationService.evaluateResource(any(), any())).thenReturn(new ArrayList<>());
+    when(resourcePersistenceService.upsertResources(any(), anyBoolean())).thenAnswer(
+        i -> new UpsertResult(new ArrayList<>(i.<Collection<AwsResource>>getArgument(0)), 0));
+    when(complianceEvaluationService.reconcileViolations(any(), any(), any(), any()))
+        .thenReturn(new ViolationReconciliation(0, 0, 0, 0, 0));
 
     // When
-    orchestrationService.executeScan(testScanJob.getId());
+    orchestrationService.executeScan(testScanJob.getId(), NODE_ID);
 
     // Then
     verify(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
-    verify(s3Scanner).scan(testAccount);
-    verify(cloudFrontScanner).scan(testAccount);
-    verify(vpcScanner).scan(testAccount);
-    verify(awsResourceRepository, times(3)).save(any(AwsResource.class));
+    verify(s3Scanner).scan(eq(testAccount), any(ResourceSink.class));
+    verify(cloudFrontScanner).scan(eq(testAccount), any(ResourceSink.class));
+    verify(vpcScanner).scan(eq(testAccount), any(ResourceSink.class));
+    verify(resourcePersistenceService).upsertResources(resourcesCaptor.capture(), anyBoolean());
+    assertThat(resourcesCaptor.getValue()).hasSize(3);
 
     // Verify scan completed successfully
     verify(scanJobRepository, times(2)).save(scanJobCaptor.capture());
@@ -277,6 +333,14 @@ class ScanOrchestrationServiceTest {
     ScanJob finalState = scanJobCaptor.getValue();
     assertThat(finalState.getStatus()).isEqualTo(ScanStatus.SUCCESS);
     assertThat(finalState.getResourcesScanned()).isEqualTo(3);
+
+    // Progress was published from start to completion
+    assertThat(publishedEvents).first()
+        .extracting(event -> ((ScanProgressEvent) event).type())
+        .isEqualTo(ScanProgressEvent.Type.SCAN_STARTED);
+    assertThat(publishedEvents).last()
+        .extracting(event -> ((ScanProgressEvent) event).type())
+        .isEqualTo(ScanProgressEvent.Type.SCAN_COMPLETED);
   }
 
   @Test
@@ -287,7 +351,7 @@ class ScanOrchestrationServiceTest {
     when(cloudFrontScanner.getResourceType()).thenReturn("cloudfront:distribution");
     when(vpcScanner.getResourceType()).thenReturn("vpc:vpc");
 
-    when(scanJobRepository.findById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
+    when(scanJobRepository.lockById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
     doNothing().when(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
     when(tagPolicyService.getEnabledPoliciesByUserId(testUser.getId()))
         .thenReturn(List.of(new TagPolicy()));
@@ -305,18 +369,20 @@ class ScanOrchestrationServiceTest {
     cfResource.setResourceType("cloudfront:distribution");
 
     // S3 scanner fails
-    when(s3Scanner.scan(testAccount)).thenThrow(new RuntimeException("S3 API error"));
+    doThrow(new RuntimeException("S3 API error"))
+        .when(s3Scanner).scan(eq(testAccount), any(ResourceSink.class));
     // CloudFront succeeds
-    when(cloudFrontScanner.scan(testAccount)).thenReturn(List.of(cfResource));
+    stubScan(cloudFrontScanner, List.of(cfResource));
     // VPC scanner returns empty
-    when(vpcScanner.scan(testAccount)).thenReturn(List.of());
+    stubScan(vpcScanner, List.of());
 
-    when(awsResourceRepository.findByResourceArn(any())).thenReturn(Optional.empty());
-    when(awsResourceRepository.save(any(AwsResource.class))).thenAnswer(i -> i.getArgument(0));
-    when(complianceEvaluationService.evaluateResource(any(), any())).thenReturn(new ArrayList<>());
+    when(resourcePersistenceService.upsertResources(any(), anyBoolean())).thenAnswer(
+        i -> new UpsertResult(new ArrayList<>(i.<Collection<AwsResource>>getArgument(0)), 0));
+    when(complianceEvaluationService.reconcileViolations(any(), any(), any(), any()))
+        .thenReturn(new ViolationReconciliation(0, 0, 0, 0, 0));
 
     // When
-    orchestrationService.executeScan(testScanJob.getId());
+    orchestrationService.executeScan(testScanJob.getId(), NODE_ID);
 
     // Then - Should still complete successfully with CloudFront resource
     verify(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
@@ -334,7 +400,7 @@ class ScanOrchestrationServiceTest {
     when(cloudFrontScanner.getResourceType()).thenReturn("cloudfront:distribution");
     when(vpcScanner.getResourceType()).thenReturn("vpc:vpc");
 
-    when(scanJobRepository.findById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
+    when(scanJobRepository.lockById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
     doNothing().when(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
     when(tagPolicyService.getEnabledPoliciesByUserId(testUser.getId()))
         .thenReturn(List.of(new TagPolicy()));
@@ -349,21 +415,23 @@ class ScanOrchestrationServiceTest {
     s3Resource.setResourceArn("arn:aws:s3:::test-bucket");
     s3Resource.setResourceType("s3:bucket");
 
-    when(s3Scanner.scan(testAccount)).thenReturn(List.of(s3Resource));
+    stubScan(s3Scanner, List.of(s3Resource));
 
-    when(awsResourceRepository.findByResourceArn(any())).thenReturn(Optional.empty());
-    when(awsResourceRepository.save(any(AwsResource.class))).thenAnswer(i -> i.getArgument(0));
-    when(complianceEvaluationService.evaluateResource(any(), any())).thenReturn(new ArrayList<>());
+    when(resourcePersistenceService.upsertResources(any(), anyBoolean())).thenAnswer(
+        i -> new UpsertResult(new ArrayList<>(i.<Collection<AwsResource>>getArgument(0)), 0));
+    when(complianceEvaluationService.reconcileViolations(any(), any(), any(), any()))
+        .thenReturn(new ViolationReconciliation(0, 0, 0, 0, 0));
 
     // When
-    orchestrationService.executeScan(testScanJob.getId());
+    orchestrationService.executeScan(testScanJob.getId(), NODE_ID);
 
     // Then - Only S3 scanner should run
     verify(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
-    verify(s3Scanner).scan(testAccount);
-    verify(cloudFrontScanner, times(0)).scan(any());
-    verify(vpcScanner, times(0)).scan(any());
-    verify(awsResourceRepository, times(1)).save(any(AwsResource.class));
+    verify(s3Scanner).scan(eq(testAccount), any(ResourceSink.class));
+    verify(cloudFrontScanner, times(0)).scan(any(), any(ResourceSink.class));
+    verify(vpcScanner, times(0)).scan(any(), any(ResourceSink.class));
+    verify(resourcePersistenceService).upsertResources(resourcesCaptor.capture(), anyBoolean());
+    assertThat(resourcesCaptor.getValue()).hasSize(1);
 
     verify(scanJobRepository, times(2)).save(scanJobCaptor.capture());
     ScanJob finalState = scanJobCaptor.getValue();
@@ -371,17 +439,190 @@ class ScanOrchestrationServiceTest {
     assertThat(finalState.getResourcesScanned()).isEqualTo(1);
   }
 
+  @Test
+  @DisplayName("Should persist streamed resources in fixed-size chunks")
+  void shouldPersistStreamedResourcesInChunks() {
+    // Given
+    ReflectionTestUtils.setField(orchestrationService, "chunkSize", 2);
+
+    when(s3Scanner.getResourceType()).thenReturn("s3:bucket");
+    when(cloudFrontScanner.getResourceType()).thenReturn("cloudfront:distribution");
+    when(vpcScanner.getResourceType()).thenReturn("vpc:vpc");
+
+    when(scanJobRepository.lockById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
+    doNothing().when(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
+    when(tagPolicyService.getEnabledPoliciesByUserId(testUser.getId()))
+        .thenReturn(List.of(new TagPolicy()));
+    when(resourceTypeSettingService.getEnabledResourceTypes()).thenReturn(
+        List.of(createResourceTypeSetting("s3:bucket", "S3 Buckets")));
+
+    List<AwsResource> buckets = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      AwsResource bucket = new AwsResource();
+      bucket.setResourceArn("arn:aws:s3:::bucket-" + i);
+      bucket.setResourceType("s3:bucket");
+      buckets.add(bucket);
+    }
+    stubScan(s3Scanner, buckets);
+
+    when(resourcePersistenceService.upsertResources(any(), anyBoolean())).thenAnswer(
+        i -> new UpsertResult(new ArrayList<>(i.<Collection<AwsResource>>getArgument(0)), 0));
+    when(complianceEvaluationService.reconcileViolations(any(), any(), any(), any()))
+        .thenReturn(new ViolationReconciliation(0, 0, 0, 0, 0));
+
+    // When
+    orchestrationService.executeScan(testScanJob.getId(), NODE_ID);
+
+    // Then - 5 resources in chunks of at most 2
+    verify(resourcePersistenceService, times(3))
+        .upsertResources(resourcesCaptor.capture(), anyBoolean());
+    assertThat(resourcesCaptor.getAllValues())
+        .allSatisfy(chunk -> assertThat(chunk).hasSizeLessThanOrEqualTo(2));
+    assertThat(resourcesCaptor.getAllValues().stream().mapToInt(List::size).sum()).isEqualTo(5);
+
+    verify(scanJobRepository, times(2)).save(scanJobCaptor.capture());
+    assertThat(scanJobCaptor.getValue().getResourcesScanned()).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("Should skip compliance evaluation for unchanged resources")
+  void shouldSkipEvaluationForUnchangedResources() {
+    // Given
+    when(s3Scanner.getResourceType()).thenReturn("s3:bucket");
+    when(cloudFrontScanner.getResourceType()).thenReturn("cloudfront:distribution");
+    when(vpcScanner.getResourceType()).thenReturn("vpc:vpc");
+
+    when(scanJobRepository.lockById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
+    doNothing().when(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
+    TagPolicy policy = createPolicy();
+    when(tagPolicyService.getEnabledPoliciesByUserId(testUser.getId()))
+        .thenReturn(List.of(policy));
+    when(resourceTypeSettingService.getEnabledResourceTypes()).thenReturn(
+        List.of(createResourceTypeSetting("s3:bucket", "S3 Buckets")));
+    // The previous scan evaluated against the same policies
+    testAccount.setEvaluatedPolicySetHash(
+        CompiledPolicySet.compile(List.of(policy)).fingerprint());
+
+    AwsResource changedBucket = new AwsResource();
+    changedBucket.setResourceArn("arn:aws:s3:::changed");
+    AwsResource unchangedBucket = new AwsResource();
+    unchangedBucket.setResourceArn("arn:aws:s3:::unchanged");
+    stubScan(s3Scanner, List.of(changedBucket, unchangedBucket));
+
+    // Persistence reports one changed resource and one unchanged
+    when(resourcePersistenceService.upsertResources(any(), eq(false)))
+        .thenReturn(new UpsertResult(List.of(changedBucket), 1));
+    when(complianceEvaluationService.reconcileViolations(any(), any(), any(), any()))
+        .thenReturn(new ViolationReconciliation(0, 0, 0, 0, 0));
+
+    // When
+    orchestrationService.executeScan(testScanJob.getId(), NODE_ID);
+
+    // Then - only the changed resource is evaluated
+    verify(complianceEvaluationService, times(1))
+        .reconcileViolations(eq(List.of(changedBucket)), any(), any(), any());
+
+    verify(scanJobRepository, times(2)).save(scanJobCaptor.capture());
+    ScanJob finalState = scanJobCaptor.getValue();
+    assertThat(finalState.getResourcesScanned()).isEqualTo(2);
+    assertThat(finalState.getResourcesChanged()).isEqualTo(1);
+    assertThat(finalState.getResourcesUnchanged()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should re-evaluate unchanged resources when the policies changed since last scan")
+  void shouldReevaluateUnchangedResourcesAfterPolicyChange() {
+    // Given
+    when(s3Scanner.getResourceType()).thenReturn("s3:bucket");
+    when(cloudFrontScanner.getResourceType()).thenReturn("cloudfront:distribution");
+    when(vpcScanner.getResourceType()).thenReturn("vpc:vpc");
+
+    when(scanJobRepository.lockById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
+    doNothing().when(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
+    TagPolicy policy = createPolicy();
+    when(tagPolicyService.getEnabledPoliciesByUserId(testUser.getId()))
+        .thenReturn(List.of(policy));
+    when(resourceTypeSettingService.getEnabledResourceTypes()).thenReturn(
+        List.of(createResourceTypeSetting("s3:bucket", "S3 Buckets")));
+    // The previous scan evaluated against the policies before this one was created
+    testAccount.setEvaluatedPolicySetHash(CompiledPolicySet.compile(List.of()).fingerprint());
+
+    AwsResource changedBucket = new AwsResource();
+    changedBucket.setResourceArn("arn:aws:s3:::changed");
+    AwsResource unchangedBucket = new AwsResource();
+    unchangedBucket.setResourceArn("arn:aws:s3:::unchanged");
+    stubScan(s3Scanner, List.of(changedBucket, unchangedBucket));
+
+    when(resourcePersistenceService.upsertResources(any(), eq(true)))
+        .thenReturn(new UpsertResult(List.of(changedBucket), 1, List.of(unchangedBucket)));
+    when(complianceEvaluationService.reconcileViolations(any(), any(), any(), any()))
+        .thenReturn(new ViolationReconciliation(0, 0, 0, 0, 0));
+
+    // When
+    orchestrationService.executeScan(testScanJob.getId(), NODE_ID);
+
+    // Then - both resources are evaluated, and the new policy set is recorded
+    verify(complianceEvaluationService)
+        .reconcileViolations(eq(List.of(changedBucket, unchangedBucket)), any(), any(), any());
+    assertThat(testAccount.getEvaluatedPolicySetHash())
+        .isEqualTo(CompiledPolicySet.compile(List.of(policy)).fingerprint());
+
+    verify(scanJobRepository, times(2)).save(scanJobCaptor.capture());
+    ScanJob finalState = scanJobCaptor.getValue();
+    assertThat(finalState.getResourcesChanged()).isEqualTo(1);
+    assertThat(finalState.getResourcesUnchanged()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should evaluate the account once in the database with the SQL engine")
+  void shouldEvaluateInDatabaseWithSqlEngine() {
+    // Given
+    ReflectionTestUtils.setField(orchestrationService, "complianceEngine", ComplianceEngine.SQL);
+
+    when(s3Scanner.getResourceType()).thenReturn("s3:bucket");
+    when(cloudFrontScanner.getResourceType()).thenReturn("cloudfront:distribution");
+    when(vpcScanner.getResourceType()).thenReturn("vpc:vpc");
+
+    when(scanJobRepository.lockById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
+    doNothing().when(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
+    when(tagPolicyService.getEnabledPoliciesByUserId(testUser.getId()))
+        .thenReturn(List.of(new TagPolicy()));
+    when(resourceTypeSettingService.getEnabledResourceTypes()).thenReturn(
+        List.of(createResourceTypeSetting("s3:bucket", "S3 Buckets")));
+
+    AwsResource bucket = new AwsResource();
+    bucket.setResourceArn("arn:aws:s3:::bucket");
+    stubScan(s3Scanner, List.of(bucket));
+    when(resourcePersistenceService.upsertResources(any(), anyBoolean()))
+        .thenReturn(new UpsertResult(List.of(bucket), 0));
+    when(complianceEvaluationService.evaluateAccountInDatabase(testAccount.getId(),
+        testScanJob.getId())).thenReturn(new ViolationReconciliation(3, 0, 0, 2, 0));
+
+    // When
+    orchestrationService.executeScan(testScanJob.getId(), NODE_ID);
+
+    // Then - no in-memory index or per-chunk reconciliation
+    verify(complianceEvaluationService, never()).loadViolationIndex(any());
+    verify(complianceEvaluationService, never()).reconcileViolations(any(), any(), any(), any());
+
+    verify(scanJobRepository, times(2)).save(scanJobCaptor.capture());
+    ScanJob finalState = scanJobCaptor.getValue();
+    assertThat(finalState.getResourcesScanned()).isEqualTo(1);
+    assertThat(finalState.getViolationsFound()).isEqualTo(3);
+    assertThat(finalState.getViolationsResolved()).isEqualTo(2);
+  }
+
   @Test
   @DisplayName("Should handle scan execution failure")
   void shouldHandleScanExecutionFailure() {
     // Given
-    when(scanJobRepository.findById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
+    when(scanJobRepository.lockById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
     doNothing().when(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
     when(tagPolicyService.getEnabledPoliciesByUserId(testUser.getId()))
         .thenThrow(new RuntimeException("Database connection failed"));
 
     // When/Then
-    assertThatThrownBy(() -> orchestrationService.executeScan(testScanJob.getId()))
+    assertThatThrownBy(() -> orchestrationService.executeScan(testScanJob.getId(), NODE_ID))
         .isInstanceOf(RuntimeException.class);
 
     // Verify scan marked as failed
@@ -392,6 +633,119 @@ class ScanOrchestrationServiceTest {
     assertThat(savedJobs.get(1).getErrorMessage()).contains("Database connection failed");
   }
 
+  @Test
+  @DisplayName("Should not start a scan whose lease is held by another node")
+  void shouldNotStartScanWithoutLease() {
+    // Given
+    testScanJob.claim("node-2", LocalDateTime.now(), LocalDateTime.now().plusMinutes(2));
+    when(scanJobRepository.lockById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
+
+    // When/Then
+    assertThatThrownBy(() -> orchestrationService.executeScan(testScanJob.getId(), NODE_ID))
+        .isInstanceOf(ScanLeaseLostException.class);
+
+    // The other node's job is left alone
+    verify(scanJobRepository, never()).save(any());
+    verify(resourceCleanupService, never()).cleanupOutOfScopeResources(any());
+    assertThat(testScanJob.getLeaseOwner()).isEqualTo("node-2");
+    assertThat(publishedEvents).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should not record the result of a scan whose lease was taken over")
+  void shouldNotCompleteScanAfterLosingLease() {
+    // Given
+    when(s3Scanner.getResourceType()).thenReturn("s3:bucket");
+    when(scanJobRepository.lockById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
+    doNothing().when(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
+    when(tagPolicyService.getEnabledPoliciesByUserId(testUser.getId())).thenReturn(List.of());
+    when(resourceTypeSettingService.getEnabledResourceTypes())
+        .thenReturn(List.of(createResourceTypeSetting("s3:bucket", "S3 Buckets")));
+
+    // Another node takes the job over while this one is still discovering
+    doAnswer(invocation -> {
+      testScanJob.claim("node-2", LocalDateTime.now(), LocalDateTime.now().plusMinutes(2));
+      return null;
+    }).when(s3Scanner).scan(eq(testAccount), any(ResourceSink.class));
+
+    // When/Then
+    assertThatThrownBy(() -> orchestrationService.executeScan(testScanJob.getId(), NODE_ID))
+        .isInstanceOf(ScanLeaseLostException.class);
+
+    // Only the start was saved; neither success nor failure overwrites the new owner's run
+    verify(scanJobRepository, times(1)).save(any());
+    verify(awsAccountRepository, never()).save(any());
+    assertThat(testScanJob.getStatus()).isEqualTo(ScanStatus.RUNNING);
+    assertThat(testScanJob.getLeaseOwner()).isEqualTo("node-2");
+    assertThat(publishedEvents)
+        .extracting(event -> ((ScanProgressEvent) event).type())
+        .doesNotContain(ScanProgressEvent.Type.SCAN_COMPLETED, ScanProgressEvent.Type.SCAN_FAILED);
+  }
+
+  @Test
+  @DisplayName("Should not persist chunks of a scan whose lease was taken over")
+  void shouldNotPersistChunkAfterLosingLease() {
+    // Given
+    when(s3Scanner.getResourceType()).thenReturn("s3:bucket");
+    when(scanJobRepository.lockById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
+    doNothing().when(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
+    when(tagPolicyService.getEnabledPoliciesByUserId(testUser.getId())).thenReturn(List.of());
+    when(resourceTypeSettingService.getEnabledResourceTypes())
+        .thenReturn(List.of(createResourceTypeSetting("s3:bucket", "S3 Buckets")));
+
+    // Another node takes the job over before the first chunk is written
+    AwsResource s3Resource = new AwsResource();
+    s3Resource.setResourceArn("arn:aws:s3:::test-bucket");
+    s3Resource.setResourceType("s3:bucket");
+    doAnswer(invocation -> {
+      testScanJob.claim("node-2", LocalDateTime.now(), LocalDateTime.now().plusMinutes(2));
+      invocation.<ResourceSink>getArgument(1).accept(s3Resource);
+      return null;
+    }).when(s3Scanner).scan(eq(testAccount), any(ResourceSink.class));
+
+    // When/Then
+    assertThatThrownBy(() -> orchestrationService.executeScan(testScanJob.getId(), NODE_ID))
+        .isInstanceOf(ScanLeaseLostException.class);
+
+    // Nothing is written against the stale violation index
+    verify(resourcePersistenceService, never()).upsertResources(any(), anyBoolean());
+    verify(complianceEvaluationService, never()).reconcileViolations(any(), any(), any(), any());
+    verify(scanJobRepository, times(1)).save(any());
+    assertThat(testScanJob.getLeaseOwner()).isEqualTo("node-2");
+  }
+
+  @Test
+  @DisplayName("Should stop a running scan when it is cancelled")
+  void shouldCancelRunningScan() {
+    // Given
+    when(s3Scanner.getResourceType()).thenReturn("s3:bucket");
+    when(scanJobRepository.lockById(testScanJob.getId())).thenReturn(Optional.of(testScanJob));
+    doNothing().when(resourceCleanupService).cleanupOutOfScopeResources(testAccount);
+    when(tagPolicyService.getEnabledPoliciesByUserId(testUser.getId())).thenReturn(List.of());
+    when(resourceTypeSettingService.getEnabledResourceTypes())
+        .thenReturn(List.of(createResourceTypeSetting("s3:bucket", "S3 Buckets")));
+
+    // The lease is lost and the heartbeat cancels the scan during discovery
+    // Discovery runs on its own thread and may still be returning when the scan has stopped
+    CompletableFuture<Boolean> cancelled = new CompletableFuture<>();
+    doAnswer(invocation -> {
+      testScanJob.claim("node-2", LocalDateTime.now(), LocalDateTime.now().plusMinutes(2));
+      cancelled.complete(orchestrationService.cancelScan(testScanJob.getId()));
+      return null;
+    }).when(s3Scanner).scan(eq(testAccount), any(ResourceSink.class));
+
+    // When/Then
+    assertThatThrownBy(() -> orchestrationService.executeScan(testScanJob.getId(), NODE_ID))
+        .isInstanceOf(CancellationException.class);
+
+    assertThat(cancelled).succeedsWithin(Duration.ofSeconds(5)).isEqualTo(true);
+    assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    assertThat(orchestrationService.cancelScan(testScanJob.getId())).isFalse();
+    verify(scanJobRepository, times(1)).save(any());
+    verify(resourcePersistenceService, never()).upsertResources(any(), anyBoolean());
+    assertThat(testScanJob.getLeaseOwner()).isEqualTo("node-2");
+  }
+
   @Test
   @DisplayName("Should get scan job by ID")
   void shouldGetScanJobById() {
@@ -449,6 +803,17 @@ class ScanOrchestrationServiceTest {
     assertThat(result.get()).isEqualTo(testScanJob);
   }
 
+  /**
+   * Stubs the streaming scan the pipeline calls, emitting the resources into its sink.
+   */
+  private void stubScan(ResourceScanner scanner, List<AwsResource> resources) {
+    doAnswer(invocation -> {
+      ResourceSink sink = invocation.getArgument(1);
+      resources.forEach(sink::accept);
+      return null;
+    }).when(scanner).scan(eq(testAccount), any(ResourceSink.class));
+  }
+
   private ResourceTypeSetting createResourceTypeSetting(String resourceType, String displayName) {
     ResourceTypeSetting setting = new ResourceTypeSetting();
     setting.setId(UUID.randomUUID());
@@ -457,4 +822,12 @@ class ScanOrchestrationServiceTest {
     setting.setEnabled(true);
     return setting;
   }
+
+  private TagPolicy createPolicy() {
+    TagPolicy policy = new TagPolicy();
+    policy.setId(UUID.randomUUID());
+    policy.setRequiredTags(Map.of("Environment", List.of("prod")));
+    policy.setResourceTypes(List.of("s3:bucket"));
+    return policy;
+  }
 }
\ No newline at end of file
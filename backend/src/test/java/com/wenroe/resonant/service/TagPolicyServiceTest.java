@@ -5,6 +5,7 @@ import com.wenroe.resonant.model.entity.User;
 import com.wenroe.resonant.model.enums.Severity;
 import com.wenroe.resonant.repository.TagPolicyRepository;
 import com.wenroe.resonant.repository.UserRepository;
+import com.wenroe.resonant.service.compliance.PolicyChangedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
@@ -29,6 +31,12 @@ class TagPolicyServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ComplianceEvaluationService complianceEvaluationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TagPolicyService tagPolicyService;
 
@@ -143,6 +151,27 @@ class TagPolicyServiceTest {
         assertThat(result).isNotNull();
         verify(tagPolicyRepository).findById(policyId);
         verify(tagPolicyRepository).save(testPolicy);
+
+        // Metadata changes do not affect violations
+        verifyNoInteractions(complianceEvaluationService, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should re-evaluate policy when required tags change")
+    void updatePolicy_RequiredTagsChanged() {
+        // Given
+        TagPolicy updates = new TagPolicy();
+        updates.setRequiredTags(Map.of("CostCenter", List.of("eng")));
+
+        when(tagPolicyRepository.findById(policyId)).thenReturn(Optional.of(testPolicy));
+        when(tagPolicyRepository.save(any(TagPolicy.class))).thenReturn(testPolicy);
+
+        // When
+        tagPolicyService.updatePolicy(policyId, userId, updates);
+
+        // Then
+        verify(complianceEvaluationService).resolveInapplicableViolations(testPolicy);
+        verify(eventPublisher).publishEvent(new PolicyChangedEvent(policyId));
     }
 
     @Test
@@ -235,6 +264,7 @@ class TagPolicyServiceTest {
         // Then
         assertThat(result.getEnabled()).isTrue();
         verify(tagPolicyRepository).save(testPolicy);
+        verify(eventPublisher).publishEvent(new PolicyChangedEvent(policyId));
     }
 
     @Test
@@ -250,6 +280,10 @@ class TagPolicyServiceTest {
         // Then
         assertThat(result.getEnabled()).isFalse();
         verify(tagPolicyRepository).save(testPolicy);
+
+        // Open violations are resolved in the same transaction; nothing is re-evaluated
+        verify(complianceEvaluationService).resolveInapplicableViolations(testPolicy);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
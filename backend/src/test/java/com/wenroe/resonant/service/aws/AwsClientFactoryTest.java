@@ -1,15 +1,30 @@
 package com.wenroe.resonant.service.aws;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.enums.CredentialType;
 import com.wenroe.resonant.service.security.CredentialEncryptionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.services.ec2.Ec2Client;
+import software.amazon.awssdk.services.s3.S3Client;
 
 /**
  * Tests for AwsClientFactory caching infrastructure. Note: We only test cache operations, not
@@ -22,11 +37,29 @@ class AwsClientFactoryTest {
   @Mock
   private CredentialEncryptionService encryptionService;
 
+  private MeterRegistry meterRegistry;
+
+  private SdkHttpClient httpClient;
+
   private AwsClientFactory clientFactory;
 
+  private AwsAccount testAccount;
+
   @BeforeEach
   void setUp() {
-    clientFactory = new AwsClientFactory(encryptionService, 3600);
+    meterRegistry = new SimpleMeterRegistry();
+    httpClient = ApacheHttpClient.builder().build();
+    clientFactory = createFactory(3600);
+
+    testAccount = new AwsAccount();
+    testAccount.setId(UUID.randomUUID());
+    testAccount.setAccountId("123456789012");
+  }
+
+  @AfterEach
+  void tearDown() {
+    clientFactory.close();
+    httpClient.close();
   }
 
   @Test
@@ -71,10 +104,140 @@ class AwsClientFactoryTest {
   @DisplayName("Should initialize with correct session duration")
   void shouldInitializeWithSessionDuration() {
     // Given/When
-    AwsClientFactory factory = new AwsClientFactory(encryptionService, 7200);
+    AwsClientFactory factory = createFactory(7200);
 
     // Then - Should not throw and cache should work
     String stats = factory.getCacheStats();
     assertThat(stats).isNotNull();
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("Should reuse the pooled client for the same account, service and region")
+  void shouldReusePooledClients() {
+    // When - building clients does not call AWS; credentials are resolved per request
+    Ec2Client first = clientFactory.createEc2Client(testAccount, "us-east-1");
+    Ec2Client second = clientFactory.createEc2Client(testAccount, "us-east-1");
+    Ec2Client otherRegion = clientFactory.createEc2Client(testAccount, "eu-west-1");
+
+    // Then
+    assertThat(second).isSameAs(first);
+    assertThat(otherRegion).isNotSameAs(first);
+    assertThat(clientFactory.getClientCacheStats()).contains("hitCount=1", "missCount=2");
+    assertThat(meterRegistry.get("cache.gets").tag("cache", "aws.clients").tag("result", "hit")
+        .functionCounter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should keep cross-region and regional S3 clients apart")
+  void shouldPoolCrossRegionS3ClientSeparately() {
+    // When
+    S3Client crossRegion = clientFactory.createS3Client(testAccount, null);
+    S3Client regional = clientFactory.createS3Client(testAccount, "us-east-1");
+
+    // Then
+    assertThat(regional).isNotSameAs(crossRegion);
+    assertThat(clientFactory.createS3Client(testAccount, null)).isSameAs(crossRegion);
+  }
+
+  @Test
+  @DisplayName("Should drop an account's pooled clients when its credentials are evicted")
+  void shouldEvictClientsWithCredentials() {
+    // Given
+    AwsAccount otherAccount = new AwsAccount();
+    otherAccount.setId(UUID.randomUUID());
+    otherAccount.setAccountId("210987654321");
+
+    Ec2Client before = clientFactory.createEc2Client(testAccount, "us-east-1");
+    Ec2Client otherBefore = clientFactory.createEc2Client(otherAccount, "us-east-1");
+
+    // When
+    clientFactory.evictCredentials(testAccount.getId());
+
+    // Then
+    assertThat(clientFactory.createEc2Client(testAccount, "us-east-1")).isNotSameAs(before);
+    assertThat(clientFactory.createEc2Client(otherAccount, "us-east-1")).isSameAs(otherBefore);
+  }
+
+  @Test
+  @DisplayName("Should keep size-evicted clients open until the idle timeout")
+  void shouldRetireClientsEvictedForSize() throws InterruptedException {
+    // Given - room for a single pooled client
+    AwsClientFactory smallFactory = new AwsClientFactory(encryptionService,
+        new AwsRateGovernor(meterRegistry), httpClient, new SimpleMeterRegistry(), 3600,
+        Duration.ofMinutes(15), 100, 1, Duration.ofHours(1));
+    try {
+      // When - a second region pushes the first client out while a scan may still hold it
+      smallFactory.createEc2Client(testAccount, "us-east-1");
+      smallFactory.createEc2Client(testAccount, "eu-west-1");
+
+      // Then - eviction runs asynchronously; the evicted client is retired, not closed
+      long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+      while (smallFactory.getRetiredClientCount() == 0 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertThat(smallFactory.getRetiredClientCount()).isEqualTo(1);
+    } finally {
+      smallFactory.close();
+    }
+    assertThat(smallFactory.getRetiredClientCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should decrypt access keys once and reuse the cached provider")
+  void shouldCacheAccessKeyCredentials() {
+    // Given
+    testAccount.setCredentialType(CredentialType.ACCESS_KEY);
+    testAccount.setAccessKeyEncrypted("encrypted-access");
+    testAccount.setSecretKeyEncrypted("encrypted-secret");
+    when(encryptionService.decrypt("encrypted-access")).thenReturn("AKIAEXAMPLE");
+    when(encryptionService.decrypt("encrypted-secret")).thenReturn("secret");
+
+    // When
+    AwsCredentials first = clientFactory.resolveCredentials(testAccount);
+    AwsCredentials second = clientFactory.resolveCredentials(testAccount);
+
+    // Then
+    assertThat(first.accessKeyId()).isEqualTo("AKIAEXAMPLE");
+    assertThat(second.secretAccessKey()).isEqualTo("secret");
+    verify(encryptionService, times(1)).decrypt("encrypted-access");
+    assertThat(clientFactory.getCacheStats()).contains("hitCount=1", "missCount=1");
+  }
+
+  @Test
+  @DisplayName("Should size the credential cache from the account count")
+  void shouldResizeCredentialCacheFromAccountCount() {
+    // When/Then - small fleets keep the configured minimum
+    clientFactory.resizeCredentialCache(10);
+    assertThat(clientFactory.getCredentialCacheCapacity()).isEqualTo(100);
+
+    // Large fleets get every account plus headroom
+    clientFactory.resizeCredentialCache(400);
+    assertThat(clientFactory.getCredentialCacheCapacity()).isEqualTo(500);
+  }
+
+  @Test
+  @DisplayName("Should register the credential refresh latency timer")
+  void shouldRegisterRefreshTimer() {
+    // Then
+    assertThat(meterRegistry.get("resonant.aws.credentials.refresh").tag("outcome", "success")
+        .timer().count()).isZero();
+    assertThat(meterRegistry.get("resonant.aws.credentials.refresh").tag("outcome", "failure")
+        .timer().count()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should reject a prefetch time outside the session duration")
+  void shouldRejectInvalidPrefetchTime() {
+    assertThatThrownBy(() -> new AwsClientFactory(encryptionService,
+        new AwsRateGovernor(meterRegistry), httpClient, meterRegistry, 600,
+        Duration.ofMinutes(15), 100, 100, Duration.ofHours(1)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("prefetch");
+  }
+
+  private AwsClientFactory createFactory(int sessionDuration) {
+    return new AwsClientFactory(encryptionService, new AwsRateGovernor(meterRegistry),
+        httpClient, meterRegistry, sessionDuration, Duration.ofMinutes(15), 100, 100,
+        Duration.ofHours(1));
+  }
+}
@@ -0,0 +1,118 @@
+package com.wenroe.resonant.service.aws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.wenroe.resonant.service.aws.AwsRateGovernor.GovernorKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("AwsRateGovernor Tests")
+class AwsRateGovernorTest {
+
+  private static final GovernorKey KEY = new GovernorKey("123456789012", "S3", "us-east-1");
+
+  private SimpleMeterRegistry meterRegistry;
+  private AwsRateGovernor governor;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    governor = new AwsRateGovernor(meterRegistry);
+  }
+
+  @Test
+  @DisplayName("Should halve the rate on throttle and count it per key")
+  void shouldDecreaseRateOnThrottle() {
+    // When
+    governor.recordThrottle(KEY);
+
+    // Then
+    assertThat(governor.currentRate("123456789012", "S3", "us-east-1")).isEqualTo(10.0);
+    assertThat(meterRegistry.counter("resonant.aws.throttles", KEY.tags()).count())
+        .isEqualTo(1.0);
+    assertThat(meterRegistry.get("resonant.aws.rate_limit").tags(KEY.tags()).gauge().value())
+        .isEqualTo(10.0);
+  }
+
+  @Test
+  @DisplayName("Should treat throttles within the cooldown as one congestion signal")
+  void shouldDecreaseOncePerCooldown() {
+    // When
+    governor.recordThrottle(KEY);
+    governor.recordThrottle(KEY);
+    governor.recordThrottle(KEY);
+
+    // Then - every throttle is counted but the rate is only cut once
+    assertThat(governor.currentRate("123456789012", "S3", "us-east-1")).isEqualTo(10.0);
+    assertThat(meterRegistry.counter("resonant.aws.throttles", KEY.tags()).count())
+        .isEqualTo(3.0);
+  }
+
+  @Test
+  @DisplayName("Should keep separate limits per account, service and region")
+  void shouldIsolateKeys() {
+    // When
+    governor.recordThrottle(KEY);
+
+    // Then
+    assertThat(governor.currentRate("123456789012", "S3", "eu-west-1")).isEqualTo(20.0);
+    assertThat(governor.currentRate("123456789012", "EC2", "us-east-1")).isEqualTo(20.0);
+    assertThat(governor.currentRate("210987654321", "S3", "us-east-1")).isEqualTo(20.0);
+  }
+
+  @Test
+  @DisplayName("Should increase the rate additively on success up to the maximum")
+  void shouldIncreaseRateOnSuccess() {
+    // Given
+    AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(10, 1, 11, 0.5, Duration.ZERO);
+
+    // When - about one permit/s is added per 'rate' successes
+    for (int i = 0; i < 10; i++) {
+      limiter.onSuccess();
+    }
+
+    // Then
+    assertThat(limiter.rate()).isGreaterThan(10.9).isLessThanOrEqualTo(11.0);
+    for (int i = 0; i < 100; i++) {
+      limiter.onSuccess();
+    }
+    assertThat(limiter.rate()).isEqualTo(11.0);
+  }
+
+  @Test
+  @DisplayName("Should never drop below the minimum rate")
+  void shouldRespectMinimumRate() {
+    // Given
+    AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(4, 1, 100, 0.5, Duration.ZERO);
+
+    // When
+    for (int i = 0; i < 10; i++) {
+      limiter.onThrottle();
+    }
+
+    // Then
+    assertThat(limiter.rate()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should pace permits at the current rate once the burst is spent")
+  void shouldPacePermits() throws InterruptedException {
+    // Given - 50/s with the one-second burst already consumed by a throttle
+    AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(100, 1, 100, 0.5, Duration.ZERO);
+    limiter.onThrottle();
+
+    // When
+    long start = System.nanoTime();
+    for (int i = 0; i < 10; i++) {
+      limiter.acquire();
+    }
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    // Then - ten permits at 50/s take at least ~180ms
+    assertThat(elapsedMillis).isGreaterThanOrEqualTo(150);
+  }
+}
@@ -0,0 +1,161 @@
+package com.wenroe.resonant.service.aws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.ResourceGroupsTaggingApiClient;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.model.GetResourcesRequest;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.model.GetResourcesResponse;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.model.ResourceGroupsTaggingApiException;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.model.ResourceTagMapping;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.model.Tag;
+import software.amazon.awssdk.services.resourcegroupstaggingapi.paginators.GetResourcesIterable;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ResourceTagCollector Tests")
+class ResourceTagCollectorTest {
+
+  @Mock
+  private AwsClientFactory clientFactory;
+
+  @Mock
+  private ResourceGroupsTaggingApiClient taggingClient;
+
+  private ResourceTagCollector collector;
+
+  private AwsAccount testAccount;
+
+  @BeforeEach
+  void setUp() {
+    collector = new ResourceTagCollector(clientFactory, true);
+
+    testAccount = new AwsAccount();
+    testAccount.setId(UUID.randomUUID());
+    testAccount.setAccountId("123456789012");
+
+    lenient().when(clientFactory.createResourceGroupsTaggingClient(any(AwsAccount.class),
+        any(String.class))).thenReturn(taggingClient);
+    // Route the paginator through getResources, as the real client does
+    lenient().when(taggingClient.getResourcesPaginator(any(GetResourcesRequest.class)))
+        .thenAnswer(invocation -> new GetResourcesIterable(taggingClient,
+            invocation.getArgument(0)));
+  }
+
+  @Test
+  @DisplayName("Should collect tags across pages keyed by ARN")
+  void shouldCollectTagsAcrossPages() {
+    // Given
+    when(taggingClient.getResources(any(GetResourcesRequest.class)))
+        .thenReturn(GetResourcesResponse.builder()
+            .resourceTagMappingList(mapping("arn:aws:s3:::one", "Team", "data"))
+            .paginationToken("page-2")
+            .build())
+        .thenReturn(GetResourcesResponse.builder()
+            .resourceTagMappingList(mapping("arn:aws:s3:::two", "Team", "web"))
+            .build());
+
+    // When
+    Optional<Map<String, Map<String, String>>> tags = collector.collectTags(testAccount,
+        "eu-west-1", "s3");
+
+    // Then
+    assertThat(tags).isPresent();
+    assertThat(tags.get())
+        .containsEntry("arn:aws:s3:::one", Map.of("Team", "data"))
+        .containsEntry("arn:aws:s3:::two", Map.of("Team", "web"));
+
+    ArgumentCaptor<GetResourcesRequest> requests =
+        ArgumentCaptor.forClass(GetResourcesRequest.class);
+    verify(taggingClient, times(2)).getResources(requests.capture());
+    assertThat(requests.getAllValues().get(0).resourceTypeFilters()).containsExactly("s3");
+    assertThat(requests.getAllValues().get(0).resourcesPerPage())
+        .isEqualTo(ResourceTagCollector.RESOURCES_PER_PAGE);
+    assertThat(requests.getAllValues().get(1).paginationToken()).isEqualTo("page-2");
+  }
+
+  @Test
+  @DisplayName("Should fall back and stop asking once access is denied")
+  void shouldRememberAccessDenied() {
+    // Given
+    when(taggingClient.getResources(any(GetResourcesRequest.class)))
+        .thenThrow(ResourceGroupsTaggingApiException.builder()
+            .statusCode(400)
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorCode("AccessDeniedException")
+                .build())
+            .build());
+
+    // When
+    Optional<Map<String, Map<String, String>>> first = collector.collectTags(testAccount,
+        "eu-west-1", "s3");
+    Optional<Map<String, Map<String, String>>> second = collector.collectTags(testAccount,
+        "us-east-1", "cloudfront:distribution");
+
+    // Then
+    assertThat(first).isEmpty();
+    assertThat(second).isEmpty();
+    verify(taggingClient, times(1)).getResources(any(GetResourcesRequest.class));
+  }
+
+  @Test
+  @DisplayName("Should fall back without remembering transient failures")
+  void shouldNotRememberTransientFailures() {
+    // Given
+    when(taggingClient.getResources(any(GetResourcesRequest.class)))
+        .thenThrow(ResourceGroupsTaggingApiException.builder()
+            .statusCode(500)
+            .message("Internal error")
+            .build())
+        .thenReturn(GetResourcesResponse.builder().build());
+
+    // When
+    Optional<Map<String, Map<String, String>>> first = collector.collectTags(testAccount,
+        "eu-west-1", "s3");
+    Optional<Map<String, Map<String, String>>> second = collector.collectTags(testAccount,
+        "eu-west-1", "s3");
+
+    // Then
+    assertThat(first).isEmpty();
+    assertThat(second).contains(Map.of());
+  }
+
+  @Test
+  @DisplayName("Should not call the tagging API when bulk tags are disabled")
+  void shouldSkipWhenDisabled() {
+    // Given
+    ResourceTagCollector disabled = new ResourceTagCollector(clientFactory, false);
+
+    // When
+    Optional<Map<String, Map<String, String>>> tags = disabled.collectTags(testAccount,
+        "eu-west-1", "s3");
+
+    // Then
+    assertThat(tags).isEmpty();
+    verify(clientFactory, never()).createResourceGroupsTaggingClient(any(AwsAccount.class),
+        any(String.class));
+  }
+
+  private static ResourceTagMapping mapping(String arn, String key, String value) {
+    return ResourceTagMapping.builder()
+        .resourceARN(arn)
+        .tags(Tag.builder().key(key).value(value).build())
+        .build();
+  }
+}
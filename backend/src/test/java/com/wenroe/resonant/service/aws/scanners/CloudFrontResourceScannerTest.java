@@ -3,15 +3,20 @@ package com.wenroe.resonant.service.aws.scanners;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.wenroe.resonant.model.entity.AwsAccount;
 import com.wenroe.resonant.model.entity.AwsResource;
 import com.wenroe.resonant.service.aws.AwsClientFactory;
+import com.wenroe.resonant.service.aws.ResourceTagCollector;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,12 +24,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.cloudfront.CloudFrontClient;
+import software.amazon.awssdk.services.cloudfront.model.Distribution;
+import software.amazon.awssdk.services.cloudfront.model.DistributionConfig;
 import software.amazon.awssdk.services.cloudfront.model.DistributionList;
 import software.amazon.awssdk.services.cloudfront.model.DistributionSummary;
+import software.amazon.awssdk.services.cloudfront.model.GetDistributionRequest;
+import software.amazon.awssdk.services.cloudfront.model.GetDistributionResponse;
 import software.amazon.awssdk.services.cloudfront.model.HttpVersion;
+import software.amazon.awssdk.services.cloudfront.model.ListDistributionsRequest;
 import software.amazon.awssdk.services.cloudfront.model.ListDistributionsResponse;
 import software.amazon.awssdk.services.cloudfront.model.ListTagsForResourceRequest;
 import software.amazon.awssdk.services.cloudfront.model.ListTagsForResourceResponse;
+import software.amazon.awssdk.services.cloudfront.model.Origin;
+import software.amazon.awssdk.services.cloudfront.model.Origins;
 import software.amazon.awssdk.services.cloudfront.model.PriceClass;
 import software.amazon.awssdk.services.cloudfront.model.Tag;
 import software.amazon.awssdk.services.cloudfront.model.Tags;
@@ -33,19 +45,24 @@ import software.amazon.awssdk.services.cloudfront.model.Tags;
 @DisplayName("CloudFrontResourceScanner Tests")
 class CloudFrontResourceScannerTest {
 
+  private static final Instant MODIFIED = Instant.parse("2024-01-01T00:00:00Z");
+
   @Mock
   private AwsClientFactory clientFactory;
 
   @Mock
   private CloudFrontClient cloudFrontClient;
 
+  @Mock
+  private ResourceTagCollector tagCollector;
+
   private CloudFrontResourceScanner scanner;
 
   private AwsAccount testAccount;
 
   @BeforeEach
   void setUp() {
-    scanner = new CloudFrontResourceScanner(clientFactory);
+    scanner = new CloudFrontResourceScanner(clientFactory, tagCollector);
 
     testAccount = new AwsAccount();
     testAccount.setAccountId("123456789012");
@@ -80,7 +97,8 @@ class CloudFrontResourceScannerTest {
         .distributionList(distList)
         .build();
 
-    when(cloudFrontClient.listDistributions()).thenReturn(response);
+    when(cloudFrontClient.listDistributions(any(ListDistributionsRequest.class)))
+        .thenReturn(response);
 
     Tags tags = Tags.builder()
         .items(Tag.builder().key("Environment").value("production").build())
@@ -126,7 +144,8 @@ class CloudFrontResourceScannerTest {
         .distributionList(distList)
         .build();
 
-    when(cloudFrontClient.listDistributions()).thenReturn(response);
+    when(cloudFrontClient.listDistributions(any(ListDistributionsRequest.class)))
+        .thenReturn(response);
 
     // When
     List<AwsResource> resources = scanner.scanDistributions(testAccount);
@@ -157,7 +176,7 @@ class CloudFrontResourceScannerTest {
         .quantity(1)
         .build();
 
-    when(cloudFrontClient.listDistributions()).thenReturn(
+    when(cloudFrontClient.listDistributions(any(ListDistributionsRequest.class))).thenReturn(
         ListDistributionsResponse.builder().distributionList(distList).build());
 
     Tags emptyTags = Tags.builder().items(Collections.emptyList()).build();
@@ -177,7 +196,7 @@ class CloudFrontResourceScannerTest {
   void shouldHandleApiErrors() {
     // Given
     when(clientFactory.createCloudFrontClient(testAccount)).thenReturn(cloudFrontClient);
-    when(cloudFrontClient.listDistributions())
+    when(cloudFrontClient.listDistributions(any(ListDistributionsRequest.class)))
         .thenThrow(new RuntimeException("CloudFront API error"));
 
     // When/Then
@@ -219,7 +238,7 @@ class CloudFrontResourceScannerTest {
         .quantity(2)
         .build();
 
-    when(cloudFrontClient.listDistributions()).thenReturn(
+    when(cloudFrontClient.listDistributions(any(ListDistributionsRequest.class))).thenReturn(
         ListDistributionsResponse.builder().distributionList(distList).build());
 
     Tags emptyTags = Tags.builder().items(Collections.emptyList()).build();
@@ -230,10 +249,180 @@ class CloudFrontResourceScannerTest {
     List<AwsResource> resources = scanner.scanDistributions(testAccount);
 
     // Then
+    // Distributions are scanned concurrently, so compare by ID rather than position
     assertThat(resources).hasSize(2);
-    assertThat(resources.get(0).getResourceId()).isEqualTo("DIST1");
-    assertThat(resources.get(1).getResourceId()).isEqualTo("DIST2");
-    assertThat(resources.get(0).getMetadata()).containsEntry("enabled", true);
-    assertThat(resources.get(1).getMetadata()).containsEntry("enabled", false);
+    assertThat(resources).extracting(AwsResource::getResourceId)
+        .containsExactlyInAnyOrder("DIST1", "DIST2");
+    assertThat(findById(resources, "DIST1").getMetadata()).containsEntry("enabled", true);
+    assertThat(findById(resources, "DIST2").getMetadata()).containsEntry("enabled", false);
+  }
+
+  @Test
+  @DisplayName("Should take tags from the bulk collection when the tagging API is available")
+  void shouldUseBulkTags() {
+    // Given
+    when(clientFactory.createCloudFrontClient(testAccount)).thenReturn(cloudFrontClient);
+    when(tagCollector.collectTags(testAccount, "us-east-1", "cloudfront:distribution"))
+        .thenReturn(Optional.of(Map.of(
+            "arn:aws:cloudfront::123456789012:distribution/DIST1", Map.of("Team", "web"))));
+    when(cloudFrontClient.listDistributions(any(ListDistributionsRequest.class)))
+        .thenReturn(distributionsResponse(distribution("DIST1", MODIFIED),
+            distribution("DIST2", MODIFIED)));
+
+    // When
+    List<AwsResource> resources = scanner.scanDistributions(testAccount);
+
+    // Then
+    assertThat(findById(resources, "DIST1").getTags()).containsEntry("Team", "web");
+    assertThat(findById(resources, "DIST2").getTags()).isEmpty();
+    verify(cloudFrontClient, never()).listTagsForResource(any(ListTagsForResourceRequest.class));
+  }
+
+  @Test
+  @DisplayName("Should follow NextMarker across distribution pages")
+  void shouldFollowDistributionPagination() {
+    // Given
+    when(clientFactory.createCloudFrontClient(testAccount)).thenReturn(cloudFrontClient);
+    when(cloudFrontClient.listDistributions(any(ListDistributionsRequest.class)))
+        .thenReturn(ListDistributionsResponse.builder()
+            .distributionList(DistributionList.builder()
+                .items(distribution("DIST1", MODIFIED))
+                .isTruncated(true)
+                .nextMarker("DIST1")
+                .build())
+            .build())
+        .thenReturn(ListDistributionsResponse.builder()
+            .distributionList(DistributionList.builder()
+                .items(distribution("DIST2", MODIFIED))
+                .isTruncated(false)
+                .build())
+            .build());
+    when(cloudFrontClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+        .thenReturn(ListTagsForResourceResponse.builder().build());
+
+    // When
+    List<AwsResource> resources = scanner.scanDistributions(testAccount);
+
+    // Then
+    assertThat(resources).extracting(AwsResource::getResourceId)
+        .containsExactlyInAnyOrder("DIST1", "DIST2");
+    verify(cloudFrontClient).listDistributions(ListDistributionsRequest.builder().build());
+    verify(cloudFrontClient).listDistributions(
+        ListDistributionsRequest.builder().marker("DIST1").build());
+  }
+
+  @Test
+  @DisplayName("Should reuse cached config while the distribution is unmodified")
+  void shouldSkipGetDistributionWhenUnmodified() {
+    // Given
+    when(clientFactory.createCloudFrontClient(testAccount)).thenReturn(cloudFrontClient);
+    givenDistributions(distribution("DIST1", MODIFIED));
+    when(cloudFrontClient.getDistribution(any(GetDistributionRequest.class)))
+        .thenReturn(configResponse("etag-1", "origin-a.example.com"));
+
+    // When
+    scanner.scanDistributions(testAccount);
+    List<AwsResource> secondScan = scanner.scanDistributions(testAccount);
+
+    // Then - the second scan reads the config from the cache
+    verify(cloudFrontClient, times(1)).getDistribution(any(GetDistributionRequest.class));
+    assertThat(secondScan.get(0).getMetadata())
+        .containsEntry("origins", List.of("origin-a.example.com"))
+        .containsEntry("defaultRootObject", "index.html");
+  }
+
+  @Test
+  @DisplayName("Should re-read config when the distribution was modified")
+  void shouldRereadConfigWhenModified() {
+    // Given
+    when(clientFactory.createCloudFrontClient(testAccount)).thenReturn(cloudFrontClient);
+    when(cloudFrontClient.listDistributions(any(ListDistributionsRequest.class)))
+        .thenReturn(distributionsResponse(distribution("DIST1", MODIFIED)))
+        .thenReturn(distributionsResponse(
+            distribution("DIST1", MODIFIED.plusSeconds(60))));
+    when(cloudFrontClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+        .thenReturn(ListTagsForResourceResponse.builder().build());
+    when(cloudFrontClient.getDistribution(any(GetDistributionRequest.class)))
+        .thenReturn(configResponse("etag-1", "origin-a.example.com"))
+        .thenReturn(configResponse("etag-2", "origin-b.example.com"));
+
+    // When
+    scanner.scanDistributions(testAccount);
+    List<AwsResource> secondScan = scanner.scanDistributions(testAccount);
+
+    // Then
+    verify(cloudFrontClient, times(2)).getDistribution(any(GetDistributionRequest.class));
+    assertThat(secondScan.get(0).getMetadata())
+        .containsEntry("origins", List.of("origin-b.example.com"));
+  }
+
+  @Test
+  @DisplayName("Should not cache a config that could not be read")
+  void shouldNotCacheFailedConfigReads() {
+    // Given
+    when(clientFactory.createCloudFrontClient(testAccount)).thenReturn(cloudFrontClient);
+    givenDistributions(distribution("DIST1", MODIFIED));
+    when(cloudFrontClient.getDistribution(any(GetDistributionRequest.class)))
+        .thenThrow(new RuntimeException("Throttling"))
+        .thenReturn(configResponse("etag-1", "origin-a.example.com"));
+
+    // When
+    List<AwsResource> firstScan = scanner.scanDistributions(testAccount);
+    List<AwsResource> secondScan = scanner.scanDistributions(testAccount);
+
+    // Then
+    assertThat(firstScan.get(0).getMetadata()).doesNotContainKey("origins");
+    assertThat(secondScan.get(0).getMetadata()).containsKey("origins");
+  }
+
+  private void givenDistributions(DistributionSummary... distributions) {
+    when(cloudFrontClient.listDistributions(any(ListDistributionsRequest.class)))
+        .thenReturn(distributionsResponse(distributions));
+    when(cloudFrontClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+        .thenReturn(ListTagsForResourceResponse.builder().build());
+  }
+
+  private static ListDistributionsResponse distributionsResponse(
+      DistributionSummary... distributions) {
+    return ListDistributionsResponse.builder()
+        .distributionList(DistributionList.builder()
+            .items(distributions)
+            .quantity(distributions.length)
+            .isTruncated(false)
+            .build())
+        .build();
+  }
+
+  private static DistributionSummary distribution(String id, Instant lastModifiedTime) {
+    return DistributionSummary.builder()
+        .id(id)
+        .arn("arn:aws:cloudfront::123456789012:distribution/" + id)
+        .domainName(id.toLowerCase() + ".cloudfront.net")
+        .status("Deployed")
+        .enabled(true)
+        .lastModifiedTime(lastModifiedTime)
+        .build();
+  }
+
+  private static GetDistributionResponse configResponse(String eTag, String originDomain) {
+    return GetDistributionResponse.builder()
+        .eTag(eTag)
+        .distribution(Distribution.builder()
+            .distributionConfig(DistributionConfig.builder()
+                .defaultRootObject("index.html")
+                .origins(Origins.builder()
+                    .items(Origin.builder().domainName(originDomain).build())
+                    .quantity(1)
+                    .build())
+                .build())
+            .build())
+        .build();
+  }
+
+  private static AwsResource findById(List<AwsResource> resources, String resourceId) {
+    return resources.stream()
+        .filter(r -> r.getResourceId().equals(resourceId))
+        .findFirst()
+        .orElseThrow();
   }
 }
\ No newline at end of file
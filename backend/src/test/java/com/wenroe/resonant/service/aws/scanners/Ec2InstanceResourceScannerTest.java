@@ -0,0 +1,322 @@
+package com.wenroe.resonant.service.aws.scanners;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsAccountRegion;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.service.AwsAccountRegionService;
+import com.wenroe.resonant.service.aws.AwsClientFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.ec2.Ec2Client;
+import software.amazon.awssdk.services.ec2.model.DescribeInstancesRequest;
+import software.amazon.awssdk.services.ec2.model.DescribeInstancesResponse;
+import software.amazon.awssdk.services.ec2.model.DescribeTagsRequest;
+import software.amazon.awssdk.services.ec2.model.Instance;
+import software.amazon.awssdk.services.ec2.model.InstanceState;
+import software.amazon.awssdk.services.ec2.model.Placement;
+import software.amazon.awssdk.services.ec2.model.Reservation;
+import software.amazon.awssdk.services.ec2.model.Tag;
+import software.amazon.awssdk.services.ec2.paginators.DescribeInstancesIterable;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Ec2InstanceResourceScanner Tests")
+class Ec2InstanceResourceScannerTest {
+
+  @Mock
+  private AwsClientFactory clientFactory;
+
+  @Mock
+  private AwsAccountRegionService regionService;
+
+  @Mock
+  private Ec2Client ec2Client;
+
+  private Ec2InstanceResourceScanner scanner;
+
+  private AwsAccount testAccount;
+  private AwsAccountRegion usEast1Region;
+  private AwsAccountRegion usWest2Region;
+
+  @BeforeEach
+  void setUp() {
+    scanner = new Ec2InstanceResourceScanner(clientFactory, regionService);
+
+    testAccount = new AwsAccount();
+    testAccount.setId(UUID.randomUUID());
+    testAccount.setAccountId("123456789012");
+
+    usEast1Region = new AwsAccountRegion();
+    usEast1Region.setRegionCode("us-east-1");
+    usEast1Region.setEnabled(true);
+
+    usWest2Region = new AwsAccountRegion();
+    usWest2Region.setRegionCode("us-west-2");
+    usWest2Region.setEnabled(true);
+
+    // Route the paginator through describeInstances, as the real client does
+    lenient().when(ec2Client.describeInstancesPaginator(any(DescribeInstancesRequest.class)))
+        .thenAnswer(invocation -> new DescribeInstancesIterable(ec2Client,
+            invocation.getArgument(0)));
+  }
+
+  @Test
+  @DisplayName("Should scan instances with inline tags and metadata")
+  void shouldScanInstancesWithInlineTags() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region));
+    when(clientFactory.createEc2Client(testAccount, "us-east-1")).thenReturn(ec2Client);
+
+    Instance instance = Instance.builder()
+        .instanceId("i-123")
+        .instanceType("t3.micro")
+        .state(InstanceState.builder().name("running").build())
+        .launchTime(Instant.parse("2024-01-01T00:00:00Z"))
+        .imageId("ami-123")
+        .placement(Placement.builder().availabilityZone("us-east-1a").build())
+        .vpcId("vpc-123")
+        .subnetId("subnet-123")
+        .privateIpAddress("10.0.0.5")
+        .tags(Tag.builder().key("Name").value("web-1").build(),
+            Tag.builder().key("Environment").value("production").build())
+        .build();
+
+    when(ec2Client.describeInstances(any(DescribeInstancesRequest.class)))
+        .thenReturn(DescribeInstancesResponse.builder()
+            .reservations(Reservation.builder().instances(instance).build())
+            .build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).hasSize(1);
+
+    AwsResource resource = resources.get(0);
+    assertThat(resource.getResourceId()).isEqualTo("i-123");
+    assertThat(resource.getResourceArn()).isEqualTo(
+        "arn:aws:ec2:us-east-1:123456789012:instance/i-123");
+    assertThat(resource.getResourceType()).isEqualTo("ec2:instance");
+    assertThat(resource.getName()).isEqualTo("web-1");
+    assertThat(resource.getRegion()).isEqualTo("us-east-1");
+    assertThat(resource.getTags())
+        .containsEntry("Name", "web-1")
+        .containsEntry("Environment", "production");
+    assertThat(resource.getMetadata())
+        .containsEntry("instanceType", "t3.micro")
+        .containsEntry("state", "running")
+        .containsEntry("launchTime", "2024-01-01T00:00:00Z")
+        .containsEntry("availabilityZone", "us-east-1a")
+        .containsEntry("vpcId", "vpc-123")
+        .containsEntry("privateIpAddress", "10.0.0.5")
+        .doesNotContainKey("publicIpAddress");
+
+    // Tags are read from the listing; no per-instance calls
+    verify(ec2Client, never()).describeTags(any(DescribeTagsRequest.class));
+  }
+
+  @Test
+  @DisplayName("Should filter instance states server-side with full pages")
+  void shouldFilterStatesServerSide() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region));
+    when(clientFactory.createEc2Client(testAccount, "us-east-1")).thenReturn(ec2Client);
+    when(ec2Client.describeInstances(any(DescribeInstancesRequest.class)))
+        .thenReturn(DescribeInstancesResponse.builder()
+            .reservations(Collections.emptyList())
+            .build());
+
+    // When
+    scanner.scan(testAccount);
+
+    // Then
+    ArgumentCaptor<DescribeInstancesRequest> request =
+        ArgumentCaptor.forClass(DescribeInstancesRequest.class);
+    verify(ec2Client).describeInstances(request.capture());
+    assertThat(request.getValue().maxResults()).isEqualTo(Ec2InstanceResourceScanner.PAGE_SIZE);
+    assertThat(request.getValue().filters()).hasSize(1);
+    assertThat(request.getValue().filters().get(0).name()).isEqualTo("instance-state-name");
+    assertThat(request.getValue().filters().get(0).values())
+        .containsExactly("pending", "running", "stopping", "stopped");
+  }
+
+  @Test
+  @DisplayName("Should stream each page into the sink before fetching the next")
+  void shouldStreamPagesIntoSink() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region));
+    when(clientFactory.createEc2Client(testAccount, "us-east-1")).thenReturn(ec2Client);
+
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    when(ec2Client.describeInstances(any(DescribeInstancesRequest.class)))
+        .thenAnswer(invocation -> {
+          events.add("page-1");
+          return DescribeInstancesResponse.builder()
+              .reservations(reservation("i-1", "i-2"))
+              .nextToken("page-2")
+              .build();
+        })
+        .thenAnswer(invocation -> {
+          events.add("page-2");
+          return DescribeInstancesResponse.builder()
+              .reservations(reservation("i-3"))
+              .build();
+        });
+
+    List<Integer> completedCounts = new ArrayList<>();
+    ResourceSink sink = new ResourceSink() {
+      @Override
+      public void accept(AwsResource resource) {
+        events.add(resource.getResourceId());
+      }
+
+      @Override
+      public void regionCompleted(String region, int resourceCount) {
+        completedCounts.add(resourceCount);
+      }
+    };
+
+    // When
+    scanner.scan(testAccount, sink);
+
+    // Then
+    assertThat(events).containsExactly("page-1", "i-1", "i-2", "page-2", "i-3");
+    assertThat(completedCounts).containsExactly(3);
+    verify(ec2Client, times(2)).describeInstances(any(DescribeInstancesRequest.class));
+  }
+
+  @Test
+  @DisplayName("Should scan regions concurrently")
+  void shouldScanRegionsConcurrently() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region, usWest2Region));
+    when(clientFactory.createEc2Client(any(AwsAccount.class), any(String.class)))
+        .thenReturn(ec2Client);
+
+    // Each region waits until both regions are in flight; sequential scanning would time out
+    CountDownLatch bothRegionsStarted = new CountDownLatch(2);
+    when(ec2Client.describeInstances(any(DescribeInstancesRequest.class)))
+        .thenAnswer(invocation -> {
+          bothRegionsStarted.countDown();
+          if (!bothRegionsStarted.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Regions were not scanned concurrently");
+          }
+          return DescribeInstancesResponse.builder()
+              .reservations(reservation("i-123"))
+              .build();
+        });
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).hasSize(2);
+    assertThat(resources).extracting(AwsResource::getRegion)
+        .containsExactlyInAnyOrder("us-east-1", "us-west-2");
+  }
+
+  @Test
+  @DisplayName("Should handle EC2 API errors in specific region")
+  void shouldHandleApiErrorsInRegion() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region, usWest2Region));
+
+    Ec2Client westClient = org.mockito.Mockito.mock(Ec2Client.class);
+    when(westClient.describeInstancesPaginator(any(DescribeInstancesRequest.class)))
+        .thenAnswer(invocation -> new DescribeInstancesIterable(westClient,
+            invocation.getArgument(0)));
+    when(clientFactory.createEc2Client(testAccount, "us-east-1")).thenReturn(ec2Client);
+    when(clientFactory.createEc2Client(testAccount, "us-west-2")).thenReturn(westClient);
+
+    when(ec2Client.describeInstances(any(DescribeInstancesRequest.class)))
+        .thenThrow(new RuntimeException("EC2 API error"));
+    when(westClient.describeInstances(any(DescribeInstancesRequest.class)))
+        .thenReturn(DescribeInstancesResponse.builder()
+            .reservations(reservation("i-west"))
+            .build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).extracting(AwsResource::getResourceId).containsExactly("i-west");
+  }
+
+  @Test
+  @DisplayName("Should fall back to the instance ID when there is no Name tag")
+  void shouldUseInstanceIdWithoutNameTag() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region));
+    when(clientFactory.createEc2Client(testAccount, "us-east-1")).thenReturn(ec2Client);
+    when(ec2Client.describeInstances(any(DescribeInstancesRequest.class)))
+        .thenReturn(DescribeInstancesResponse.builder()
+            .reservations(reservation("i-untagged"))
+            .build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).hasSize(1);
+    assertThat(resources.get(0).getName()).isEqualTo("i-untagged");
+    assertThat(resources.get(0).getTags()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should handle no enabled regions")
+  void shouldHandleNoEnabledRegions() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(Collections.emptyList());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).isEmpty();
+    verify(clientFactory, never()).createEc2Client(any(AwsAccount.class), any(String.class));
+  }
+
+  @Test
+  @DisplayName("Should return correct resource type")
+  void shouldReturnCorrectResourceType() {
+    assertThat(scanner.getResourceType()).isEqualTo("ec2:instance");
+  }
+
+  private static Reservation reservation(String... instanceIds) {
+    List<Instance> instances = new ArrayList<>();
+    for (String instanceId : instanceIds) {
+      instances.add(Instance.builder()
+          .instanceId(instanceId)
+          .instanceType("t3.micro")
+          .state(InstanceState.builder().name("running").build())
+          .build());
+    }
+    return Reservation.builder().instances(instances).build();
+  }
+}
@@ -0,0 +1,170 @@
+package com.wenroe.resonant.service.aws.scanners;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsAccountRegion;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.service.AwsAccountRegionService;
+import com.wenroe.resonant.service.aws.AwsClientFactory;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.rds.RdsClient;
+import software.amazon.awssdk.services.rds.model.DBCluster;
+import software.amazon.awssdk.services.rds.model.DBClusterMember;
+import software.amazon.awssdk.services.rds.model.DescribeDbClustersRequest;
+import software.amazon.awssdk.services.rds.model.DescribeDbClustersResponse;
+import software.amazon.awssdk.services.rds.model.ListTagsForResourceRequest;
+import software.amazon.awssdk.services.rds.model.Tag;
+import software.amazon.awssdk.services.rds.paginators.DescribeDBClustersIterable;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RdsClusterResourceScanner Tests")
+class RdsClusterResourceScannerTest {
+
+  @Mock
+  private AwsClientFactory clientFactory;
+
+  @Mock
+  private AwsAccountRegionService regionService;
+
+  @Mock
+  private RdsClient rdsClient;
+
+  private RdsClusterResourceScanner scanner;
+
+  private AwsAccount testAccount;
+  private AwsAccountRegion usEast1Region;
+
+  @BeforeEach
+  void setUp() {
+    scanner = new RdsClusterResourceScanner(clientFactory, regionService);
+
+    testAccount = new AwsAccount();
+    testAccount.setId(UUID.randomUUID());
+    testAccount.setAccountId("123456789012");
+
+    usEast1Region = new AwsAccountRegion();
+    usEast1Region.setRegionCode("us-east-1");
+    usEast1Region.setEnabled(true);
+
+    // Route the paginator through describeDBClusters, as the real client does
+    lenient().when(rdsClient.describeDBClustersPaginator(any(DescribeDbClustersRequest.class)))
+        .thenAnswer(invocation -> new DescribeDBClustersIterable(rdsClient,
+            invocation.getArgument(0)));
+  }
+
+  @Test
+  @DisplayName("Should scan DB clusters with tags from the TagList")
+  void shouldScanDbClustersWithTagList() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region));
+    when(clientFactory.createRdsClient(testAccount, "us-east-1")).thenReturn(rdsClient);
+
+    DBCluster dbCluster = DBCluster.builder()
+        .dbClusterIdentifier("orders-cluster")
+        .dbClusterArn("arn:aws:rds:us-east-1:123456789012:cluster:orders-cluster")
+        .engine("aurora-postgresql")
+        .engineVersion("15.4")
+        .engineMode("provisioned")
+        .status("available")
+        .storageEncrypted(true)
+        .dbClusterMembers(DBClusterMember.builder().dbInstanceIdentifier("orders-1").build(),
+            DBClusterMember.builder().dbInstanceIdentifier("orders-2").build())
+        .tagList(Tag.builder().key("Team").value("orders").build())
+        .build();
+
+    when(rdsClient.describeDBClusters(any(DescribeDbClustersRequest.class)))
+        .thenReturn(DescribeDbClustersResponse.builder().dbClusters(dbCluster).build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).hasSize(1);
+
+    AwsResource resource = resources.get(0);
+    assertThat(resource.getResourceId()).isEqualTo("orders-cluster");
+    assertThat(resource.getResourceArn())
+        .isEqualTo("arn:aws:rds:us-east-1:123456789012:cluster:orders-cluster");
+    assertThat(resource.getResourceType()).isEqualTo("rds:db-cluster");
+    assertThat(resource.getTags()).containsEntry("Team", "orders");
+    assertThat(resource.getMetadata())
+        .containsEntry("engine", "aurora-postgresql")
+        .containsEntry("engineMode", "provisioned")
+        .containsEntry("status", "available")
+        .containsEntry("memberCount", 2);
+
+    // Tags come from the describe call; no per-resource tag calls
+    verify(rdsClient, never()).listTagsForResource(any(ListTagsForResourceRequest.class));
+  }
+
+  @Test
+  @DisplayName("Should skip Neptune and DocumentDB clusters")
+  void shouldSkipNonRdsEngines() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region));
+    when(clientFactory.createRdsClient(testAccount, "us-east-1")).thenReturn(rdsClient);
+
+    when(rdsClient.describeDBClusters(any(DescribeDbClustersRequest.class)))
+        .thenReturn(DescribeDbClustersResponse.builder().dbClusters(
+            DBCluster.builder().dbClusterIdentifier("graph").engine("neptune").build(),
+            DBCluster.builder().dbClusterIdentifier("documents").engine("docdb").build(),
+            DBCluster.builder().dbClusterIdentifier("orders").engine("aurora-mysql").build())
+            .build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).extracting(AwsResource::getResourceId).containsExactly("orders");
+  }
+
+  @Test
+  @DisplayName("Should follow DB cluster pagination across pages")
+  void shouldFollowPagination() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region));
+    when(clientFactory.createRdsClient(testAccount, "us-east-1")).thenReturn(rdsClient);
+
+    when(rdsClient.describeDBClusters(any(DescribeDbClustersRequest.class)))
+        .thenReturn(DescribeDbClustersResponse.builder()
+            .dbClusters(DBCluster.builder().dbClusterIdentifier("cluster-1").build())
+            .marker("page-2")
+            .build())
+        .thenReturn(DescribeDbClustersResponse.builder()
+            .dbClusters(DBCluster.builder().dbClusterIdentifier("cluster-2").build())
+            .build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).extracting(AwsResource::getResourceId)
+        .containsExactly("cluster-1", "cluster-2");
+    assertThat(resources.get(1).getResourceArn())
+        .isEqualTo("arn:aws:rds:us-east-1:123456789012:cluster:cluster-2");
+    verify(rdsClient, times(2)).describeDBClusters(any(DescribeDbClustersRequest.class));
+  }
+
+  @Test
+  @DisplayName("Should return correct resource type")
+  void shouldReturnCorrectResourceType() {
+    assertThat(scanner.getResourceType()).isEqualTo("rds:db-cluster");
+  }
+}
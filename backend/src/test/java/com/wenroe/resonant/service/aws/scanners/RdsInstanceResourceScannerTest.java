@@ -0,0 +1,254 @@
+package com.wenroe.resonant.service.aws.scanners;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsAccountRegion;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.service.AwsAccountRegionService;
+import com.wenroe.resonant.service.aws.AwsClientFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.rds.RdsClient;
+import software.amazon.awssdk.services.rds.model.DBInstance;
+import software.amazon.awssdk.services.rds.model.DBSubnetGroup;
+import software.amazon.awssdk.services.rds.model.DescribeDbInstancesRequest;
+import software.amazon.awssdk.services.rds.model.DescribeDbInstancesResponse;
+import software.amazon.awssdk.services.rds.model.ListTagsForResourceRequest;
+import software.amazon.awssdk.services.rds.model.Tag;
+import software.amazon.awssdk.services.rds.paginators.DescribeDBInstancesIterable;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RdsInstanceResourceScanner Tests")
+class RdsInstanceResourceScannerTest {
+
+  @Mock
+  private AwsClientFactory clientFactory;
+
+  @Mock
+  private AwsAccountRegionService regionService;
+
+  @Mock
+  private RdsClient rdsClient;
+
+  private RdsInstanceResourceScanner scanner;
+
+  private AwsAccount testAccount;
+  private AwsAccountRegion usEast1Region;
+  private AwsAccountRegion usWest2Region;
+
+  @BeforeEach
+  void setUp() {
+    scanner = new RdsInstanceResourceScanner(clientFactory, regionService);
+
+    testAccount = new AwsAccount();
+    testAccount.setId(UUID.randomUUID());
+    testAccount.setAccountId("123456789012");
+
+    usEast1Region = new AwsAccountRegion();
+    usEast1Region.setRegionCode("us-east-1");
+    usEast1Region.setEnabled(true);
+
+    usWest2Region = new AwsAccountRegion();
+    usWest2Region.setRegionCode("us-west-2");
+    usWest2Region.setEnabled(true);
+
+    // Route the paginator through describeDBInstances, as the real client does
+    lenient().when(rdsClient.describeDBInstancesPaginator(any(DescribeDbInstancesRequest.class)))
+        .thenAnswer(invocation -> new DescribeDBInstancesIterable(rdsClient,
+            invocation.getArgument(0)));
+  }
+
+  @Test
+  @DisplayName("Should scan DB instances with tags from the TagList")
+  void shouldScanDbInstancesWithTagList() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region));
+    when(clientFactory.createRdsClient(testAccount, "us-east-1")).thenReturn(rdsClient);
+
+    DBInstance dbInstance = DBInstance.builder()
+        .dbInstanceIdentifier("orders-db")
+        .dbInstanceArn("arn:aws:rds:us-east-1:123456789012:db:orders-db")
+        .engine("postgres")
+        .engineVersion("16.1")
+        .dbInstanceClass("db.r6g.large")
+        .dbInstanceStatus("available")
+        .multiAZ(true)
+        .storageEncrypted(true)
+        .publiclyAccessible(false)
+        .dbSubnetGroup(DBSubnetGroup.builder().vpcId("vpc-123").build())
+        .tagList(Tag.builder().key("Team").value("orders").build())
+        .build();
+
+    when(rdsClient.describeDBInstances(any(DescribeDbInstancesRequest.class)))
+        .thenReturn(DescribeDbInstancesResponse.builder().dbInstances(dbInstance).build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).hasSize(1);
+
+    AwsResource resource = resources.get(0);
+    assertThat(resource.getResourceId()).isEqualTo("orders-db");
+    assertThat(resource.getResourceArn())
+        .isEqualTo("arn:aws:rds:us-east-1:123456789012:db:orders-db");
+    assertThat(resource.getResourceType()).isEqualTo("rds:db-instance");
+    assertThat(resource.getRegion()).isEqualTo("us-east-1");
+    assertThat(resource.getTags()).containsEntry("Team", "orders");
+    assertThat(resource.getMetadata())
+        .containsEntry("engine", "postgres")
+        .containsEntry("instanceClass", "db.r6g.large")
+        .containsEntry("multiAZ", true)
+        .containsEntry("storageEncrypted", true)
+        .containsEntry("vpcId", "vpc-123");
+
+    // Tags come from the describe call; no per-resource tag calls
+    verify(rdsClient, never()).listTagsForResource(any(ListTagsForResourceRequest.class));
+  }
+
+  @Test
+  @DisplayName("Should skip Neptune and DocumentDB instances")
+  void shouldSkipNonRdsEngines() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region));
+    when(clientFactory.createRdsClient(testAccount, "us-east-1")).thenReturn(rdsClient);
+
+    when(rdsClient.describeDBInstances(any(DescribeDbInstancesRequest.class)))
+        .thenReturn(DescribeDbInstancesResponse.builder().dbInstances(
+            DBInstance.builder().dbInstanceIdentifier("graph").engine("neptune").build(),
+            DBInstance.builder().dbInstanceIdentifier("documents").engine("docdb").build(),
+            DBInstance.builder().dbInstanceIdentifier("orders").engine("mysql").build())
+            .build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).extracting(AwsResource::getResourceId).containsExactly("orders");
+  }
+
+  @Test
+  @DisplayName("Should follow DB instance pagination across pages")
+  void shouldFollowPagination() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region));
+    when(clientFactory.createRdsClient(testAccount, "us-east-1")).thenReturn(rdsClient);
+
+    when(rdsClient.describeDBInstances(any(DescribeDbInstancesRequest.class)))
+        .thenReturn(DescribeDbInstancesResponse.builder()
+            .dbInstances(DBInstance.builder().dbInstanceIdentifier("db-1").build())
+            .marker("page-2")
+            .build())
+        .thenReturn(DescribeDbInstancesResponse.builder()
+            .dbInstances(DBInstance.builder().dbInstanceIdentifier("db-2").build())
+            .build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).extracting(AwsResource::getResourceId)
+        .containsExactly("db-1", "db-2");
+    assertThat(resources.get(0).getResourceArn())
+        .isEqualTo("arn:aws:rds:us-east-1:123456789012:db:db-1");
+    verify(rdsClient, times(2)).describeDBInstances(any(DescribeDbInstancesRequest.class));
+  }
+
+  @Test
+  @DisplayName("Should scan regions concurrently")
+  void shouldScanRegionsConcurrently() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region, usWest2Region));
+    when(clientFactory.createRdsClient(any(AwsAccount.class), any(String.class)))
+        .thenReturn(rdsClient);
+
+    // Each region waits until both regions are in flight; sequential scanning would time out
+    CountDownLatch bothRegionsStarted = new CountDownLatch(2);
+    when(rdsClient.describeDBInstances(any(DescribeDbInstancesRequest.class)))
+        .thenAnswer(invocation -> {
+          bothRegionsStarted.countDown();
+          if (!bothRegionsStarted.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Regions were not scanned concurrently");
+          }
+          return DescribeDbInstancesResponse.builder()
+              .dbInstances(DBInstance.builder().dbInstanceIdentifier("db-1").build())
+              .build();
+        });
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).extracting(AwsResource::getRegion)
+        .containsExactlyInAnyOrder("us-east-1", "us-west-2");
+  }
+
+  @Test
+  @DisplayName("Should handle RDS API errors in specific region")
+  void shouldHandleApiErrorsInRegion() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region, usWest2Region));
+
+    RdsClient westClient = org.mockito.Mockito.mock(RdsClient.class);
+    when(westClient.describeDBInstancesPaginator(any(DescribeDbInstancesRequest.class)))
+        .thenAnswer(invocation -> new DescribeDBInstancesIterable(westClient,
+            invocation.getArgument(0)));
+    when(clientFactory.createRdsClient(testAccount, "us-east-1")).thenReturn(rdsClient);
+    when(clientFactory.createRdsClient(testAccount, "us-west-2")).thenReturn(westClient);
+
+    when(rdsClient.describeDBInstances(any(DescribeDbInstancesRequest.class)))
+        .thenThrow(new RuntimeException("RDS API error"));
+    when(westClient.describeDBInstances(any(DescribeDbInstancesRequest.class)))
+        .thenReturn(DescribeDbInstancesResponse.builder()
+            .dbInstances(DBInstance.builder().dbInstanceIdentifier("db-west").build())
+            .build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).extracting(AwsResource::getResourceId).containsExactly("db-west");
+  }
+
+  @Test
+  @DisplayName("Should handle no enabled regions")
+  void shouldHandleNoEnabledRegions() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(Collections.emptyList());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).isEmpty();
+    verify(clientFactory, never()).createRdsClient(any(AwsAccount.class), any(String.class));
+  }
+
+  @Test
+  @DisplayName("Should return correct resource type")
+  void shouldReturnCorrectResourceType() {
+    assertThat(scanner.getResourceType()).isEqualTo("rds:db-instance");
+  }
+}
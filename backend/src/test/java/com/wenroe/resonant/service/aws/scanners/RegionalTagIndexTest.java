@@ -0,0 +1,82 @@
+package com.wenroe.resonant.service.aws.scanners;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.service.aws.ResourceTagCollector;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RegionalTagIndex Tests")
+class RegionalTagIndexTest {
+
+  private static final String FILTER = "ec2:instance";
+  private static final String ARN = "arn:aws:ec2:us-east-1:123456789012:instance/i-1";
+
+  @Mock
+  private ResourceTagCollector tagCollector;
+
+  private AwsAccount testAccount;
+  private RegionalTagIndex index;
+
+  @BeforeEach
+  void setUp() {
+    testAccount = new AwsAccount();
+    testAccount.setId(UUID.randomUUID());
+    testAccount.setAccountId("123456789012");
+    index = new RegionalTagIndex(tagCollector, testAccount, FILTER);
+  }
+
+  @Test
+  @DisplayName("Should collect a region's tags once and serve every lookup from them")
+  void shouldCollectRegionOnce() {
+    // Given
+    when(tagCollector.collectTags(testAccount, "us-east-1", FILTER))
+        .thenReturn(Optional.of(Map.of(ARN, Map.of("Environment", "prod"))));
+
+    // When/Then
+    assertThat(index.tagsFor("us-east-1", ARN)).containsEntry("Environment", "prod");
+    assertThat(index.tagsFor("us-east-1", "arn:aws:ec2:us-east-1:123456789012:instance/i-2"))
+        .isEmpty();
+    verify(tagCollector, times(1)).collectTags(testAccount, "us-east-1", FILTER);
+  }
+
+  @Test
+  @DisplayName("Should fall back to per-resource tags when a region's collection fails")
+  void shouldFallBackWhenCollectionFails() {
+    // Given
+    when(tagCollector.collectTags(testAccount, "us-east-1", FILTER))
+        .thenThrow(new IllegalStateException("Unable to execute HTTP request"));
+
+    // When/Then - the failure is not propagated and is not retried for the region
+    assertThat(index.tagsFor("us-east-1", ARN)).isNull();
+    assertThat(index.tagsFor("us-east-1", ARN)).isNull();
+    verify(tagCollector, times(1)).collectTags(testAccount, "us-east-1", FILTER);
+  }
+
+  @Test
+  @DisplayName("Should propagate cancellation to the collecting thread only")
+  void shouldPropagateCancellation() {
+    // Given
+    when(tagCollector.collectTags(testAccount, "us-east-1", FILTER))
+        .thenThrow(new CancellationException("Scan cancelled"));
+
+    // When/Then - later lookups for the region use the per-resource fallback
+    assertThatThrownBy(() -> index.tagsFor("us-east-1", ARN))
+        .isInstanceOf(CancellationException.class);
+    assertThat(index.tagsFor("us-east-1", ARN)).isNull();
+  }
+}
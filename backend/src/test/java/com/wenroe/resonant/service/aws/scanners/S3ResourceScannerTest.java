@@ -0,0 +1,340 @@
+package com.wenroe.resonant.service.aws.scanners;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.service.aws.AwsClientFactory;
+import com.wenroe.resonant.service.aws.ResourceTagCollector;
+import com.wenroe.resonant.service.aws.S3BucketRegionCache;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Bucket;
+import software.amazon.awssdk.services.s3.model.BucketVersioningStatus;
+import software.amazon.awssdk.services.s3.model.GetBucketEncryptionRequest;
+import software.amazon.awssdk.services.s3.model.GetBucketEncryptionResponse;
+import software.amazon.awssdk.services.s3.model.GetBucketLocationRequest;
+import software.amazon.awssdk.services.s3.model.GetBucketLocationResponse;
+import software.amazon.awssdk.services.s3.model.GetBucketTaggingRequest;
+import software.amazon.awssdk.services.s3.model.GetBucketTaggingResponse;
+import software.amazon.awssdk.services.s3.model.GetBucketVersioningRequest;
+import software.amazon.awssdk.services.s3.model.GetBucketVersioningResponse;
+import software.amazon.awssdk.services.s3.model.GetPublicAccessBlockRequest;
+import software.amazon.awssdk.services.s3.model.GetPublicAccessBlockResponse;
+import software.amazon.awssdk.services.s3.model.ListBucketsResponse;
+import software.amazon.awssdk.services.s3.model.PublicAccessBlockConfiguration;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.ServerSideEncryptionConfiguration;
+import software.amazon.awssdk.services.s3.model.Tag;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("S3ResourceScanner Tests")
+class S3ResourceScannerTest {
+
+  @Mock
+  private AwsClientFactory clientFactory;
+
+  @Mock
+  private S3Client s3Client;
+
+  @Mock
+  private S3Client regionalS3Client;
+
+  @Mock
+  private ResourceTagCollector tagCollector;
+
+  private S3BucketRegionCache regionCache;
+
+  private S3ResourceScanner scanner;
+
+  private AwsAccount testAccount;
+
+  @BeforeEach
+  void setUp() {
+    regionCache = new S3BucketRegionCache(1000, Duration.ofDays(1));
+    scanner = new S3ResourceScanner(clientFactory, regionCache, tagCollector);
+
+    testAccount = new AwsAccount();
+    testAccount.setId(UUID.randomUUID());
+    testAccount.setAccountId("123456789012");
+
+    when(clientFactory.createS3Client(testAccount, null)).thenReturn(s3Client);
+    lenient().when(clientFactory.createS3Client(eq(testAccount), anyString()))
+        .thenReturn(regionalS3Client);
+
+    // Defaults for the per-bucket calls; individual tests override what they check
+    lenient().when(s3Client.getBucketLocation(any(GetBucketLocationRequest.class)))
+        .thenReturn(GetBucketLocationResponse.builder().locationConstraint("eu-west-2").build());
+    lenient().when(regionalS3Client.getBucketTagging(any(GetBucketTaggingRequest.class)))
+        .thenReturn(GetBucketTaggingResponse.builder().build());
+    lenient().when(regionalS3Client.getBucketVersioning(any(GetBucketVersioningRequest.class)))
+        .thenReturn(GetBucketVersioningResponse.builder()
+            .status(BucketVersioningStatus.ENABLED)
+            .build());
+    lenient().when(regionalS3Client.getBucketEncryption(any(GetBucketEncryptionRequest.class)))
+        .thenReturn(GetBucketEncryptionResponse.builder()
+            .serverSideEncryptionConfiguration(ServerSideEncryptionConfiguration.builder().build())
+            .build());
+    lenient().when(regionalS3Client.getPublicAccessBlock(any(GetPublicAccessBlockRequest.class)))
+        .thenReturn(GetPublicAccessBlockResponse.builder()
+            .publicAccessBlockConfiguration(PublicAccessBlockConfiguration.builder()
+                .blockPublicAcls(true)
+                .blockPublicPolicy(true)
+                .ignorePublicAcls(true)
+                .restrictPublicBuckets(true)
+                .build())
+            .build());
+  }
+
+  @Test
+  @DisplayName("Should scan a bucket with tags and metadata")
+  void shouldScanBucketWithTagsAndMetadata() {
+    // Given
+    givenBuckets(bucket("logs"));
+    when(regionalS3Client.getBucketTagging(any(GetBucketTaggingRequest.class)))
+        .thenReturn(GetBucketTaggingResponse.builder()
+            .tagSet(Tag.builder().key("Team").value("platform").build())
+            .build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).hasSize(1);
+    AwsResource resource = resources.get(0);
+    assertThat(resource.getResourceArn()).isEqualTo("arn:aws:s3:::logs");
+    assertThat(resource.getRegion()).isEqualTo("eu-west-2");
+    assertThat(resource.getTags()).containsEntry("Team", "platform");
+    assertThat(resource.getMetadata())
+        .containsEntry("versioning", "Enabled")
+        .containsEntry("encryption", "enabled")
+        .containsEntry("blockPublicAcls", true)
+        .containsKey("creationDate");
+  }
+
+  @Test
+  @DisplayName("Should keep a bucket when individual metadata calls fail")
+  void shouldTolerateMetadataCallFailures() {
+    // Given
+    givenBuckets(bucket("no-tags"));
+    when(regionalS3Client.getBucketTagging(any(GetBucketTaggingRequest.class)))
+        .thenThrow(S3Exception.builder().statusCode(404).message("NoSuchTagSet").build());
+    when(regionalS3Client.getBucketEncryption(any(GetBucketEncryptionRequest.class)))
+        .thenThrow(S3Exception.builder().statusCode(404).message("No encryption").build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).hasSize(1);
+    assertThat(resources.get(0).getTags()).isEmpty();
+    assertThat(resources.get(0).getMetadata()).containsEntry("encryption", "disabled");
+  }
+
+  @Test
+  @DisplayName("Should isolate a failing bucket from the others")
+  void shouldIsolateBucketFailures() {
+    // Given - a bucket without a creation date fails while building the resource
+    givenBuckets(bucket("good-1"), Bucket.builder().name("broken").build(), bucket("good-2"));
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).extracting(AwsResource::getResourceId)
+        .containsExactlyInAnyOrder("good-1", "good-2");
+  }
+
+  @Test
+  @DisplayName("Should issue the per-bucket calls in parallel")
+  void shouldIssuePerBucketCallsInParallel() {
+    // Given - tagging and versioning each wait for the other; sequential calls would time out
+    givenBuckets(bucket("parallel"));
+    CountDownLatch bothCallsStarted = new CountDownLatch(2);
+    when(regionalS3Client.getBucketTagging(any(GetBucketTaggingRequest.class)))
+        .thenAnswer(invocation -> {
+          awaitTogether(bothCallsStarted);
+          return GetBucketTaggingResponse.builder().build();
+        });
+    when(regionalS3Client.getBucketVersioning(any(GetBucketVersioningRequest.class)))
+        .thenAnswer(invocation -> {
+          awaitTogether(bothCallsStarted);
+          return GetBucketVersioningResponse.builder().build();
+        });
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("Should route bucket calls through a client for the bucket's region")
+  void shouldRouteBucketCallsToRegionalClient() {
+    // Given
+    givenBuckets(bucket("logs"), bucket("assets"));
+
+    // When
+    scanner.scan(testAccount);
+
+    // Then - the eu-west-2 client serves both buckets; the global client only lists/locates
+    verify(clientFactory, times(2)).createS3Client(testAccount, "eu-west-2");
+    verify(regionalS3Client, times(2)).getBucketTagging(any(GetBucketTaggingRequest.class));
+    verify(s3Client, never()).getBucketTagging(any(GetBucketTaggingRequest.class));
+    // Clients are pooled by the factory, so the scanner must not close them
+    verify(regionalS3Client, never()).close();
+    verify(s3Client, never()).close();
+  }
+
+  @Test
+  @DisplayName("Should reuse cached bucket regions across scans")
+  void shouldReuseCachedBucketRegions() {
+    // Given
+    givenBuckets(bucket("logs"));
+    scanner.scan(testAccount);
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then - the location was looked up only by the first scan
+    verify(s3Client, times(1)).getBucketLocation(any(GetBucketLocationRequest.class));
+    assertThat(resources.get(0).getRegion()).isEqualTo("eu-west-2");
+    assertThat(regionCache.getRegion("logs")).isEqualTo("eu-west-2");
+  }
+
+  @Test
+  @DisplayName("Should evict a stale cached region and rescan the bucket when S3 redirects")
+  void shouldEvictStaleCachedRegionOnRedirect() {
+    // Given - the bucket was recreated in eu-west-2 after its old region was cached
+    givenBuckets(bucket("logs"));
+    regionCache.putRegion("logs", "us-west-1");
+    S3Client staleClient = mock(S3Client.class);
+    when(clientFactory.createS3Client(testAccount, "us-west-1")).thenReturn(staleClient);
+    when(staleClient.getBucketVersioning(any(GetBucketVersioningRequest.class)))
+        .thenThrow(S3Exception.builder().statusCode(301).message("Moved Permanently").build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then - the region was looked up again and the bucket scanned there
+    assertThat(resources).singleElement().satisfies(resource -> {
+      assertThat(resource.getRegion()).isEqualTo("eu-west-2");
+      assertThat(resource.getMetadata()).containsEntry("versioning", "Enabled");
+    });
+    assertThat(regionCache.getRegion("logs")).isEqualTo("eu-west-2");
+    verify(s3Client, times(1)).getBucketLocation(any(GetBucketLocationRequest.class));
+  }
+
+  @Test
+  @DisplayName("Should take tags from one bulk collection per region instead of per bucket")
+  void shouldUseBulkTagsPerRegion() {
+    // Given
+    givenBuckets(bucket("tagged"), bucket("untagged"));
+    when(tagCollector.collectTags(testAccount, "eu-west-2", "s3"))
+        .thenReturn(Optional.of(Map.of("arn:aws:s3:::tagged", Map.of("Team", "data"))));
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then - one collection serves both buckets and no per-bucket tag call is made
+    assertThat(resources).hasSize(2);
+    AwsResource tagged = resources.stream()
+        .filter(r -> r.getResourceId().equals("tagged")).findFirst().orElseThrow();
+    AwsResource untagged = resources.stream()
+        .filter(r -> r.getResourceId().equals("untagged")).findFirst().orElseThrow();
+    assertThat(tagged.getTags()).containsExactlyEntriesOf(Map.of("Team", "data"));
+    assertThat(untagged.getTags()).isEmpty();
+    assertThat(tagged.getMetadata()).containsEntry("versioning", "Enabled");
+
+    verify(tagCollector, times(1)).collectTags(testAccount, "eu-west-2", "s3");
+    verify(regionalS3Client, never()).getBucketTagging(any(GetBucketTaggingRequest.class));
+  }
+
+  @Test
+  @DisplayName("Should fall back to the cross-region client when the location lookup fails")
+  void shouldFallBackWhenLocationLookupFails() {
+    // Given
+    givenBuckets(bucket("restricted"));
+    when(s3Client.getBucketLocation(any(GetBucketLocationRequest.class)))
+        .thenThrow(S3Exception.builder().statusCode(403).message("Access Denied").build());
+    when(s3Client.getBucketTagging(any(GetBucketTaggingRequest.class)))
+        .thenReturn(GetBucketTaggingResponse.builder()
+            .tagSet(Tag.builder().key("Team").value("security").build())
+            .build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then - the failed lookup is not cached and the bucket is still scanned
+    assertThat(resources).hasSize(1);
+    assertThat(resources.get(0).getRegion()).isEqualTo("us-east-1");
+    assertThat(resources.get(0).getTags()).containsEntry("Team", "security");
+    assertThat(regionCache.getRegion("restricted")).isNull();
+  }
+
+  @Test
+  @DisplayName("Should limit concurrent buckets to the configured concurrency")
+  void shouldLimitBucketConcurrency() {
+    // Given
+    ReflectionTestUtils.setField(scanner, "bucketConcurrency", 2);
+    givenBuckets(bucket("b1"), bucket("b2"), bucket("b3"), bucket("b4"), bucket("b5"));
+
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    when(s3Client.getBucketLocation(any(GetBucketLocationRequest.class)))
+        .thenAnswer(invocation -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          Thread.sleep(50);
+          inFlight.decrementAndGet();
+          return GetBucketLocationResponse.builder().build();
+        });
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).hasSize(5);
+    assertThat(maxInFlight.get()).isEqualTo(2);
+  }
+
+  private void givenBuckets(Bucket... buckets) {
+    when(s3Client.listBuckets())
+        .thenReturn(ListBucketsResponse.builder().buckets(buckets).build());
+  }
+
+  private Bucket bucket(String name) {
+    return Bucket.builder().name(name).creationDate(Instant.parse("2024-01-01T00:00:00Z")).build();
+  }
+
+  private static void awaitTogether(CountDownLatch latch) throws InterruptedException {
+    latch.countDown();
+    if (!latch.await(5, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("Per-bucket calls were not issued in parallel");
+    }
+  }
+}
@@ -2,6 +2,8 @@ package com.wenroe.resonant.service.aws.scanners;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -13,12 +15,16 @@ import com.wenroe.resonant.service.aws.AwsClientFactory;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import software.amazon.awssdk.services.ec2.Ec2Client;
 import software.amazon.awssdk.services.ec2.model.DescribeSubnetsRequest;
 import software.amazon.awssdk.services.ec2.model.DescribeSubnetsResponse;
@@ -28,6 +34,8 @@ import software.amazon.awssdk.services.ec2.model.Subnet;
 import software.amazon.awssdk.services.ec2.model.Tag;
 import software.amazon.awssdk.services.ec2.model.Vpc;
 import software.amazon.awssdk.services.ec2.model.VpcCidrBlockAssociation;
+import software.amazon.awssdk.services.ec2.paginators.DescribeSubnetsIterable;
+import software.amazon.awssdk.services.ec2.paginators.DescribeVpcsIterable;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("VpcResourceScanner Tests")
@@ -64,6 +72,8 @@ class VpcResourceScannerTest {
     usWest2Region = new AwsAccountRegion();
     usWest2Region.setRegionCode("us-west-2");
     usWest2Region.setEnabled(true);
+
+    stubPaginators(ec2Client);
   }
 
   @Test
@@ -131,6 +141,65 @@ class VpcResourceScannerTest {
     verify(clientFactory).createEc2Client(testAccount, "us-east-1");
   }
 
+  @Test
+  @DisplayName("Should list subnets once per region and count them by VPC")
+  void shouldCountSubnetsWithOneRegionWideListing() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region));
+    when(clientFactory.createEc2Client(testAccount, "us-east-1")).thenReturn(ec2Client);
+
+    when(ec2Client.describeVpcs(any(DescribeVpcsRequest.class)))
+        .thenReturn(DescribeVpcsResponse.builder()
+            .vpcs(Vpc.builder().vpcId("vpc-a").build(),
+                Vpc.builder().vpcId("vpc-b").build(),
+                Vpc.builder().vpcId("vpc-empty").build())
+            .build());
+    when(ec2Client.describeSubnets(any(DescribeSubnetsRequest.class)))
+        .thenReturn(DescribeSubnetsResponse.builder()
+            .subnets(Subnet.builder().subnetId("subnet-1").vpcId("vpc-a").build(),
+                Subnet.builder().subnetId("subnet-2").vpcId("vpc-a").build(),
+                Subnet.builder().subnetId("subnet-3").vpcId("vpc-b").build())
+            .build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).hasSize(3);
+    assertThat(resources).extracting(r -> r.getMetadata().get("subnetCount"))
+        .containsExactly(2, 1, 0);
+    verify(ec2Client, times(1)).describeSubnets(any(DescribeSubnetsRequest.class));
+  }
+
+  @Test
+  @DisplayName("Should follow VPC pagination across pages")
+  void shouldFollowVpcPagination() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region));
+    when(clientFactory.createEc2Client(testAccount, "us-east-1")).thenReturn(ec2Client);
+
+    when(ec2Client.describeVpcs(any(DescribeVpcsRequest.class)))
+        .thenReturn(DescribeVpcsResponse.builder()
+            .vpcs(Vpc.builder().vpcId("vpc-page-1").build())
+            .nextToken("page-2")
+            .build())
+        .thenReturn(DescribeVpcsResponse.builder()
+            .vpcs(Vpc.builder().vpcId("vpc-page-2").build())
+            .build());
+    when(ec2Client.describeSubnets(any(DescribeSubnetsRequest.class)))
+        .thenReturn(DescribeSubnetsResponse.builder().subnets(Collections.emptyList()).build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).extracting(AwsResource::getResourceId)
+        .containsExactly("vpc-page-1", "vpc-page-2");
+    verify(ec2Client, times(2)).describeVpcs(any(DescribeVpcsRequest.class));
+  }
+
   @Test
   @DisplayName("Should scan VPCs across multiple regions")
   void shouldScanVpcsAcrossMultipleRegions() {
@@ -142,6 +211,8 @@ class VpcResourceScannerTest {
     Ec2Client ec2ClientEast = org.mockito.Mockito.mock(Ec2Client.class);
     Ec2Client ec2ClientWest = org.mockito.Mockito.mock(Ec2Client.class);
 
+    stubPaginators(ec2ClientEast);
+    stubPaginators(ec2ClientWest);
     when(clientFactory.createEc2Client(testAccount, "us-east-1")).thenReturn(ec2ClientEast);
     when(clientFactory.createEc2Client(testAccount, "us-west-2")).thenReturn(ec2ClientWest);
 
@@ -203,6 +274,66 @@ class VpcResourceScannerTest {
     verify(clientFactory).createEc2Client(testAccount, "us-west-2");
   }
 
+  @Test
+  @DisplayName("Should scan regions concurrently")
+  void shouldScanRegionsConcurrently() {
+    // Given
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region, usWest2Region));
+    when(clientFactory.createEc2Client(any(AwsAccount.class), any(String.class)))
+        .thenReturn(ec2Client);
+
+    // Each region waits until both regions are in flight; sequential scanning would time out
+    CountDownLatch bothRegionsStarted = new CountDownLatch(2);
+    when(ec2Client.describeVpcs(any(DescribeVpcsRequest.class))).thenAnswer(invocation -> {
+      bothRegionsStarted.countDown();
+      if (!bothRegionsStarted.await(5, TimeUnit.SECONDS)) {
+        throw new IllegalStateException("Regions were not scanned concurrently");
+      }
+      return DescribeVpcsResponse.builder()
+          .vpcs(Vpc.builder().vpcId("vpc-123").build())
+          .build();
+    });
+    when(ec2Client.describeSubnets(any(DescribeSubnetsRequest.class)))
+        .thenReturn(DescribeSubnetsResponse.builder().subnets(Collections.emptyList()).build());
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).hasSize(2);
+    assertThat(resources).extracting(AwsResource::getRegion)
+        .containsExactlyInAnyOrder("us-east-1", "us-west-2");
+  }
+
+  @Test
+  @DisplayName("Should limit concurrent regions to the configured parallelism")
+  void shouldLimitRegionParallelism() {
+    // Given
+    ReflectionTestUtils.setField(scanner, "regionParallelism", 1);
+
+    when(regionService.getEnabledRegionsByAccountId(testAccount.getId()))
+        .thenReturn(List.of(usEast1Region, usWest2Region));
+    when(clientFactory.createEc2Client(any(AwsAccount.class), any(String.class)))
+        .thenReturn(ec2Client);
+
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    when(ec2Client.describeVpcs(any(DescribeVpcsRequest.class))).thenAnswer(invocation -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      Thread.sleep(50);
+      inFlight.decrementAndGet();
+      return DescribeVpcsResponse.builder().vpcs(Collections.emptyList()).build();
+    });
+
+    // When
+    List<AwsResource> resources = scanner.scan(testAccount);
+
+    // Then
+    assertThat(resources).isEmpty();
+    assertThat(maxInFlight.get()).isEqualTo(1);
+  }
+
   @Test
   @DisplayName("Should handle VPCs with no tags")
   void shouldHandleVpcsWithNoTags() {
@@ -386,4 +517,15 @@ class VpcResourceScannerTest {
     assertThat(resources).hasSize(1);
     assertThat(resources.get(0).getMetadata()).doesNotContainKey("subnetCount");
   }
+
+  /**
+   * Routes the paginators of a mocked client through its single-page calls, as the real client
+   * does, so tests can stub {@code describeVpcs} and {@code describeSubnets} directly.
+   */
+  private static void stubPaginators(Ec2Client client) {
+    lenient().when(client.describeVpcsPaginator(any(DescribeVpcsRequest.class)))
+        .thenAnswer(invocation -> new DescribeVpcsIterable(client, invocation.getArgument(0)));
+    lenient().when(client.describeSubnetsPaginator(any(DescribeSubnetsRequest.class)))
+        .thenAnswer(invocation -> new DescribeSubnetsIterable(client, invocation.getArgument(0)));
+  }
 }
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.wenroe.resonant.service.compliance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.wenroe.resonant.model.entity.TagPolicy;
+import com.wenroe.resonant.service.compliance.CompiledPolicySet.CompiledPolicy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CompiledPolicySet Tests")
+class CompiledPolicySetTest {
+
+  @Test
+  @DisplayName("Should index policies by resource type in their original order")
+  void shouldIndexPoliciesByResourceType() {
+    // Given
+    TagPolicy s3Only = policy("S3", List.of("s3:bucket"), Map.of("Owner", List.of()));
+    TagPolicy shared = policy("Shared", List.of("ec2:vpc", "s3:bucket", "s3:bucket"),
+        Map.of("Team", List.of()));
+    TagPolicy vpcOnly = policy("VPC", List.of("ec2:vpc"), Map.of("Env", List.of()));
+
+    // When
+    CompiledPolicySet policySet = CompiledPolicySet.compile(List.of(s3Only, shared, vpcOnly));
+
+    // Then
+    assertThat(policySet.size()).isEqualTo(3);
+    assertThat(policySet.policiesFor("s3:bucket")).extracting(CompiledPolicy::getPolicy)
+        .containsExactly(s3Only, shared);
+    assertThat(policySet.policiesFor("ec2:vpc")).extracting(CompiledPolicy::getPolicy)
+        .containsExactly(shared, vpcOnly);
+    assertThat(policySet.policiesFor("rds:db-instance")).isEmpty();
+    assertThat(policySet.policiesFor(null)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should skip policies without resource types or required tags")
+  void shouldSkipIncompletePolicies() {
+    // When
+    CompiledPolicySet policySet = CompiledPolicySet.compile(List.of(new TagPolicy()));
+
+    // Then
+    assertThat(policySet.isEmpty()).isTrue();
+    assertThat(CompiledPolicySet.compile(null).isEmpty()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should accept allowed values and any value where none are listed")
+  void shouldCheckCompliance() {
+    // Given
+    Map<String, List<String>> requiredTags = new HashMap<>();
+    requiredTags.put("Environment", List.of("prod", "dev"));
+    requiredTags.put("Owner", null);
+    requiredTags.put("Team", List.of());
+    CompiledPolicy policy = compileSingle(requiredTags);
+
+    // Then
+    assertThat(policy.isCompliant(Map.of("Environment", "prod", "Owner", "alice",
+        "Team", "payments"))).isTrue();
+    assertThat(policy.isCompliant(Map.of("Environment", "qa", "Owner", "alice",
+        "Team", "payments"))).isFalse();
+    assertThat(policy.isCompliant(Map.of("Environment", "prod", "Team", "payments"))).isFalse();
+    assertThat(policy.isCompliant(null)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should treat a present tag with a null value as present")
+  void shouldTreatNullTagValueAsPresent() {
+    // Given
+    Map<String, List<String>> requiredTags = new HashMap<>();
+    requiredTags.put("Owner", null);
+    requiredTags.put("Environment", List.of("prod"));
+    CompiledPolicy policy = compileSingle(requiredTags);
+
+    Map<String, String> tags = new HashMap<>();
+    tags.put("Owner", null);
+    tags.put("Environment", null);
+
+    // When
+    Map<String, Object> details = policy.violationDetails(tags);
+
+    // Then - Owner accepts any value; a null Environment is not an allowed value
+    assertThat(policy.isCompliant(tags)).isFalse();
+    assertThat(details).doesNotContainKey("missingTags");
+    assertThat(details).containsKey("invalidTags");
+  }
+
+  @Test
+  @DisplayName("Should build violation details with missing and invalid tags")
+  void shouldBuildViolationDetails() {
+    // Given
+    Map<String, List<String>> requiredTags = new LinkedHashMap<>();
+    requiredTags.put("Environment", List.of("prod", "dev"));
+    requiredTags.put("Owner", null);
+    requiredTags.put("CostCenter", List.of("eng"));
+    CompiledPolicy policy = compileSingle(requiredTags);
+
+    // When
+    Map<String, Object> details = policy.violationDetails(Map.of("Environment", "qa"));
+
+    // Then
+    assertThat(details.get("missingTags")).isEqualTo(List.of("Owner", "CostCenter"));
+    assertThat(details.get("invalidTags")).isEqualTo(Map.of("Environment",
+        Map.of("current", "qa", "allowed", List.of("prod", "dev"))));
+    assertThat(policy.violationDetails(Map.of("Environment", "dev", "Owner", "bob",
+        "CostCenter", "eng"))).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should not reflect changes to the source policies after compiling")
+  void shouldSnapshotPolicies() {
+    // Given
+    Map<String, List<String>> requiredTags = new HashMap<>();
+    requiredTags.put("Environment", new ArrayList<>(List.of("prod")));
+    TagPolicy policy = policy("Env", new ArrayList<>(List.of("s3:bucket")), requiredTags);
+    CompiledPolicySet policySet = CompiledPolicySet.compile(List.of(policy));
+
+    // When
+    policy.getResourceTypes().add("ec2:vpc");
+    requiredTags.get("Environment").add("dev");
+
+    // Then
+    assertThat(policySet.policiesFor("ec2:vpc")).isEmpty();
+    assertThat(policySet.policiesFor("s3:bucket").get(0)
+        .isCompliant(Map.of("Environment", "dev"))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should fingerprint policy content regardless of order")
+  void shouldFingerprintPolicyContent() {
+    // Given
+    TagPolicy env = policy("Env", List.of("s3:bucket", "ec2:vpc"),
+        Map.of("Environment", List.of("prod")));
+    TagPolicy owner = policy("Owner", List.of("s3:bucket"), Map.of("Owner", List.of()));
+    String fingerprint = CompiledPolicySet.compile(List.of(env, owner)).fingerprint();
+
+    // When / Then - order does not matter
+    assertThat(CompiledPolicySet.compile(List.of(owner, env)).fingerprint())
+        .isEqualTo(fingerprint);
+
+    // A removed policy or an edited rule does
+    assertThat(CompiledPolicySet.compile(List.of(env)).fingerprint()).isNotEqualTo(fingerprint);
+    owner.setRequiredTags(Map.of("Owner", List.of("team-a")));
+    assertThat(CompiledPolicySet.compile(List.of(env, owner)).fingerprint())
+        .isNotEqualTo(fingerprint);
+  }
+
+  private CompiledPolicy compileSingle(Map<String, List<String>> requiredTags) {
+    TagPolicy policy = policy("Test", List.of("s3:bucket"), requiredTags);
+    return CompiledPolicySet.compile(List.of(policy)).policiesFor("s3:bucket").get(0);
+  }
+
+  private TagPolicy policy(String name, List<String> resourceTypes,
+      Map<String, List<String>> requiredTags) {
+    TagPolicy policy = new TagPolicy();
+    policy.setId(UUID.randomUUID());
+    policy.setName(name);
+    policy.setResourceTypes(resourceTypes);
+    policy.setRequiredTags(requiredTags);
+    return policy;
+  }
+}
@@ -0,0 +1,183 @@
+package com.wenroe.resonant.service.compliance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.wenroe.resonant.dto.policy.PolicyDryRunResponse;
+import com.wenroe.resonant.dto.policy.PolicyDryRunResponse.AccountCounts;
+import com.wenroe.resonant.dto.policy.PolicyDryRunResponse.Counts;
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.TagPolicy;
+import com.wenroe.resonant.repository.AwsAccountRepository;
+import com.wenroe.resonant.repository.AwsResourceRepository;
+import com.wenroe.resonant.repository.ResourceTagView;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PolicyDryRunService Tests")
+class PolicyDryRunServiceTest {
+
+  @Mock
+  private AwsResourceRepository awsResourceRepository;
+
+  @Mock
+  private AwsAccountRepository awsAccountRepository;
+
+  @InjectMocks
+  private PolicyDryRunService dryRunService;
+
+  private UUID userId;
+  private AwsAccount prodAccount;
+  private AwsAccount devAccount;
+  private TagPolicy candidate;
+
+  @BeforeEach
+  void setUp() {
+    // Small chunks so the resources below are spread over several evaluation tasks
+    ReflectionTestUtils.setField(dryRunService, "chunkSize", 2);
+    ReflectionTestUtils.setField(dryRunService, "maxChunksInFlight", 1);
+    ReflectionTestUtils.setField(dryRunService, "sampleSize", 2);
+
+    userId = UUID.randomUUID();
+    prodAccount = account("111111111111", "prod");
+    devAccount = account("222222222222", "dev");
+
+    Map<String, List<String>> requiredTags = new HashMap<>();
+    requiredTags.put("Environment", List.of("prod", "dev"));
+    requiredTags.put("Owner", null);
+    candidate = new TagPolicy();
+    candidate.setName("Candidate");
+    candidate.setRequiredTags(requiredTags);
+    candidate.setResourceTypes(List.of("s3:bucket", "ec2:instance"));
+  }
+
+  @Test
+  @DisplayName("Should count evaluated and violating resources by account, region and type")
+  void shouldCountByAccountRegionAndType() {
+    // Given
+    List<ResourceTagView> resources = List.of(
+        resource(prodAccount, "us-east-1", "s3:bucket",
+            Map.of("Environment", "prod", "Owner", "alice")),
+        resource(prodAccount, "us-east-1", "s3:bucket", Map.of("Environment", "staging")),
+        resource(prodAccount, "eu-west-1", "ec2:instance", null),
+        resource(devAccount, "us-east-1", "ec2:instance",
+            Map.of("Environment", "dev", "Owner", "bob")),
+        resource(devAccount, "eu-west-1", "s3:bucket", Map.of("Owner", "carol")));
+    when(awsResourceRepository.streamTagViewsByUserIdAndResourceTypes(userId,
+        candidate.getResourceTypes())).thenReturn(resources.stream());
+    when(awsAccountRepository.findByUserId(userId)).thenReturn(List.of(prodAccount, devAccount));
+
+    // When
+    PolicyDryRunResponse response = dryRunService.dryRun(userId, candidate);
+
+    // Then
+    assertThat(response.getResourcesEvaluated()).isEqualTo(5);
+    assertThat(response.getViolatingResources()).isEqualTo(3);
+    assertThat(response.getByAccount())
+        .extracting(AccountCounts::getAccountAlias, AccountCounts::getEvaluated,
+            AccountCounts::getViolating)
+        .containsExactly(
+            tuple("prod", 3L, 2L),
+            tuple("dev", 2L, 1L));
+    assertThat(response.getByRegion())
+        .containsEntry("us-east-1", new Counts(3, 1))
+        .containsEntry("eu-west-1", new Counts(2, 2));
+    assertThat(response.getByResourceType())
+        .containsEntry("s3:bucket", new Counts(3, 2))
+        .containsEntry("ec2:instance", new Counts(2, 1));
+    assertThat(response.getSampleViolators()).hasSize(2)
+        .allSatisfy(violator -> assertThat(violator.getViolationDetails()).isNotEmpty());
+  }
+
+  @Test
+  @DisplayName("Should report violation details for sampled resources")
+  void shouldReportViolationDetails() {
+    // Given
+    ResourceTagView resource = resource(prodAccount, "us-east-1", "s3:bucket",
+        Map.of("Environment", "staging"));
+    when(awsResourceRepository.streamTagViewsByUserIdAndResourceTypes(userId,
+        candidate.getResourceTypes())).thenReturn(Stream.of(resource));
+    when(awsAccountRepository.findByUserId(userId)).thenReturn(List.of(prodAccount));
+
+    // When
+    PolicyDryRunResponse response = dryRunService.dryRun(userId, candidate);
+
+    // Then
+    assertThat(response.getSampleViolators()).singleElement().satisfies(violator -> {
+      assertThat(violator.getResourceArn()).isEqualTo(resource.resourceArn());
+      assertThat(violator.getViolationDetails())
+          .containsEntry("missingTags", List.of("Owner"))
+          .containsKey("invalidTags");
+    });
+  }
+
+  @Test
+  @DisplayName("Should return empty counts when no resources are stored")
+  void shouldHandleNoResources() {
+    // Given
+    when(awsResourceRepository.streamTagViewsByUserIdAndResourceTypes(userId,
+        candidate.getResourceTypes())).thenReturn(Stream.empty());
+    when(awsAccountRepository.findByUserId(userId)).thenReturn(List.of());
+
+    // When
+    PolicyDryRunResponse response = dryRunService.dryRun(userId, candidate);
+
+    // Then
+    assertThat(response.getResourcesEvaluated()).isZero();
+    assertThat(response.getViolatingResources()).isZero();
+    assertThat(response.getByAccount()).isEmpty();
+    assertThat(response.getByRegion()).isEmpty();
+    assertThat(response.getSampleViolators()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should fail the dry run when the resource stream fails")
+  void shouldPropagateStreamFailure() {
+    // Given - the cursor fails after the first chunk was handed off
+    List<ResourceTagView> resources = new ArrayList<>();
+    resources.add(resource(prodAccount, "us-east-1", "s3:bucket", Map.of()));
+    resources.add(resource(prodAccount, "us-east-1", "s3:bucket", Map.of()));
+    Stream<ResourceTagView> failing = Stream.concat(resources.stream(),
+        Stream.<ResourceTagView>generate(() -> {
+          throw new RuntimeException("Connection reset");
+        }));
+    when(awsResourceRepository.streamTagViewsByUserIdAndResourceTypes(userId,
+        candidate.getResourceTypes())).thenReturn(failing);
+
+    // When / Then
+    assertThatThrownBy(() -> dryRunService.dryRun(userId, candidate))
+        .isInstanceOf(RuntimeException.class)
+        .hasMessage("Connection reset");
+    verifyNoMoreInteractions(awsAccountRepository);
+  }
+
+  private static AwsAccount account(String accountId, String alias) {
+    AwsAccount account = new AwsAccount();
+    account.setId(UUID.randomUUID());
+    account.setAccountId(accountId);
+    account.setAccountAlias(alias);
+    return account;
+  }
+
+  private static ResourceTagView resource(AwsAccount account, String region, String type,
+      Map<String, String> tags) {
+    return new ResourceTagView(account.getId(), region, type,
+        "arn:aws:test:::" + UUID.randomUUID(), tags);
+  }
+}
@@ -0,0 +1,228 @@
+package com.wenroe.resonant.service.compliance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.model.entity.TagPolicy;
+import com.wenroe.resonant.model.entity.User;
+import com.wenroe.resonant.repository.AwsResourceRepository;
+import com.wenroe.resonant.repository.TagPolicyRepository;
+import com.wenroe.resonant.service.ComplianceEvaluationService;
+import com.wenroe.resonant.service.compliance.PolicyReevaluationStatus.State;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PolicyReevaluationService Tests")
+class PolicyReevaluationServiceTest {
+
+  @Mock
+  private TagPolicyRepository tagPolicyRepository;
+
+  @Mock
+  private AwsResourceRepository awsResourceRepository;
+
+  @Mock
+  private ComplianceEvaluationService complianceEvaluationService;
+
+  @Captor
+  private ArgumentCaptor<UUID> afterIdCaptor;
+
+  // Runs are queued here and executed when the test calls runQueued()
+  private final List<Runnable> queuedRuns = new ArrayList<>();
+
+  private PolicyReevaluationService reevaluationService;
+  private TagPolicy policy;
+  private UUID userId;
+
+  @BeforeEach
+  void setUp() {
+    reevaluationService = new PolicyReevaluationService(tagPolicyRepository,
+        awsResourceRepository, complianceEvaluationService, queuedRuns::add, true, 2,
+        Duration.ofHours(1));
+
+    userId = UUID.randomUUID();
+    User user = new User();
+    user.setId(userId);
+
+    policy = new TagPolicy();
+    policy.setId(UUID.randomUUID());
+    policy.setUser(user);
+    policy.setName("Owner Policy");
+    policy.setRequiredTags(Map.of("Owner", List.of()));
+    policy.setResourceTypes(List.of("s3:bucket"));
+    policy.setEnabled(true);
+    policy.setUpdatedAt(LocalDateTime.of(2026, 1, 1, 12, 0));
+  }
+
+  @Test
+  @DisplayName("Should re-evaluate stored resources in keyset-paged batches")
+  void shouldReevaluateInBatches() {
+    // Given - three resources in batches of two
+    List<AwsResource> resources = List.of(resource(), resource(), resource());
+    when(tagPolicyRepository.findById(policy.getId())).thenReturn(Optional.of(policy));
+    when(awsResourceRepository.countByUserIdAndResourceTypes(userId, List.of("s3:bucket")))
+        .thenReturn(3L);
+    when(awsResourceRepository.findPageByUserIdAndResourceTypes(eq(userId),
+        eq(List.of("s3:bucket")), afterIdCaptor.capture(), any(Pageable.class)))
+        .thenReturn(resources.subList(0, 2), resources.subList(2, 3));
+    when(complianceEvaluationService.reevaluatePolicyBatch(eq(policy.getId()), any(), any()))
+        .thenReturn(new ViolationReconciliation(2, 1, 0, 1, 1),
+            new ViolationReconciliation(1, 0, 1, 0, 0));
+
+    // When
+    reevaluationService.onPolicyChanged(new PolicyChangedEvent(policy.getId()));
+    assertThat(reevaluationService.getStatus(policy.getId())).get()
+        .extracting(PolicyReevaluationStatus::state).isEqualTo(State.QUEUED);
+    runQueued();
+
+    // Then - the second page starts after the last id of the first
+    assertThat(afterIdCaptor.getAllValues())
+        .containsExactly(new UUID(0, 0), resources.get(1).getId());
+    verify(complianceEvaluationService).reevaluatePolicyBatch(eq(policy.getId()), any(),
+        eq(resources.subList(0, 2)));
+    verify(complianceEvaluationService).reevaluatePolicyBatch(eq(policy.getId()), any(),
+        eq(resources.subList(2, 3)));
+
+    PolicyReevaluationStatus status = reevaluationService.getStatus(policy.getId()).orElseThrow();
+    assertThat(status.state()).isEqualTo(State.COMPLETED);
+    assertThat(status.resourcesTotal()).isEqualTo(3);
+    assertThat(status.resourcesEvaluated()).isEqualTo(3);
+    assertThat(status.violationsFound()).isEqualTo(3);
+    assertThat(status.violationsOpened()).isEqualTo(1);
+    assertThat(status.violationsReopened()).isEqualTo(1);
+    assertThat(status.violationsResolved()).isEqualTo(1);
+    assertThat(status.finishedAt()).isNotNull();
+    verify(tagPolicyRepository).markReevaluated(policy.getId(), policy.getUpdatedAt());
+  }
+
+  @Test
+  @DisplayName("Should queue pending re-evaluations when the node starts")
+  void shouldResumePendingReevaluations() {
+    // Given
+    UUID otherPolicyId = UUID.randomUUID();
+    when(tagPolicyRepository.findIdsPendingReevaluation())
+        .thenReturn(List.of(policy.getId(), otherPolicyId));
+
+    // When
+    reevaluationService.resumePending();
+
+    // Then
+    assertThat(queuedRuns).hasSize(2);
+    assertThat(reevaluationService.getStatus(otherPolicyId)).get()
+        .extracting(PolicyReevaluationStatus::state).isEqualTo(State.QUEUED);
+  }
+
+  @Test
+  @DisplayName("Should coalesce changes made while a re-evaluation is queued")
+  void shouldCoalesceQueuedChanges() {
+    // Given
+    when(tagPolicyRepository.findById(policy.getId())).thenReturn(Optional.of(policy));
+    when(awsResourceRepository.findPageByUserIdAndResourceTypes(any(), any(), any(), any()))
+        .thenReturn(List.of());
+
+    // When - three changes before the run starts
+    reevaluationService.onPolicyChanged(new PolicyChangedEvent(policy.getId()));
+    reevaluationService.onPolicyChanged(new PolicyChangedEvent(policy.getId()));
+    reevaluationService.onPolicyChanged(new PolicyChangedEvent(policy.getId()));
+    runQueued();
+
+    // Then
+    verify(tagPolicyRepository, times(1)).findById(policy.getId());
+
+    // A change after the run has started queues another one
+    reevaluationService.onPolicyChanged(new PolicyChangedEvent(policy.getId()));
+    assertThat(queuedRuns).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("Should skip policies disabled before their re-evaluation ran")
+  void shouldSkipDisabledPolicy() {
+    // Given
+    policy.setEnabled(false);
+    when(tagPolicyRepository.findById(policy.getId())).thenReturn(Optional.of(policy));
+
+    // When
+    reevaluationService.onPolicyChanged(new PolicyChangedEvent(policy.getId()));
+    runQueued();
+
+    // Then
+    verify(awsResourceRepository, never()).findPageByUserIdAndResourceTypes(any(), any(), any(),
+        any());
+    assertThat(reevaluationService.getStatus(policy.getId())).get()
+        .extracting(PolicyReevaluationStatus::state).isEqualTo(State.COMPLETED);
+  }
+
+  @Test
+  @DisplayName("Should record a failed re-evaluation")
+  void shouldRecordFailure() {
+    // Given
+    when(tagPolicyRepository.findById(policy.getId())).thenReturn(Optional.of(policy));
+    when(awsResourceRepository.findPageByUserIdAndResourceTypes(any(), any(), any(), any()))
+        .thenReturn(List.of(resource()));
+    when(complianceEvaluationService.reevaluatePolicyBatch(any(), any(), any()))
+        .thenThrow(new RuntimeException("Database unavailable"));
+
+    // When
+    reevaluationService.onPolicyChanged(new PolicyChangedEvent(policy.getId()));
+    runQueued();
+
+    // Then
+    PolicyReevaluationStatus status = reevaluationService.getStatus(policy.getId()).orElseThrow();
+    assertThat(status.state()).isEqualTo(State.FAILED);
+    assertThat(status.errorMessage()).isEqualTo("Database unavailable");
+    // Left pending, so the next node to start retries it
+    verify(tagPolicyRepository, never()).markReevaluated(any(), any());
+  }
+
+  @Test
+  @DisplayName("Should not queue re-evaluations when disabled")
+  void shouldNotQueueWhenDisabled() {
+    // Given
+    reevaluationService = new PolicyReevaluationService(tagPolicyRepository,
+        awsResourceRepository, complianceEvaluationService, queuedRuns::add, false, 2,
+        Duration.ofHours(1));
+
+    // When
+    reevaluationService.onPolicyChanged(new PolicyChangedEvent(policy.getId()));
+    reevaluationService.resumePending();
+
+    // Then
+    verify(tagPolicyRepository, never()).findIdsPendingReevaluation();
+    assertThat(queuedRuns).isEmpty();
+    assertThat(reevaluationService.getStatus(policy.getId())).isEmpty();
+  }
+
+  private void runQueued() {
+    List<Runnable> runs = new ArrayList<>(queuedRuns);
+    queuedRuns.clear();
+    runs.forEach(Runnable::run);
+  }
+
+  private static AwsResource resource() {
+    AwsResource resource = new AwsResource();
+    resource.setId(UUID.randomUUID());
+    resource.setResourceType("s3:bucket");
+    return resource;
+  }
+}
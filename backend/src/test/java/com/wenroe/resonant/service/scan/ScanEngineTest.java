@@ -0,0 +1,224 @@
+package com.wenroe.resonant.service.scan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.AwsResource;
+import com.wenroe.resonant.service.aws.scanners.RegionalScanner;
+import com.wenroe.resonant.service.aws.scanners.ResourceScanner;
+import com.wenroe.resonant.service.aws.scanners.ResourceSink;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScanEngine Tests")
+class ScanEngineTest {
+
+  @Mock
+  private ResourceScanner s3Scanner;
+
+  @Mock
+  private RegionalScanner vpcScanner;
+
+  @Mock
+  private ScanProgressListener progress;
+
+  private AwsAccount testAccount;
+
+  @BeforeEach
+  void setUp() {
+    testAccount = new AwsAccount();
+    testAccount.setId(UUID.randomUUID());
+    testAccount.setAccountId("123456789012");
+  }
+
+  @Test
+  @DisplayName("Should isolate scanner failures and complete the pipeline")
+  void shouldIsolateScannerFailures() throws Exception {
+    // Given
+    ScanEngine engine = new ScanEngine(Duration.ofMinutes(1), 4);
+    when(s3Scanner.getResourceType()).thenReturn("s3:bucket");
+    when(vpcScanner.getResourceType()).thenReturn("ec2:vpc");
+    doThrow(new RuntimeException("S3 API error")).when(s3Scanner).scan(any(), any());
+    doAnswer(invocation -> {
+      invocation.<ResourceSink>getArgument(1).accept(resource("vpc-1"));
+      invocation.<ResourceSink>getArgument(1).accept(resource("vpc-2"));
+      return null;
+    }).when(vpcScanner).scan(any(), any());
+
+    ScanResourcePipeline pipeline = new ScanResourcePipeline(10);
+
+    // When
+    Future<Integer> discovery = engine.startDiscovery(testAccount,
+        List.of(s3Scanner, vpcScanner), List.of(), pipeline, progress);
+    List<AwsResource> drained = new ArrayList<>();
+    pipeline.drain(10, drained::addAll);
+
+    // Then
+    assertThat(discovery.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+    assertThat(drained).hasSize(2);
+    verify(progress).scannerFinished("s3:bucket", 0, "S3 API error");
+    verify(progress).scannerFinished("ec2:vpc", 2, null);
+  }
+
+  @Test
+  @DisplayName("Should report scanner and region progress")
+  void shouldReportProgress() throws Exception {
+    // Given
+    ScanEngine engine = new ScanEngine(Duration.ofMinutes(1), 4);
+    when(vpcScanner.getResourceType()).thenReturn("ec2:vpc");
+    doAnswer(invocation -> {
+      ResourceSink sink = invocation.getArgument(1);
+      sink.accept(resource("vpc-1"));
+      sink.regionCompleted("us-east-1", 1);
+      return null;
+    }).when(vpcScanner).scan(any(), any());
+
+    ScanResourcePipeline pipeline = new ScanResourcePipeline(10);
+
+    // When
+    Future<Integer> discovery = engine.startDiscovery(testAccount, List.of(vpcScanner),
+        List.of(), pipeline, progress);
+    pipeline.drain(10, chunk -> { });
+    discovery.get(5, TimeUnit.SECONDS);
+
+    // Then
+    InOrder inOrder = inOrder(progress);
+    inOrder.verify(progress).scannerStarted("ec2:vpc");
+    inOrder.verify(progress).regionCompleted("ec2:vpc", "us-east-1", 1);
+    inOrder.verify(progress).scannerFinished("ec2:vpc", 1, null);
+  }
+
+  @Test
+  @DisplayName("Should cancel discovery when the scan deadline passes")
+  void shouldCancelDiscoveryAfterDeadline() {
+    // Given
+    ScanEngine engine = new ScanEngine(Duration.ofMillis(200), 4);
+    when(s3Scanner.getResourceType()).thenReturn("s3:bucket");
+    doAnswer(invocation -> {
+      invocation.<ResourceSink>getArgument(1).accept(resource("bucket-1"));
+      Thread.sleep(Duration.ofMinutes(1));
+      return null;
+    }).when(s3Scanner).scan(any(), any());
+
+    ScanResourcePipeline pipeline = new ScanResourcePipeline(10);
+
+    // When
+    Future<Integer> discovery = engine.startDiscovery(testAccount, List.of(s3Scanner),
+        List.of(), pipeline, progress);
+    List<AwsResource> drained = new ArrayList<>();
+    pipeline.drain(10, drained::addAll);
+
+    // Then - the pipeline still completes with what was found before the deadline
+    assertThat(drained).hasSize(1);
+    assertThatThrownBy(() -> discovery.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(ScanDeadlineExceededException.class);
+  }
+
+  @Test
+  @DisplayName("Should run regional scanners as one work unit per region")
+  void shouldRunRegionalScannersPerRegion() throws Exception {
+    // Given
+    ScanEngine engine = new ScanEngine(Duration.ofMinutes(1), 4);
+    when(vpcScanner.getResourceType()).thenReturn("ec2:vpc");
+    when(vpcScanner.scanRegion(any(), any(), any())).thenAnswer(invocation -> {
+      String region = invocation.getArgument(1);
+      invocation.<ResourceSink>getArgument(2).accept(resource("vpc-" + region));
+      return 1;
+    });
+
+    ScanResourcePipeline pipeline = new ScanResourcePipeline(10);
+
+    // When
+    Future<Integer> discovery = engine.startDiscovery(testAccount, List.of(vpcScanner),
+        List.of("us-east-1", "us-west-2"), pipeline, progress);
+    List<AwsResource> drained = new ArrayList<>();
+    pipeline.drain(10, drained::addAll);
+
+    // Then - the scanner is reported once, with each region reported by the engine
+    assertThat(discovery.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+    assertThat(drained).extracting(AwsResource::getResourceId)
+        .containsExactlyInAnyOrder("vpc-us-east-1", "vpc-us-west-2");
+    verify(vpcScanner, never()).scan(any(), any());
+    verify(progress).scannerStarted("ec2:vpc");
+    verify(progress).regionCompleted("ec2:vpc", "us-east-1", 1);
+    verify(progress).regionCompleted("ec2:vpc", "us-west-2", 1);
+    verify(progress).scannerFinished("ec2:vpc", 2, null);
+  }
+
+  @Test
+  @DisplayName("Should isolate region failures and report the first as the scanner error")
+  void shouldIsolateRegionFailures() throws Exception {
+    // Given
+    ScanEngine engine = new ScanEngine(Duration.ofMinutes(1), 4);
+    when(vpcScanner.getResourceType()).thenReturn("ec2:vpc");
+    when(vpcScanner.scanRegion(any(), eq("us-east-1"), any()))
+        .thenThrow(new RuntimeException("EC2 API error"));
+    when(vpcScanner.scanRegion(any(), eq("us-west-2"), any())).thenAnswer(invocation -> {
+      invocation.<ResourceSink>getArgument(2).accept(resource("vpc-west"));
+      return 1;
+    });
+
+    ScanResourcePipeline pipeline = new ScanResourcePipeline(10);
+
+    // When
+    Future<Integer> discovery = engine.startDiscovery(testAccount, List.of(vpcScanner),
+        List.of("us-east-1", "us-west-2"), pipeline, progress);
+    pipeline.drain(10, chunk -> { });
+
+    // Then
+    assertThat(discovery.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+    verify(progress, never()).regionCompleted(eq("ec2:vpc"), eq("us-east-1"), anyInt());
+    verify(progress).scannerFinished("ec2:vpc", 1, "us-east-1: EC2 API error");
+  }
+
+  @Test
+  @DisplayName("Should plan whole-scanner units first, then interleave regions across scanners")
+  void shouldPlanWorkUnits() {
+    // Given
+    RegionalScanner rdsScanner = mock(RegionalScanner.class);
+
+    // When
+    List<ScanEngine.WorkUnit> units = ScanEngine.planWorkUnits(
+        List.of(vpcScanner, s3Scanner, rdsScanner), List.of("us-east-1", "eu-west-1"));
+
+    // Then
+    assertThat(units).containsExactly(
+        new ScanEngine.WorkUnit(s3Scanner, null),
+        new ScanEngine.WorkUnit(vpcScanner, "us-east-1"),
+        new ScanEngine.WorkUnit(rdsScanner, "us-east-1"),
+        new ScanEngine.WorkUnit(vpcScanner, "eu-west-1"),
+        new ScanEngine.WorkUnit(rdsScanner, "eu-west-1"));
+  }
+
+  private AwsResource resource(String id) {
+    AwsResource resource = new AwsResource();
+    resource.setResourceId(id);
+    resource.setResourceArn("arn:aws:test:::" + id);
+    return resource;
+  }
+}
@@ -0,0 +1,134 @@
+package com.wenroe.resonant.service.scan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wenroe.resonant.model.entity.ScanJob;
+import com.wenroe.resonant.model.enums.ScanStatus;
+import com.wenroe.resonant.repository.ScanJobRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScanJobQueueService Tests")
+class ScanJobQueueServiceTest {
+
+  @Mock
+  private ScanJobRepository scanJobRepository;
+
+  @InjectMocks
+  private ScanJobQueueService queueService;
+
+  @Test
+  @DisplayName("Should claim locked pending jobs with a lease for the node")
+  void shouldClaimPendingJobs() {
+    // Given
+    ScanJob job = pendingJob();
+    when(scanJobRepository.lockPendingJobIds(2)).thenReturn(List.of(job.getId()));
+    when(scanJobRepository.findAllById(List.of(job.getId()))).thenReturn(List.of(job));
+
+    // When
+    List<UUID> claimed = queueService.claimPendingJobs("node-a", 2);
+
+    // Then
+    assertThat(claimed).containsExactly(job.getId());
+    assertThat(job.getStatus()).isEqualTo(ScanStatus.RUNNING);
+    assertThat(job.getLeaseOwner()).isEqualTo("node-a");
+    assertThat(job.getLeaseExpiresAt()).isAfter(LocalDateTime.now());
+    assertThat(job.getAttempts()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should not query the queue when the node has no free slots")
+  void shouldNotClaimWithoutCapacity() {
+    // When
+    List<UUID> claimed = queueService.claimPendingJobs("node-a", 0);
+
+    // Then
+    assertThat(claimed).isEmpty();
+    verify(scanJobRepository, never()).lockPendingJobIds(anyInt());
+  }
+
+  @Test
+  @DisplayName("Should renew leases only for jobs the node is running")
+  void shouldRenewLeases() {
+    // Given
+    Set<UUID> running = Set.of(UUID.randomUUID());
+    when(scanJobRepository.renewLeases(eq(running), eq("node-a"), any(), any())).thenReturn(1);
+
+    // When
+    Set<UUID> lost = queueService.renewLeases("node-a", running);
+
+    // Then
+    assertThat(lost).isEmpty();
+    assertThat(queueService.renewLeases("node-a", Set.of())).isEmpty();
+    verify(scanJobRepository).renewLeases(anyCollection(), eq("node-a"), any(), any());
+    verify(scanJobRepository, never()).findIdsLeasedTo(any(), any());
+  }
+
+  @Test
+  @DisplayName("Should report the jobs whose lease was lost")
+  void shouldReportLostLeases() {
+    // Given
+    UUID kept = UUID.randomUUID();
+    UUID taken = UUID.randomUUID();
+    Set<UUID> running = Set.of(kept, taken);
+    when(scanJobRepository.renewLeases(eq(running), eq("node-a"), any(), any())).thenReturn(1);
+    when(scanJobRepository.findIdsLeasedTo(running, "node-a")).thenReturn(Set.of(kept));
+
+    // When
+    Set<UUID> lost = queueService.renewLeases("node-a", running);
+
+    // Then
+    assertThat(lost).containsExactly(taken);
+  }
+
+  @Test
+  @DisplayName("Should requeue orphaned jobs and fail those out of attempts")
+  void shouldRecoverExpiredLeases() {
+    // Given
+    ScanJob retryable = pendingJob();
+    retryable.claim("dead-node", LocalDateTime.now(), LocalDateTime.now());
+
+    ScanJob exhausted = pendingJob();
+    for (int i = 0; i < 3; i++) {
+      exhausted.claim("dead-node", LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    List<UUID> ids = List.of(retryable.getId(), exhausted.getId());
+    when(scanJobRepository.lockExpiredLeaseJobIds(any())).thenReturn(ids);
+    when(scanJobRepository.findAllById(ids)).thenReturn(List.of(retryable, exhausted));
+
+    // When
+    int recovered = queueService.recoverExpiredLeases();
+
+    // Then
+    assertThat(recovered).isEqualTo(2);
+    assertThat(retryable.getStatus()).isEqualTo(ScanStatus.PENDING);
+    assertThat(retryable.getLeaseOwner()).isNull();
+    assertThat(exhausted.getStatus()).isEqualTo(ScanStatus.FAILED);
+    assertThat(exhausted.getErrorMessage()).contains("3 attempts");
+    assertThat(exhausted.getLeaseOwner()).isNull();
+  }
+
+  private ScanJob pendingJob() {
+    ScanJob job = new ScanJob();
+    job.setId(UUID.randomUUID());
+    job.setStatus(ScanStatus.PENDING);
+    return job;
+  }
+}
@@ -0,0 +1,113 @@
+package com.wenroe.resonant.service.scan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.wenroe.resonant.model.entity.AwsResource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ScanResourcePipeline Tests")
+class ScanResourcePipelineTest {
+
+  @Test
+  @DisplayName("Should drain all produced resources in bounded chunks")
+  void shouldDrainInChunks() {
+    // Given
+    ScanResourcePipeline pipeline = new ScanResourcePipeline(4);
+    CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+      for (int i = 0; i < 25; i++) {
+        pipeline.accept(resource(i));
+      }
+    });
+    producer.whenComplete((ignored, error) -> pipeline.complete());
+
+    // When
+    List<List<AwsResource>> chunks = new ArrayList<>();
+    pipeline.drain(10, chunks::add);
+
+    // Then
+    assertThat(chunks).allSatisfy(chunk -> assertThat(chunk).hasSizeLessThanOrEqualTo(10));
+    assertThat(chunks.stream().mapToInt(List::size).sum()).isEqualTo(25);
+  }
+
+  @Test
+  @DisplayName("Should block producers while the queue is full")
+  void shouldApplyBackpressure() throws Exception {
+    // Given
+    ScanResourcePipeline pipeline = new ScanResourcePipeline(2);
+    AtomicInteger accepted = new AtomicInteger();
+    CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+      for (int i = 0; i < 5; i++) {
+        pipeline.accept(resource(i));
+        accepted.incrementAndGet();
+      }
+    });
+
+    // Then - producer cannot get past the queue capacity without a consumer
+    assertThatThrownBy(() -> producer.get(300, TimeUnit.MILLISECONDS))
+        .isInstanceOf(TimeoutException.class);
+    assertThat(accepted.get()).isEqualTo(2);
+
+    // When - consumer starts draining
+    producer.whenComplete((ignored, error) -> pipeline.complete());
+    List<AwsResource> drained = new ArrayList<>();
+    pipeline.drain(1, drained::addAll);
+
+    // Then
+    assertThat(drained).hasSize(5);
+  }
+
+  @Test
+  @DisplayName("Should fail blocked producers when the consumer fails")
+  void shouldAbortProducersWhenConsumerFails() {
+    // Given
+    ScanResourcePipeline pipeline = new ScanResourcePipeline(1);
+    CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+      for (int i = 0; i < 10; i++) {
+        pipeline.accept(resource(i));
+      }
+    });
+
+    // When
+    assertThatThrownBy(() -> pipeline.drain(1, chunk -> {
+      throw new IllegalStateException("database unavailable");
+    })).isInstanceOf(IllegalStateException.class);
+
+    // Then
+    assertThatThrownBy(() -> producer.get(2, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(CancellationException.class);
+  }
+
+  @Test
+  @DisplayName("Should reject resources as soon as the pipeline is aborted")
+  void shouldRejectResourcesAfterAbort() {
+    // Given - plenty of free capacity
+    ScanResourcePipeline pipeline = new ScanResourcePipeline(10);
+    pipeline.accept(resource(0));
+
+    // When
+    pipeline.abort();
+
+    // Then - producers fail at once instead of refilling the cleared queue
+    assertThatThrownBy(() -> pipeline.accept(resource(1)))
+        .isInstanceOf(CancellationException.class);
+    List<AwsResource> drained = new ArrayList<>();
+    pipeline.complete();
+    pipeline.drain(10, drained::addAll);
+    assertThat(drained).isEmpty();
+  }
+
+  private AwsResource resource(int index) {
+    AwsResource resource = new AwsResource();
+    resource.setResourceArn("arn:aws:s3:::bucket-" + index);
+    return resource;
+  }
+}
@@ -0,0 +1,203 @@
+package com.wenroe.resonant.service.scan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wenroe.resonant.model.entity.AwsAccount;
+import com.wenroe.resonant.model.entity.ScanJob;
+import com.wenroe.resonant.model.entity.User;
+import com.wenroe.resonant.repository.AwsAccountRepository;
+import com.wenroe.resonant.repository.ScanJobRepository;
+import com.wenroe.resonant.service.AwsAccountService;
+import com.wenroe.resonant.service.ScanOrchestrationService;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScanScheduleService Tests")
+class ScanScheduleServiceTest {
+
+  @Mock
+  private AwsAccountRepository awsAccountRepository;
+
+  @Mock
+  private ScanJobRepository scanJobRepository;
+
+  @Mock
+  private AwsAccountService awsAccountService;
+
+  @Mock
+  private ScanOrchestrationService scanOrchestrationService;
+
+  @InjectMocks
+  private ScanScheduleService scheduleService;
+
+  private User testUser;
+
+  @BeforeEach
+  void setUp() {
+    testUser = new User();
+    testUser.setId(UUID.randomUUID());
+  }
+
+  @Test
+  @DisplayName("Should queue due scans and skip accounts with a scan in progress")
+  void shouldDispatchDueScans() {
+    // Given
+    AwsAccount idle = scheduledAccount(60);
+    AwsAccount busy = scheduledAccount(60);
+
+    when(scanJobRepository.tryLockScanDispatch()).thenReturn(true);
+    when(scanJobRepository.countByCreatedAtAfter(any())).thenReturn(0L);
+    when(awsAccountRepository.findDueForScan(any(), eq(PageRequest.of(0, 30))))
+        .thenReturn(List.of(idle, busy));
+    when(awsAccountRepository.advanceNextScanAt(any(), any(), any())).thenReturn(1);
+    when(scanJobRepository.findActiveScanForAccount(idle.getId())).thenReturn(Optional.empty());
+    when(scanJobRepository.findActiveScanForAccount(busy.getId()))
+        .thenReturn(Optional.of(new ScanJob()));
+
+    // When
+    int started = scheduleService.dispatchDueScans();
+
+    // Then
+    assertThat(started).isEqualTo(1);
+    verify(scanOrchestrationService).initiateScanInNewTransaction(idle.getId(), testUser.getId());
+    verify(scanOrchestrationService, never())
+        .initiateScanInNewTransaction(eq(busy.getId()), any());
+  }
+
+  @Test
+  @DisplayName("Should defer all scans once the per-minute cap is reached")
+  void shouldRespectRateCap() {
+    // Given
+    when(scanJobRepository.tryLockScanDispatch()).thenReturn(true);
+    when(scanJobRepository.countByCreatedAtAfter(any())).thenReturn(30L);
+
+    // When
+    int started = scheduleService.dispatchDueScans();
+
+    // Then
+    assertThat(started).isZero();
+    verify(awsAccountRepository, never()).findDueForScan(any(), any());
+  }
+
+  @Test
+  @DisplayName("Should skip the tick while another node holds the dispatch lock")
+  void shouldSkipTickWhileAnotherNodeDispatches() {
+    // Given
+    when(scanJobRepository.tryLockScanDispatch()).thenReturn(false);
+
+    // When
+    int started = scheduleService.dispatchDueScans();
+
+    // Then
+    assertThat(started).isZero();
+    verify(scanJobRepository, never()).countByCreatedAtAfter(any());
+    verify(awsAccountRepository, never()).findDueForScan(any(), any());
+  }
+
+  @Test
+  @DisplayName("Should only fetch as many due accounts as the remaining cap allows")
+  void shouldLimitDueAccountsToRemainingCap() {
+    // Given
+    when(scanJobRepository.tryLockScanDispatch()).thenReturn(true);
+    when(scanJobRepository.countByCreatedAtAfter(any())).thenReturn(25L);
+    when(awsAccountRepository.findDueForScan(any(), any())).thenReturn(List.of());
+
+    // When
+    scheduleService.dispatchDueScans();
+
+    // Then
+    verify(awsAccountRepository).findDueForScan(any(), eq(PageRequest.of(0, 5)));
+  }
+
+  @Test
+  @DisplayName("Should not queue a scan another node already claimed")
+  void shouldSkipScanClaimedByAnotherNode() {
+    // Given
+    AwsAccount account = scheduledAccount(60);
+    when(scanJobRepository.tryLockScanDispatch()).thenReturn(true);
+    when(scanJobRepository.countByCreatedAtAfter(any())).thenReturn(0L);
+    when(awsAccountRepository.findDueForScan(any(), any())).thenReturn(List.of(account));
+    when(awsAccountRepository.advanceNextScanAt(eq(account.getId()),
+        eq(account.getNextScanAt()), any())).thenReturn(0);
+
+    // When
+    int started = scheduleService.dispatchDueScans();
+
+    // Then
+    assertThat(started).isZero();
+    verify(scanOrchestrationService, never()).initiateScanInNewTransaction(any(), any());
+  }
+
+  @Test
+  @DisplayName("Should jitter the next scan within the configured fraction of the interval")
+  void shouldJitterNextScan() {
+    LocalDateTime now = LocalDateTime.now();
+    for (int i = 0; i < 100; i++) {
+      LocalDateTime next = scheduleService.nextScanAfter(now, 60);
+      assertThat(next).isBetween(now.plusMinutes(54), now.plusMinutes(66));
+    }
+  }
+
+  @Test
+  @DisplayName("Should spread the first scan within one interval")
+  void shouldScheduleFirstScanWithinInterval() {
+    // Given
+    AwsAccount account = new AwsAccount();
+    account.setId(UUID.randomUUID());
+    when(awsAccountService.getAccountByIdAndVerifyOwnership(account.getId(), testUser.getId()))
+        .thenReturn(account);
+    when(awsAccountRepository.save(account)).thenReturn(account);
+    LocalDateTime before = LocalDateTime.now();
+
+    // When
+    AwsAccount updated = scheduleService.updateScanInterval(account.getId(), testUser.getId(),
+        120);
+
+    // Then
+    assertThat(updated.getScanIntervalMinutes()).isEqualTo(120);
+    assertThat(updated.getNextScanAt()).isBetween(before, before.plusMinutes(121));
+  }
+
+  @Test
+  @DisplayName("Should reject intervals below the minimum")
+  void shouldRejectShortInterval() {
+    // Given
+    AwsAccount account = new AwsAccount();
+    account.setId(UUID.randomUUID());
+    when(awsAccountService.getAccountByIdAndVerifyOwnership(account.getId(), testUser.getId()))
+        .thenReturn(account);
+
+    // When/Then
+    assertThatThrownBy(() -> scheduleService.updateScanInterval(account.getId(),
+        testUser.getId(), 1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("at least");
+  }
+
+  private AwsAccount scheduledAccount(int intervalMinutes) {
+    AwsAccount account = new AwsAccount();
+    account.setId(UUID.randomUUID());
+    account.setUser(testUser);
+    account.setAccountId("123456789012");
+    account.setScanIntervalMinutes(intervalMinutes);
+    account.setNextScanAt(LocalDateTime.now().minusMinutes(1));
+    return account;
+  }
+}
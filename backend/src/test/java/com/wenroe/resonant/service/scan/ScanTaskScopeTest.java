@@ -0,0 +1,117 @@
+package com.wenroe.resonant.service.scan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ScanTaskScope Tests")
+class ScanTaskScopeTest {
+
+  @Test
+  @DisplayName("Should run subtasks on virtual threads and collect results")
+  void shouldRunSubtasksOnVirtualThreads() {
+    try (ScanTaskScope scope = new ScanTaskScope("test")) {
+      // When
+      Future<Boolean> first = scope.fork(() -> Thread.currentThread().isVirtual());
+      Future<Boolean> second = scope.fork(() -> Thread.currentThread().isVirtual());
+      scope.join();
+
+      // Then
+      assertThat(first.resultNow()).isTrue();
+      assertThat(second.resultNow()).isTrue();
+    }
+  }
+
+  @Test
+  @DisplayName("Should cancel siblings when a subtask fails")
+  void shouldCancelSiblingsOnFailure() {
+    // Given
+    AtomicBoolean siblingInterrupted = new AtomicBoolean();
+    CountDownLatch siblingStarted = new CountDownLatch(1);
+
+    try (ScanTaskScope scope = new ScanTaskScope("test")) {
+      scope.fork(() -> {
+        siblingStarted.countDown();
+        try {
+          Thread.sleep(Duration.ofMinutes(1));
+        } catch (InterruptedException e) {
+          siblingInterrupted.set(true);
+        }
+        return null;
+      });
+      scope.fork(() -> {
+        siblingStarted.await();
+        throw new IllegalStateException("fatal");
+      });
+
+      // When/Then
+      assertThatThrownBy(scope::join)
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessage("fatal");
+    }
+
+    assertThat(siblingInterrupted).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should cancel subtasks when the deadline passes")
+  void shouldCancelSubtasksAfterDeadline() throws InterruptedException {
+    // Given
+    AtomicBoolean interrupted = new AtomicBoolean();
+    CountDownLatch started = new CountDownLatch(1);
+
+    try (ScanTaskScope scope = new ScanTaskScope("test", Duration.ofMillis(100))) {
+      scope.fork(() -> {
+        started.countDown();
+        try {
+          Thread.sleep(Duration.ofMinutes(1));
+        } catch (InterruptedException e) {
+          interrupted.set(true);
+        }
+        return null;
+      });
+      // A subtask cancelled before it starts never runs, so wait until it is sleeping
+      started.await();
+
+      // When/Then
+      assertThatThrownBy(scope::join).isInstanceOf(ScanDeadlineExceededException.class);
+    }
+
+    assertThat(interrupted).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should bound concurrency with a semaphore")
+  void shouldBoundConcurrencyWithSemaphore() {
+    // Given
+    Semaphore permits = new Semaphore(2);
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+
+    try (ScanTaskScope scope = new ScanTaskScope("test")) {
+      for (int i = 0; i < 10; i++) {
+        scope.fork(permits, () -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          TimeUnit.MILLISECONDS.sleep(20);
+          inFlight.decrementAndGet();
+          return null;
+        });
+      }
+
+      // When
+      scope.join();
+    }
+
+    // Then
+    assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+  }
+}
@@ -8,6 +8,7 @@ import {AlertCircle, CheckCircle, Clock, Loader2, XCircle} from 'lucide-react';
 import {ScanJob} from '@/types/scanJob';
 import {formatDistanceToNow} from 'date-fns';
 import {useToast} from '@/hooks/useToast';
+import {useScanProgress} from '@/hooks/useScanProgress';
 import './ScanStatusCard.css';
 
 interface ScanStatusCardProps {
@@ -53,13 +54,16 @@ export const ScanStatusCard = ({scanJobId, onComplete}: ScanStatusCardProps) =>
   const {toast} = useToast();
   const hasNotifiedRef = useRef(false);
 
+  const {connected} = useScanProgress(scanJobId);
+
   const {data: scanJob, isLoading} = useQuery({
     queryKey: ['scan-job', scanJobId],
     queryFn: () => scanService.getScanJob(scanJobId),
     refetchInterval: (query) => {
       const data = query.state.data as ScanJob | undefined;
-      // Poll every 3 seconds if PENDING or RUNNING
-      return data?.status === 'PENDING' || data?.status === 'RUNNING' ? 3000 : false;
+      // Live progress arrives over the event stream; poll every 3 seconds only without it
+      const isActive = data?.status === 'PENDING' || data?.status === 'RUNNING';
+      return isActive && !connected ? 3000 : false;
     },
   });
 
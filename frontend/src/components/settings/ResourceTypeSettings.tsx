@@ -1,5 +1,5 @@
 import React from 'react';
-import {AlertCircle, CheckCircle, Cloud, Globe, Network} from 'lucide-react';
+import {AlertCircle, CheckCircle, Cloud, Database, Globe, Network, Server} from 'lucide-react';
 import {
   useResourceTypeSettings,
   useUpdateResourceTypeSetting
@@ -9,6 +9,9 @@ const RESOURCE_TYPE_ICONS: Record<string, React.ComponentType<{ className?: stri
   's3:bucket': Cloud,
   'cloudfront:distribution': Globe,
   'ec2:vpc': Network,
+  'ec2:instance': Server,
+  'rds:db-instance': Database,
+  'rds:db-cluster': Database,
 };
 
 export const ResourceTypeSettings: React.FC = () => {
@@ -46,6 +46,7 @@ const COMMON_RESOURCE_TYPES = [
   'ec2:instance',
   's3:bucket',
   'rds:db-instance',
+  'rds:db-cluster',
   'lambda:function',
   'dynamodb:table',
   'ebs:volume',
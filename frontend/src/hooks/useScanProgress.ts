@@ -0,0 +1,92 @@
+import {useEffect, useState} from 'react';
+import {useQueryClient} from '@tanstack/react-query';
+import {useAuthStore} from '@/store/authStore';
+import {ScanJob, ScanProgress} from '@/types/scanJob';
+
+/**
+ * Subscribes to the Server-Sent Event progress stream of a scan and folds each event into the
+ * cached scan job, so the UI updates without polling. Uses fetch rather than EventSource because
+ * the stream needs the Authorization header. Returns whether the stream is delivering progress;
+ * callers fall back to polling until it is. A stream counts as connected only once its first
+ * event arrives, since a node that is not running the scan keeps the stream open without sending
+ * anything.
+ */
+export const useScanProgress = (scanJobId: string, enabled = true) => {
+  const queryClient = useQueryClient();
+  const [connected, setConnected] = useState(false);
+
+  useEffect(() => {
+    if (!enabled || !scanJobId) {
+      return;
+    }
+
+    const controller = new AbortController();
+    const token = useAuthStore.getState().token;
+    const queryKey = ['scan-job', scanJobId];
+
+    const applyProgress = (progress: ScanProgress) => {
+      queryClient.setQueryData<ScanJob>(queryKey, (current) =>
+          current && {
+            ...current,
+            status: progress.status,
+            resourcesScanned: progress.resourcesPersisted,
+            violationsFound: progress.violationsFound,
+            errorMessage: progress.errorMessage,
+          });
+
+      if (progress.status === 'SUCCESS' || progress.status === 'FAILED') {
+        // Fetch the final job once for fields the stream does not carry
+        queryClient.invalidateQueries({queryKey});
+      }
+    };
+
+    const stream = async () => {
+      const response = await fetch(`/api/scans/${scanJobId}/progress`, {
+        headers: {
+          Accept: 'text/event-stream',
+          ...(token ? {Authorization: `Bearer ${token}`} : {}),
+        },
+        signal: controller.signal,
+      });
+      if (!response.ok || !response.body) {
+        return;
+      }
+
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (; ;) {
+        const {value, done} = await reader.read();
+        if (done) {
+          break;
+        }
+        buffer += value;
+
+        // Events are separated by a blank line; data lines carry the JSON payload
+        let boundary = buffer.indexOf('\n\n');
+        while (boundary !== -1) {
+          const data = buffer.slice(0, boundary)
+              .split('\n')
+              .filter((line) => line.startsWith('data:'))
+              .map((line) => line.slice(5))
+              .join('\n');
+          buffer = buffer.slice(boundary + 2);
+          if (data) {
+            applyProgress(JSON.parse(data) as ScanProgress);
+            setConnected(true);
+          }
+          boundary = buffer.indexOf('\n\n');
+        }
+      }
+    };
+
+    stream()
+        .catch(() => {
+          // Aborted on unmount or the connection dropped; polling takes over
+        })
+        .finally(() => setConnected(false));
+
+    return () => controller.abort();
+  }, [scanJobId, enabled, queryClient]);
+
+  return {connected};
+};
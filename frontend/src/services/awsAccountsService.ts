@@ -25,6 +25,10 @@ interface UpdateAliasRequest {
   accountAlias: string;
 }
 
+interface UpdateScanScheduleRequest {
+  scanIntervalMinutes: number | null;
+}
+
 interface UpdateRegionsRequest {
   enabledRegionCodes: string[];
 }
@@ -84,6 +88,20 @@ export const awsAccountsService = {
     return response.data;
   },
 
+  /**
+   * Set or clear the scheduled scan interval for an AWS account
+   */
+  updateScanSchedule: async (
+      accountId: string,
+      request: UpdateScanScheduleRequest
+  ): Promise<AwsAccount> => {
+    const response = await api.patch<AwsAccount>(
+        `/aws-accounts/${accountId}/scan-schedule`,
+        request
+    );
+    return response.data;
+  },
+
   /**
    * Delete an AWS account connection
    */
@@ -1,6 +1,6 @@
 import api from '@/lib/api';
 import {AxiosError} from 'axios';
-import {ScanJob} from '@/types/scanJob.ts';
+import {ScanJob, ScheduledScan} from '@/types/scanJob.ts';
 
 export const scanService = {
   /**
@@ -11,6 +11,14 @@ export const scanService = {
     return response.data;
   },
 
+  /**
+   * Get upcoming scheduled scans, soonest first
+   */
+  getSchedule: async (): Promise<ScheduledScan[]> => {
+    const response = await api.get<ScheduledScan[]>('/scans/schedule');
+    return response.data;
+  },
+
   /**
    * Get scan job status by ID
    */
@@ -6,6 +6,8 @@ export interface AwsAccount {
   credentialType: string;
   status: AccountInstrumentationStatus;
   lastSyncedAt: string | null;
+  scanIntervalMinutes: number | null;
+  nextScanAt: string | null;
   createdAt: string;
 }
 
@@ -6,6 +6,8 @@ export interface ScanJob {
   resourcesScanned: number;
   violationsFound: number;
   violationsResolved: number;
+  resourcesChanged: number;
+  resourcesUnchanged: number;
   startedAt: string;
   completedAt: string | null;
   durationSeconds: number | null;
@@ -13,4 +15,28 @@ export interface ScanJob {
   createdAt: string;
 }
 
+export interface ScheduledScan {
+  accountId: string;
+  accountAlias: string;
+  scanIntervalMinutes: number;
+  nextScanAt: string;
+  lastScanAt: string | null;
+  scanInProgress: boolean;
+}
+
+export interface ScanProgress {
+  scanJobId: string;
+  event: string;
+  resourceType: string | null;
+  region: string | null;
+  count: number | null;
+  timestamp: string | null;
+  status: ScanStatus;
+  scannersTotal: number;
+  scannersFinished: number;
+  resourcesPersisted: number;
+  violationsFound: number;
+  errorMessage: string | null;
+}
+
 export type ScanStatus = 'PENDING' | 'RUNNING' | 'SUCCESS' | 'FAILED';
\ No newline at end of file
@@ -82,6 +82,14 @@ resource "aws_iam_policy" "resonant_readonly" {
             "cloudfront:ListTagsForResource"
           ]
           Resource = "*"
+        },
+        {
+          Sid    = "TaggingReadOnly"
+          Effect = "Allow"
+          Action = [
+            "tag:GetResources"
+          ]
+          Resource = "*"
         }
       ],
         var.include_lambda ? [{